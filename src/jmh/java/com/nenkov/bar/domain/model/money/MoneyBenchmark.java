@@ -0,0 +1,141 @@
+package com.nenkov.bar.domain.model.money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Baseline cost of {@link Money} arithmetic and of {@link MoneyPolicy} intermediate math.
+ *
+ * <p>Run with the GC profiler to see allocation per operation next to time per operation:
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="MoneyBenchmark -prof gc"
+ * </pre>
+ *
+ * <p>Operands are drawn from a fixed seed, so runs compare like for like.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+  private static final String CURRENCY = "EUR";
+
+  private BigDecimal normalizedAmount;
+  private BigDecimal unroundedAmount;
+  private Money larger;
+  private Money smaller;
+  private Money largerCopy;
+  private BigDecimal share;
+  private int quantity;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    normalizedAmount = cents(random, 100, 10_000);
+    unroundedAmount = new BigDecimal(random.nextInt(1_000_000)).movePointLeft(4);
+    smaller = Money.of(CURRENCY, cents(random, 100, 5_000));
+    larger = smaller.plus(Money.of(CURRENCY, cents(random, 100, 5_000)));
+    largerCopy = Money.of(CURRENCY, new BigDecimal(larger.amount().toPlainString()));
+    share = BigDecimal.ONE.divide(new BigDecimal(3 + random.nextInt(5)), MoneyPolicy.WORK_CONTEXT);
+    quantity = 1 + random.nextInt(9);
+  }
+
+  @Benchmark
+  public Money ofNormalized() {
+    return Money.of(CURRENCY, normalizedAmount);
+  }
+
+  @Benchmark
+  public Money ofRounded() {
+    return Money.of(CURRENCY, unroundedAmount);
+  }
+
+  @Benchmark
+  public Money plus() {
+    return larger.plus(smaller);
+  }
+
+  @Benchmark
+  public Money minus() {
+    return larger.minus(smaller);
+  }
+
+  @Benchmark
+  public Money times() {
+    return larger.times(quantity);
+  }
+
+  @Benchmark
+  public int compareTo() {
+    return larger.compareTo(smaller);
+  }
+
+  @Benchmark
+  public boolean equalsEqualValue() {
+    return larger.equals(largerCopy);
+  }
+
+  @Benchmark
+  public int hashCodeOf() {
+    return larger.hashCode();
+  }
+
+  /** Proportional share in {@link MoneyPolicy#WORK_CONTEXT}, rounded once into money. */
+  @Benchmark
+  public Money workContextShare() {
+    return Money.of(CURRENCY, larger.amount().multiply(share, MoneyPolicy.WORK_CONTEXT));
+  }
+
+  /** Summation as done by the check calculator: fold with a currency check per element. */
+  @State(Scope.Thread)
+  public static class Amounts {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    List<Money> values;
+
+    @Setup
+    public void setUp() {
+      Random random = new Random(size);
+      values = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        values.add(Money.of(CURRENCY, cents(random, 1, 10_000)));
+      }
+    }
+  }
+
+  @Benchmark
+  public Money sum(Amounts amounts) {
+    Money total = Money.zero(CURRENCY);
+    for (Money value : amounts.values) {
+      if (!CURRENCY.equals(value.currency())) {
+        throw new IllegalArgumentException("Currency mismatch while summing monies");
+      }
+      total = total.plus(value);
+    }
+    return total;
+  }
+
+  private static BigDecimal cents(Random random, int min, int max) {
+    return new BigDecimal(min + random.nextInt(max - min)).movePointLeft(2);
+  }
+}
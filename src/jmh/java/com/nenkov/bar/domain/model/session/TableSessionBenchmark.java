@@ -0,0 +1,86 @@
+package com.nenkov.bar.domain.model.session;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link TableSession} lifecycle operations as the tab grows.
+ *
+ * <ul>
+ *   <li>{@code appendOne}: one order item added to a tab of {@code size} items; each append copies
+ *       the tab, so this grows linearly
+ *   <li>{@code growTab}: a tab built from empty by {@code size} single-item appends; the copies add
+ *       up to quadratic total cost
+ *   <li>{@code closeByManager}: closing a settled tab of {@code size} items
+ *   <li>{@code buildContents}: {@link TableSessionContents} from {@code size} items, including its
+ *       defensive copies
+ * </ul>
+ *
+ * <p>Run with {@code -prof gc} to see bytes per operation. {@code TableSessionScalingTest} guards
+ * the linear operations in the regular build.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="TableSessionBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TableSessionBenchmark {
+
+  private static final Instant CLOSED_AT = Instant.parse("2026-01-01T00:00:00Z");
+  private static final List<OrderItemDraft> ONE_DRAFT = List.of(new OrderItemDraft("beer", 1));
+
+  @Param({"10", "100", "1000", "10000"})
+  public int size;
+
+  private TableSession empty;
+  private TableSession open;
+  private TableSession settled;
+
+  @Setup
+  public void setUp() {
+    empty = LargeTabs.open(0);
+    open = LargeTabs.open(size);
+    settled = LargeTabs.settled(size);
+  }
+
+  @Benchmark
+  public OrderItemsAdded appendOne() {
+    return open.addOrderItems(ONE_DRAFT);
+  }
+
+  @Benchmark
+  public TableSession growTab() {
+    TableSession session = empty;
+    for (int i = 0; i < size; i++) {
+      session = session.addOrderItems(ONE_DRAFT).session();
+    }
+    return session;
+  }
+
+  @Benchmark
+  public TableSession closeByManager() {
+    return settled.closeByManager(CLOSED_AT);
+  }
+
+  @Benchmark
+  public TableSessionContents buildContents() {
+    return LargeTabs.contents(size, OrderItemStatus.DELIVERED, 0);
+  }
+}
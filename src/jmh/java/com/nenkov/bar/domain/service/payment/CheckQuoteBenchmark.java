@@ -0,0 +1,147 @@
+package com.nenkov.bar.domain.service.payment;
+
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.CheckQuote;
+import com.nenkov.bar.domain.model.payment.PaymentSelection;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOffReason;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link DefaultCheckAmountCalculator#quote} across tab shapes.
+ *
+ * <p>Each parameter combination builds one tab: {@code itemCount} lines with three units left each,
+ * one unit of {@code selectedPercent} of the lines selected (spread evenly over the tab), one-unit
+ * item write-offs on the first {@code itemWriteOffs} lines and {@code sessionWriteOffs} session
+ * write-offs. Fixtures come from a seed derived from the parameters, so every run quotes the same
+ * tabs.
+ *
+ * <p>Run with the GC profiler for bytes per quote, and narrow the matrix with {@code -p}:
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec \
+ *     -Djmh.args="CheckQuoteBenchmark -prof gc -p prices=ODD_CENTS"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckQuoteBenchmark {
+
+  private static final String CURRENCY = "EUR";
+  private static final int UNITS_PER_LINE = 3;
+
+  /** Unit price distributions. */
+  public enum Prices {
+    /** Whole-euro prices; proportional shares mostly divide without a remainder. */
+    ROUND,
+    /**
+     * Prices ending in .33, .67 or .99 and write-offs ending in .01; nearly every share is
+     * fractional, so the remainder handed out cent by cent is as large as the tab allows.
+     */
+    ODD_CENTS
+  }
+
+  @Param({"5", "50", "200", "1000"})
+  public int itemCount;
+
+  @Param({"10", "50", "100"})
+  public int selectedPercent;
+
+  @Param({"0", "10"})
+  public int itemWriteOffs;
+
+  @Param({"0", "3"})
+  public int sessionWriteOffs;
+
+  @Param({"ROUND", "ODD_CENTS"})
+  public Prices prices;
+
+  private final CheckAmountCalculator calculator = new DefaultCheckAmountCalculator();
+
+  private List<SessionItemSnapshot> items;
+  private List<PaymentSelection> selections;
+  private List<ItemWriteOff> itemWriteOffList;
+  private List<WriteOff> sessionWriteOffList;
+
+  @Setup
+  public void setUp() {
+    Random random =
+        new Random(
+            ((((long) itemCount * 101 + selectedPercent) * 101 + itemWriteOffs) * 101
+                        + sessionWriteOffs)
+                    * 101
+                + prices.ordinal());
+
+    items = new ArrayList<>(itemCount);
+    for (int i = 0; i < itemCount; i++) {
+      items.add(
+          new SessionItemSnapshot(
+              OrderItemId.of(new UUID(0L, i)), unitPrice(random), UNITS_PER_LINE));
+    }
+
+    int selectedCount = Math.max(1, itemCount * selectedPercent / 100);
+    selections = new ArrayList<>(selectedCount);
+    for (int i = 0; i < selectedCount; i++) {
+      selections.add(PaymentSelection.of(items.get(i * itemCount / selectedCount).itemId(), 1));
+    }
+
+    itemWriteOffList = new ArrayList<>(itemWriteOffs);
+    for (int i = 0; i < Math.min(itemWriteOffs, itemCount); i++) {
+      itemWriteOffList.add(
+          ItemWriteOff.of(
+              items.get(i).itemId(), 1, writeOffAmount("0.50"), WriteOffReason.PROMOTION));
+    }
+
+    sessionWriteOffList = new ArrayList<>(sessionWriteOffs);
+    for (int i = 0; i < sessionWriteOffs; i++) {
+      sessionWriteOffList.add(WriteOff.of(writeOffAmount("1.00"), WriteOffReason.DISCOUNT));
+    }
+
+    // Fail at setup rather than measure an exception path.
+    quote();
+  }
+
+  @Benchmark
+  public CheckQuote quote() {
+    return calculator.quote(CURRENCY, items, selections, itemWriteOffList, sessionWriteOffList);
+  }
+
+  private Money unitPrice(Random random) {
+    int euros = 2 + random.nextInt(19);
+    return switch (prices) {
+      case ROUND -> Money.of(CURRENCY, BigDecimal.valueOf(euros));
+      case ODD_CENTS -> {
+        int[] cents = {33, 67, 99};
+        yield Money.of(CURRENCY, BigDecimal.valueOf(euros * 100L + cents[random.nextInt(3)], 2));
+      }
+    };
+  }
+
+  private Money writeOffAmount(String roundAmount) {
+    BigDecimal amount = new BigDecimal(roundAmount);
+    return Money.of(
+        CURRENCY, prices == Prices.ODD_CENTS ? amount.add(new BigDecimal("0.01")) : amount);
+  }
+}
@@ -0,0 +1,81 @@
+package com.nenkov.bar.domain.service.payment;
+
+import com.nenkov.bar.domain.model.payment.CheckQuote;
+import com.nenkov.bar.domain.model.payment.PaymentSelection;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.load.scenario.Scenario;
+import com.nenkov.bar.load.scenario.Workload;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of quoting a whole bill for tabs shaped like a load-harness scenario.
+ *
+ * <p>Where {@link CheckQuoteBenchmark} sweeps synthetic tab shapes, this one quotes the tabs a
+ * {@link Workload} generates, so its numbers line up with the load harness running the same
+ * scenario. Each invocation quotes the next of {@value #TABS} tabs.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec \
+ *     -Djmh.args="ScenarioCheckQuoteBenchmark -p scenario=friday-night -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScenarioCheckQuoteBenchmark {
+
+  private static final int TABS = 1024;
+
+  @Param({"steady", "friday-night"})
+  public String scenario;
+
+  @Param({"42"})
+  public long seed;
+
+  private final CheckAmountCalculator calculator = new DefaultCheckAmountCalculator();
+
+  private List<TableSession> tabs;
+  private List<List<PaymentSelection>> wholeBills;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    tabs = new Workload(Scenario.load(scenario), seed).tabs(TABS);
+    wholeBills =
+        tabs.stream()
+            .map(
+                tab ->
+                    tab.payableItemsSnapshot().stream()
+                        .map(item -> PaymentSelection.of(item.itemId(), item.remainingQuantity()))
+                        .toList())
+            .toList();
+  }
+
+  @Benchmark
+  public CheckQuote quoteWholeBill() {
+    int index = next;
+    next = (index + 1) % TABS;
+    TableSession tab = tabs.get(index);
+    return calculator.quote(
+        tab.currency(),
+        tab.payableItemsSnapshot(),
+        wholeBills.get(index),
+        tab.itemWriteOffs(),
+        tab.sessionWriteOffs());
+  }
+}
@@ -0,0 +1,59 @@
+package com.nenkov.bar.domain.service.payment.allocation;
+
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Worst-case cost of {@link ProportionalAllocator#allocate} and its remainder distribution.
+ *
+ * <p>Uses {@link AdversarialCaps}: one-cent caps whose shares all round the same way, so about half
+ * the item count in cents has to be handed out one item at a time. Time per operation across {@code
+ * size} shows the growth rate directly; a tenfold size step should cost roughly ten times as much.
+ * {@code RemainderDistributionScalingTest} asserts the same in the regular build.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="ProportionalAllocatorBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProportionalAllocatorBenchmark {
+
+  @Param({"100", "1000", "10000", "100000"})
+  public int size;
+
+  /** {@link AdversarialCaps.Remainder} name; the fixture type is package-private. */
+  @Param({"POSITIVE", "NEGATIVE"})
+  public String remainder;
+
+  private final ProportionalAllocator allocator = ProportionalAllocator.defaultAllocator();
+
+  private AdversarialCaps fixture;
+
+  @Setup
+  public void setUp() {
+    fixture = AdversarialCaps.of(size, AdversarialCaps.Remainder.valueOf(remainder));
+  }
+
+  @Benchmark
+  public Map<OrderItemId, Money> allocate() {
+    return allocator.allocate(AdversarialCaps.CURRENCY, fixture.total, fixture.caps);
+  }
+}
@@ -0,0 +1,46 @@
+package com.nenkov.bar.application.payment.callback;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, in-memory set of recently processed callback keys.
+ *
+ * <p>Providers redeliver callbacks aggressively. This set answers the common replay in O(1) without
+ * touching the idempotency table; once a key is evicted, the idempotency table remains the source
+ * of truth. Eviction is least-recently-used.
+ *
+ * <p>Thread-safe.
+ */
+public final class RecentCallbackIds {
+
+  private final Map<String, Boolean> keys;
+
+  public RecentCallbackIds(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be >= 1");
+    }
+    this.keys =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /** Returns whether {@code key} was recorded recently (and refreshes its recency). */
+  public synchronized boolean contains(String key) {
+    return keys.get(key) != null;
+  }
+
+  /** Records {@code key}, evicting the least recently used key when full. */
+  public synchronized void add(String key) {
+    keys.put(key, Boolean.TRUE);
+  }
+
+  /** Returns the number of keys currently held. */
+  public synchronized int size() {
+    return keys.size();
+  }
+}
@@ -0,0 +1,38 @@
+package com.nenkov.bar.application.payment.exception;
+
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import java.io.Serial;
+import java.util.Objects;
+
+/**
+ * Thrown when a payment attempt targets a check that is no longer open for payment (already paid,
+ * failed or canceled).
+ *
+ * <p>This is mapped by the web layer to 409 Conflict with a stable {@code ApiProblemCode}.
+ */
+public final class CheckNotPayableException extends RuntimeException {
+
+  @Serial private static final long serialVersionUID = 1L;
+
+  private final transient CheckId checkId;
+  private final CheckStatus status;
+
+  public CheckNotPayableException(CheckId checkId, CheckStatus status) {
+    super(
+        "Check is not payable: checkId="
+            + Objects.requireNonNull(checkId, "checkId must not be null").value()
+            + ", status="
+            + Objects.requireNonNull(status, "status must not be null"));
+    this.checkId = checkId;
+    this.status = status;
+  }
+
+  public CheckId checkId() {
+    return checkId;
+  }
+
+  public CheckStatus status() {
+    return status;
+  }
+}
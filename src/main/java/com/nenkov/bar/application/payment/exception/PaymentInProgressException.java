@@ -0,0 +1,21 @@
+package com.nenkov.bar.application.payment.exception;
+
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import java.util.Objects;
+
+/**
+ * Thrown when a payment attempt targets a check that already has a provider call in flight, or an
+ * attempt still {@code PENDING}, under a different {@link PaymentRequestId}.
+ */
+public final class PaymentInProgressException extends RuntimeException {
+
+  public PaymentInProgressException(CheckId checkId, PaymentRequestId inFlightRequestId) {
+    super(
+        "Payment already in progress: checkId="
+            + Objects.requireNonNull(checkId, "checkId must not be null").value()
+            + ", inFlightRequestId="
+            + Objects.requireNonNull(inFlightRequestId, "inFlightRequestId must not be null")
+                .value());
+  }
+}
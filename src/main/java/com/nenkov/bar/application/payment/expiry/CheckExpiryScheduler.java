@@ -0,0 +1,220 @@
+package com.nenkov.bar.application.payment.expiry;
+
+import com.nenkov.bar.application.payment.handler.CheckClaims;
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cancels checks that are still {@code CREATED} once {@code ttl} has passed since their creation.
+ *
+ * <p>Newly created checks are registered through {@link #track(Check)}. Deadlines are held in a
+ * {@link TimingWheel}, so registering a check and releasing it cost the same regardless of how many
+ * checks are waiting. A check that gets paid or cancelled meanwhile is not removed from the wheel;
+ * it is skipped when its deadline comes up.
+ *
+ * <p>Every {@code tick} the wheel is advanced. Due checks are loaded, cancelled and saved in
+ * batches of at most {@code batchSize}, one {@link CheckRepository#findAllById} and one {@link
+ * CheckRepository#saveAll} per batch.
+ *
+ * <p>A due check with a payment attempt still {@code PENDING} is not cancelled: the provider may
+ * yet approve it, and the status poller would then find the check cancelled. The same holds for a
+ * check whose provider call is still in flight, which is only visible as a {@link CheckClaims}
+ * claim: the sweep claims each due check before loading it and leaves claimed ones alone. Such
+ * checks are re-armed for another {@code ttl} instead.
+ *
+ * <p>The wheel lives in memory only. {@link #start()} rebuilds it from the persisted {@code
+ * CREATED} checks and their creation timestamps, so a restart loses no deadlines. If the rebuild
+ * fails, it is retried on the next tick.
+ */
+public final class CheckExpiryScheduler implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(CheckExpiryScheduler.class);
+
+  private final CheckRepository checkRepository;
+  private final PaymentAttemptRepository paymentAttemptRepository;
+  private final CheckClaims checkClaims;
+  private final ScheduledExecutorService scheduler;
+  private final Duration ttl;
+  private final Duration tick;
+  private final int batchSize;
+  private final Clock clock;
+  private final TimingWheel<CheckId> wheel;
+
+  private boolean rebuilt;
+  private boolean rebuildFailureLogged;
+
+  public CheckExpiryScheduler(
+      CheckRepository checkRepository,
+      PaymentAttemptRepository paymentAttemptRepository,
+      CheckClaims checkClaims,
+      ScheduledExecutorService scheduler,
+      Duration ttl,
+      Duration tick,
+      int wheelSize,
+      int batchSize,
+      Clock clock) {
+    this.checkRepository =
+        Objects.requireNonNull(checkRepository, "checkRepository must not be null");
+    this.paymentAttemptRepository =
+        Objects.requireNonNull(
+            paymentAttemptRepository, "paymentAttemptRepository must not be null");
+    this.checkClaims = Objects.requireNonNull(checkClaims, "checkClaims must not be null");
+    this.scheduler = Objects.requireNonNull(scheduler, "scheduler must not be null");
+    this.ttl = Objects.requireNonNull(ttl, "ttl must not be null");
+    this.tick = Objects.requireNonNull(tick, "tick must not be null");
+    this.clock = Objects.requireNonNull(clock, "clock must not be null");
+    if (ttl.isZero() || ttl.isNegative()) {
+      throw new IllegalArgumentException("ttl must be > 0");
+    }
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batchSize must be > 0");
+    }
+    this.batchSize = batchSize;
+    this.wheel = new TimingWheel<>(tick, wheelSize, clock.instant());
+  }
+
+  /** Rebuilds deadlines from persisted checks and starts the periodic sweep. */
+  public void start() {
+    long tickMillis = tick.toMillis();
+    scheduler.scheduleWithFixedDelay(this::sweepSafely, 0, tickMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Registers a check for expiry. Checks that are not {@code CREATED} are ignored.
+   *
+   * @param check newly created check (non-null)
+   */
+  public void track(Check check) {
+    Objects.requireNonNull(check, "check must not be null");
+    if (check.status() != CheckStatus.CREATED) {
+      return;
+    }
+    synchronized (wheel) {
+      wheel.schedule(check.id(), check.createdAt().plus(ttl));
+    }
+  }
+
+  /**
+   * Runs one sweep: rebuilds the wheel if that has not yet succeeded, then cancels every due check.
+   *
+   * @return number of checks cancelled
+   */
+  public int sweep() {
+    if (!rebuilt) {
+      rebuild();
+    }
+    Instant now = clock.instant();
+    List<CheckId> due;
+    synchronized (wheel) {
+      due = wheel.advanceTo(now);
+    }
+
+    int cancelled = 0;
+    for (int from = 0; from < due.size(); from += batchSize) {
+      List<CheckId> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+      try {
+        cancelled += expireBatch(batch, now);
+      } catch (RuntimeException e) {
+        log.warn("Failed to expire {} checks; retrying on next tick", batch.size(), e);
+        retryLater(batch, now);
+      }
+    }
+    return cancelled;
+  }
+
+  /** Number of checks currently waiting for their deadline. */
+  public int trackedCount() {
+    synchronized (wheel) {
+      return wheel.size();
+    }
+  }
+
+  /** Stops the sweep; waiting checks are picked up again by the next {@link #start()}. */
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private void sweepSafely() {
+    try {
+      sweep();
+    } catch (RuntimeException e) {
+      // Keep the periodic task alive; the next tick tries again.
+      log.warn("Check expiry sweep failed", e);
+    }
+  }
+
+  private void rebuild() {
+    List<Check> created;
+    try {
+      created = checkRepository.findByStatus(CheckStatus.CREATED);
+    } catch (RuntimeException e) {
+      if (!rebuildFailureLogged) {
+        log.warn("Could not load CREATED checks for expiry; retrying every tick", e);
+        rebuildFailureLogged = true;
+      }
+      return;
+    }
+    created.forEach(this::track);
+    rebuilt = true;
+    log.info("Check expiry rebuilt with {} CREATED checks", created.size());
+  }
+
+  private int expireBatch(List<CheckId> batch, Instant now) {
+    List<Check> expired = new ArrayList<>();
+    List<CheckId> awaitingPayment = new ArrayList<>();
+    List<CheckId> claimed = new ArrayList<>(batch.size());
+    for (CheckId id : batch) {
+      if (checkClaims.claim(id, CheckClaims.Holder.EXPIRY) == null) {
+        claimed.add(id);
+      } else {
+        awaitingPayment.add(id);
+      }
+    }
+    try {
+      for (Check check : checkRepository.findAllById(claimed)) {
+        if (check.status() != CheckStatus.CREATED || check.createdAt().plus(ttl).isAfter(now)) {
+          continue;
+        }
+        if (paymentAttemptRepository.findPendingByCheckId(check.id()).isPresent()) {
+          awaitingPayment.add(check.id());
+        } else {
+          check.cancel(now);
+          expired.add(check);
+        }
+      }
+      if (!expired.isEmpty()) {
+        checkRepository.saveAll(expired);
+      }
+    } finally {
+      claimed.forEach(id -> checkClaims.release(id, CheckClaims.Holder.EXPIRY));
+    }
+    if (!awaitingPayment.isEmpty()) {
+      Instant recheckAt = now.plus(ttl);
+      synchronized (wheel) {
+        awaitingPayment.forEach(id -> wheel.schedule(id, recheckAt));
+      }
+    }
+    return expired.size();
+  }
+
+  private void retryLater(List<CheckId> batch, Instant now) {
+    Instant retryAt = now.plus(tick);
+    synchronized (wheel) {
+      batch.forEach(id -> wheel.schedule(id, retryAt));
+    }
+  }
+}
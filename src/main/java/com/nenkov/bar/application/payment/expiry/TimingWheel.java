@@ -0,0 +1,167 @@
+package com.nenkov.bar.application.payment.expiry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hierarchical timing wheel holding items until their deadline passes.
+ *
+ * <p>Level 0 has {@code wheelSize} buckets of {@code tick} each. Every further level has buckets as
+ * wide as the whole level below it and is only created when a deadline needs it. Scheduling places
+ * an item into one bucket, and advancing the wheel only visits buckets whose time has come.
+ * Per-item cost is therefore bounded by the number of levels, not by the number of items held.
+ *
+ * <p>Resolution is one {@code tick}: deadlines are rounded up to a tick, so an item is never
+ * released early and at most one tick late.
+ *
+ * <p>Not thread-safe; callers must serialize access.
+ *
+ * @param <T> item type
+ */
+public final class TimingWheel<T> {
+
+  private final long tickMillis;
+  private final int wheelSize;
+  private final List<Level<T>> levels = new ArrayList<>();
+  private final List<T> alreadyDue = new ArrayList<>();
+  private int size;
+
+  public TimingWheel(Duration tick, int wheelSize, Instant start) {
+    Objects.requireNonNull(tick, "tick must not be null");
+    Objects.requireNonNull(start, "start must not be null");
+    if (tick.toMillis() <= 0) {
+      throw new IllegalArgumentException("tick must be at least 1ms");
+    }
+    if (wheelSize < 2) {
+      throw new IllegalArgumentException("wheelSize must be >= 2");
+    }
+    this.tickMillis = tick.toMillis();
+    this.wheelSize = wheelSize;
+    levels.add(new Level<>(tickMillis, wheelSize, start.toEpochMilli()));
+  }
+
+  /**
+   * Holds {@code item} until {@code deadline}. A deadline that has already passed is released by
+   * the next {@link #advanceTo}.
+   */
+  public void schedule(T item, Instant deadline) {
+    Objects.requireNonNull(item, "item must not be null");
+    Objects.requireNonNull(deadline, "deadline must not be null");
+    size++;
+    long deadlineMillis = deadline.toEpochMilli();
+    long roundedUp = deadlineMillis + Math.floorMod(-deadlineMillis, tickMillis);
+    place(new Entry<>(item, roundedUp), alreadyDue);
+  }
+
+  /**
+   * Moves the wheel to {@code now} and returns every item whose deadline has passed.
+   *
+   * @param now current time; moving backwards is a no-op
+   * @return released items, possibly empty
+   */
+  public List<T> advanceTo(Instant now) {
+    Objects.requireNonNull(now, "now must not be null");
+    long nowMillis = now.toEpochMilli();
+
+    List<Entry<T>> drained = new ArrayList<>();
+    for (Level<T> level : levels) {
+      level.advanceTo(nowMillis, drained);
+    }
+
+    List<T> released = new ArrayList<>(alreadyDue);
+    alreadyDue.clear();
+    for (Entry<T> entry : drained) {
+      place(entry, released);
+    }
+    size -= released.size();
+    return released;
+  }
+
+  /** Number of items not yet released. */
+  public int size() {
+    return size;
+  }
+
+  private void place(Entry<T> entry, List<T> released) {
+    Level<T> base = levels.getFirst();
+    if (entry.deadlineMillis() <= base.currentMillis) {
+      released.add(entry.item());
+      return;
+    }
+    for (int i = 0; ; i++) {
+      Level<T> level = levelAt(i);
+      if (entry.deadlineMillis() < level.currentMillis + level.spanMillis()) {
+        level.add(entry);
+        return;
+      }
+    }
+  }
+
+  private Level<T> levelAt(int index) {
+    while (levels.size() <= index) {
+      Level<T> top = levels.getLast();
+      long tick = Math.multiplyExact(top.tickMillis, wheelSize);
+      levels.add(new Level<>(tick, wheelSize, levels.getFirst().currentMillis));
+    }
+    return levels.get(index);
+  }
+
+  private record Entry<T>(T item, long deadlineMillis) {}
+
+  private static final class Level<T> {
+
+    private final long tickMillis;
+    private final List<List<Entry<T>>> buckets;
+    private long currentMillis;
+
+    Level(long tickMillis, int wheelSize, long startMillis) {
+      this.tickMillis = tickMillis;
+      this.buckets = new ArrayList<>(wheelSize);
+      for (int i = 0; i < wheelSize; i++) {
+        buckets.add(new ArrayList<>());
+      }
+      this.currentMillis = floor(startMillis);
+    }
+
+    long spanMillis() {
+      return tickMillis * buckets.size();
+    }
+
+    void add(Entry<T> entry) {
+      buckets.get(indexOf(entry.deadlineMillis())).add(entry);
+    }
+
+    /** Advances to {@code nowMillis}, moving entries of every bucket passed into {@code out}. */
+    void advanceTo(long nowMillis, List<Entry<T>> out) {
+      long target = floor(nowMillis);
+      if (target <= currentMillis) {
+        return;
+      }
+      long steps = (target - currentMillis) / tickMillis;
+      if (steps >= buckets.size()) {
+        for (List<Entry<T>> bucket : buckets) {
+          out.addAll(bucket);
+          bucket.clear();
+        }
+      } else {
+        for (long step = 1; step <= steps; step++) {
+          List<Entry<T>> bucket = buckets.get(indexOf(currentMillis + step * tickMillis));
+          out.addAll(bucket);
+          bucket.clear();
+        }
+      }
+      currentMillis = target;
+    }
+
+    private int indexOf(long millis) {
+      return (int) Math.floorMod(Math.floorDiv(millis, tickMillis), (long) buckets.size());
+    }
+
+    private long floor(long millis) {
+      return millis - Math.floorMod(millis, tickMillis);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.nenkov.bar.application.payment.gateway;
+
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking variant of {@link PaymentGateway}.
+ *
+ * <p>Card terminals may take many seconds to answer. Callers get a future immediately and decide
+ * how long they are willing to wait; a slow provider must never pin a caller thread for the whole
+ * provider round-trip.
+ *
+ * <p>Contract principles:
+ *
+ * <ul>
+ *   <li>Every call carries a deadline. When it elapses the returned future completes exceptionally
+ *       with {@link TimeoutException}.
+ *   <li>Technical failures complete the future exceptionally with {@link PaymentGatewayException}.
+ *   <li>Business outcomes (approved/declined/pending) complete the future normally.
+ * </ul>
+ */
+public interface AsyncPaymentGateway {
+
+  /**
+   * Initiates a payment attempt for a given session and check.
+   *
+   * <p>Idempotency follows {@link PaymentGateway#initiatePayment}: repeating the same request id
+   * must not produce duplicate charges.
+   *
+   * @param requestId idempotency key owned by the application (non-null)
+   * @param sessionId owning session (non-null)
+   * @param checkId check being paid (non-null)
+   * @param amount amount to charge (non-null)
+   * @param deadline maximum time to wait for the provider (non-null, positive)
+   * @return future completed with the provider-facing outcome
+   */
+  CompletableFuture<PaymentAttemptResult> initiatePayment(
+      PaymentRequestId requestId,
+      TableSessionId sessionId,
+      CheckId checkId,
+      Money amount,
+      Duration deadline);
+
+  /**
+   * Queries the current outcome of a previously initiated payment.
+   *
+   * @param requestId idempotency key used when the payment was initiated (non-null)
+   * @param deadline maximum time to wait for the provider (non-null, positive)
+   * @return future completed with the current outcome
+   */
+  CompletableFuture<PaymentAttemptResult> fetchPaymentStatus(
+      PaymentRequestId requestId, Duration deadline);
+}
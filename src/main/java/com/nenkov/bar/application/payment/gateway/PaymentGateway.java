@@ -38,4 +38,16 @@ public interface PaymentGateway {
    */
   PaymentAttemptResult initiatePayment(
       PaymentRequestId requestId, TableSessionId sessionId, CheckId checkId, Money amount);
+
+  /**
+   * Queries the current outcome of a previously initiated payment.
+   *
+   * <p>Used to resolve attempts that were reported as {@code PENDING} or whose initiation call did
+   * not answer in time.
+   *
+   * @param requestId idempotency key used when the payment was initiated (non-null)
+   * @return current outcome; {@code PENDING} while the provider has not resolved it
+   * @throws PaymentGatewayException on technical/integration failures
+   */
+  PaymentAttemptResult getPaymentStatus(PaymentRequestId requestId);
 }
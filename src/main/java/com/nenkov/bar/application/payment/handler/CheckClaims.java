@@ -0,0 +1,48 @@
+package com.nenkov.bar.application.payment.handler;
+
+import com.nenkov.bar.domain.model.payment.CheckId;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-check claims shared by the payment path and check expiry.
+ *
+ * <p>{@link RecordPaymentAttemptHandler} holds a {@link Holder#PAYMENT} claim from before it loads
+ * the check until the provider call's outcome is recorded; the expiry sweep holds an {@link
+ * Holder#EXPIRY} claim while it loads and cancels a due check. A check is therefore never cancelled
+ * while the provider may be charging it, and no charge starts on a check being cancelled.
+ *
+ * <p>Claims live in memory, like the handler's single-flight guarantee they extend.
+ */
+public final class CheckClaims {
+
+  /** Who holds a claim. */
+  public enum Holder {
+    PAYMENT,
+    EXPIRY
+  }
+
+  private final ConcurrentMap<CheckId, Holder> holders = new ConcurrentHashMap<>();
+
+  /**
+   * Claims {@code checkId} for {@code holder}.
+   *
+   * @return {@code null} if the claim was taken, otherwise the holder of the existing claim
+   */
+  public Holder claim(CheckId checkId, Holder holder) {
+    Objects.requireNonNull(checkId, "checkId must not be null");
+    Objects.requireNonNull(holder, "holder must not be null");
+    return holders.putIfAbsent(checkId, holder);
+  }
+
+  /** Releases a claim taken by {@code holder}; a claim held by the other holder is left alone. */
+  public void release(CheckId checkId, Holder holder) {
+    holders.remove(checkId, holder);
+  }
+
+  /** Whether a provider call for {@code checkId} is in flight. */
+  public boolean isInFlight(CheckId checkId) {
+    return holders.get(checkId) == Holder.PAYMENT;
+  }
+}
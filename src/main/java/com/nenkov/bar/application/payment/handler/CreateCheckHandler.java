@@ -2,6 +2,7 @@ package com.nenkov.bar.application.payment.handler;
 
 import com.nenkov.bar.application.payment.exception.CheckCreationNotAllowedException;
 import com.nenkov.bar.application.payment.exception.InvalidPaymentSelectionException;
+import com.nenkov.bar.application.payment.expiry.CheckExpiryScheduler;
 import com.nenkov.bar.application.payment.model.CreateCheckInput;
 import com.nenkov.bar.application.payment.model.CreateCheckResult;
 import com.nenkov.bar.application.payment.repository.CheckRepository;
@@ -27,6 +28,7 @@ import java.util.Objects;
  *   <li>quote amount/allocation (domain service)
  *   <li>create Check (domain entity)
  *   <li>persist Check (repository)
+ *   <li>register Check for expiry while unpaid ({@link CheckExpiryScheduler})
  * </ul>
  */
 public final class CreateCheckHandler {
@@ -34,11 +36,13 @@ public final class CreateCheckHandler {
   private final TableSessionRepository tableSessionRepository;
   private final CheckRepository checkRepository;
   private final CheckAmountCalculator checkAmountCalculator;
+  private final CheckExpiryScheduler expiryScheduler;
 
   public CreateCheckHandler(
       TableSessionRepository tableSessionRepository,
       CheckRepository checkRepository,
-      CheckAmountCalculator checkAmountCalculator) {
+      CheckAmountCalculator checkAmountCalculator,
+      CheckExpiryScheduler expiryScheduler) {
 
     this.tableSessionRepository =
         Objects.requireNonNull(tableSessionRepository, "tableSessionRepository must not be null");
@@ -46,6 +50,8 @@ public final class CreateCheckHandler {
         Objects.requireNonNull(checkRepository, "checkRepository must not be null");
     this.checkAmountCalculator =
         Objects.requireNonNull(checkAmountCalculator, "checkAmountCalculator must not be null");
+    this.expiryScheduler =
+        Objects.requireNonNull(expiryScheduler, "expiryScheduler must not be null");
   }
 
   public CreateCheckResult handle(CreateCheckInput input) {
@@ -67,8 +73,8 @@ public final class CreateCheckHandler {
               session.currency(),
               session.payableItemsSnapshot(),
               input.selections(),
-              session.itemWriteOffs(),
-              session.sessionWriteOffs());
+              session.outstandingItemWriteOffs(),
+              session.outstandingSessionWriteOffs());
     } catch (IllegalArgumentException _) {
       // Business-rule violation on a well-formed request (e.g. unknown itemId / over-selected qty).
       throw new InvalidPaymentSelectionException(session.id());
@@ -78,6 +84,7 @@ public final class CreateCheckHandler {
         Check.createNew(session.id(), quote.checkAmount(), quote.paidItems(), Instant.now());
 
     checkRepository.save(check);
+    expiryScheduler.track(check);
 
     return new CreateCheckResult(session.id(), check.id(), check.amount());
   }
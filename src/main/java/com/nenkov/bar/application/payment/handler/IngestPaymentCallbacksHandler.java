@@ -0,0 +1,183 @@
+package com.nenkov.bar.application.payment.handler;
+
+import com.nenkov.bar.application.payment.callback.RecentCallbackIds;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksInput;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.model.PaymentCallback;
+import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Workflow handler: ingest a batch of provider callbacks (push-based payment resolution).
+ *
+ * <p>Orchestrates:
+ *
+ * <ul>
+ *   <li>drop replays via {@link RecentCallbackIds}, then via the idempotency table
+ *   <li>match each callback to its recorded attempt by request id or provider reference
+ *   <li>coalesce callbacks targeting the same check (APPROVED wins over DECLINED; otherwise the
+ *       later callback wins)
+ *   <li>load all affected checks in one read and apply outcomes in one batch ({@link
+ *       PaymentOutcomeApplier#applyAll})
+ *   <li>update the idempotency records so request-id replays observe the final outcome
+ * </ul>
+ *
+ * <p>Only attempts still recorded as {@code PENDING}, or {@code UNRESOLVED} after polling gave up,
+ * are resolved. A callback contradicting an already recorded final outcome is ignored rather than
+ * overwriting it.
+ *
+ * <p>A resolution for a check that is no longer open (paid, failed or canceled meanwhile, for
+ * example by expiry) still records the provider's outcome on the attempt, but changes no check and
+ * is counted as ignored. If the provider captured the money, an error is logged so the payment can
+ * be refunded or reconciled.
+ */
+public final class IngestPaymentCallbacksHandler {
+
+  private static final Logger log = LoggerFactory.getLogger(IngestPaymentCallbacksHandler.class);
+
+  private final PaymentAttemptRepository paymentAttemptRepository;
+  private final CheckRepository checkRepository;
+  private final PaymentOutcomeApplier outcomeApplier;
+  private final RecentCallbackIds recentCallbackIds;
+
+  public IngestPaymentCallbacksHandler(
+      PaymentAttemptRepository paymentAttemptRepository,
+      CheckRepository checkRepository,
+      PaymentOutcomeApplier outcomeApplier,
+      RecentCallbackIds recentCallbackIds) {
+    this.paymentAttemptRepository =
+        Objects.requireNonNull(
+            paymentAttemptRepository, "paymentAttemptRepository must not be null");
+    this.checkRepository =
+        Objects.requireNonNull(checkRepository, "checkRepository must not be null");
+    this.outcomeApplier = Objects.requireNonNull(outcomeApplier, "outcomeApplier must not be null");
+    this.recentCallbackIds =
+        Objects.requireNonNull(recentCallbackIds, "recentCallbackIds must not be null");
+  }
+
+  public IngestPaymentCallbacksResult handle(IngestPaymentCallbacksInput input) {
+    Objects.requireNonNull(input, "input must not be null");
+
+    int duplicates = 0;
+    int ignored = 0;
+    Map<CheckId, Resolution> byCheck = new LinkedHashMap<>();
+
+    for (PaymentCallback callback : input.callbacks()) {
+      String key = callback.dedupKey();
+      if (recentCallbackIds.contains(key)) {
+        duplicates++;
+        continue;
+      }
+
+      RecordedPaymentAttempt recorded = findRecorded(callback);
+      if (recorded == null || callback.status() == PaymentAttemptStatus.PENDING) {
+        ignored++;
+        continue;
+      }
+
+      PaymentAttemptStatus recordedStatus = recorded.attemptResult().status();
+      if (recordedStatus == callback.status()) {
+        recentCallbackIds.add(key);
+        duplicates++;
+        continue;
+      }
+      if (recordedStatus != PaymentAttemptStatus.PENDING
+          && recordedStatus != PaymentAttemptStatus.UNRESOLVED) {
+        // Contradicts an already recorded final outcome; keep the first one.
+        ignored++;
+        continue;
+      }
+
+      Resolution candidate =
+          new Resolution(
+              recorded,
+              callback.toAttemptResult(recorded.attemptResult().providerReference()),
+              key);
+      Resolution current = byCheck.get(recorded.checkId());
+      if (current != null) {
+        ignored++;
+        if (current.outranks(candidate)) {
+          continue;
+        }
+      }
+      byCheck.put(recorded.checkId(), candidate);
+    }
+
+    int applied = applyResolutions(byCheck);
+    ignored += byCheck.size() - applied;
+
+    return new IngestPaymentCallbacksResult(input.callbacks().size(), applied, duplicates, ignored);
+  }
+
+  private RecordedPaymentAttempt findRecorded(PaymentCallback callback) {
+    if (callback.requestId() != null) {
+      return paymentAttemptRepository.findByRequestId(callback.requestId()).orElse(null);
+    }
+    return paymentAttemptRepository
+        .findByProviderReference(callback.providerReference())
+        .orElse(null);
+  }
+
+  /**
+   * Applies the coalesced outcomes in one batch and updates the idempotency records.
+   *
+   * @return number of resolutions applied to an open check
+   */
+  private int applyResolutions(Map<CheckId, Resolution> byCheck) {
+    if (byCheck.isEmpty()) {
+      return 0;
+    }
+
+    Map<Check, PaymentAttemptResult> outcomes = new LinkedHashMap<>();
+    for (Check check : checkRepository.findAllById(byCheck.keySet())) {
+      if (check.status() == CheckStatus.CREATED || check.status() == CheckStatus.AUTHORIZED) {
+        outcomes.put(check, byCheck.get(check.id()).result());
+      }
+    }
+    outcomeApplier.applyAll(outcomes, Instant.now());
+
+    Set<CheckId> open = new HashSet<>();
+    outcomes.keySet().forEach(check -> open.add(check.id()));
+    for (Resolution resolution : byCheck.values()) {
+      RecordedPaymentAttempt recorded = resolution.recorded();
+      if (!open.contains(recorded.checkId())
+          && resolution.result().status() == PaymentAttemptStatus.APPROVED) {
+        log.error(
+            "Provider captured payment {} (reference {}) for check {} that is no longer open;"
+                + " refund or reconcile",
+            recorded.requestId().value(),
+            resolution.result().providerReference(),
+            recorded.checkId().value());
+      }
+      paymentAttemptRepository.update(
+          new RecordedPaymentAttempt(
+              recorded.requestId(), recorded.sessionId(), recorded.checkId(), resolution.result()));
+      recentCallbackIds.add(resolution.dedupKey());
+    }
+    return open.size();
+  }
+
+  private record Resolution(
+      RecordedPaymentAttempt recorded, PaymentAttemptResult result, String dedupKey) {
+
+    /** APPROVED is never downgraded by a later DECLINED for the same check. */
+    boolean outranks(Resolution other) {
+      return result.status() == PaymentAttemptStatus.APPROVED
+          && other.result().status() != PaymentAttemptStatus.APPROVED;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.nenkov.bar.application.payment.handler;
+
+import com.nenkov.bar.application.common.persistence.RepositoryAccessException;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.session.exception.TableSessionNotFoundException;
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.domain.exceptions.IllegalDomainStateException;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import com.nenkov.bar.domain.model.payment.PaymentReference;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shared workflow step: apply a provider outcome to a {@link Check}.
+ *
+ * <p>Used both when the provider answers inline and when a {@code PENDING} attempt is resolved
+ * later, so every path performs exactly the same transitions.
+ *
+ * <p>State mapping:
+ *
+ * <ul>
+ *   <li>APPROVED -> markPaid(reference, now) and save; the owning session's paid ledger is updated
+ *       incrementally via {@link TableSession#recordPaidCheck(Check)}
+ *   <li>DECLINED -> markFailed(now) and save
+ *   <li>PENDING, UNRESOLVED -> no state change (check remains non-terminal)
+ * </ul>
+ *
+ * <p>Paid checks are recorded on their session before the checks are changed or saved, so a check
+ * that the session cannot take (for example because a concurrent payment already settled its units)
+ * stays untouched, also in memory. The session is saved with {@link
+ * TableSessionRepository#saveIfUnchanged}: if another payment or order saved it meanwhile, it is
+ * reloaded and the checks are recorded again, up to {@value #MAX_SESSION_SAVE_ATTEMPTS} times.
+ */
+public final class PaymentOutcomeApplier {
+
+  static final int MAX_SESSION_SAVE_ATTEMPTS = 5;
+
+  private final CheckRepository checkRepository;
+  private final TableSessionRepository tableSessionRepository;
+
+  public PaymentOutcomeApplier(
+      CheckRepository checkRepository, TableSessionRepository tableSessionRepository) {
+    this.checkRepository =
+        Objects.requireNonNull(checkRepository, "checkRepository must not be null");
+    this.tableSessionRepository =
+        Objects.requireNonNull(tableSessionRepository, "tableSessionRepository must not be null");
+  }
+
+  /**
+   * Applies {@code attempt} to {@code check} and persists the resulting state.
+   *
+   * @param check non-terminal check the attempt belongs to (non-null)
+   * @param attempt provider outcome (non-null)
+   * @param now completion timestamp for terminal transitions (non-null)
+   */
+  public void apply(Check check, PaymentAttemptResult attempt, Instant now) {
+    Objects.requireNonNull(check, "check must not be null");
+    Objects.requireNonNull(attempt, "attempt must not be null");
+    Objects.requireNonNull(now, "now must not be null");
+
+    if (!isFinal(attempt)) {
+      return;
+    }
+    requireOpen(check);
+    if (attempt.status() == PaymentAttemptStatus.APPROVED) {
+      recordPaidChecksOnSession(check.sessionId(), List.of(paidCopy(check, attempt, now)));
+    }
+    transition(check, attempt, now);
+    checkRepository.save(check);
+  }
+
+  /**
+   * Applies several outcomes at once.
+   *
+   * <p>All changed checks are persisted with one {@link CheckRepository#saveAll} call, and each
+   * affected session is loaded and saved once regardless of how many of its checks were paid.
+   *
+   * @param outcomes non-terminal checks mapped to their provider outcome (non-null)
+   * @param now completion timestamp for terminal transitions (non-null)
+   * @return checks whose state changed, in iteration order of {@code outcomes}
+   */
+  public List<Check> applyAll(Map<Check, PaymentAttemptResult> outcomes, Instant now) {
+    Objects.requireNonNull(outcomes, "outcomes must not be null");
+    Objects.requireNonNull(now, "now must not be null");
+
+    List<Check> changed = new ArrayList<>(outcomes.size());
+    Map<TableSessionId, List<Check>> paidBySession = new LinkedHashMap<>();
+    for (Map.Entry<Check, PaymentAttemptResult> outcome : outcomes.entrySet()) {
+      Check check = outcome.getKey();
+      PaymentAttemptResult attempt = outcome.getValue();
+      if (!isFinal(attempt)) {
+        continue;
+      }
+      requireOpen(check);
+      changed.add(check);
+      if (attempt.status() == PaymentAttemptStatus.APPROVED) {
+        paidBySession
+            .computeIfAbsent(check.sessionId(), _ -> new ArrayList<>())
+            .add(paidCopy(check, attempt, now));
+      }
+    }
+
+    paidBySession.forEach(this::recordPaidChecksOnSession);
+    for (Check check : changed) {
+      transition(check, outcomes.get(check), now);
+    }
+    if (!changed.isEmpty()) {
+      checkRepository.saveAll(changed);
+    }
+    return changed;
+  }
+
+  private static void transition(Check check, PaymentAttemptResult attempt, Instant now) {
+    switch (attempt.status()) {
+      case APPROVED -> check.markPaid(PaymentReference.of(attempt.providerReference()), now);
+      case DECLINED -> check.markFailed(now);
+      // Callers skip these; the status poller or a callback resolves them later.
+      case PENDING, UNRESOLVED ->
+          throw new IllegalArgumentException(attempt.status() + " outcomes cause no transition");
+    }
+  }
+
+  private static boolean isFinal(PaymentAttemptResult attempt) {
+    return attempt.status() == PaymentAttemptStatus.APPROVED
+        || attempt.status() == PaymentAttemptStatus.DECLINED;
+  }
+
+  /**
+   * Checks can be shared instances (the in-memory repository hands out the stored object), so the
+   * session is handed a paid copy and the real check only changes once the session accepted it.
+   */
+  private static Check paidCopy(Check check, PaymentAttemptResult attempt, Instant now) {
+    Check copy =
+        Check.create(
+            check.sessionId(), check.id(), check.amount(), check.paidItems(), check.createdAt());
+    copy.markPaid(PaymentReference.of(attempt.providerReference()), now);
+    return copy;
+  }
+
+  private static void requireOpen(Check check) {
+    if (check.status() != CheckStatus.CREATED && check.status() != CheckStatus.AUTHORIZED) {
+      throw new IllegalDomainStateException(
+          "Only CREATED or AUTHORIZED checks can be resolved (current: " + check.status() + ")");
+    }
+  }
+
+  private void recordPaidChecksOnSession(TableSessionId sessionId, List<Check> paidChecks) {
+    for (int attempt = 1; attempt <= MAX_SESSION_SAVE_ATTEMPTS; attempt++) {
+      TableSession session =
+          tableSessionRepository
+              .findById(sessionId)
+              .orElseThrow(() -> new TableSessionNotFoundException(sessionId));
+
+      for (Check check : paidChecks) {
+        session = session.recordPaidCheck(check);
+      }
+      if (tableSessionRepository.saveIfUnchanged(session)) {
+        return;
+      }
+    }
+    throw new RepositoryAccessException(
+        "Session kept changing while recording paid checks: " + sessionId.value());
+  }
+}
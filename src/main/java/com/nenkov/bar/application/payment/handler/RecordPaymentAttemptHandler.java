@@ -1,50 +1,100 @@
 package com.nenkov.bar.application.payment.handler;
 
 import com.nenkov.bar.application.payment.exception.CheckNotFoundException;
+import com.nenkov.bar.application.payment.exception.CheckNotPayableException;
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.exception.PaymentInProgressException;
 import com.nenkov.bar.application.payment.exception.PaymentRequestIdConflictException;
-import com.nenkov.bar.application.payment.gateway.PaymentGateway;
+import com.nenkov.bar.application.payment.gateway.AsyncPaymentGateway;
 import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
 import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptInput;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptResult;
 import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.application.payment.polling.PaymentStatusPoller;
 import com.nenkov.bar.application.payment.repository.CheckRepository;
 import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
 import com.nenkov.bar.domain.model.payment.Check;
-import com.nenkov.bar.domain.model.payment.PaymentReference;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Workflow handler: initiate a payment attempt through the payment gateway and update check status.
  *
- * <p>State mapping:
+ * <p>The gateway call is bounded by {@code initiationTimeout}. A provider that has not answered by
+ * then is recorded as {@code PENDING} (without a provider reference). No thread waits for the
+ * provider: the outcome is applied on whichever thread completes the gateway call.
  *
- * <ul>
- *   <li>APPROVED -> markPaid(reference, now) and save
- *   <li>DECLINED -> markFailed(now) and save
- *   <li>PENDING -> no state change (check remains non-terminal)
- * </ul>
+ * <p>State transitions are applied by {@link PaymentOutcomeApplier}. {@code PENDING} outcomes are
+ * handed to {@link PaymentStatusPoller}, which applies the final outcome once the provider resolves
+ * it.
+ *
+ * <p>At most one provider call per check is in flight within this process. A concurrent attempt
+ * with the same request id (a client retry) shares the in-flight outcome. One with a different
+ * request id (a second device) is rejected with {@link PaymentInProgressException} without waiting.
+ * The same applies while an earlier attempt for the check is recorded as {@code PENDING}: the
+ * provider may still charge it, so no second charge is started until the poller resolves it. While
+ * the provider call is in flight the check is claimed in {@link CheckClaims}, so the expiry sweep
+ * does not cancel it; a check the sweep is cancelling right now is rejected as not payable.
+ *
+ * <p>Once the provider has answered, the attempt is stored before its outcome is applied. If
+ * applying fails, a retry with the same request id still finds the stored outcome instead of
+ * charging again.
  */
 public final class RecordPaymentAttemptHandler {
 
-  private final PaymentGateway paymentGateway;
+  private final AsyncPaymentGateway paymentGateway;
   private final CheckRepository checkRepository;
   private final PaymentAttemptRepository paymentAttemptRepository;
+  private final PaymentOutcomeApplier outcomeApplier;
+  private final PaymentStatusPoller statusPoller;
+  private final Duration initiationTimeout;
+  private final CheckClaims checkClaims;
+  private final ConcurrentMap<CheckId, InFlightAttempt> inFlight = new ConcurrentHashMap<>();
 
   public RecordPaymentAttemptHandler(
-      PaymentGateway paymentGateway,
+      AsyncPaymentGateway paymentGateway,
       CheckRepository checkRepository,
-      PaymentAttemptRepository paymentAttemptRepository) {
+      PaymentAttemptRepository paymentAttemptRepository,
+      PaymentOutcomeApplier outcomeApplier,
+      PaymentStatusPoller statusPoller,
+      CheckClaims checkClaims,
+      Duration initiationTimeout) {
     this.paymentGateway = Objects.requireNonNull(paymentGateway, "paymentGateway must not be null");
     this.checkRepository =
         Objects.requireNonNull(checkRepository, "checkRepository must not be null");
     this.paymentAttemptRepository =
         Objects.requireNonNull(
             paymentAttemptRepository, "paymentAttemptRepository must not be null");
+    this.outcomeApplier = Objects.requireNonNull(outcomeApplier, "outcomeApplier must not be null");
+    this.statusPoller = Objects.requireNonNull(statusPoller, "statusPoller must not be null");
+    this.checkClaims = Objects.requireNonNull(checkClaims, "checkClaims must not be null");
+    this.initiationTimeout =
+        Objects.requireNonNull(initiationTimeout, "initiationTimeout must not be null");
+    if (initiationTimeout.isZero() || initiationTimeout.isNegative()) {
+      throw new IllegalArgumentException("initiationTimeout must be > 0");
+    }
   }
 
-  public RecordPaymentAttemptResult handle(RecordPaymentAttemptInput input) {
+  /**
+   * Starts the attempt and returns without waiting for the provider. The returned future completes
+   * once the outcome is applied and recorded, at the latest shortly after {@code
+   * initiationTimeout}.
+   *
+   * <p>Rejections known before the provider is called (request id conflict, attempt in flight or
+   * pending, unknown or no longer payable check) are thrown directly.
+   */
+  public CompletableFuture<RecordPaymentAttemptResult> handle(RecordPaymentAttemptInput input) {
     Objects.requireNonNull(input, "input must not be null");
 
     // Idempotency: if we have already processed this request id, return the stored outcome.
@@ -61,44 +111,126 @@ public final class RecordPaymentAttemptHandler {
             input.sessionId(),
             input.checkId());
       }
-      return new RecordPaymentAttemptResult(
-          input.requestId(), input.sessionId(), input.checkId(), existing.attemptResult());
+      return CompletableFuture.completedFuture(
+          new RecordPaymentAttemptResult(
+              input.requestId(),
+              input.sessionId(),
+              input.checkId(),
+              existing.attemptResult(),
+              true));
+    }
+
+    InFlightAttempt mine = new InFlightAttempt(input.requestId(), new CompletableFuture<>());
+    InFlightAttempt current = inFlight.putIfAbsent(input.checkId(), mine);
+    if (current != null) {
+      if (!current.requestId().equals(input.requestId())) {
+        throw new PaymentInProgressException(input.checkId(), current.requestId());
+      }
+      // A dependent future, so the retry cannot complete or cancel the owner's outcome.
+      return current.outcome().thenApply(RecordPaymentAttemptResult::asReplay);
     }
 
+    CompletableFuture<RecordPaymentAttemptResult> outcome;
+    try {
+      if (checkClaims.claim(input.checkId(), CheckClaims.Holder.PAYMENT) != null) {
+        // The expiry sweep is cancelling this check.
+        throw new CheckNotPayableException(input.checkId(), CheckStatus.CANCELED);
+      }
+      try {
+        outcome = initiate(input);
+      } catch (RuntimeException e) {
+        checkClaims.release(input.checkId(), CheckClaims.Holder.PAYMENT);
+        throw e;
+      }
+    } catch (RuntimeException e) {
+      inFlight.remove(input.checkId(), mine);
+      mine.outcome().completeExceptionally(e);
+      throw e;
+    }
+    outcome.whenComplete(
+        (result, failure) -> {
+          checkClaims.release(input.checkId(), CheckClaims.Holder.PAYMENT);
+          inFlight.remove(input.checkId(), mine);
+          if (failure == null) {
+            mine.outcome().complete(result);
+          } else {
+            mine.outcome().completeExceptionally(unwrap(failure));
+          }
+        });
+    return mine.outcome().copy();
+  }
+
+  private CompletableFuture<RecordPaymentAttemptResult> initiate(RecordPaymentAttemptInput input) {
+    paymentAttemptRepository
+        .findPendingByCheckId(input.checkId())
+        .ifPresent(
+            pending -> {
+              throw new PaymentInProgressException(input.checkId(), pending.requestId());
+            });
+
     Check check =
         checkRepository
             .findById(input.checkId())
             .orElseThrow(() -> new CheckNotFoundException(input.checkId()));
+    if (check.status() != CheckStatus.CREATED && check.status() != CheckStatus.AUTHORIZED) {
+      throw new CheckNotPayableException(input.checkId(), check.status());
+    }
 
-    PaymentAttemptResult attempt =
-        paymentGateway.initiatePayment(
-            input.requestId(), input.sessionId(), input.checkId(), check.amount());
+    return withinDeadline(
+            paymentGateway.initiatePayment(
+                input.requestId(),
+                input.sessionId(),
+                input.checkId(),
+                check.amount(),
+                initiationTimeout))
+        .thenApply(attempt -> record(input, check, attempt));
+  }
 
-    applyOutcome(check, attempt);
+  private RecordPaymentAttemptResult record(
+      RecordPaymentAttemptInput input, Check check, PaymentAttemptResult attempt) {
+    // The provider has answered (and may have charged), so the attempt is stored first.
+    RecordedPaymentAttempt recorded =
+        new RecordedPaymentAttempt(input.requestId(), input.sessionId(), input.checkId(), attempt);
+    paymentAttemptRepository.save(recorded);
 
-    paymentAttemptRepository.save(
-        new RecordedPaymentAttempt(input.requestId(), input.sessionId(), input.checkId(), attempt));
+    if (attempt.status() == PaymentAttemptStatus.PENDING) {
+      statusPoller.track(recorded);
+    }
+    outcomeApplier.apply(check, attempt, Instant.now());
     return new RecordPaymentAttemptResult(
         input.requestId(), input.sessionId(), input.checkId(), attempt);
   }
 
-  private void applyOutcome(Check check, PaymentAttemptResult attempt) {
-    Instant now = Instant.now();
-    PaymentAttemptStatus status = attempt.status();
+  /**
+   * Bounds the gateway call by {@code initiationTimeout}. The deadline is enforced here as well, so
+   * a gateway implementation that ignores its deadline still cannot hold the attempt open.
+   */
+  private CompletableFuture<PaymentAttemptResult> withinDeadline(
+      CompletableFuture<PaymentAttemptResult> call) {
+    return call.orTimeout(initiationTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .handle(
+            (result, failure) -> {
+              if (failure == null) {
+                return result;
+              }
+              Throwable cause = unwrap(failure);
+              if (cause instanceof TimeoutException) {
+                // Provider is still working; the status poller resolves it by request id.
+                return PaymentAttemptResult.pending(null);
+              }
+              if (cause instanceof PaymentGatewayException gatewayException) {
+                throw gatewayException;
+              }
+              throw new PaymentGatewayException("Payment initiation failed", cause);
+            });
+  }
 
-    switch (status) {
-      case APPROVED -> {
-        check.markPaid(PaymentReference.of(attempt.providerReference()), now);
-        checkRepository.save(check);
-      }
-      case DECLINED -> {
-        check.markFailed(now);
-        checkRepository.save(check);
-      }
-      case PENDING -> {
-        // Intentionally, no state transition.
-        // Future: if you introduce AUTHORIZED/PENDING correlation, we can extend the model.
-      }
-    }
+  private static Throwable unwrap(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause()
+        : failure;
   }
+
+  private record InFlightAttempt(
+      PaymentRequestId requestId, CompletableFuture<RecordPaymentAttemptResult> outcome) {}
 }
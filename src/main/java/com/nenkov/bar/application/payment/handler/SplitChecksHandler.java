@@ -0,0 +1,190 @@
+package com.nenkov.bar.application.payment.handler;
+
+import com.nenkov.bar.application.payment.exception.CheckCreationNotAllowedException;
+import com.nenkov.bar.application.payment.exception.InvalidPaymentSelectionException;
+import com.nenkov.bar.application.payment.expiry.CheckExpiryScheduler;
+import com.nenkov.bar.application.payment.model.CreateCheckResult;
+import com.nenkov.bar.application.payment.model.SplitChecksInput;
+import com.nenkov.bar.application.payment.model.SplitChecksResult;
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.session.exception.TableSessionNotFoundException;
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckQuote;
+import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.model.payment.PaymentSelection;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionStatus;
+import com.nenkov.bar.domain.service.payment.CheckAmountCalculator;
+import com.nenkov.bar.domain.service.payment.allocation.ProportionalAllocator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Workflow handler: split a session bill into several checks with all-or-nothing semantics.
+ *
+ * <p>Orchestrates:
+ *
+ * <ul>
+ *   <li>load session once (repository)
+ *   <li>validate lifecycle constraints (application rule)
+ *   <li>quote the combined selection of all splits once (domain service), which also validates it
+ *       against remaining quantities
+ *   <li>divide that quote between the splits ({@link ProportionalAllocator})
+ *   <li>create all Checks (domain entity)
+ *   <li>persist all Checks in a single batched write (repository)
+ *   <li>register Checks for expiry while unpaid ({@link CheckExpiryScheduler})
+ * </ul>
+ *
+ * <p>Quoting the splits together means the session write-off share and the rounding are decided
+ * once, for the whole selection: the split checks always add up to the quote a single check for all
+ * of them would get. Each item's paid amount is divided between the splits that selected it in
+ * proportion to their gross amount for it.
+ *
+ * <p>Nothing is persisted unless every split validates and quotes successfully.
+ */
+public final class SplitChecksHandler {
+
+  private final TableSessionRepository tableSessionRepository;
+  private final CheckRepository checkRepository;
+  private final CheckAmountCalculator checkAmountCalculator;
+  private final CheckExpiryScheduler expiryScheduler;
+  private final ProportionalAllocator allocator = ProportionalAllocator.defaultAllocator();
+
+  public SplitChecksHandler(
+      TableSessionRepository tableSessionRepository,
+      CheckRepository checkRepository,
+      CheckAmountCalculator checkAmountCalculator,
+      CheckExpiryScheduler expiryScheduler) {
+
+    this.tableSessionRepository =
+        Objects.requireNonNull(tableSessionRepository, "tableSessionRepository must not be null");
+    this.checkRepository =
+        Objects.requireNonNull(checkRepository, "checkRepository must not be null");
+    this.checkAmountCalculator =
+        Objects.requireNonNull(checkAmountCalculator, "checkAmountCalculator must not be null");
+    this.expiryScheduler =
+        Objects.requireNonNull(expiryScheduler, "expiryScheduler must not be null");
+  }
+
+  public SplitChecksResult handle(SplitChecksInput input) {
+    Objects.requireNonNull(input, "input must not be null");
+
+    TableSession session =
+        tableSessionRepository
+            .findById(input.sessionId())
+            .orElseThrow(() -> new TableSessionNotFoundException(input.sessionId()));
+
+    if (session.status() == TableSessionStatus.CLOSED) {
+      throw new CheckCreationNotAllowedException(session.id());
+    }
+
+    CheckQuote combined;
+    try {
+      combined = quoteCombined(session, input.splits());
+    } catch (IllegalArgumentException _) {
+      // Business-rule violation on a well-formed request (e.g. combined over-selection).
+      throw new InvalidPaymentSelectionException(session.id());
+    }
+    List<CheckQuote> quotes = divide(session.currency(), combined, input.splits());
+
+    Instant now = Instant.now();
+    List<Check> checks = new ArrayList<>(quotes.size());
+    for (CheckQuote quote : quotes) {
+      checks.add(Check.createNew(session.id(), quote.checkAmount(), quote.paidItems(), now));
+    }
+
+    checkRepository.saveAll(checks);
+    checks.forEach(expiryScheduler::track);
+
+    List<CreateCheckResult> results =
+        checks.stream()
+            .map(check -> new CreateCheckResult(session.id(), check.id(), check.amount()))
+            .toList();
+    return new SplitChecksResult(session.id(), results);
+  }
+
+  private CheckQuote quoteCombined(TableSession session, List<SplitChecksInput.Split> splits) {
+    List<PaymentSelection> combined = new ArrayList<>();
+    for (SplitChecksInput.Split split : splits) {
+      combined.addAll(split.selections());
+    }
+    return checkAmountCalculator.quote(
+        session.currency(),
+        session.payableItemsSnapshot(),
+        combined,
+        session.outstandingItemWriteOffs(),
+        session.outstandingSessionWriteOffs());
+  }
+
+  /**
+   * Divides {@code combined} between {@code splits}, item by item.
+   *
+   * <p>Shares are keyed by split position; cent ties go to the earlier split.
+   */
+  private List<CheckQuote> divide(
+      String currency, CheckQuote combined, List<SplitChecksInput.Split> splits) {
+    List<Map<OrderItemId, Integer>> qtyBySplit = new ArrayList<>(splits.size());
+    for (SplitChecksInput.Split split : splits) {
+      Map<OrderItemId, Integer> qtyByItem = new LinkedHashMap<>();
+      for (PaymentSelection selection : split.selections()) {
+        qtyByItem.merge(selection.itemId(), selection.quantity(), Integer::sum);
+      }
+      qtyBySplit.add(qtyByItem);
+    }
+
+    List<Map<OrderItemId, PaidItem>> paidBySplit = new ArrayList<>(splits.size());
+    for (int i = 0; i < splits.size(); i++) {
+      paidBySplit.add(new LinkedHashMap<>());
+    }
+    for (PaidItem paid : combined.paidItems()) {
+      Map<Integer, Money> grossBySplit = new LinkedHashMap<>();
+      for (int i = 0; i < splits.size(); i++) {
+        Integer qty = qtyBySplit.get(i).get(paid.itemId());
+        if (qty != null) {
+          grossBySplit.put(i, paid.unitPriceAtPayment().times(qty));
+        }
+      }
+      Map<Integer, Money> amountBySplit =
+          allocator.allocate(currency, paid.paidAmount(), grossBySplit, Function.identity());
+      for (int i = 0; i < splits.size(); i++) {
+        Money amount = amountBySplit.get(i);
+        if (amount != null) {
+          paidBySplit
+              .get(i)
+              .put(
+                  paid.itemId(),
+                  PaidItem.of(
+                      paid.itemId(),
+                      qtyBySplit.get(i).get(paid.itemId()),
+                      paid.unitPriceAtPayment(),
+                      amount));
+        }
+      }
+    }
+
+    List<CheckQuote> quotes = new ArrayList<>(splits.size());
+    for (int i = 0; i < splits.size(); i++) {
+      List<PaidItem> paidItems = new ArrayList<>();
+      Money amount = Money.zero(currency);
+      // Keep each split's own selection order.
+      for (OrderItemId itemId : qtyBySplit.get(i).keySet()) {
+        PaidItem paid = paidBySplit.get(i).get(itemId);
+        if (paid == null) {
+          throw new IllegalStateException("Combined quote is missing item: " + itemId.value());
+        }
+        paidItems.add(paid);
+        amount = amount.plus(paid.paidAmount());
+      }
+      quotes.add(CheckQuote.of(amount, paidItems));
+    }
+    return quotes;
+  }
+}
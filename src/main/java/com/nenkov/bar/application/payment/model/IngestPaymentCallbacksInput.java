@@ -0,0 +1,16 @@
+package com.nenkov.bar.application.payment.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/** Input model for ingesting a batch of provider callbacks. */
+public record IngestPaymentCallbacksInput(List<PaymentCallback> callbacks) {
+
+  public IngestPaymentCallbacksInput {
+    Objects.requireNonNull(callbacks, "callbacks must not be null");
+    if (callbacks.isEmpty()) {
+      throw new IllegalArgumentException("callbacks must not be empty");
+    }
+    callbacks = List.copyOf(callbacks);
+  }
+}
@@ -0,0 +1,16 @@
+package com.nenkov.bar.application.payment.model;
+
+/**
+ * Result model for a callback batch.
+ *
+ * <p>Every received callback is counted exactly once: {@code received = applied + duplicates +
+ * ignored}.
+ *
+ * @param received callbacks in the batch
+ * @param applied callbacks whose outcome resolved a pending attempt
+ * @param duplicates replays of an outcome that was already recorded
+ * @param ignored unknown attempts, non-terminal reports, conflicting reports, or reports superseded
+ *     by another callback for the same check in this batch
+ */
+public record IngestPaymentCallbacksResult(
+    int received, int applied, int duplicates, int ignored) {}
@@ -33,6 +33,10 @@ public final class PaymentAttemptResult {
     return new PaymentAttemptResult(PaymentAttemptStatus.PENDING, providerReference, null);
   }
 
+  public static PaymentAttemptResult unresolved(String providerReference) {
+    return new PaymentAttemptResult(PaymentAttemptStatus.UNRESOLVED, providerReference, null);
+  }
+
   public PaymentAttemptStatus status() {
     return status;
   }
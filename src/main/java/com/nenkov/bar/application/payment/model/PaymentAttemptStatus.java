@@ -4,5 +4,12 @@ package com.nenkov.bar.application.payment.model;
 public enum PaymentAttemptStatus {
   APPROVED,
   DECLINED,
-  PENDING
+  PENDING,
+
+  /**
+   * The provider never reported a final outcome while it was polled. Set by the application, never
+   * by the provider: the check is released for another attempt or expiry, a late callback can still
+   * resolve the attempt, and it needs reconciliation with the provider.
+   */
+  UNRESOLVED
 }
@@ -0,0 +1,63 @@
+package com.nenkov.bar.application.payment.model;
+
+import java.util.Objects;
+
+/**
+ * A single provider callback reporting the outcome of a payment attempt.
+ *
+ * <p>Callbacks are keyed by the application's {@link PaymentRequestId} or, when the provider does
+ * not echo it back, by the provider reference returned at initiation.
+ *
+ * <p>Invariants:
+ *
+ * <ul>
+ *   <li>at least one of {@code requestId} / {@code providerReference} is present
+ *   <li>{@code status} is non-null and not {@link PaymentAttemptStatus#UNRESOLVED}
+ *   <li>{@code failureReason} is optional
+ * </ul>
+ */
+public record PaymentCallback(
+    PaymentRequestId requestId,
+    String providerReference,
+    PaymentAttemptStatus status,
+    String failureReason) {
+
+  public PaymentCallback {
+    Objects.requireNonNull(status, "status must not be null");
+    if (status == PaymentAttemptStatus.UNRESOLVED) {
+      throw new IllegalArgumentException("UNRESOLVED is not a provider status");
+    }
+    if (providerReference != null && providerReference.isBlank()) {
+      providerReference = null;
+    }
+    if (requestId == null && providerReference == null) {
+      throw new IllegalArgumentException("requestId or providerReference must be provided");
+    }
+  }
+
+  /**
+   * Returns a key identifying this outcome report; replays of the same report share it.
+   *
+   * <p>Prefers the request id, falls back to the provider reference.
+   */
+  public String dedupKey() {
+    String id = requestId != null ? "req:" + requestId.value() : "ref:" + providerReference;
+    return id + "|" + status.name();
+  }
+
+  /**
+   * Converts this callback into the application's attempt result.
+   *
+   * @param knownProviderReference reference already known for the attempt; used when the callback
+   *     does not carry one (nullable)
+   */
+  public PaymentAttemptResult toAttemptResult(String knownProviderReference) {
+    String reference = providerReference != null ? providerReference : knownProviderReference;
+    return switch (status) {
+      case APPROVED -> PaymentAttemptResult.approved(reference);
+      case DECLINED -> PaymentAttemptResult.declined(reference, failureReason);
+      case PENDING -> PaymentAttemptResult.pending(reference);
+      case UNRESOLVED -> throw new IllegalStateException("UNRESOLVED is not a provider status");
+    };
+  }
+}
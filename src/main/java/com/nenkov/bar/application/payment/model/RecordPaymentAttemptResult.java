@@ -4,12 +4,27 @@ import com.nenkov.bar.domain.model.payment.CheckId;
 import com.nenkov.bar.domain.model.session.TableSessionId;
 import java.util.Objects;
 
-/** Result model for a payment attempt. */
+/**
+ * Result model for a payment attempt.
+ *
+ * @param replayed whether the outcome was served from an earlier attempt with the same request id
+ *     instead of this call contacting the provider
+ */
 public record RecordPaymentAttemptResult(
     PaymentRequestId requestId,
     TableSessionId sessionId,
     CheckId checkId,
-    PaymentAttemptResult attemptResult) {
+    PaymentAttemptResult attemptResult,
+    boolean replayed) {
+
+  /** Result of an attempt that contacted the provider. */
+  public RecordPaymentAttemptResult(
+      PaymentRequestId requestId,
+      TableSessionId sessionId,
+      CheckId checkId,
+      PaymentAttemptResult attemptResult) {
+    this(requestId, sessionId, checkId, attemptResult, false);
+  }
 
   public RecordPaymentAttemptResult {
     Objects.requireNonNull(requestId, "requestId must not be null");
@@ -17,4 +32,9 @@ public record RecordPaymentAttemptResult(
     Objects.requireNonNull(checkId, "checkId must not be null");
     Objects.requireNonNull(attemptResult, "attemptResult must not be null");
   }
+
+  /** The same outcome, as served to a repeat of the request. */
+  public RecordPaymentAttemptResult asReplay() {
+    return new RecordPaymentAttemptResult(requestId, sessionId, checkId, attemptResult, true);
+  }
 }
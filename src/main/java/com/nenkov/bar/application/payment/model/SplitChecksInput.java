@@ -0,0 +1,36 @@
+package com.nenkov.bar.application.payment.model;
+
+import com.nenkov.bar.domain.model.payment.PaymentSelection;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Input model for splitting a session bill into several checks in one all-or-nothing operation.
+ *
+ * <p>Each {@link Split} becomes exactly one check. Selections are validated together, so the
+ * combined quantities across all splits must not exceed the session's remaining quantities.
+ */
+public record SplitChecksInput(TableSessionId sessionId, List<Split> splits) {
+
+  public SplitChecksInput {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    Objects.requireNonNull(splits, "splits must not be null");
+    if (splits.isEmpty()) {
+      throw new IllegalArgumentException("splits must not be empty");
+    }
+    splits = List.copyOf(splits);
+  }
+
+  /** Payer selection for a single check of the split. */
+  public record Split(List<PaymentSelection> selections) {
+
+    public Split {
+      Objects.requireNonNull(selections, "selections must not be null");
+      if (selections.isEmpty()) {
+        throw new IllegalArgumentException("selections must not be empty");
+      }
+      selections = List.copyOf(selections);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.nenkov.bar.application.payment.model;
+
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result model for splitting a session bill into several checks.
+ *
+ * <p>{@code checks} preserves the order of the input splits.
+ */
+public record SplitChecksResult(TableSessionId sessionId, List<CreateCheckResult> checks) {
+
+  public SplitChecksResult {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    Objects.requireNonNull(checks, "checks must not be null");
+    checks = List.copyOf(checks);
+  }
+}
@@ -0,0 +1,229 @@
+package com.nenkov.bar.application.payment.polling;
+
+import com.nenkov.bar.application.payment.gateway.AsyncPaymentGateway;
+import com.nenkov.bar.application.payment.handler.PaymentOutcomeApplier;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves {@code PENDING} payment attempts in the background.
+ *
+ * <p>Each tracked attempt is polled through {@link AsyncPaymentGateway#fetchPaymentStatus} with
+ * exponential backoff ({@link PaymentStatusPollingPolicy}). Status calls are hedged: if the first
+ * call has not answered after {@code hedgeDelay}, a second one is issued and the first answer wins.
+ *
+ * <p>Once the provider reports APPROVED or DECLINED, the outcome is applied to the {@link Check}
+ * via {@link PaymentOutcomeApplier} and the idempotency record is updated, so replays of the same
+ * request id observe the final outcome. Polling stops early if the check has meanwhile reached a
+ * terminal state by another path. After {@code maxAttempts} unresolved polls the attempt is
+ * recorded as {@code UNRESOLVED} and logged as an error for reconciliation: the check is released
+ * for a new attempt or expiry instead of being blocked by an attempt nobody resolves anymore.
+ *
+ * <p>Polling state lives in memory only. {@link #start()} resumes polling for every attempt still
+ * persisted as {@code PENDING}, so a restart does not strand them. If loading them fails, it is
+ * retried after {@code maxDelay}.
+ *
+ * <p>No caller thread is held while waiting: scheduling runs on the injected scheduler and status
+ * calls complete on the gateway's own executor.
+ */
+public final class PaymentStatusPoller implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(PaymentStatusPoller.class);
+
+  private final AsyncPaymentGateway paymentGateway;
+  private final CheckRepository checkRepository;
+  private final PaymentAttemptRepository paymentAttemptRepository;
+  private final PaymentOutcomeApplier outcomeApplier;
+  private final ScheduledExecutorService scheduler;
+  private final PaymentStatusPollingPolicy policy;
+
+  public PaymentStatusPoller(
+      AsyncPaymentGateway paymentGateway,
+      CheckRepository checkRepository,
+      PaymentAttemptRepository paymentAttemptRepository,
+      PaymentOutcomeApplier outcomeApplier,
+      ScheduledExecutorService scheduler,
+      PaymentStatusPollingPolicy policy) {
+    this.paymentGateway = Objects.requireNonNull(paymentGateway, "paymentGateway must not be null");
+    this.checkRepository =
+        Objects.requireNonNull(checkRepository, "checkRepository must not be null");
+    this.paymentAttemptRepository =
+        Objects.requireNonNull(
+            paymentAttemptRepository, "paymentAttemptRepository must not be null");
+    this.outcomeApplier = Objects.requireNonNull(outcomeApplier, "outcomeApplier must not be null");
+    this.scheduler = Objects.requireNonNull(scheduler, "scheduler must not be null");
+    this.policy = Objects.requireNonNull(policy, "policy must not be null");
+  }
+
+  /** Resumes polling for the attempts persisted as {@code PENDING}. Returns immediately. */
+  public void start() {
+    scheduler.execute(this::resumePending);
+  }
+
+  /**
+   * Starts polling for the given attempt. Returns immediately.
+   *
+   * @param attempt recorded attempt whose outcome is still {@code PENDING} (non-null)
+   */
+  public void track(RecordedPaymentAttempt attempt) {
+    Objects.requireNonNull(attempt, "attempt must not be null");
+    scheduleAttempt(attempt, 1);
+  }
+
+  /** Stops the scheduler; attempts still being polled stay {@code PENDING}. */
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private void resumePending() {
+    List<RecordedPaymentAttempt> pending;
+    try {
+      pending = paymentAttemptRepository.findAllPending();
+    } catch (RuntimeException e) {
+      log.warn("Could not load PENDING payment attempts; retrying in {}", policy.maxDelay(), e);
+      scheduler.schedule(this::resumePending, policy.maxDelay().toMillis(), TimeUnit.MILLISECONDS);
+      return;
+    }
+    pending.forEach(this::track);
+    log.info("Resumed polling for {} PENDING payment attempts", pending.size());
+  }
+
+  private void scheduleAttempt(RecordedPaymentAttempt attempt, int attemptNumber) {
+    long delayMillis = policy.delayBeforeAttempt(attemptNumber).toMillis();
+    scheduler.schedule(() -> poll(attempt, attemptNumber), delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private void poll(RecordedPaymentAttempt attempt, int attemptNumber) {
+    hedgedStatus(attempt.requestId())
+        .whenComplete(
+            (result, failure) -> {
+              try {
+                if (failure == null && result.status() != PaymentAttemptStatus.PENDING) {
+                  resolve(attempt, result);
+                  return;
+                }
+              } catch (RuntimeException e) {
+                failure = e;
+              }
+              retryOrGiveUp(attempt, attemptNumber, failure);
+            });
+  }
+
+  /**
+   * Issues a status call and, if it is still outstanding after {@code hedgeDelay}, a second one.
+   * Completes with the first successful answer, or exceptionally once every issued call failed.
+   */
+  private CompletableFuture<PaymentAttemptResult> hedgedStatus(PaymentRequestId requestId) {
+    CompletableFuture<PaymentAttemptResult> result = new CompletableFuture<>();
+    AtomicInteger outstanding = new AtomicInteger(1);
+
+    BiConsumer<PaymentAttemptResult, Throwable> onAnswer =
+        (answer, failure) -> {
+          if (failure == null) {
+            result.complete(answer);
+          } else if (outstanding.decrementAndGet() == 0) {
+            result.completeExceptionally(failure);
+          }
+        };
+
+    paymentGateway.fetchPaymentStatus(requestId, policy.callTimeout()).whenComplete(onAnswer);
+
+    if (policy.hedgingEnabled()) {
+      scheduler.schedule(
+          () -> {
+            // Only hedge while the primary call is still outstanding.
+            if (!result.isDone() && outstanding.incrementAndGet() > 1) {
+              paymentGateway
+                  .fetchPaymentStatus(requestId, policy.callTimeout())
+                  .whenComplete(onAnswer);
+            }
+          },
+          policy.hedgeDelay().toMillis(),
+          TimeUnit.MILLISECONDS);
+    }
+    return result;
+  }
+
+  private void resolve(RecordedPaymentAttempt attempt, PaymentAttemptResult result) {
+    Check check = checkRepository.findById(attempt.checkId()).orElse(null);
+    if (check != null && isOpen(check)) {
+      outcomeApplier.apply(check, result, Instant.now());
+    } else if (result.status() == PaymentAttemptStatus.APPROVED) {
+      log.error(
+          "Provider captured payment {} (reference {}) for check {} that is no longer open;"
+              + " refund or reconcile",
+          attempt.requestId().value(),
+          result.providerReference(),
+          attempt.checkId().value());
+    }
+    paymentAttemptRepository.update(
+        new RecordedPaymentAttempt(
+            attempt.requestId(), attempt.sessionId(), attempt.checkId(), result));
+  }
+
+  private void retryOrGiveUp(
+      RecordedPaymentAttempt attempt, int attemptNumber, Throwable lastFailure) {
+    if (scheduler.isShutdown()) {
+      return;
+    }
+    if (attemptNumber >= policy.maxAttempts()) {
+      giveUp(attempt, attemptNumber, lastFailure);
+      return;
+    }
+    if (isCheckClosed(attempt)) {
+      return;
+    }
+    scheduleAttempt(attempt, attemptNumber + 1);
+  }
+
+  private void giveUp(RecordedPaymentAttempt attempt, int attemptNumber, Throwable lastFailure) {
+    log.error(
+        "Payment attempt {} for check {} unresolved after {} polls; recording UNRESOLVED,"
+            + " reconcile with the provider",
+        attempt.requestId().value(),
+        attempt.checkId().value(),
+        attemptNumber,
+        lastFailure);
+    try {
+      paymentAttemptRepository.update(
+          new RecordedPaymentAttempt(
+              attempt.requestId(),
+              attempt.sessionId(),
+              attempt.checkId(),
+              PaymentAttemptResult.unresolved(attempt.attemptResult().providerReference())));
+    } catch (RuntimeException e) {
+      // Stays PENDING; the next start() picks it up again.
+      log.warn("Could not record payment attempt {} as UNRESOLVED", attempt.requestId().value(), e);
+    }
+  }
+
+  private boolean isCheckClosed(RecordedPaymentAttempt attempt) {
+    try {
+      return checkRepository.findById(attempt.checkId()).map(c -> !isOpen(c)).orElse(true);
+    } catch (RuntimeException _) {
+      // Unknown state: keep polling; resolution re-checks before applying anything.
+      return false;
+    }
+  }
+
+  private static boolean isOpen(Check check) {
+    return check.status() == CheckStatus.CREATED || check.status() == CheckStatus.AUTHORIZED;
+  }
+}
@@ -0,0 +1,75 @@
+package com.nenkov.bar.application.payment.polling;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Backoff and deadline settings for {@link PaymentStatusPoller}.
+ *
+ * <p>The delay before poll {@code n} (1-based) is {@code initialDelay * multiplier^(n-1)}, capped
+ * at {@code maxDelay}. Each status call gets {@code callTimeout}; if it has not answered after
+ * {@code hedgeDelay}, a second identical call is issued and the first answer wins.
+ *
+ * <p>Invariants:
+ *
+ * <ul>
+ *   <li>all durations are non-null and strictly positive
+ *   <li>{@code multiplier >= 1}
+ *   <li>{@code maxDelay >= initialDelay}
+ *   <li>{@code maxAttempts >= 1}
+ * </ul>
+ */
+public record PaymentStatusPollingPolicy(
+    Duration initialDelay,
+    double multiplier,
+    Duration maxDelay,
+    int maxAttempts,
+    Duration callTimeout,
+    Duration hedgeDelay) {
+
+  public PaymentStatusPollingPolicy {
+    requirePositive(initialDelay, "initialDelay");
+    requirePositive(maxDelay, "maxDelay");
+    requirePositive(callTimeout, "callTimeout");
+    requirePositive(hedgeDelay, "hedgeDelay");
+
+    if (multiplier < 1.0) {
+      throw new IllegalArgumentException("multiplier must be >= 1");
+    }
+    if (maxDelay.compareTo(initialDelay) < 0) {
+      throw new IllegalArgumentException("maxDelay must be >= initialDelay");
+    }
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("maxAttempts must be >= 1");
+    }
+  }
+
+  /**
+   * Returns the delay to wait before the given poll.
+   *
+   * @param attempt 1-based poll number
+   * @return backoff delay, capped at {@code maxDelay}
+   */
+  public Duration delayBeforeAttempt(int attempt) {
+    if (attempt < 1) {
+      throw new IllegalArgumentException("attempt must be >= 1");
+    }
+    double millis = initialDelay.toMillis() * Math.pow(multiplier, attempt - 1.0);
+    if (millis >= maxDelay.toMillis()) {
+      return maxDelay;
+    }
+    return Duration.ofMillis((long) millis);
+  }
+
+  /** Returns whether a hedged second status call is issued before the first one times out. */
+  public boolean hedgingEnabled() {
+    return hedgeDelay.compareTo(callTimeout) < 0;
+  }
+
+  private static void requirePositive(Duration value, String name) {
+    Objects.requireNonNull(value, name + " must not be null");
+    if (value.isZero() || value.isNegative()) {
+      throw new IllegalArgumentException(name + " must be > 0");
+    }
+  }
+}
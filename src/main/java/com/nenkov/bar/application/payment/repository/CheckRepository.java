@@ -3,7 +3,9 @@ package com.nenkov.bar.application.payment.repository;
 import com.nenkov.bar.application.common.persistence.RepositoryAccessException;
 import com.nenkov.bar.domain.model.payment.Check;
 import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
 import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +30,17 @@ public interface CheckRepository {
    */
   Optional<Check> findById(CheckId checkId);
 
+  /**
+   * Loads all {@link Check}s with the given ids in one read.
+   *
+   * <p>Ids that do not exist are skipped; ordering is unspecified.
+   *
+   * @param checkIds check ids (non-null, may be empty)
+   * @return found checks, possibly fewer than requested
+   * @throws RepositoryAccessException on technical/persistence failures
+   */
+  List<Check> findAllById(Collection<CheckId> checkIds);
+
   /**
    * Lists all checks belonging to a session.
    *
@@ -40,6 +53,18 @@ public interface CheckRepository {
    */
   List<Check> findBySessionId(TableSessionId sessionId);
 
+  /**
+   * Lists all checks currently in the given status, across sessions.
+   *
+   * <p>Used to rebuild in-memory schedules (e.g. check expiry) after a restart. Ordering is
+   * unspecified.
+   *
+   * @param status check status (non-null)
+   * @return possibly empty list
+   * @throws RepositoryAccessException on technical/persistence failures
+   */
+  List<Check> findByStatus(CheckStatus status);
+
   /**
    * Persists the given {@link Check}.
    *
@@ -49,4 +74,15 @@ public interface CheckRepository {
    * @throws RepositoryAccessException on technical/persistence failures
    */
   void save(Check check);
+
+  /**
+   * Persists all given {@link Check}s as one batched, atomic write.
+   *
+   * <p>Semantics: upsert (create or update) for each check. Either every check is stored or none
+   * is; implementations must not leave a partially persisted batch behind.
+   *
+   * @param checks entities to persist (non-null, may be empty)
+   * @throws RepositoryAccessException on technical/persistence failures
+   */
+  void saveAll(List<Check> checks);
 }
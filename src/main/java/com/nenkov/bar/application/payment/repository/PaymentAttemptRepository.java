@@ -3,6 +3,8 @@ package com.nenkov.bar.application.payment.repository;
 import com.nenkov.bar.application.common.persistence.RepositoryAccessException;
 import com.nenkov.bar.application.payment.model.PaymentRequestId;
 import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -23,6 +25,34 @@ public interface PaymentAttemptRepository {
    */
   Optional<RecordedPaymentAttempt> findByRequestId(PaymentRequestId requestId);
 
+  /**
+   * Loads the stored idempotency record whose outcome carries the given provider reference.
+   *
+   * @param providerReference opaque provider reference (non-null)
+   * @return empty if not found
+   * @throws RepositoryAccessException on technical/persistence failures
+   */
+  Optional<RecordedPaymentAttempt> findByProviderReference(String providerReference);
+
+  /**
+   * Loads a recorded attempt for the given check whose outcome is still {@code PENDING}.
+   *
+   * @param checkId check to look up (non-null)
+   * @return empty if no attempt for the check is pending
+   * @throws RepositoryAccessException on technical/persistence failures
+   */
+  Optional<RecordedPaymentAttempt> findPendingByCheckId(CheckId checkId);
+
+  /**
+   * Loads every recorded attempt whose outcome is still {@code PENDING}.
+   *
+   * <p>Used at startup to resume polling, which is held in memory only.
+   *
+   * @return pending attempts, in no particular order
+   * @throws RepositoryAccessException on technical/persistence failures
+   */
+  List<RecordedPaymentAttempt> findAllPending();
+
   /**
    * Persists the idempotency record.
    *
@@ -34,4 +64,15 @@ public interface PaymentAttemptRepository {
    * @throws RepositoryAccessException on technical/persistence failures
    */
   void save(RecordedPaymentAttempt paymentAttempt);
+
+  /**
+   * Replaces the stored outcome for an already recorded request id.
+   *
+   * <p>Used when a {@code PENDING} attempt is resolved asynchronously, so that replays of the same
+   * request id observe the final outcome.
+   *
+   * @param paymentAttempt record carrying the resolved outcome (non-null)
+   * @throws RepositoryAccessException on technical/persistence failures
+   */
+  void update(RecordedPaymentAttempt paymentAttempt);
 }
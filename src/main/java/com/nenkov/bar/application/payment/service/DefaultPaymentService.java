@@ -1,12 +1,19 @@
 package com.nenkov.bar.application.payment.service;
 
 import com.nenkov.bar.application.payment.handler.CreateCheckHandler;
+import com.nenkov.bar.application.payment.handler.IngestPaymentCallbacksHandler;
 import com.nenkov.bar.application.payment.handler.RecordPaymentAttemptHandler;
+import com.nenkov.bar.application.payment.handler.SplitChecksHandler;
 import com.nenkov.bar.application.payment.model.CreateCheckInput;
 import com.nenkov.bar.application.payment.model.CreateCheckResult;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksInput;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksResult;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptInput;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.SplitChecksInput;
+import com.nenkov.bar.application.payment.model.SplitChecksResult;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Default implementation of {@link PaymentService}.
@@ -17,15 +24,24 @@ public final class DefaultPaymentService implements PaymentService {
 
   private final CreateCheckHandler createCheckHandler;
   private final RecordPaymentAttemptHandler recordPaymentAttemptHandler;
+  private final SplitChecksHandler splitChecksHandler;
+  private final IngestPaymentCallbacksHandler ingestPaymentCallbacksHandler;
 
   public DefaultPaymentService(
       CreateCheckHandler createCheckHandler,
-      RecordPaymentAttemptHandler recordPaymentAttemptHandler) {
+      RecordPaymentAttemptHandler recordPaymentAttemptHandler,
+      SplitChecksHandler splitChecksHandler,
+      IngestPaymentCallbacksHandler ingestPaymentCallbacksHandler) {
     this.createCheckHandler =
         Objects.requireNonNull(createCheckHandler, "createCheckHandler must not be null");
     this.recordPaymentAttemptHandler =
         Objects.requireNonNull(
             recordPaymentAttemptHandler, "recordPaymentAttemptHandler must not be null");
+    this.splitChecksHandler =
+        Objects.requireNonNull(splitChecksHandler, "splitChecksHandler must not be null");
+    this.ingestPaymentCallbacksHandler =
+        Objects.requireNonNull(
+            ingestPaymentCallbacksHandler, "ingestPaymentCallbacksHandler must not be null");
   }
 
   @Override
@@ -34,7 +50,18 @@ public final class DefaultPaymentService implements PaymentService {
   }
 
   @Override
-  public RecordPaymentAttemptResult recordPaymentAttempt(RecordPaymentAttemptInput input) {
+  public CompletableFuture<RecordPaymentAttemptResult> recordPaymentAttempt(
+      RecordPaymentAttemptInput input) {
     return recordPaymentAttemptHandler.handle(input);
   }
+
+  @Override
+  public SplitChecksResult splitIntoChecks(SplitChecksInput input) {
+    return splitChecksHandler.handle(input);
+  }
+
+  @Override
+  public IngestPaymentCallbacksResult ingestCallbacks(IngestPaymentCallbacksInput input) {
+    return ingestPaymentCallbacksHandler.handle(input);
+  }
 }
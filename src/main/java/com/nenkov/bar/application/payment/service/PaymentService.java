@@ -2,8 +2,13 @@ package com.nenkov.bar.application.payment.service;
 
 import com.nenkov.bar.application.payment.model.CreateCheckInput;
 import com.nenkov.bar.application.payment.model.CreateCheckResult;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksInput;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksResult;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptInput;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.SplitChecksInput;
+import com.nenkov.bar.application.payment.model.SplitChecksResult;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Feature façade for payment-related workflows.
@@ -14,5 +19,14 @@ public interface PaymentService {
 
   CreateCheckResult createCheck(CreateCheckInput input);
 
-  RecordPaymentAttemptResult recordPaymentAttempt(RecordPaymentAttemptInput input);
+  /**
+   * Starts a payment attempt. The future completes once the provider's answer (or {@code PENDING}
+   * after the initiation deadline) is recorded.
+   */
+  CompletableFuture<RecordPaymentAttemptResult> recordPaymentAttempt(
+      RecordPaymentAttemptInput input);
+
+  SplitChecksResult splitIntoChecks(SplitChecksInput input);
+
+  IngestPaymentCallbacksResult ingestCallbacks(IngestPaymentCallbacksInput input);
 }
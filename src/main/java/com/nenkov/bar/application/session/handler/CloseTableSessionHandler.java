@@ -35,6 +35,11 @@ public final class CloseTableSessionHandler {
 
     tableSessionRepository.save(closed);
 
-    return new CloseTableSessionResult(closed.id(), closed.status(), closed.closedAt());
+    return new CloseTableSessionResult(
+        closed.id(),
+        closed.status(),
+        closed.closedAt(),
+        closed.itemWriteOffs(),
+        closed.sessionWriteOffs());
   }
 }
@@ -2,16 +2,29 @@ package com.nenkov.bar.application.session.model;
 
 import com.nenkov.bar.domain.model.session.TableSessionId;
 import com.nenkov.bar.domain.model.session.TableSessionStatus;
+import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOff;
 import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
 
-/** Result model for closing a table session. */
+/**
+ * Result model for closing a table session.
+ *
+ * <p>Carries the write-offs the session was closed with, so they can be reported once per session.
+ */
 public record CloseTableSessionResult(
-    TableSessionId sessionId, TableSessionStatus status, Instant closedAt) {
+    TableSessionId sessionId,
+    TableSessionStatus status,
+    Instant closedAt,
+    List<ItemWriteOff> itemWriteOffs,
+    List<WriteOff> sessionWriteOffs) {
 
   public CloseTableSessionResult {
     Objects.requireNonNull(sessionId, "sessionId must not be null");
     Objects.requireNonNull(status, "status must not be null");
     Objects.requireNonNull(closedAt, "closedAt must not be null");
+    Objects.requireNonNull(itemWriteOffs, "itemWriteOffs must not be null");
+    Objects.requireNonNull(sessionWriteOffs, "sessionWriteOffs must not be null");
   }
 }
@@ -40,10 +40,24 @@ public interface TableSessionRepository {
   /**
    * Persists the given {@link TableSession}.
    *
-   * <p>Semantics: upsert (create or update).
+   * <p>Semantics: upsert (create or update). The stored session gets the next {@link
+   * TableSession#version()}, so conditional saves based on an earlier load fail afterwards.
    *
    * @param session aggregate (non-null)
    * @throws RepositoryAccessException on technical/persistence failures
    */
   void save(TableSession session);
+
+  /**
+   * Persists {@code session} only if the stored session still has {@code session.version()}, i.e.
+   * nobody saved it since {@code session} was loaded (optimistic locking).
+   *
+   * <p>On success the stored session gets the next version. Callers reload, reapply their change
+   * and try again when this returns {@code false}.
+   *
+   * @param session aggregate derived from a loaded session (non-null)
+   * @return {@code false} if the session is missing or was saved by someone else in between
+   * @throws RepositoryAccessException on technical/persistence failures
+   */
+  boolean saveIfUnchanged(TableSession session);
 }
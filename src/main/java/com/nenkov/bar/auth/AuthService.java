@@ -1,37 +1,77 @@
 package com.nenkov.bar.auth;
 
 import com.nenkov.bar.auth.jwt.JwtService;
+import com.nenkov.bar.infrastructure.metrics.FailureOutcomes;
+import com.nenkov.bar.infrastructure.metrics.OutcomeTimer;
 import com.nenkov.bar.user.UserEntity;
 import com.nenkov.bar.user.UserRepository;
 import com.nenkov.bar.web.api.auth.LoginResponse;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 @Service
 public class AuthService {
 
+  /** Login latency, tagged with the outcome (success, invalid credentials, throttled or busy). */
+  public static final String LOGIN_TIMER = "app.auth.login";
+
   private final UserRepository userRepository;
-  private final PasswordEncoder passwordEncoder;
+  private final PasswordHashing passwordHashing;
   private final JwtService jwtService;
+  private final LoginThrottle loginThrottle;
+  private final OutcomeTimer loginTimer;
 
   public AuthService(
-      UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService) {
+      UserRepository userRepository,
+      PasswordHashing passwordHashing,
+      JwtService jwtService,
+      LoginThrottle loginThrottle,
+      MeterRegistry meterRegistry,
+      FailureOutcomes failureOutcomes) {
     this.userRepository = userRepository;
-    this.passwordEncoder = passwordEncoder;
+    this.passwordHashing = passwordHashing;
     this.jwtService = jwtService;
+    this.loginThrottle = loginThrottle;
+    this.loginTimer = new OutcomeTimer(meterRegistry, LOGIN_TIMER, Tags.empty(), failureOutcomes);
   }
 
   public Mono<LoginResponse> login(String username, String rawPassword) {
-    return userRepository
-        .findByUsername(username)
-        .filter(UserEntity::active)
-        .filter(user -> passwordEncoder.matches(rawPassword, user.passwordHash()))
-        .switchIfEmpty(Mono.error(new InvalidCredentialsException()))
-        .map(
-            user ->
-                new LoginResponse(
-                    jwtService.generateAccessToken(user.username(), user.role()),
-                    jwtService.ttlSeconds()));
+    return Mono.defer(
+        () -> {
+          long start = System.nanoTime();
+          // Reserves this attempt's failure up front; released or cleared unless it fails
+          if (!loginThrottle.tryAcquireUsername(username)) {
+            // Refused before the user lookup: no query and no BCrypt for a locked username
+            LoginThrottledException throttled = new LoginThrottledException();
+            loginTimer.record(System.nanoTime() - start, throttled);
+            return Mono.error(throttled);
+          }
+          return userRepository
+              .findByUsername(username)
+              .filter(UserEntity::active)
+              // BCrypt runs on the hashing pool, never on the event loop
+              .filterWhen(user -> passwordHashing.matches(rawPassword, user.passwordHash()))
+              .switchIfEmpty(Mono.error(new InvalidCredentialsException()))
+              .map(
+                  user ->
+                      new LoginResponse(
+                          jwtService.generateAccessToken(user.username(), user.role()),
+                          jwtService.ttlSeconds()))
+              .doOnSuccess(
+                  _ -> {
+                    loginThrottle.usernameSucceeded(username);
+                    loginTimer.record(System.nanoTime() - start, null);
+                  })
+              .doOnError(
+                  e -> {
+                    if (!(e instanceof InvalidCredentialsException)) {
+                      loginThrottle.releaseUsername(username);
+                    }
+                    loginTimer.record(System.nanoTime() - start, e);
+                  })
+              .doOnCancel(() -> loginThrottle.releaseUsername(username));
+        });
   }
 }
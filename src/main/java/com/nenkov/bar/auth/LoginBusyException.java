@@ -0,0 +1,12 @@
+package com.nenkov.bar.auth;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Thrown when every password hashing worker is busy and the waiting queue is full. */
+public class LoginBusyException extends ResponseStatusException {
+
+  public LoginBusyException() {
+    super(HttpStatus.SERVICE_UNAVAILABLE, "Too many logins in progress");
+  }
+}
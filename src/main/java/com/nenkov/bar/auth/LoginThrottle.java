@@ -0,0 +1,124 @@
+package com.nenkov.bar.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Counts failed logins per username and per client address, and refuses new attempts from either
+ * once it has failed too often within its window.
+ *
+ * <p>A username is locked after a few failures and unlocked by a successful login, which stops
+ * password guessing against one account. A client address gets a much larger allowance, since a
+ * whole bar's tablets usually share one address; it stops one client from guessing across many
+ * usernames. Both checks happen before the user is looked up, so a throttled attempt costs neither
+ * a database query nor a BCrypt check.
+ *
+ * <p>Publishes {@value #METRIC_PREFIX}{@code throttled} (tagged {@code key=username|client}) and
+ * {@code tracked} (keys currently counted).
+ *
+ * <p>Thread-safe.
+ */
+public final class LoginThrottle {
+
+  /** Name prefix of every meter. */
+  public static final String METRIC_PREFIX = "app.auth.login.";
+
+  private final Limit perUsername;
+  private final Limit perClient;
+  private final SlidingWindowCounters usernames;
+  private final SlidingWindowCounters clients;
+  private final Counter usernameThrottled;
+  private final Counter clientThrottled;
+
+  public LoginThrottle(
+      Limit perUsername, Limit perClient, int maxKeys, Clock clock, MeterRegistry registry) {
+    this.perUsername = Objects.requireNonNull(perUsername, "perUsername must not be null");
+    this.perClient = Objects.requireNonNull(perClient, "perClient must not be null");
+    Objects.requireNonNull(registry, "registry must not be null");
+    this.usernames = new SlidingWindowCounters(perUsername.window(), maxKeys, clock);
+    this.clients = new SlidingWindowCounters(perClient.window(), maxKeys, clock);
+
+    this.usernameThrottled =
+        Counter.builder(METRIC_PREFIX + "throttled").tag("key", "username").register(registry);
+    this.clientThrottled =
+        Counter.builder(METRIC_PREFIX + "throttled").tag("key", "client").register(registry);
+    Gauge.builder(METRIC_PREFIX + "tracked", usernames, SlidingWindowCounters::size)
+        .tag("key", "username")
+        .register(registry);
+    Gauge.builder(METRIC_PREFIX + "tracked", clients, SlidingWindowCounters::size)
+        .tag("key", "client")
+        .register(registry);
+  }
+
+  /**
+   * Reserves a failure slot for {@code username} before its attempt is checked. Returns {@code
+   * false}, counting a refusal in the metrics, if its failures already reached the limit.
+   *
+   * <p>Reserving up front means concurrent attempts cannot all pass a check that none of their
+   * failures has been counted against yet. The reservation stands as the failure if the attempt
+   * fails; otherwise the caller calls {@link #usernameSucceeded} or {@link #releaseUsername}.
+   */
+  public boolean tryAcquireUsername(String username) {
+    return tryAcquire(usernames, usernameKey(username), perUsername, usernameThrottled);
+  }
+
+  /** Takes back a reservation whose attempt neither failed nor succeeded (e.g. it was refused). */
+  public void releaseUsername(String username) {
+    usernames.decrement(usernameKey(username));
+  }
+
+  /** Forgets earlier failures, so a mistyped password does not count against the next one. */
+  public void usernameSucceeded(String username) {
+    usernames.clear(usernameKey(username));
+  }
+
+  /** Like {@link #tryAcquireUsername}, for the client at {@code address}. */
+  public boolean tryAcquireClient(String address) {
+    return tryAcquire(clients, address, perClient, clientThrottled);
+  }
+
+  /** Takes back a client reservation whose attempt did not fail. */
+  public void releaseClient(String address) {
+    clients.decrement(address);
+  }
+
+  /** Window of the per-client limit; refused clients are told to retry after it. */
+  public Duration clientWindow() {
+    return perClient.window();
+  }
+
+  private static boolean tryAcquire(
+      SlidingWindowCounters counters, String key, Limit limit, Counter throttled) {
+    if (counters.tryIncrement(key, limit.failures())) {
+      return true;
+    }
+    throttled.increment();
+    return false;
+  }
+
+  /** Usernames differing only in case or surrounding blanks share one count. */
+  private static String usernameKey(String username) {
+    return username.strip().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Failed logins allowed within a sliding window.
+   *
+   * @param failures failures after which attempts are refused
+   * @param window length of the sliding window
+   */
+  public record Limit(int failures, Duration window) {
+
+    public Limit {
+      Objects.requireNonNull(window, "window must not be null");
+      if (failures < 1) {
+        throw new IllegalArgumentException("failures must be >= 1");
+      }
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.nenkov.bar.auth;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Thrown when a username or client has failed to log in too often recently. */
+public class LoginThrottledException extends ResponseStatusException {
+
+  public LoginThrottledException() {
+    super(HttpStatus.TOO_MANY_REQUESTS, "Too many failed logins");
+  }
+}
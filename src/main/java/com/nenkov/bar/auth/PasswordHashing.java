@@ -0,0 +1,100 @@
+package com.nenkov.bar.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs password hashing and verification on a small dedicated pool instead of the event loop.
+ *
+ * <p>BCrypt is slow on purpose, so a burst of logins on a Netty event loop would stall every other
+ * request served by it. Here {@code threads} workers take the work, at most {@code queueCapacity}
+ * calls wait for one, and any call beyond that fails at once with {@link LoginBusyException} rather
+ * than queueing without bound. Results are emitted on the worker thread.
+ *
+ * <p>Publishes {@value #METRIC_PREFIX}{@code queue} (calls waiting), {@code active} (calls being
+ * hashed), {@code rejected} and {@code duration} (time spent hashing, without the wait).
+ *
+ * <p>Thread-safe.
+ */
+public final class PasswordHashing implements AutoCloseable {
+
+  /** Name prefix of every meter. */
+  public static final String METRIC_PREFIX = "app.auth.password.";
+
+  private final PasswordEncoder encoder;
+  private final ThreadPoolExecutor executor;
+  private final Timer duration;
+  private final Counter rejected;
+
+  public PasswordHashing(
+      PasswordEncoder encoder, int threads, int queueCapacity, MeterRegistry registry) {
+    this.encoder = Objects.requireNonNull(encoder, "encoder must not be null");
+    Objects.requireNonNull(registry, "registry must not be null");
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be >= 1");
+    }
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("queueCapacity must be >= 1");
+    }
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder(METRIC_PREFIX + "queue", executor, pool -> pool.getQueue().size())
+        .register(registry);
+    Gauge.builder(METRIC_PREFIX + "active", executor, ThreadPoolExecutor::getActiveCount)
+        .register(registry);
+    this.rejected = Counter.builder(METRIC_PREFIX + "rejected").register(registry);
+    this.duration = Timer.builder(METRIC_PREFIX + "duration").register(registry);
+  }
+
+  /** Whether {@code rawPassword} matches {@code encodedPassword}. */
+  public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(() -> encoder.matches(rawPassword, encodedPassword));
+  }
+
+  /** Hash of {@code rawPassword} for storage. */
+  public Mono<String> encode(CharSequence rawPassword) {
+    return submit(() -> encoder.encode(rawPassword));
+  }
+
+  /** Number of calls waiting for a worker. */
+  public int queued() {
+    return executor.getQueue().size();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private <T> Mono<T> submit(Supplier<T> work) {
+    return Mono.defer(
+        () -> {
+          try {
+            return Mono.fromFuture(
+                CompletableFuture.supplyAsync(() -> duration.record(work), executor));
+          } catch (RejectedExecutionException _) {
+            rejected.increment();
+            return Mono.error(new LoginBusyException());
+          }
+        });
+  }
+}
@@ -0,0 +1,163 @@
+package com.nenkov.bar.auth;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-key event counts over a sliding window, approximated from two fixed windows.
+ *
+ * <p>Each key keeps the count of the current fixed window and of the one before it. The sliding
+ * count weighs the previous window by how much of it still overlaps the sliding window, which is
+ * exact for evenly spread events and never off by more than the previous window's count. That is
+ * one small object per key instead of a timestamp per event.
+ *
+ * <p>Counts decay to zero on their own once a key sees no events for two windows; such keys are
+ * dropped when read, and swept out whenever more than {@code maxKeys} are tracked. If the sweep
+ * frees nothing, new keys are not counted until it does, so a flood of distinct keys cannot grow
+ * the map without bound.
+ *
+ * <p>Thread-safe.
+ */
+public final class SlidingWindowCounters {
+
+  private final long windowMillis;
+  private final int maxKeys;
+  private final Clock clock;
+  private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+  public SlidingWindowCounters(Duration window, int maxKeys, Clock clock) {
+    Objects.requireNonNull(window, "window must not be null");
+    this.clock = Objects.requireNonNull(clock, "clock must not be null");
+    if (window.toMillis() < 1) {
+      throw new IllegalArgumentException("window must be at least 1ms");
+    }
+    if (maxKeys < 1) {
+      throw new IllegalArgumentException("maxKeys must be >= 1");
+    }
+    this.windowMillis = window.toMillis();
+    this.maxKeys = maxKeys;
+  }
+
+  /** Events counted for {@code key} over the last window. */
+  public double count(String key) {
+    Window window = windows.get(key);
+    if (window == null) {
+      return 0;
+    }
+    long now = clock.millis();
+    double count = window.slidingCount(now, windowMillis);
+    if (count == 0 && window.isStale(now, windowMillis)) {
+      windows.remove(key, window);
+    }
+    return count;
+  }
+
+  /** Counts one event for {@code key}. */
+  public void increment(String key) {
+    if (windows.size() >= maxKeys && !windows.containsKey(key) && !sweep()) {
+      return;
+    }
+    long now = clock.millis();
+    windows.compute(
+        key,
+        (_, window) ->
+            window == null ? Window.first(now, windowMillis) : window.add(now, windowMillis));
+  }
+
+  /**
+   * Counts one event for {@code key} unless it already has {@code limit} or more; check and count
+   * are one atomic step, so concurrent callers cannot all pass the same check.
+   *
+   * @return whether the event was admitted (and counted)
+   */
+  public boolean tryIncrement(String key, int limit) {
+    if (windows.size() >= maxKeys && !windows.containsKey(key) && !sweep()) {
+      return true;
+    }
+    long now = clock.millis();
+    while (true) {
+      Window window = windows.get(key);
+      if (window == null) {
+        if (windows.putIfAbsent(key, Window.first(now, windowMillis)) == null) {
+          return true;
+        }
+      } else if (window.slidingCount(now, windowMillis) >= limit) {
+        return false;
+      } else if (windows.replace(key, window, window.add(now, windowMillis))) {
+        return true;
+      }
+    }
+  }
+
+  /** Takes back one event counted for {@code key}, e.g. a reservation that was not used. */
+  public void decrement(String key) {
+    long now = clock.millis();
+    windows.computeIfPresent(key, (_, window) -> window.remove(now, windowMillis));
+  }
+
+  /** Forgets every event counted for {@code key}. */
+  public void clear(String key) {
+    windows.remove(key);
+  }
+
+  /** Number of keys currently tracked. */
+  public int size() {
+    return windows.size();
+  }
+
+  /** Drops keys whose counts have decayed to zero; returns whether there is room for a new key. */
+  private boolean sweep() {
+    long now = clock.millis();
+    windows.values().removeIf(window -> window.isStale(now, windowMillis));
+    return windows.size() < maxKeys;
+  }
+
+  /**
+   * Counts of the fixed window starting at {@code start} and of the one just before it.
+   *
+   * @param start start of the current fixed window, a multiple of the window length
+   * @param previous events in the previous fixed window
+   * @param current events in the current fixed window
+   */
+  private record Window(long start, int previous, int current) {
+
+    static Window first(long now, long windowMillis) {
+      return new Window(now - Math.floorMod(now, windowMillis), 0, 1);
+    }
+
+    Window add(long now, long windowMillis) {
+      Window rolled = rollTo(now, windowMillis);
+      return new Window(rolled.start, rolled.previous, rolled.current + 1);
+    }
+
+    Window remove(long now, long windowMillis) {
+      Window rolled = rollTo(now, windowMillis);
+      if (rolled.current > 0) {
+        return new Window(rolled.start, rolled.previous, rolled.current - 1);
+      }
+      return new Window(rolled.start, Math.max(0, rolled.previous - 1), 0);
+    }
+
+    double slidingCount(long now, long windowMillis) {
+      Window rolled = rollTo(now, windowMillis);
+      double overlap = 1.0 - (double) (now - rolled.start) / windowMillis;
+      return rolled.previous * overlap + rolled.current;
+    }
+
+    boolean isStale(long now, long windowMillis) {
+      return now - start >= 2 * windowMillis;
+    }
+
+    private Window rollTo(long now, long windowMillis) {
+      long elapsed = (now - start) / windowMillis;
+      if (elapsed <= 0) {
+        return this;
+      }
+      long newStart = start + elapsed * windowMillis;
+      return new Window(newStart, elapsed == 1 ? current : 0, 0);
+    }
+  }
+}
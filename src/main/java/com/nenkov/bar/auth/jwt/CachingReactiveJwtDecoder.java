@@ -0,0 +1,122 @@
+package com.nenkov.bar.auth.jwt;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Remembers tokens the delegate has already verified, so a client that sends the same bearer token
+ * on every request pays for signature verification and claim parsing once.
+ *
+ * <p>Entries are keyed by a SHA-256 digest of the token, so the cache never holds bearer tokens
+ * themselves, and each entry is dropped once the token's {@code exp} has passed; the delegate then
+ * sees the token again and rejects it. Tokens without an expiry and tokens the delegate rejects are
+ * never cached. Eviction beyond {@code capacity} is least-recently-used.
+ *
+ * <p>Publishes {@value #METRIC_PREFIX}{@code gets} (tagged {@code result=hit|miss}), {@code
+ * evictions} and {@code size}.
+ *
+ * <p>Thread-safe.
+ */
+public final class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+  /** Name prefix of every meter. */
+  public static final String METRIC_PREFIX = "app.auth.jwt.cache.";
+
+  private final ReactiveJwtDecoder delegate;
+  private final Clock clock;
+  private final Map<String, Jwt> verified;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public CachingReactiveJwtDecoder(
+      ReactiveJwtDecoder delegate, int capacity, Clock clock, MeterRegistry registry) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    this.clock = Objects.requireNonNull(clock, "clock must not be null");
+    Objects.requireNonNull(registry, "registry must not be null");
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be >= 1");
+    }
+    this.verified =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Jwt> eldest) {
+            if (size() > capacity) {
+              evictions.increment();
+              return true;
+            }
+            return false;
+          }
+        };
+
+    FunctionCounter.builder(METRIC_PREFIX + "gets", hits, LongAdder::doubleValue)
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + "gets", misses, LongAdder::doubleValue)
+        .tag("result", "miss")
+        .register(registry);
+    FunctionCounter.builder(METRIC_PREFIX + "evictions", evictions, LongAdder::doubleValue)
+        .register(registry);
+    Gauge.builder(METRIC_PREFIX + "size", this, CachingReactiveJwtDecoder::size).register(registry);
+  }
+
+  @Override
+  public Mono<Jwt> decode(String token) {
+    String key = digest(token);
+    Jwt cached = lookUp(key);
+    if (cached != null) {
+      hits.increment();
+      return Mono.just(cached);
+    }
+    misses.increment();
+    return delegate.decode(token).doOnNext(jwt -> remember(key, jwt));
+  }
+
+  /** Returns the number of tokens currently cached. */
+  public synchronized int size() {
+    return verified.size();
+  }
+
+  private synchronized Jwt lookUp(String key) {
+    Jwt jwt = verified.get(key);
+    if (jwt != null && !clock.instant().isBefore(jwt.getExpiresAt())) {
+      verified.remove(key);
+      return null;
+    }
+    return jwt;
+  }
+
+  private void remember(String key, Jwt jwt) {
+    Instant expiresAt = jwt.getExpiresAt();
+    if (expiresAt == null || !clock.instant().isBefore(expiresAt)) {
+      return;
+    }
+    synchronized (this) {
+      verified.put(key, jwt);
+    }
+  }
+
+  private static String digest(String token) {
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
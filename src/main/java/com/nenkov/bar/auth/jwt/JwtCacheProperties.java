@@ -0,0 +1,14 @@
+package com.nenkov.bar.auth.jwt;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Cache of verified bearer tokens in front of the JWT decoder.
+ *
+ * @param enabled whether verified tokens are cached
+ * @param capacity tokens kept; the least recently used are dropped beyond this
+ */
+@ConfigurationProperties(prefix = "app.jwt.cache")
+public record JwtCacheProperties(
+    @DefaultValue("true") boolean enabled, @DefaultValue("10000") int capacity) {}
@@ -1,7 +1,9 @@
 package com.nenkov.bar.auth.jwt;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.springframework.context.annotation.Bean;
@@ -20,8 +22,15 @@ public class JwtCryptoConfig {
   }
 
   @Bean
-  public ReactiveJwtDecoder reactiveJwtDecoder(JwtProperties props) {
-    return NimbusReactiveJwtDecoder.withSecretKey(hmacKey(props.secret())).build();
+  public ReactiveJwtDecoder reactiveJwtDecoder(
+      JwtProperties props, JwtCacheProperties cache, MeterRegistry meterRegistry) {
+    ReactiveJwtDecoder decoder =
+        NimbusReactiveJwtDecoder.withSecretKey(hmacKey(props.secret())).build();
+    if (!cache.enabled()) {
+      return decoder;
+    }
+    return new CachingReactiveJwtDecoder(
+        decoder, cache.capacity(), Clock.systemUTC(), meterRegistry);
   }
 
   private SecretKey hmacKey(String secret) {
@@ -0,0 +1,35 @@
+package com.nenkov.bar.config;
+
+import com.nenkov.bar.infrastructure.reactive.EventLoopBlockingDetector;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.NonBlocking;
+
+/**
+ * Watches Reactor's non-blocking threads (Netty event loops, parallel scheduler) for blocking
+ * calls.
+ *
+ * <p>Disabled with {@code app.reactive.blocking-detection.mode=OFF}.
+ */
+@Configuration
+@ConditionalOnExpression("'${app.reactive.blocking-detection.mode:SAMPLED}' != 'OFF'")
+public class BlockingDetectionConfig {
+
+  private static final String ENDPOINT_PACKAGE = "com.nenkov.bar.web.";
+
+  @Bean(initMethod = "start")
+  public EventLoopBlockingDetector eventLoopBlockingDetector(
+      BlockingDetectionProperties properties, MeterRegistry meterRegistry) {
+    return new EventLoopBlockingDetector(
+        properties.mode(),
+        properties.interval(),
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("event-loop-blocking-detector").daemon().factory()),
+        meterRegistry,
+        NonBlocking.class::isInstance,
+        ENDPOINT_PACKAGE);
+  }
+}
@@ -0,0 +1,18 @@
+package com.nenkov.bar.config;
+
+import com.nenkov.bar.infrastructure.reactive.EventLoopBlockingDetector;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Event-loop blocking detection.
+ *
+ * @param mode {@code OFF}, {@code SAMPLED} (count and log) or {@code STRICT} (also keep reports so
+ *     tests can fail on them)
+ * @param interval sampling interval; blocks shorter than this may go unnoticed
+ */
+@ConfigurationProperties(prefix = "app.reactive.blocking-detection")
+public record BlockingDetectionProperties(
+    @DefaultValue("SAMPLED") EventLoopBlockingDetector.Mode mode,
+    @DefaultValue("100ms") Duration interval) {}
@@ -0,0 +1,39 @@
+package com.nenkov.bar.config;
+
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.infrastructure.persistence.InMemoryCheckRepository;
+import com.nenkov.bar.infrastructure.persistence.InMemoryPaymentAttemptRepository;
+import com.nenkov.bar.infrastructure.persistence.InMemoryTableSessionRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Replaces the placeholder repositories with in-memory stores.
+ *
+ * <p>Activate with {@code --spring.profiles.active=in-memory} to run the full API without a
+ * database, e.g. together with {@code simulated-payments} for load tests. State is lost on restart.
+ */
+@Configuration
+@Profile(InMemoryRepositoryConfig.PROFILE)
+public class InMemoryRepositoryConfig {
+
+  public static final String PROFILE = "in-memory";
+
+  @Bean
+  public TableSessionRepository tableSessionRepository() {
+    return new InMemoryTableSessionRepository();
+  }
+
+  @Bean
+  public CheckRepository checkRepository() {
+    return new InMemoryCheckRepository();
+  }
+
+  @Bean
+  public PaymentAttemptRepository paymentAttemptRepository() {
+    return new InMemoryPaymentAttemptRepository();
+  }
+}
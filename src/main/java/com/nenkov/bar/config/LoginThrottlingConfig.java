@@ -0,0 +1,39 @@
+package com.nenkov.bar.config;
+
+import com.nenkov.bar.auth.LoginThrottle;
+import com.nenkov.bar.web.api.auth.LoginThrottlingWebFilter;
+import com.nenkov.bar.web.api.error.factory.ApiProblemFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+
+/**
+ * Failed-login throttling ({@code app.auth.login-throttling}).
+ *
+ * <p>{@link LoginThrottlingWebFilter} refuses clients that fail too often; {@code AuthService}
+ * refuses usernames that do.
+ */
+@Configuration
+public class LoginThrottlingConfig {
+
+  @Bean
+  public LoginThrottle loginThrottle(
+      LoginThrottlingProperties properties, MeterRegistry meterRegistry) {
+    return new LoginThrottle(
+        new LoginThrottle.Limit(properties.username().failures(), properties.username().window()),
+        new LoginThrottle.Limit(properties.client().failures(), properties.client().window()),
+        properties.maxKeys(),
+        Clock.systemUTC(),
+        meterRegistry);
+  }
+
+  @Bean
+  public LoginThrottlingWebFilter loginThrottlingWebFilter(
+      LoginThrottle loginThrottle,
+      ApiProblemFactory problemFactory,
+      ServerCodecConfigurer serverCodecConfigurer) {
+    return new LoginThrottlingWebFilter(loginThrottle, problemFactory, serverCodecConfigurer);
+  }
+}
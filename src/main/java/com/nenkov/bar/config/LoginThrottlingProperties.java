@@ -0,0 +1,23 @@
+package com.nenkov.bar.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Failed-login throttling for {@code POST /auth/login}.
+ *
+ * @param username limit per username; a successful login resets its count
+ * @param client limit per client address, shared by every device behind it
+ * @param maxKeys usernames, and separately client addresses, counted at once
+ */
+@ConfigurationProperties(prefix = "app.auth.login-throttling")
+public record LoginThrottlingProperties(
+    @DefaultValue Username username,
+    @DefaultValue Client client,
+    @DefaultValue("100000") int maxKeys) {
+
+  public record Username(@DefaultValue("5") int failures, @DefaultValue("5m") Duration window) {}
+
+  public record Client(@DefaultValue("50") int failures, @DefaultValue("1m") Duration window) {}
+}
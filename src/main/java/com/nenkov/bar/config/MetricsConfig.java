@@ -0,0 +1,117 @@
+package com.nenkov.bar.config;
+
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.infrastructure.metrics.AllocationAccountingWebFilter;
+import com.nenkov.bar.infrastructure.metrics.BusinessCounters;
+import com.nenkov.bar.infrastructure.metrics.FailureOutcomes;
+import com.nenkov.bar.infrastructure.metrics.MeteredRepositories;
+import com.nenkov.bar.infrastructure.metrics.ProfiledReactiveJwtDecoder;
+import com.nenkov.bar.infrastructure.metrics.RequestAllocation;
+import com.nenkov.bar.infrastructure.metrics.RequestProfile;
+import com.nenkov.bar.infrastructure.metrics.SlowRequestLog;
+import com.nenkov.bar.infrastructure.metrics.SlowRequestWebFilter;
+import com.nenkov.bar.infrastructure.metrics.SlowRequestsEndpoint;
+import com.nenkov.bar.web.api.error.mapping.ApiExceptionMapperRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.time.Clock;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+/**
+ * Metrics wiring.
+ *
+ * <p>Handler timers and spans, and the shared {@link BusinessCounters}, are applied where each
+ * service is assembled (feature configs). Repository timers and spans are applied here to every
+ * repository bean, whichever configuration provides it. Timers name failures after the exception
+ * types {@link ApiExceptionMapperRegistry} maps ({@link FailureOutcomes}).
+ *
+ * <p>Per-request allocation accounting is opt-in ({@code app.metrics.allocation.enabled}).
+ * Slow-request sampling is on by default ({@code app.metrics.slow-requests}); the JWT decoder is
+ * wrapped so that auth time shows up in its stage breakdown.
+ */
+@Configuration
+public class MetricsConfig {
+
+  private static final List<Class<?>> TIMED_REPOSITORIES =
+      List.of(TableSessionRepository.class, CheckRepository.class, PaymentAttemptRepository.class);
+
+  @Bean
+  public static BeanPostProcessor repositoryMetricsPostProcessor(
+      ObjectProvider<MeterRegistry> meterRegistry,
+      ObjectProvider<Tracer> tracer,
+      ObjectProvider<FailureOutcomes> failureOutcomes) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        for (Class<?> type : TIMED_REPOSITORIES) {
+          if (type.isInstance(bean)) {
+            return wrap(
+                type,
+                bean,
+                meterRegistry.getObject(),
+                tracer.getIfAvailable(() -> Tracer.NOOP),
+                failureOutcomes.getIfAvailable(FailureOutcomes::unnamed));
+          }
+        }
+        if (bean instanceof ReactiveJwtDecoder decoder) {
+          return new ProfiledReactiveJwtDecoder(decoder);
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public FailureOutcomes failureOutcomes(ApiExceptionMapperRegistry mapperRegistry) {
+    return FailureOutcomes.naming(mapperRegistry.mappedTypes());
+  }
+
+  @Bean
+  public BusinessCounters businessCounters(MeterRegistry meterRegistry) {
+    return new BusinessCounters(meterRegistry);
+  }
+
+  @Bean
+  @ConditionalOnBooleanProperty("app.metrics.allocation.enabled")
+  public AllocationAccountingWebFilter allocationAccountingWebFilter(MeterRegistry meterRegistry) {
+    RequestAllocation.enableContextPropagation();
+    return new AllocationAccountingWebFilter(meterRegistry);
+  }
+
+  @Bean
+  @ConditionalOnBooleanProperty(name = "app.metrics.slow-requests.enabled", matchIfMissing = true)
+  public SlowRequestLog slowRequestLog(SlowRequestProperties properties) {
+    return new SlowRequestLog(properties.capacity());
+  }
+
+  @Bean
+  @ConditionalOnBooleanProperty(name = "app.metrics.slow-requests.enabled", matchIfMissing = true)
+  public SlowRequestWebFilter slowRequestWebFilter(
+      SlowRequestLog slowRequestLog, SlowRequestProperties properties) {
+    RequestProfile.enableContextPropagation();
+    return new SlowRequestWebFilter(slowRequestLog, properties.threshold(), Clock.systemUTC());
+  }
+
+  @Bean
+  @ConditionalOnBooleanProperty(name = "app.metrics.slow-requests.enabled", matchIfMissing = true)
+  public SlowRequestsEndpoint slowRequestsEndpoint(SlowRequestLog slowRequestLog) {
+    return new SlowRequestsEndpoint(slowRequestLog);
+  }
+
+  private static <T> T wrap(
+      Class<T> type,
+      Object bean,
+      MeterRegistry meterRegistry,
+      Tracer tracer,
+      FailureOutcomes failureOutcomes) {
+    return MeteredRepositories.wrap(type, type.cast(bean), meterRegistry, tracer, failureOutcomes);
+  }
+}
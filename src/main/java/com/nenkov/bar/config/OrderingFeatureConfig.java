@@ -4,6 +4,12 @@ import com.nenkov.bar.application.ordering.handler.AddOrderItemsHandler;
 import com.nenkov.bar.application.ordering.service.DefaultOrderingService;
 import com.nenkov.bar.application.ordering.service.OrderingService;
 import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.infrastructure.metrics.BusinessCounters;
+import com.nenkov.bar.infrastructure.metrics.FailureOutcomes;
+import com.nenkov.bar.infrastructure.metrics.MeteredOrderingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,7 +23,17 @@ public class OrderingFeatureConfig {
   }
 
   @Bean
-  OrderingService orderingService(AddOrderItemsHandler addOrderItemsHandler) {
-    return new DefaultOrderingService(addOrderItemsHandler);
+  OrderingService orderingService(
+      AddOrderItemsHandler addOrderItemsHandler,
+      MeterRegistry meterRegistry,
+      ObjectProvider<Tracer> tracer,
+      FailureOutcomes failureOutcomes,
+      BusinessCounters businessCounters) {
+    return new MeteredOrderingService(
+        new DefaultOrderingService(addOrderItemsHandler),
+        meterRegistry,
+        tracer.getIfAvailable(() -> Tracer.NOOP),
+        failureOutcomes,
+        businessCounters);
   }
 }
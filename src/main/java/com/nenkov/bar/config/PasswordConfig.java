@@ -1,5 +1,7 @@
 package com.nenkov.bar.config;
 
+import com.nenkov.bar.auth.PasswordHashing;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -13,4 +15,14 @@ public class PasswordConfig {
     // BCrypt: safe default for storing passwords (adaptive hashing)
     return new BCryptPasswordEncoder();
   }
+
+  @Bean
+  public PasswordHashing passwordHashing(
+      PasswordEncoder passwordEncoder,
+      PasswordHashingProperties properties,
+      MeterRegistry meterRegistry) {
+    // Keeps BCrypt off the event loop; see PasswordHashing
+    return new PasswordHashing(
+        passwordEncoder, properties.threads(), properties.queueCapacity(), meterRegistry);
+  }
 }
@@ -0,0 +1,14 @@
+package com.nenkov.bar.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Worker pool for password hashing and verification.
+ *
+ * @param threads workers hashing at once; each keeps one core busy for the length of a BCrypt call
+ * @param queueCapacity calls allowed to wait for a worker; logins beyond this are rejected
+ */
+@ConfigurationProperties(prefix = "app.auth.password-hashing")
+public record PasswordHashingProperties(
+    @DefaultValue("2") int threads, @DefaultValue("64") int queueCapacity) {}
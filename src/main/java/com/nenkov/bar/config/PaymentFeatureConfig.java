@@ -1,8 +1,17 @@
 package com.nenkov.bar.config;
 
+import com.nenkov.bar.application.payment.callback.RecentCallbackIds;
+import com.nenkov.bar.application.payment.expiry.CheckExpiryScheduler;
+import com.nenkov.bar.application.payment.gateway.AsyncPaymentGateway;
 import com.nenkov.bar.application.payment.gateway.PaymentGateway;
+import com.nenkov.bar.application.payment.handler.CheckClaims;
 import com.nenkov.bar.application.payment.handler.CreateCheckHandler;
+import com.nenkov.bar.application.payment.handler.IngestPaymentCallbacksHandler;
+import com.nenkov.bar.application.payment.handler.PaymentOutcomeApplier;
 import com.nenkov.bar.application.payment.handler.RecordPaymentAttemptHandler;
+import com.nenkov.bar.application.payment.handler.SplitChecksHandler;
+import com.nenkov.bar.application.payment.polling.PaymentStatusPoller;
+import com.nenkov.bar.application.payment.polling.PaymentStatusPollingPolicy;
 import com.nenkov.bar.application.payment.repository.CheckRepository;
 import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
 import com.nenkov.bar.application.payment.service.DefaultPaymentService;
@@ -10,39 +19,216 @@ import com.nenkov.bar.application.payment.service.PaymentService;
 import com.nenkov.bar.application.session.repository.TableSessionRepository;
 import com.nenkov.bar.domain.service.payment.CheckAmountCalculator;
 import com.nenkov.bar.domain.service.payment.DefaultCheckAmountCalculator;
+import com.nenkov.bar.infrastructure.metrics.BusinessCounters;
+import com.nenkov.bar.infrastructure.metrics.FailureOutcomes;
+import com.nenkov.bar.infrastructure.metrics.MeteredPaymentService;
+import com.nenkov.bar.infrastructure.payment.ExecutorAsyncPaymentGateway;
+import com.nenkov.bar.infrastructure.payment.ResilientPaymentGateway;
+import com.nenkov.bar.infrastructure.resilience.CircuitBreaker;
+import com.nenkov.bar.web.api.error.factory.ApiProblemFactory;
+import com.nenkov.bar.web.api.payment.PaymentCallbackSignature;
+import com.nenkov.bar.web.api.payment.PaymentCallbackSignatureWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.time.Clock;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
 
 /** Payment feature wiring. */
 @Configuration
 public class PaymentFeatureConfig {
 
+  private static final Logger log = LoggerFactory.getLogger(PaymentFeatureConfig.class);
+
   @Bean
   public CheckAmountCalculator checkAmountCalculator() {
     return new DefaultCheckAmountCalculator();
   }
 
+  @Bean
+  public CheckClaims checkClaims() {
+    return new CheckClaims();
+  }
+
+  @Bean(initMethod = "start")
+  public CheckExpiryScheduler checkExpiryScheduler(
+      CheckRepository checkRepository,
+      PaymentAttemptRepository paymentAttemptRepository,
+      CheckClaims checkClaims,
+      PaymentProperties paymentProperties) {
+    PaymentProperties.CheckExpiry expiry = paymentProperties.checkExpiry();
+    return new CheckExpiryScheduler(
+        checkRepository,
+        paymentAttemptRepository,
+        checkClaims,
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("check-expiry").daemon().factory()),
+        expiry.ttl(),
+        expiry.tick(),
+        expiry.wheelSize(),
+        expiry.batchSize(),
+        Clock.systemUTC());
+  }
+
   @Bean
   public CreateCheckHandler createCheckHandler(
       TableSessionRepository tableSessionRepository,
       CheckRepository checkRepository,
-      CheckAmountCalculator checkAmountCalculator) {
-    return new CreateCheckHandler(tableSessionRepository, checkRepository, checkAmountCalculator);
+      CheckAmountCalculator checkAmountCalculator,
+      CheckExpiryScheduler checkExpiryScheduler) {
+    return new CreateCheckHandler(
+        tableSessionRepository, checkRepository, checkAmountCalculator, checkExpiryScheduler);
   }
 
+  /**
+   * Runs blocking provider calls on virtual threads so slow terminals never occupy request workers.
+   * Calls pass through a bulkhead and circuit breaker so a degraded provider fails fast instead of
+   * piling up work. The executor carries the caller's trace context onto the virtual thread and is
+   * shut down with the context (the gateway is {@link AutoCloseable}).
+   */
   @Bean
-  public RecordPaymentAttemptHandler recordPaymentAttemptHandler(
+  public AsyncPaymentGateway asyncPaymentGateway(
       PaymentGateway paymentGateway,
+      PaymentProperties paymentProperties,
+      MeterRegistry meterRegistry,
+      ObjectProvider<Tracer> tracer) {
+    PaymentProperties.Resilience resilience = paymentProperties.resilience();
+    PaymentGateway resilientGateway =
+        new ResilientPaymentGateway(
+            paymentGateway,
+            resilience.maxConcurrentCalls(),
+            new CircuitBreaker.Settings(
+                resilience.slidingWindowSize(),
+                resilience.minimumCalls(),
+                resilience.failureRateThreshold(),
+                resilience.slowCallRateThreshold(),
+                resilience.slowCallDuration(),
+                resilience.openStateDuration(),
+                resilience.halfOpenPermittedCalls()),
+            meterRegistry,
+            tracer.getIfAvailable(() -> Tracer.NOOP),
+            System::nanoTime);
+    return new ExecutorAsyncPaymentGateway(
+        resilientGateway,
+        tracer
+            .getIfAvailable(() -> Tracer.NOOP)
+            .currentTraceContext()
+            .wrap(
+                Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("payment-gateway-", 0).factory())));
+  }
+
+  @Bean
+  public PaymentOutcomeApplier paymentOutcomeApplier(
+      CheckRepository checkRepository, TableSessionRepository tableSessionRepository) {
+    return new PaymentOutcomeApplier(checkRepository, tableSessionRepository);
+  }
+
+  @Bean(initMethod = "start")
+  public PaymentStatusPoller paymentStatusPoller(
+      AsyncPaymentGateway asyncPaymentGateway,
+      CheckRepository checkRepository,
+      PaymentAttemptRepository paymentAttemptRepository,
+      PaymentOutcomeApplier paymentOutcomeApplier,
+      PaymentProperties paymentProperties) {
+    PaymentProperties.StatusPolling polling = paymentProperties.statusPolling();
+    return new PaymentStatusPoller(
+        asyncPaymentGateway,
+        checkRepository,
+        paymentAttemptRepository,
+        paymentOutcomeApplier,
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("payment-status-poller").daemon().factory()),
+        new PaymentStatusPollingPolicy(
+            polling.initialDelay(),
+            polling.multiplier(),
+            polling.maxDelay(),
+            polling.maxAttempts(),
+            polling.callTimeout(),
+            polling.hedgeDelay()));
+  }
+
+  @Bean
+  public RecordPaymentAttemptHandler recordPaymentAttemptHandler(
+      AsyncPaymentGateway asyncPaymentGateway,
       CheckRepository checkRepository,
-      PaymentAttemptRepository paymentAttemptRepository) {
+      PaymentAttemptRepository paymentAttemptRepository,
+      PaymentOutcomeApplier paymentOutcomeApplier,
+      PaymentStatusPoller paymentStatusPoller,
+      CheckClaims checkClaims,
+      PaymentProperties paymentProperties) {
     return new RecordPaymentAttemptHandler(
-        paymentGateway, checkRepository, paymentAttemptRepository);
+        asyncPaymentGateway,
+        checkRepository,
+        paymentAttemptRepository,
+        paymentOutcomeApplier,
+        paymentStatusPoller,
+        checkClaims,
+        paymentProperties.initiationTimeout());
+  }
+
+  @Bean
+  public SplitChecksHandler splitChecksHandler(
+      TableSessionRepository tableSessionRepository,
+      CheckRepository checkRepository,
+      CheckAmountCalculator checkAmountCalculator,
+      CheckExpiryScheduler checkExpiryScheduler) {
+    return new SplitChecksHandler(
+        tableSessionRepository, checkRepository, checkAmountCalculator, checkExpiryScheduler);
+  }
+
+  @Bean
+  public IngestPaymentCallbacksHandler ingestPaymentCallbacksHandler(
+      PaymentAttemptRepository paymentAttemptRepository,
+      CheckRepository checkRepository,
+      PaymentOutcomeApplier paymentOutcomeApplier,
+      PaymentProperties paymentProperties) {
+    return new IngestPaymentCallbacksHandler(
+        paymentAttemptRepository,
+        checkRepository,
+        paymentOutcomeApplier,
+        new RecentCallbackIds(paymentProperties.callbacks().recentIdCapacity()));
+  }
+
+  @Bean
+  public PaymentCallbackSignatureWebFilter paymentCallbackSignatureWebFilter(
+      PaymentProperties paymentProperties,
+      ApiProblemFactory problemFactory,
+      ServerCodecConfigurer serverCodecConfigurer) {
+    String secret = paymentProperties.callbacks().signingSecret();
+    PaymentCallbackSignature signature = null;
+    if (secret == null || secret.isBlank()) {
+      log.warn("app.payment.callbacks.signing-secret is not set; payment callbacks are refused");
+    } else {
+      signature = new PaymentCallbackSignature(secret);
+    }
+    return new PaymentCallbackSignatureWebFilter(signature, problemFactory, serverCodecConfigurer);
   }
 
   @Bean
   public PaymentService paymentService(
       CreateCheckHandler createCheckHandler,
-      RecordPaymentAttemptHandler recordPaymentAttemptHandler) {
-    return new DefaultPaymentService(createCheckHandler, recordPaymentAttemptHandler);
+      RecordPaymentAttemptHandler recordPaymentAttemptHandler,
+      SplitChecksHandler splitChecksHandler,
+      IngestPaymentCallbacksHandler ingestPaymentCallbacksHandler,
+      MeterRegistry meterRegistry,
+      ObjectProvider<Tracer> tracer,
+      FailureOutcomes failureOutcomes,
+      BusinessCounters businessCounters) {
+    return new MeteredPaymentService(
+        new DefaultPaymentService(
+            createCheckHandler,
+            recordPaymentAttemptHandler,
+            splitChecksHandler,
+            ingestPaymentCallbacksHandler),
+        meterRegistry,
+        tracer.getIfAvailable(() -> Tracer.NOOP),
+        failureOutcomes,
+        businessCounters);
   }
 }
@@ -0,0 +1,81 @@
+package com.nenkov.bar.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Payment integration settings.
+ *
+ * @param initiationTimeout how long a payment request waits for the provider before the attempt is
+ *     recorded as pending and handed to the status poller
+ * @param responseTimeout how long the HTTP request waits for the attempt to be recorded; the
+ *     attempt itself carries on, and a retry with the same request id returns its outcome
+ * @param statusPolling backoff settings for resolving pending attempts
+ * @param callbacks provider callback ingestion settings
+ * @param resilience bulkhead and circuit breaker settings for provider calls
+ * @param checkExpiry expiry settings for checks left unpaid
+ */
+@ConfigurationProperties(prefix = "app.payment")
+public record PaymentProperties(
+    @DefaultValue("3s") Duration initiationTimeout,
+    @DefaultValue("5s") Duration responseTimeout,
+    @DefaultValue StatusPolling statusPolling,
+    @DefaultValue Callbacks callbacks,
+    @DefaultValue Resilience resilience,
+    @DefaultValue CheckExpiry checkExpiry) {
+
+  public record StatusPolling(
+      @DefaultValue("1s") Duration initialDelay,
+      @DefaultValue("2.0") double multiplier,
+      @DefaultValue("30s") Duration maxDelay,
+      @DefaultValue("12") int maxAttempts,
+      @DefaultValue("5s") Duration callTimeout,
+      @DefaultValue("2s") Duration hedgeDelay) {}
+
+  /**
+   * Callback ingestion settings.
+   *
+   * @param recentIdCapacity number of recently processed callback keys kept in memory for replay
+   *     detection
+   * @param signingSecret secret shared with the provider, who signs every callback batch with it;
+   *     while unset, all callbacks are refused
+   */
+  public record Callbacks(@DefaultValue("10000") int recentIdCapacity, String signingSecret) {}
+
+  /**
+   * Bulkhead and circuit breaker settings for provider calls.
+   *
+   * @param maxConcurrentCalls provider calls allowed in flight at once; excess calls fail fast
+   * @param slidingWindowSize recent calls considered by the circuit breaker
+   * @param minimumCalls calls required before failure/slow rates are evaluated
+   * @param failureRateThreshold failure percentage that opens the circuit
+   * @param slowCallRateThreshold slow-call percentage that opens the circuit
+   * @param slowCallDuration calls at least this long count as slow
+   * @param openStateDuration how long the circuit stays open before probing
+   * @param halfOpenPermittedCalls probe calls allowed while half-open
+   */
+  public record Resilience(
+      @DefaultValue("32") int maxConcurrentCalls,
+      @DefaultValue("50") int slidingWindowSize,
+      @DefaultValue("20") int minimumCalls,
+      @DefaultValue("50") double failureRateThreshold,
+      @DefaultValue("80") double slowCallRateThreshold,
+      @DefaultValue("2s") Duration slowCallDuration,
+      @DefaultValue("30s") Duration openStateDuration,
+      @DefaultValue("5") int halfOpenPermittedCalls) {}
+
+  /**
+   * Expiry of checks that stay {@code CREATED}.
+   *
+   * @param ttl how long a check may stay unpaid before it is cancelled
+   * @param tick sweep interval and timing wheel resolution
+   * @param wheelSize buckets per timing wheel level
+   * @param batchSize checks loaded and saved per repository call
+   */
+  public record CheckExpiry(
+      @DefaultValue("30m") Duration ttl,
+      @DefaultValue("1s") Duration tick,
+      @DefaultValue("512") int wheelSize,
+      @DefaultValue("200") int batchSize) {}
+}
@@ -12,12 +12,15 @@ import com.nenkov.bar.application.session.repository.TableSessionRepository;
 import com.nenkov.bar.domain.model.money.Money;
 import com.nenkov.bar.domain.model.payment.Check;
 import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
 import com.nenkov.bar.domain.model.session.TableSession;
 import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 /**
  * Temporary placeholder wiring for repositories/gateways not implemented yet.
@@ -25,6 +28,8 @@ import org.springframework.context.annotation.Configuration;
  * <p>Purpose: allow the Spring ApplicationContext to boot while persistence/integrations are not
  * implemented.
  *
+ * <p>The {@code in-memory} and {@code simulated-payments} profiles swap in working stand-ins.
+ *
  * <p>Removal policy: this configuration MUST be deleted once real implementations are introduced
  * (Phase 3.4+).
  */
@@ -37,21 +42,25 @@ public class PlaceholderRepositoryConfig {
       "PaymentAttemptRepository persistence";
 
   @Bean
+  @Profile("!" + InMemoryRepositoryConfig.PROFILE)
   public TableSessionRepository tableSessionRepository() {
     return new FailingTableSessionRepository();
   }
 
   @Bean
+  @Profile("!" + InMemoryRepositoryConfig.PROFILE)
   public CheckRepository checkRepository() {
     return new FailingCheckRepository();
   }
 
   @Bean
+  @Profile("!" + InMemoryRepositoryConfig.PROFILE)
   public PaymentAttemptRepository paymentAttemptRepository() {
     return new FailingPaymentAttemptRepository();
   }
 
   @Bean
+  @Profile("!" + SimulatedPaymentConfig.PROFILE)
   public PaymentGateway paymentGateway() {
     return new FailingPaymentGateway();
   }
@@ -76,6 +85,11 @@ public class PlaceholderRepositoryConfig {
     public void save(TableSession session) {
       throw notImplemented(TS_REPO_PERSISTENCE);
     }
+
+    @Override
+    public boolean saveIfUnchanged(TableSession session) {
+      throw notImplemented(TS_REPO_PERSISTENCE);
+    }
   }
 
   private static final class FailingCheckRepository implements CheckRepository {
@@ -85,15 +99,30 @@ public class PlaceholderRepositoryConfig {
       throw notImplemented(CHECK_REPO_PERSISTENCE);
     }
 
+    @Override
+    public List<Check> findAllById(Collection<CheckId> checkIds) {
+      throw notImplemented(CHECK_REPO_PERSISTENCE);
+    }
+
     @Override
     public List<Check> findBySessionId(TableSessionId sessionId) {
       throw notImplemented(CHECK_REPO_PERSISTENCE);
     }
 
+    @Override
+    public List<Check> findByStatus(CheckStatus status) {
+      throw notImplemented(CHECK_REPO_PERSISTENCE);
+    }
+
     @Override
     public void save(Check check) {
       throw notImplemented(CHECK_REPO_PERSISTENCE);
     }
+
+    @Override
+    public void saveAll(List<Check> checks) {
+      throw notImplemented(CHECK_REPO_PERSISTENCE);
+    }
   }
 
   private static final class FailingPaymentAttemptRepository implements PaymentAttemptRepository {
@@ -103,10 +132,30 @@ public class PlaceholderRepositoryConfig {
       throw notImplemented(PAYMENT_ATTEMPT_REPO_PERSISTENCE);
     }
 
+    @Override
+    public Optional<RecordedPaymentAttempt> findByProviderReference(String providerReference) {
+      throw notImplemented(PAYMENT_ATTEMPT_REPO_PERSISTENCE);
+    }
+
+    @Override
+    public Optional<RecordedPaymentAttempt> findPendingByCheckId(CheckId checkId) {
+      throw notImplemented(PAYMENT_ATTEMPT_REPO_PERSISTENCE);
+    }
+
+    @Override
+    public List<RecordedPaymentAttempt> findAllPending() {
+      throw notImplemented(PAYMENT_ATTEMPT_REPO_PERSISTENCE);
+    }
+
     @Override
     public void save(RecordedPaymentAttempt paymentAttempt) {
       throw notImplemented(PAYMENT_ATTEMPT_REPO_PERSISTENCE);
     }
+
+    @Override
+    public void update(RecordedPaymentAttempt paymentAttempt) {
+      throw notImplemented(PAYMENT_ATTEMPT_REPO_PERSISTENCE);
+    }
   }
 
   private static final class FailingPaymentGateway implements PaymentGateway {
@@ -116,5 +165,10 @@ public class PlaceholderRepositoryConfig {
         PaymentRequestId requestId, TableSessionId sessionId, CheckId checkId, Money amount) {
       throw new PaymentGatewayException("PaymentGateway integration is not implemented yet.");
     }
+
+    @Override
+    public PaymentAttemptResult getPaymentStatus(PaymentRequestId requestId) {
+      throw new PaymentGatewayException("PaymentGateway integration is not implemented yet.");
+    }
   }
 }
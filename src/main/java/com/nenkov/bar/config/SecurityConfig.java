@@ -25,10 +25,20 @@ public class SecurityConfig {
                     .pathMatchers(HttpMethod.POST, "/auth/login")
                     .permitAll()
 
+                    // provider callbacks carry no JWT; PaymentCallbackSignatureWebFilter verifies
+                    // their HMAC signature instead
+                    .pathMatchers(HttpMethod.POST, "/payments/callbacks")
+                    .permitAll()
+
                     // allow liveness/readiness
                     .pathMatchers("/actuator/health/**")
                     .permitAll()
 
+                    // allow Prometheus scraping (scrapers carry no JWT; restrict at the network
+                    // edge)
+                    .pathMatchers("/actuator/prometheus")
+                    .permitAll()
+
                     // allow OpenAPI/Swagger docs
                     .pathMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html")
                     .permitAll()
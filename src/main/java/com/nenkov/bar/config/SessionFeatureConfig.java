@@ -7,6 +7,12 @@ import com.nenkov.bar.application.session.handler.OpenTableSessionHandler;
 import com.nenkov.bar.application.session.repository.TableSessionRepository;
 import com.nenkov.bar.application.session.service.DefaultTableSessionService;
 import com.nenkov.bar.application.session.service.TableSessionService;
+import com.nenkov.bar.infrastructure.metrics.BusinessCounters;
+import com.nenkov.bar.infrastructure.metrics.FailureOutcomes;
+import com.nenkov.bar.infrastructure.metrics.MeteredTableSessionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -40,9 +46,18 @@ public class SessionFeatureConfig {
   public TableSessionService tableSessionService(
       OpenTableSessionHandler openTableSessionHandler,
       GetTableSessionHandler getTableSessionHandler,
-      CloseTableSessionHandler closeTableSessionHandler) {
+      CloseTableSessionHandler closeTableSessionHandler,
+      MeterRegistry meterRegistry,
+      ObjectProvider<Tracer> tracer,
+      FailureOutcomes failureOutcomes,
+      BusinessCounters businessCounters) {
 
-    return new DefaultTableSessionService(
-        openTableSessionHandler, getTableSessionHandler, closeTableSessionHandler);
+    return new MeteredTableSessionService(
+        new DefaultTableSessionService(
+            openTableSessionHandler, getTableSessionHandler, closeTableSessionHandler),
+        meterRegistry,
+        tracer.getIfAvailable(() -> Tracer.NOOP),
+        failureOutcomes,
+        businessCounters);
   }
 }
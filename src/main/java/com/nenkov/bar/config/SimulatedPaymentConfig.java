@@ -0,0 +1,26 @@
+package com.nenkov.bar.config;
+
+import com.nenkov.bar.application.payment.gateway.PaymentGateway;
+import com.nenkov.bar.infrastructure.payment.SimulatedPaymentGateway;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Replaces the placeholder payment gateway with an offline simulation.
+ *
+ * <p>Activate with {@code --spring.profiles.active=simulated-payments} to load-test the payment
+ * path without a provider. Settings live under {@code app.payment.simulated}; the defaults are in
+ * {@link SimulatedPaymentProperties}, so only overrides need configuring.
+ */
+@Configuration
+@Profile(SimulatedPaymentConfig.PROFILE)
+public class SimulatedPaymentConfig {
+
+  public static final String PROFILE = "simulated-payments";
+
+  @Bean
+  public PaymentGateway paymentGateway(SimulatedPaymentProperties properties) {
+    return new SimulatedPaymentGateway(properties.toSettings());
+  }
+}
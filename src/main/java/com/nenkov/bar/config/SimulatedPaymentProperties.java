@@ -0,0 +1,49 @@
+package com.nenkov.bar.config;
+
+import com.nenkov.bar.infrastructure.payment.SimulatedPaymentGateway;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the offline payment provider enabled by the {@code simulated-payments} profile.
+ *
+ * @param seed seed for all random draws; equal seeds replay equal runs
+ * @param latency simulated provider latency
+ * @param outcomes relative weights of approved/declined/pending initiations
+ * @param faults fault injection rates
+ */
+@ConfigurationProperties(prefix = "app.payment.simulated")
+public record SimulatedPaymentProperties(
+    @DefaultValue("42") long seed,
+    @DefaultValue Latency latency,
+    @DefaultValue Outcomes outcomes,
+    @DefaultValue Faults faults) {
+
+  public record Latency(
+      @DefaultValue("LONG_TAIL") SimulatedPaymentGateway.Distribution distribution,
+      @DefaultValue("50ms") Duration min,
+      @DefaultValue("5s") Duration max,
+      @DefaultValue("2.5") double tailIndex) {}
+
+  public record Outcomes(
+      @DefaultValue("0.85") double approve,
+      @DefaultValue("0.10") double decline,
+      @DefaultValue("0.05") double pending) {}
+
+  public record Faults(
+      @DefaultValue("0.0") double timeoutRate,
+      @DefaultValue("10s") Duration timeoutDuration,
+      @DefaultValue("0.0") double errorRate) {}
+
+  SimulatedPaymentGateway.Settings toSettings() {
+    return new SimulatedPaymentGateway.Settings(
+        seed,
+        new SimulatedPaymentGateway.Latency(
+            latency.distribution(), latency.min(), latency.max(), latency.tailIndex()),
+        new SimulatedPaymentGateway.Outcomes(
+            outcomes.approve(), outcomes.decline(), outcomes.pending()),
+        new SimulatedPaymentGateway.Faults(
+            faults.timeoutRate(), faults.timeoutDuration(), faults.errorRate()));
+  }
+}
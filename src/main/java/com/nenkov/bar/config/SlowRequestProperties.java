@@ -0,0 +1,18 @@
+package com.nenkov.bar.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Slow-request sampling ({@code /actuator/slowrequests}).
+ *
+ * @param enabled whether requests are profiled and slow ones kept
+ * @param threshold duration from which a request is kept
+ * @param capacity slow requests kept; the oldest are dropped beyond this
+ */
+@ConfigurationProperties(prefix = "app.metrics.slow-requests")
+public record SlowRequestProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("500ms") Duration threshold,
+    @DefaultValue("100") int capacity) {}
@@ -0,0 +1,51 @@
+package com.nenkov.bar.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Trace sampling and local span export.
+ *
+ * <p>Replaces {@code management.tracing.sampling.probability}: the head ratio is applied by the
+ * application's own sampler so that unsampled traces can still be tail-sampled.
+ *
+ * @param headSampleRatio fraction of traces sampled and exported up front
+ * @param tail tail sampling of the remaining traces
+ * @param export local exporter; OTLP or other exporters are added as {@code SpanExporter} beans
+ */
+@ConfigurationProperties(prefix = "app.tracing")
+public record TraceProperties(
+    @DefaultValue("0.01") double headSampleRatio,
+    @DefaultValue Tail tail,
+    @DefaultValue Export export) {
+
+  /**
+   * @param enabled whether traces not sampled up front are recorded and kept when slow or failed
+   * @param slowThreshold root span duration from which a trace is kept
+   * @param maxTraces traces buffered at once; the oldest are dropped beyond this
+   * @param maxSpansPerTrace spans buffered per trace; later spans are dropped beyond this
+   */
+  public record Tail(
+      @DefaultValue("true") boolean enabled,
+      @DefaultValue("1s") Duration slowThreshold,
+      @DefaultValue("10000") int maxTraces,
+      @DefaultValue("256") int maxSpansPerTrace) {}
+
+  /**
+   * @param exporter {@code NONE}, {@code MEMORY} or {@code FILE}
+   * @param file JSON-lines file for {@code FILE}
+   * @param memoryCapacity spans kept by {@code MEMORY}
+   */
+  public record Export(
+      @DefaultValue("NONE") Exporter exporter,
+      @DefaultValue("target/spans.jsonl") Path file,
+      @DefaultValue("10000") int memoryCapacity) {}
+
+  public enum Exporter {
+    NONE,
+    MEMORY,
+    FILE
+  }
+}
@@ -0,0 +1,76 @@
+package com.nenkov.bar.config;
+
+import com.nenkov.bar.infrastructure.tracing.CorrelatedServerRequestObservationConvention;
+import com.nenkov.bar.infrastructure.tracing.FileSpanExporter;
+import com.nenkov.bar.infrastructure.tracing.InMemorySpanExporter;
+import com.nenkov.bar.infrastructure.tracing.TailSamplingSpanProcessor;
+import com.nenkov.bar.infrastructure.tracing.TraceSampling;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationConvention;
+
+/**
+ * Tracing wiring on top of Spring Boot's OpenTelemetry auto-configuration.
+ *
+ * <p>Spans are created for the WebFlux request (tagged with {@code X-Request-Id}), each handler,
+ * each repository call and each payment provider call, including the hop onto the provider's
+ * virtual threads. Every {@link SpanExporter} bean receives sampled spans, so exporters plug in as
+ * beans; a memory or file exporter is provided for local use ({@code app.tracing.export}).
+ */
+@Configuration
+public class TracingConfig {
+
+  private static final int TAIL_EXPORT_QUEUE = 256;
+
+  @Bean
+  public Sampler traceSampler(TraceProperties properties) {
+    return TraceSampling.sampler(properties.headSampleRatio(), properties.tail().enabled());
+  }
+
+  @Bean
+  public ServerRequestObservationConvention serverRequestObservationConvention() {
+    return new CorrelatedServerRequestObservationConvention();
+  }
+
+  @Bean
+  @ConditionalOnBooleanProperty(name = "app.tracing.tail.enabled", matchIfMissing = true)
+  public TailSamplingSpanProcessor tailSamplingSpanProcessor(
+      TraceProperties properties, ObjectProvider<SpanExporter> exporters) {
+    TraceProperties.Tail tail = properties.tail();
+    // Owned by the processor, which shuts it down when the context closes.
+    ThreadPoolExecutor exportExecutor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(TAIL_EXPORT_QUEUE),
+            Thread.ofPlatform().name("tail-span-export").daemon().factory());
+    return new TailSamplingSpanProcessor(
+        SpanExporter.composite(exporters.orderedStream().toList()),
+        tail.slowThreshold(),
+        tail.maxTraces(),
+        tail.maxSpansPerTrace(),
+        exportExecutor);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.tracing.export.exporter", havingValue = "MEMORY")
+  public InMemorySpanExporter inMemorySpanExporter(TraceProperties properties) {
+    return new InMemorySpanExporter(properties.export().memoryCapacity());
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.tracing.export.exporter", havingValue = "FILE")
+  public FileSpanExporter fileSpanExporter(TraceProperties properties) {
+    return new FileSpanExporter(properties.export().file());
+  }
+}
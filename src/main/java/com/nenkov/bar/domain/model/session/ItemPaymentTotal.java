@@ -0,0 +1,68 @@
+package com.nenkov.bar.domain.model.session;
+
+import com.nenkov.bar.domain.model.money.Money;
+import java.util.Objects;
+
+/**
+ * Running payment total for a single order item within a {@link TableSession}.
+ *
+ * <p>Maintained incrementally by the aggregate as checks are paid, so the session never needs to
+ * replay its check history to know what has already been settled. Besides what was paid, it keeps
+ * how much of the item's write-offs and of the session write-offs those payments consumed, so later
+ * checks are quoted against the write-offs still outstanding only.
+ *
+ * <p>Invariants:
+ *
+ * <ul>
+ *   <li>{@code itemId} is non-null
+ *   <li>{@code paidQuantity} is strictly positive
+ *   <li>{@code paidAmount}, {@code itemWriteOff} and {@code sessionWriteOff} are non-null
+ * </ul>
+ */
+public record ItemPaymentTotal(
+    OrderItemId itemId,
+    int paidQuantity,
+    Money paidAmount,
+    Money itemWriteOff,
+    Money sessionWriteOff) {
+
+  public ItemPaymentTotal {
+    Objects.requireNonNull(itemId, "itemId must not be null");
+    Objects.requireNonNull(paidAmount, "paidAmount must not be null");
+    Objects.requireNonNull(itemWriteOff, "itemWriteOff must not be null");
+    Objects.requireNonNull(sessionWriteOff, "sessionWriteOff must not be null");
+
+    if (paidQuantity <= 0) {
+      throw new IllegalArgumentException("paidQuantity must be > 0");
+    }
+  }
+
+  /** Creates a total for payments that consumed no write-offs. */
+  public ItemPaymentTotal(OrderItemId itemId, int paidQuantity, Money paidAmount) {
+    this(
+        itemId,
+        paidQuantity,
+        paidAmount,
+        Money.zero(paidAmount.currency()),
+        Money.zero(paidAmount.currency()));
+  }
+
+  /**
+   * Returns a new total with the given payment added.
+   *
+   * @param quantity strictly positive quantity paid
+   * @param amount amount paid for {@code quantity} (same currency)
+   * @param consumedItemWriteOff item write-off applied to {@code quantity}
+   * @param consumedSessionWriteOff share of session write-offs applied to {@code quantity}
+   * @return updated total
+   */
+  public ItemPaymentTotal add(
+      int quantity, Money amount, Money consumedItemWriteOff, Money consumedSessionWriteOff) {
+    return new ItemPaymentTotal(
+        itemId,
+        paidQuantity + quantity,
+        paidAmount.plus(amount),
+        itemWriteOff.plus(consumedItemWriteOff),
+        sessionWriteOff.plus(consumedSessionWriteOff));
+  }
+}
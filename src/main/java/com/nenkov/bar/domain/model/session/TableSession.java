@@ -2,12 +2,22 @@ package com.nenkov.bar.domain.model.session;
 
 import com.nenkov.bar.domain.exceptions.IllegalDomainStateException;
 import com.nenkov.bar.domain.exceptions.OrderingNotAllowedException;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.model.payment.PaymentSelection;
 import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
 import com.nenkov.bar.domain.model.writeoff.WriteOff;
+import com.nenkov.bar.domain.service.payment.PaymentCalculationContext;
 import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
+import com.nenkov.bar.domain.service.payment.writeoff.ItemWriteOffAllocation;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -23,6 +33,10 @@ import java.util.Objects;
  *   <li>Quantity
  *   <li>Status: {@link OrderItemStatus}
  * </ul>
+ *
+ * <p>{@link #version()} is an optimistic-concurrency token owned by the repository: it is assigned
+ * on save and carried over unchanged by every domain operation, so a conditional save can tell
+ * whether the stored session changed since this instance was loaded.
  */
 public final class TableSession {
 
@@ -32,13 +46,25 @@ public final class TableSession {
 
   private final TableSessionStatus status;
   private final Instant closedAt;
+  private final long version;
 
+  /** Creates a session that has not been stored yet (version 0). */
   public TableSession(
       TableSessionId id,
       String currency,
       TableSessionContents contents,
       TableSessionStatus status,
       Instant closedAt) {
+    this(id, currency, contents, status, closedAt, 0);
+  }
+
+  public TableSession(
+      TableSessionId id,
+      String currency,
+      TableSessionContents contents,
+      TableSessionStatus status,
+      Instant closedAt,
+      long version) {
 
     this.id = Objects.requireNonNull(id, "id must not be null");
     this.currency = Objects.requireNonNull(currency, "currency must not be null");
@@ -46,7 +72,11 @@ public final class TableSession {
 
     this.status = Objects.requireNonNull(status, "status must not be null");
     this.closedAt = closedAt;
+    this.version = version;
 
+    if (version < 0) {
+      throw new IllegalArgumentException("version must be >= 0");
+    }
     if (status == TableSessionStatus.CLOSED && closedAt == null) {
       throw new IllegalArgumentException("closedAt must not be null when status is CLOSED");
     }
@@ -71,6 +101,16 @@ public final class TableSession {
     return closedAt;
   }
 
+  /** Optimistic-concurrency version this instance was loaded with. */
+  public long version() {
+    return version;
+  }
+
+  /** Returns this session with {@code version}; used by repositories when storing it. */
+  public TableSession withVersion(long version) {
+    return new TableSession(id, currency, contents, status, closedAt, version);
+  }
+
   /** Snapshot of payable items consumed by payment calculation services. */
   public List<SessionItemSnapshot> payableItemsSnapshot() {
     return contents.payableItems();
@@ -89,6 +129,79 @@ public final class TableSession {
     return contents.sessionWriteOffs();
   }
 
+  /** Per-item paid ledger, maintained incrementally as checks are paid. */
+  public List<ItemPaymentTotal> paymentTotals() {
+    return contents.paymentTotals();
+  }
+
+  /**
+   * Item write-offs not yet consumed by paid checks; new checks must be quoted against these.
+   *
+   * <p>Write-offs of an item cover its units in the order they were recorded: paid units use up the
+   * earliest write-off first, and only then the next one. The write-off amount consumed by paid
+   * checks is taken from the write-offs in the same order. Each write-off keeps its own reason and
+   * note and is returned with the units and amount it has left; write-offs with no units or no
+   * amount left are dropped. Items without paid units keep their write-offs as recorded.
+   */
+  public List<ItemWriteOff> outstandingItemWriteOffs() {
+    if (contents.paymentTotals().isEmpty()) {
+      return contents.itemWriteOffs();
+    }
+    Map<OrderItemId, Integer> paidUnitsLeft = new HashMap<>();
+    Map<OrderItemId, Money> consumedLeft = new HashMap<>();
+    for (ItemPaymentTotal total : contents.paymentTotals()) {
+      paidUnitsLeft.put(total.itemId(), total.paidQuantity());
+      consumedLeft.put(total.itemId(), total.itemWriteOff());
+    }
+    List<ItemWriteOff> outstanding = new ArrayList<>();
+    for (ItemWriteOff writeOff : contents.itemWriteOffs()) {
+      OrderItemId itemId = writeOff.itemId();
+      int paidUnits = paidUnitsLeft.getOrDefault(itemId, 0);
+      Money consumed = consumedLeft.getOrDefault(itemId, Money.zero(currency));
+      int coveredUnits = Math.min(paidUnits, writeOff.quantity());
+      Money consumedAmount =
+          consumed.compareTo(writeOff.amount()) < 0 ? consumed : writeOff.amount();
+      paidUnitsLeft.put(itemId, paidUnits - coveredUnits);
+      consumedLeft.put(itemId, consumed.minus(consumedAmount));
+
+      if (coveredUnits == 0 && consumedAmount.isZero()) {
+        outstanding.add(writeOff);
+      } else if (coveredUnits < writeOff.quantity()
+          && consumedAmount.compareTo(writeOff.amount()) < 0) {
+        outstanding.add(
+            ItemWriteOff.of(
+                itemId,
+                writeOff.quantity() - coveredUnits,
+                writeOff.amount().minus(consumedAmount),
+                writeOff.reason(),
+                writeOff.note()));
+      }
+    }
+    return List.copyOf(outstanding);
+  }
+
+  /**
+   * Session write-offs not yet consumed by paid checks; new checks must be quoted against these.
+   *
+   * <p>Once a check has consumed part of them, they are returned as one write-off of the remaining
+   * amount (reason and note of the first write-off).
+   */
+  public List<WriteOff> outstandingSessionWriteOffs() {
+    Money consumed = consumedSessionWriteOff();
+    if (consumed.isZero()) {
+      return contents.sessionWriteOffs();
+    }
+    Money total = Money.zero(currency);
+    for (WriteOff writeOff : contents.sessionWriteOffs()) {
+      total = total.plus(writeOff.amount());
+    }
+    if (total.compareTo(consumed) <= 0) {
+      return List.of();
+    }
+    WriteOff first = contents.sessionWriteOffs().getFirst();
+    return List.of(WriteOff.of(total.minus(consumed), first.reason(), first.note()));
+  }
+
   /**
    * Adds new order items to this session.
    *
@@ -129,7 +242,10 @@ public final class TableSession {
       createdIds.add(orderItemId);
     }
 
-    List<OrderItem> updatedOrderItems = new ArrayList<>(contents.orderItems());
+    // Sized up front so appending does not copy the existing items a second time.
+    List<OrderItem> updatedOrderItems =
+        new ArrayList<>(contents.orderItems().size() + newItems.size());
+    updatedOrderItems.addAll(contents.orderItems());
     updatedOrderItems.addAll(newItems);
 
     TableSessionContents updatedContents =
@@ -137,13 +253,101 @@ public final class TableSession {
             contents.payableItems(),
             updatedOrderItems,
             contents.itemWriteOffs(),
-            contents.sessionWriteOffs());
+            contents.sessionWriteOffs(),
+            contents.paymentTotals());
 
-    TableSession updated = new TableSession(id, currency, updatedContents, status, closedAt);
+    TableSession updated =
+        new TableSession(id, currency, updatedContents, status, closedAt, version);
 
     return new OrderItemsAdded(updated, List.copyOf(createdIds));
   }
 
+  /**
+   * Applies a paid {@link Check} to this session's payable state.
+   *
+   * <p>For every {@link PaidItem} on the check, the matching {@link SessionItemSnapshot} has its
+   * {@code remainingQuantity} reduced and the item's {@link ItemPaymentTotal} is increased. The
+   * total also records the write-offs the payment consumed: the item write-off allocated to the
+   * paid units (as a quote against {@link #outstandingItemWriteOffs()} would allocate it), and the
+   * rest of the item's discount as session write-off, capped by what is still outstanding. The work
+   * is proportional to the session's item count; check history is never replayed.
+   *
+   * <p>Invariants:
+   *
+   * <ul>
+   *   <li>{@code check} must belong to this session
+   *   <li>{@code check} must be {@link CheckStatus#PAID}
+   *   <li>Each paid item must have a payable snapshot with enough remaining quantity
+   * </ul>
+   *
+   * @param check a paid check of this session (non-null)
+   * @return a new session instance reflecting the payment
+   * @throws IllegalDomainStateException if the check is not paid or exceeds remaining quantities
+   */
+  public TableSession recordPaidCheck(Check check) {
+    Objects.requireNonNull(check, "check must not be null");
+    if (!id.equals(check.sessionId())) {
+      throw new IllegalArgumentException("check does not belong to session: " + id.value());
+    }
+    if (check.status() != CheckStatus.PAID) {
+      throw new IllegalDomainStateException(
+          "Only PAID checks can be recorded (current: " + check.status() + ")");
+    }
+
+    Map<OrderItemId, SessionItemSnapshot> payableById = indexPayableItems();
+    for (PaidItem paid : check.paidItems()) {
+      SessionItemSnapshot snapshot = payableById.get(paid.itemId());
+      if (snapshot == null) {
+        throw new IllegalDomainStateException(
+            "Missing payable snapshot for paid item: " + paid.itemId());
+      }
+      if (paid.quantity() > snapshot.remainingQuantity()) {
+        throw new IllegalDomainStateException(
+            "Paid quantity exceeds remaining quantity for item: " + paid.itemId());
+      }
+    }
+
+    Map<OrderItemId, Money> itemWriteOffOnPaid = itemWriteOffOnPaid(check);
+    Money sessionWriteOffLeft = outstandingSessionWriteOffAmount();
+    Map<OrderItemId, ItemPaymentTotal> totalsById = indexPaymentTotals();
+
+    for (PaidItem paid : check.paidItems()) {
+      SessionItemSnapshot snapshot = payableById.get(paid.itemId());
+      payableById.put(
+          paid.itemId(),
+          new SessionItemSnapshot(
+              snapshot.itemId(),
+              snapshot.unitPrice(),
+              snapshot.remainingQuantity() - paid.quantity()));
+
+      Money discount = paid.unitPriceAtPayment().times(paid.quantity()).minus(paid.paidAmount());
+      Money itemWriteOff = min(itemWriteOffOnPaid.get(paid.itemId()), discount);
+      Money sessionWriteOff = min(discount.minus(itemWriteOff), sessionWriteOffLeft);
+      sessionWriteOffLeft = sessionWriteOffLeft.minus(sessionWriteOff);
+
+      totalsById.merge(
+          paid.itemId(),
+          new ItemPaymentTotal(
+              paid.itemId(), paid.quantity(), paid.paidAmount(), itemWriteOff, sessionWriteOff),
+          (existing, added) ->
+              existing.add(
+                  added.paidQuantity(),
+                  added.paidAmount(),
+                  added.itemWriteOff(),
+                  added.sessionWriteOff()));
+    }
+
+    TableSessionContents updatedContents =
+        new TableSessionContents(
+            List.copyOf(payableById.values()),
+            contents.orderItems(),
+            contents.itemWriteOffs(),
+            contents.sessionWriteOffs(),
+            List.copyOf(totalsById.values()));
+
+    return new TableSession(id, currency, updatedContents, status, closedAt, version);
+  }
+
   /**
    * Administratively closes this session (manager-only action).
    *
@@ -174,7 +378,7 @@ public final class TableSession {
     assertNoActiveOrderItems();
     assertNoUnpaidDeliveredItems();
 
-    return new TableSession(id, currency, contents, TableSessionStatus.CLOSED, closedAt);
+    return new TableSession(id, currency, contents, TableSessionStatus.CLOSED, closedAt, version);
   }
 
   private void assertNoActiveOrderItems() {
@@ -194,8 +398,13 @@ public final class TableSession {
   private void assertNoUnpaidDeliveredItems() {
     // Precondition: assertNoActiveOrderItems() already passed.
     // Given current OrderItemStatus values, all order items here must be DELIVERED.
+    Map<OrderItemId, SessionItemSnapshot> payableById = indexPayableItems();
     for (OrderItem orderItem : contents.orderItems()) {
-      SessionItemSnapshot payableSnapshot = findPayableSnapshot(orderItem.id());
+      SessionItemSnapshot payableSnapshot = payableById.get(orderItem.id());
+      if (payableSnapshot == null) {
+        throw new IllegalDomainStateException(
+            "Missing payable snapshot for DELIVERED order item: " + orderItem.id());
+      }
       if (payableSnapshot.remainingQuantity() > 0) {
         throw new IllegalDomainStateException(
             "Session cannot be closed while there are unpaid DELIVERED order items");
@@ -203,13 +412,65 @@ public final class TableSession {
     }
   }
 
-  private SessionItemSnapshot findPayableSnapshot(OrderItemId itemId) {
-    return contents.payableItems().stream()
-        .filter(s -> s.itemId().equals(itemId))
-        .findFirst()
-        .orElseThrow(
-            () ->
-                new IllegalDomainStateException(
-                    "Missing payable snapshot for DELIVERED order item: " + itemId));
+  /** Outstanding item write-off the quote for {@code check}'s selection allocated per item. */
+  private Map<OrderItemId, Money> itemWriteOffOnPaid(Check check) {
+    List<ItemWriteOff> outstanding = outstandingItemWriteOffs();
+    if (outstanding.isEmpty()) {
+      return Map.of();
+    }
+    List<PaymentSelection> selections = new ArrayList<>();
+    for (PaidItem paid : check.paidItems()) {
+      selections.add(PaymentSelection.of(paid.itemId(), paid.quantity()));
+    }
+    PaymentCalculationContext ctx =
+        PaymentCalculationContext.create(currency, contents.payableItems(), selections);
+    Map<OrderItemId, Money> grossSelected = new LinkedHashMap<>();
+    for (Map.Entry<OrderItemId, Integer> entry : ctx.selectedQtyByItem().entrySet()) {
+      grossSelected.put(
+          entry.getKey(), ctx.itemById().get(entry.getKey()).grossAmountFor(entry.getValue()));
+    }
+    return ItemWriteOffAllocation.from(currency, outstanding)
+        .allocateToSelected(ctx, grossSelected);
+  }
+
+  private Money outstandingSessionWriteOffAmount() {
+    Money total = Money.zero(currency);
+    for (WriteOff writeOff : outstandingSessionWriteOffs()) {
+      total = total.plus(writeOff.amount());
+    }
+    return total;
+  }
+
+  private Money consumedSessionWriteOff() {
+    Money consumed = Money.zero(currency);
+    for (ItemPaymentTotal total : contents.paymentTotals()) {
+      consumed = consumed.plus(total.sessionWriteOff());
+    }
+    return consumed;
+  }
+
+  private Money min(Money candidate, Money cap) {
+    if (candidate == null) {
+      return Money.zero(currency);
+    }
+    return candidate.compareTo(cap) > 0 ? cap : candidate;
+  }
+
+  /** Indexes the paid ledger by item id, preserving ledger order. */
+  private Map<OrderItemId, ItemPaymentTotal> indexPaymentTotals() {
+    Map<OrderItemId, ItemPaymentTotal> result = new LinkedHashMap<>();
+    for (ItemPaymentTotal total : contents.paymentTotals()) {
+      result.put(total.itemId(), total);
+    }
+    return result;
+  }
+
+  /** Indexes payable snapshots by item id, preserving snapshot order. */
+  private Map<OrderItemId, SessionItemSnapshot> indexPayableItems() {
+    Map<OrderItemId, SessionItemSnapshot> result = new LinkedHashMap<>();
+    for (SessionItemSnapshot snapshot : contents.payableItems()) {
+      result.put(snapshot.itemId(), snapshot);
+    }
+    return result;
   }
 }
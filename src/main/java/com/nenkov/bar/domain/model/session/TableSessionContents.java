@@ -11,12 +11,16 @@ import java.util.Objects;
  *
  * <p>Introduced to keep {@link TableSession}'s constructor small and readable while preserving
  * immutability.
+ *
+ * <p>{@code paymentTotals} is the per-item paid ledger. It is updated together with {@code
+ * payableItems} whenever a check is paid, so both always describe the same settled state.
  */
 public record TableSessionContents(
     List<SessionItemSnapshot> payableItems,
     List<OrderItem> orderItems,
     List<ItemWriteOff> itemWriteOffs,
-    List<WriteOff> sessionWriteOffs) {
+    List<WriteOff> sessionWriteOffs,
+    List<ItemPaymentTotal> paymentTotals) {
 
   public TableSessionContents {
     payableItems =
@@ -26,9 +30,20 @@ public record TableSessionContents(
         List.copyOf(Objects.requireNonNull(itemWriteOffs, "itemWriteOffs must not be null"));
     sessionWriteOffs =
         List.copyOf(Objects.requireNonNull(sessionWriteOffs, "sessionWriteOffs must not be null"));
+    paymentTotals =
+        List.copyOf(Objects.requireNonNull(paymentTotals, "paymentTotals must not be null"));
+  }
+
+  /** Creates contents with an empty paid ledger. */
+  public TableSessionContents(
+      List<SessionItemSnapshot> payableItems,
+      List<OrderItem> orderItems,
+      List<ItemWriteOff> itemWriteOffs,
+      List<WriteOff> sessionWriteOffs) {
+    this(payableItems, orderItems, itemWriteOffs, sessionWriteOffs, List.of());
   }
 
   public static TableSessionContents empty() {
-    return new TableSessionContents(List.of(), List.of(), List.of(), List.of());
+    return new TableSessionContents(List.of(), List.of(), List.of(), List.of(), List.of());
   }
 }
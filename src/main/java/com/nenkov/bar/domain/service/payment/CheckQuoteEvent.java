@@ -0,0 +1,31 @@
+package com.nenkov.bar.domain.service.payment;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event around {@link DefaultCheckAmountCalculator#quote}.
+ *
+ * <p>Carries the shape of the tab being quoted so slow quotes can be correlated with it. Costs
+ * nothing beyond a field write unless a recording has the event enabled.
+ */
+@Name("com.nenkov.bar.CheckQuote")
+@Label("Check Quote")
+@Category({"Bar", "Payment"})
+@Description("Pricing of a check from session items, selections and write-offs")
+@StackTrace(false)
+final class CheckQuoteEvent extends jdk.jfr.Event {
+
+  @Label("Session Items")
+  int itemCount;
+
+  @Label("Selections")
+  int selectionCount;
+
+  @Label("Write-offs")
+  @Description("Item-level plus session-level write-offs")
+  int writeOffCount;
+}
@@ -63,7 +63,28 @@ public final class DefaultCheckAmountCalculator implements CheckAmountCalculator
       List<PaymentSelection> selections,
       List<ItemWriteOff> itemWriteOffs,
       List<WriteOff> sessionWriteOffs) {
+    CheckQuoteEvent event = new CheckQuoteEvent();
+    event.begin();
+    try {
+      return quoteInternal(currency, sessionItems, selections, itemWriteOffs, sessionWriteOffs);
+    } finally {
+      if (event.shouldCommit()) {
+        event.itemCount = sessionItems == null ? 0 : sessionItems.size();
+        event.selectionCount = selections == null ? 0 : selections.size();
+        event.writeOffCount =
+            (itemWriteOffs == null ? 0 : itemWriteOffs.size())
+                + (sessionWriteOffs == null ? 0 : sessionWriteOffs.size());
+        event.commit();
+      }
+    }
+  }
 
+  private CheckQuote quoteInternal(
+      String currency,
+      List<SessionItemSnapshot> sessionItems,
+      List<PaymentSelection> selections,
+      List<ItemWriteOff> itemWriteOffs,
+      List<WriteOff> sessionWriteOffs) {
     PaymentCalculationContext ctx =
         PaymentCalculationContext.create(currency, sessionItems, selections);
 
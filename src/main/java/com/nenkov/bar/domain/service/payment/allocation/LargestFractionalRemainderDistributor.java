@@ -2,13 +2,13 @@ package com.nenkov.bar.domain.service.payment.allocation;
 
 import com.nenkov.bar.domain.model.money.Money;
 import com.nenkov.bar.domain.model.money.MoneyPolicy;
-import com.nenkov.bar.domain.model.session.OrderItemId;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * Remainder distribution policy: largest rounding error first (the largest fractional remainder).
@@ -20,32 +20,35 @@ import java.util.Objects;
  *
  * <ul>
  *   <li>Primary ordering is by rounding error (see {@link #rank(String, List)}).
- *   <li>Ties are broken by {@code OrderItemId.value().toString()}.
+ *   <li>Ties are broken by the caller's tie-break key, computed once per share.
  * </ul>
  *
+ * <p>Cost: each cent resumes the ranked walk where the previous cent was placed. Items passed over
+ * are at their cap (positive remainder) or at zero (negative remainder) and stay there, so a
+ * distribution is linear in items plus cents rather than their product.
+ *
  * <p>Mutation: this implementation updates {@code current} in-place and returns the same map
  * instance for convenience.
  */
 public final class LargestFractionalRemainderDistributor implements RemainderDistributor {
 
-  private static final Comparator<OrderItemId> TIE_BREAKER =
-      Comparator.comparing(id -> id.value().toString());
-
   @Override
-  public Map<OrderItemId, Money> distribute(
+  public <K, T extends Comparable<? super T>> Map<K, Money> distribute(
       String currency,
       BigDecimal remainderAmount,
-      Map<OrderItemId, Money> caps,
-      List<ProportionalAllocator.Share> shares,
-      Map<OrderItemId, Money> current) {
+      Map<K, Money> caps,
+      List<ProportionalAllocator.Share<K>> shares,
+      Map<K, Money> current,
+      Function<? super K, ? extends T> tieBreakKey) {
     Objects.requireNonNull(currency, "currency must not be null");
     Objects.requireNonNull(remainderAmount, "remainderAmount must not be null");
     Objects.requireNonNull(caps, "caps must not be null");
     Objects.requireNonNull(shares, "shares must not be null");
     Objects.requireNonNull(current, "current must not be null");
+    Objects.requireNonNull(tieBreakKey, "tieBreakKey must not be null");
 
     Money oneCent = Money.of(currency, MoneyPolicy.ONE_CENT);
-    List<RankedShare> ranked = rank(currency, shares);
+    List<RankedShare<K, T>> ranked = rank(currency, shares, tieBreakKey);
 
     int sign = remainderAmount.signum();
     if (sign > 0) {
@@ -67,36 +70,40 @@ public final class LargestFractionalRemainderDistributor implements RemainderDis
    * most negative rounding error (they were rounded up the most). The negative path re-sorts the
    * ranked list accordingly.
    */
-  private static List<RankedShare> rank(String currency, List<ProportionalAllocator.Share> shares) {
-    List<RankedShare> ranked = new ArrayList<>(shares.size());
+  private static <K, T extends Comparable<? super T>> List<RankedShare<K, T>> rank(
+      String currency,
+      List<ProportionalAllocator.Share<K>> shares,
+      Function<? super K, ? extends T> tieBreakKey) {
+    List<RankedShare<K, T>> ranked = new ArrayList<>(shares.size());
 
-    for (ProportionalAllocator.Share s : shares) {
+    for (ProportionalAllocator.Share<K> s : shares) {
       Money rounded = Money.of(currency, s.raw());
       BigDecimal roundingError = s.raw().subtract(rounded.amount());
-      ranked.add(new RankedShare(s.id(), roundingError));
+      ranked.add(new RankedShare<>(s.id(), roundingError, tieBreakKey.apply(s.id())));
     }
 
     // Descending rounding error, then deterministic tie-break.
     ranked.sort(
-        Comparator.comparing(RankedShare::roundingError)
+        Comparator.comparing((RankedShare<K, T> rs) -> rs.roundingError())
             .reversed()
-            .thenComparing(RankedShare::id, TIE_BREAKER));
+            .thenComparing(RankedShare::tieBreakKey));
 
     return ranked;
   }
 
-  private static Map<OrderItemId, Money> distributePositiveRemainder(
+  private static <K> Map<K, Money> distributePositiveRemainder(
       BigDecimal remainderAmount,
       Money oneCent,
-      Map<OrderItemId, Money> caps,
-      List<RankedShare> rankedDesc,
-      Map<OrderItemId, Money> current) {
+      Map<K, Money> caps,
+      List<? extends RankedShare<K, ?>> rankedDesc,
+      Map<K, Money> current) {
 
     BigDecimal left = remainderAmount;
+    int from = 0;
 
     while (left.signum() > 0) {
-      boolean progressed = applyOnePositivePass(oneCent, caps, rankedDesc, current);
-      if (!progressed) {
+      from = applyOnePositivePass(oneCent, caps, rankedDesc, current, from);
+      if (from < 0) {
         throw new IllegalArgumentException(
             "Unable to distribute positive rounding remainder safely");
       }
@@ -106,41 +113,50 @@ public final class LargestFractionalRemainderDistributor implements RemainderDis
     return current;
   }
 
-  private static boolean applyOnePositivePass(
+  /**
+   * Adds one cent to the first share at or after {@code from} that stays within its cap.
+   *
+   * @return index of the share that received the cent, or -1 if none could
+   */
+  private static <K> int applyOnePositivePass(
       Money oneCent,
-      Map<OrderItemId, Money> caps,
-      List<RankedShare> rankedDesc,
-      Map<OrderItemId, Money> current) {
+      Map<K, Money> caps,
+      List<? extends RankedShare<K, ?>> rankedDesc,
+      Map<K, Money> current,
+      int from) {
 
-    for (RankedShare rs : rankedDesc) {
+    for (int i = from; i < rankedDesc.size(); i++) {
+      RankedShare<K, ?> rs = rankedDesc.get(i);
       Money now = requireCurrent(current, rs.id());
       Money cap = requireCap(caps, rs.id());
 
-      if (now.plus(oneCent).compareTo(cap) <= 0) {
-        current.put(rs.id(), now.plus(oneCent));
-        return true;
+      Money next = now.plus(oneCent);
+      if (next.compareTo(cap) <= 0) {
+        current.put(rs.id(), next);
+        return i;
       }
     }
-    return false;
+    return -1;
   }
 
-  private static Map<OrderItemId, Money> distributeNegativeRemainder(
+  private static <K, T extends Comparable<? super T>> Map<K, Money> distributeNegativeRemainder(
       BigDecimal remainderAmount,
       Money oneCent,
-      List<RankedShare> rankedDesc,
-      Map<OrderItemId, Money> current) {
+      List<RankedShare<K, T>> rankedDesc,
+      Map<K, Money> current) {
 
     // For the negative remainder, we want the most negative rounding errors first.
-    List<RankedShare> rankedAsc = new ArrayList<>(rankedDesc);
+    List<RankedShare<K, T>> rankedAsc = new ArrayList<>(rankedDesc);
     rankedAsc.sort(
-        Comparator.comparing(RankedShare::roundingError)
-            .thenComparing(RankedShare::id, TIE_BREAKER));
+        Comparator.comparing((RankedShare<K, T> rs) -> rs.roundingError())
+            .thenComparing(RankedShare::tieBreakKey));
 
     BigDecimal left = remainderAmount;
+    int from = 0;
 
     while (left.signum() < 0) {
-      boolean progressed = applyOneNegativePass(oneCent, rankedAsc, current);
-      if (!progressed) {
+      from = applyOneNegativePass(oneCent, rankedAsc, current, from);
+      if (from < 0) {
         throw new IllegalArgumentException(
             "Unable to distribute negative rounding remainder safely");
       }
@@ -150,40 +166,52 @@ public final class LargestFractionalRemainderDistributor implements RemainderDis
     return current;
   }
 
-  private static boolean applyOneNegativePass(
-      Money oneCent, List<RankedShare> rankedAsc, Map<OrderItemId, Money> current) {
+  /**
+   * Removes one cent from the first share at or after {@code from} that has a cent left.
+   *
+   * @return index of the share that gave up the cent, or -1 if none could
+   */
+  private static <K> int applyOneNegativePass(
+      Money oneCent, List<? extends RankedShare<K, ?>> rankedAsc, Map<K, Money> current, int from) {
 
-    for (RankedShare rs : rankedAsc) {
+    for (int i = from; i < rankedAsc.size(); i++) {
+      RankedShare<K, ?> rs = rankedAsc.get(i);
       Money now = requireCurrent(current, rs.id());
 
       if (now.compareTo(oneCent) >= 0) {
         current.put(rs.id(), now.minus(oneCent));
-        return true;
+        return i;
       }
     }
-    return false;
+    return -1;
   }
 
-  private static Money requireCurrent(Map<OrderItemId, Money> current, OrderItemId id) {
+  private static <K> Money requireCurrent(Map<K, Money> current, K id) {
     Money now = current.get(id);
     if (now == null) {
-      throw new IllegalArgumentException("Missing current allocation for item: " + id.value());
+      throw new IllegalArgumentException("Missing current allocation for: " + id);
     }
     return now;
   }
 
-  private static Money requireCap(Map<OrderItemId, Money> caps, OrderItemId id) {
+  private static <K> Money requireCap(Map<K, Money> caps, K id) {
     Money cap = caps.get(id);
     if (cap == null) {
-      throw new IllegalArgumentException("Missing cap allocation for item: " + id.value());
+      throw new IllegalArgumentException("Missing cap allocation for: " + id);
     }
     return cap;
   }
 
-  private record RankedShare(OrderItemId id, BigDecimal roundingError) {
+  /**
+   * Ranked share; {@code tieBreakKey} is computed once rather than on every comparison while
+   * sorting.
+   */
+  private record RankedShare<K, T extends Comparable<? super T>>(
+      K id, BigDecimal roundingError, T tieBreakKey) {
     private RankedShare {
       Objects.requireNonNull(id, "id must not be null");
       Objects.requireNonNull(roundingError, "roundingError must not be null");
+      Objects.requireNonNull(tieBreakKey, "tieBreakKey must not be null");
     }
   }
 }
@@ -0,0 +1,27 @@
+package com.nenkov.bar.domain.service.payment.allocation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event around {@link ProportionalAllocator#allocate}.
+ *
+ * <p>Costs nothing beyond a field write unless a recording has the event enabled.
+ */
+@Name("com.nenkov.bar.ProportionalAllocation")
+@Label("Proportional Allocation")
+@Category({"Bar", "Payment"})
+@Description("Proportional split of an amount across capped items")
+@StackTrace(false)
+final class ProportionalAllocationEvent extends jdk.jfr.Event {
+
+  @Label("Caps")
+  int capCount;
+
+  @Label("Remainder Cents")
+  @Description("Cent-level rounding remainder handed to the remainder distributor")
+  long remainderCents;
+}
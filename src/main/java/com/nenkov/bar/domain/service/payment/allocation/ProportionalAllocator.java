@@ -9,6 +9,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * Allocates a total {@link Money} amount proportionally across items using per-item caps.
@@ -27,8 +28,12 @@ import java.util.Objects;
  * <ul>
  *   <li>Deterministic results require deterministic iteration order of {@code caps}.
  *   <li>This allocator preserves insertion order in its intermediate maps.
+ *   <li>Cent ties go to the smallest tie-break key; for order items that is the id's string form.
  * </ul>
  *
+ * <p>Amounts are usually allocated across order items, but any key type can be used (for example a
+ * split's position) through {@link #allocate(String, Money, Map, Function)}.
+ *
  * <p>Intermediate calculations use {@link MoneyPolicy#WORK_CONTEXT}. Final rounding/normalization
  * is applied only via {@link Money#of(String, java.math.BigDecimal)}.
  */
@@ -69,10 +74,47 @@ public final class ProportionalAllocator {
    */
   public Map<OrderItemId, Money> allocate(
       String currency, Money totalToAllocate, Map<OrderItemId, Money> caps) {
+    return allocate(currency, totalToAllocate, caps, ProportionalAllocator::itemTieBreakKey);
+  }
+
+  /**
+   * Same as {@link #allocate(String, Money, Map)}, for caps keyed by any type.
+   *
+   * <p>Cent ties go to the key with the smallest {@code tieBreakKey}.
+   */
+  public <K, T extends Comparable<? super T>> Map<K, Money> allocate(
+      String currency,
+      Money totalToAllocate,
+      Map<K, Money> caps,
+      Function<? super K, ? extends T> tieBreakKey) {
     Objects.requireNonNull(currency, "currency must not be null");
     Objects.requireNonNull(totalToAllocate, "totalToAllocate must not be null");
     Objects.requireNonNull(caps, "caps must not be null");
+    Objects.requireNonNull(tieBreakKey, "tieBreakKey must not be null");
+
+    ProportionalAllocationEvent event = new ProportionalAllocationEvent();
+    event.begin();
+    try {
+      return allocateInternal(currency, totalToAllocate, caps, tieBreakKey, event);
+    } finally {
+      if (event.shouldCommit()) {
+        event.capCount = caps.size();
+        event.commit();
+      }
+    }
+  }
+
+  /** Tie-break key for order items: the id's string form. */
+  static String itemTieBreakKey(OrderItemId id) {
+    return id.value().toString();
+  }
 
+  private <K, T extends Comparable<? super T>> Map<K, Money> allocateInternal(
+      String currency,
+      Money totalToAllocate,
+      Map<K, Money> caps,
+      Function<? super K, ? extends T> tieBreakKey,
+      ProportionalAllocationEvent event) {
     verifyCurrency(currency, totalToAllocate, caps);
 
     if (totalToAllocate.isZero()) {
@@ -84,17 +126,19 @@ public final class ProportionalAllocator {
       throw new IllegalArgumentException("Total cap is zero; cannot allocate proportionally");
     }
 
-    AllocationDraft draft = draftAllocation(currency, totalToAllocate, caps, totalCap);
+    AllocationDraft<K> draft = draftAllocation(currency, totalToAllocate, caps, totalCap);
     if (draft.remainderAmount().signum() == 0) {
       return draft.rounded();
     }
+    if (event.isEnabled()) {
+      event.remainderCents = draft.remainderAmount().movePointRight(2).longValue();
+    }
 
     return remainderDistributor.distribute(
-        currency, draft.remainderAmount(), caps, draft.shares(), draft.rounded());
+        currency, draft.remainderAmount(), caps, draft.shares(), draft.rounded(), tieBreakKey);
   }
 
-  private static void verifyCurrency(
-      String currency, Money totalToAllocate, Map<OrderItemId, Money> caps) {
+  private static void verifyCurrency(String currency, Money totalToAllocate, Map<?, Money> caps) {
     if (!currency.equals(totalToAllocate.currency())) {
       throw new IllegalArgumentException("Currency mismatch for totalToAllocate");
     }
@@ -106,10 +150,10 @@ public final class ProportionalAllocator {
   }
 
   /**
-   * Returns a zero-valued allocation for all item ids present in {@code caps}.
+   * Returns a zero-valued allocation for all keys present in {@code caps}.
    *
-   * <p>The resulting map contains one entry per {@link OrderItemId} in {@code caps}, each mapped to
-   * {@link Money#zero(String)} using the provided {@code currency}.
+   * <p>The resulting map contains one entry per key in {@code caps}, each mapped to {@link
+   * Money#zero(String)} using the provided {@code currency}.
    *
    * <p>The iteration order of the returned map matches the iteration order of {@code
    * caps.keySet()}, ensuring deterministic behavior for downstream processing.
@@ -117,15 +161,14 @@ public final class ProportionalAllocator {
    * <p>This method is used when {@code totalToAllocate} is zero, in which case proportional share
    * computation and remainder distribution are skipped entirely.
    */
-  private static Map<OrderItemId, Money> zeroAllocation(
-      String currency, Map<OrderItemId, Money> caps) {
+  private static <K> Map<K, Money> zeroAllocation(String currency, Map<K, Money> caps) {
     return zeros(currency, caps.keySet());
   }
 
-  private static AllocationDraft draftAllocation(
-      String currency, Money totalToAllocate, Map<OrderItemId, Money> caps, Money totalCap) {
-    List<Share> shares = computeShares(totalToAllocate, caps, totalCap);
-    Map<OrderItemId, Money> rounded = roundAndCap(currency, caps, shares);
+  private static <K> AllocationDraft<K> draftAllocation(
+      String currency, Money totalToAllocate, Map<K, Money> caps, Money totalCap) {
+    List<Share<K>> shares = computeShares(totalToAllocate, caps, totalCap);
+    Map<K, Money> rounded = roundAndCap(currency, caps, shares);
 
     Money sumRounded = sumMoney(currency, rounded.values());
 
@@ -134,7 +177,7 @@ public final class ProportionalAllocator {
     // Represented as BigDecimal because Money is non-negative.
     BigDecimal remainderAmount = totalToAllocate.amount().subtract(sumRounded.amount());
 
-    return new AllocationDraft(shares, rounded, remainderAmount);
+    return new AllocationDraft<>(shares, rounded, remainderAmount);
   }
 
   /**
@@ -143,12 +186,12 @@ public final class ProportionalAllocator {
    * <p>Uses {@link MoneyPolicy#WORK_CONTEXT} for intermediate precision. The returned raw values
    * are later rounded via {@link Money#of(String, java.math.BigDecimal)}.
    */
-  private static List<Share> computeShares(
-      Money totalToAllocate, Map<OrderItemId, Money> caps, Money totalCap) {
-    List<Share> shares = new ArrayList<>();
+  private static <K> List<Share<K>> computeShares(
+      Money totalToAllocate, Map<K, Money> caps, Money totalCap) {
+    List<Share<K>> shares = new ArrayList<>();
 
-    for (Map.Entry<OrderItemId, Money> e : caps.entrySet()) {
-      OrderItemId id = e.getKey();
+    for (Map.Entry<K, Money> e : caps.entrySet()) {
+      K id = e.getKey();
       Money cap = e.getValue();
 
       BigDecimal raw =
@@ -157,7 +200,7 @@ public final class ProportionalAllocator {
               .multiply(cap.amount())
               .divide(totalCap.amount(), MoneyPolicy.WORK_CONTEXT);
 
-      shares.add(new Share(id, raw));
+      shares.add(new Share<>(id, raw));
     }
 
     return shares;
@@ -169,11 +212,11 @@ public final class ProportionalAllocator {
    * <p>Rounding uses {@link Money#of(String, java.math.BigDecimal)} to apply the domain rounding
    * rules. Capping ensures the allocation never exceeds the per-item maximum.
    */
-  private static Map<OrderItemId, Money> roundAndCap(
-      String currency, Map<OrderItemId, Money> caps, List<Share> shares) {
-    Map<OrderItemId, Money> result = new LinkedHashMap<>();
+  private static <K> Map<K, Money> roundAndCap(
+      String currency, Map<K, Money> caps, List<Share<K>> shares) {
+    Map<K, Money> result = new LinkedHashMap<>();
 
-    for (Share s : shares) {
+    for (Share<K> s : shares) {
       Money rounded = Money.of(currency, s.raw());
       Money cap = capOrThrow(s.id(), caps);
 
@@ -184,17 +227,17 @@ public final class ProportionalAllocator {
     return result;
   }
 
-  private static Money capOrThrow(OrderItemId id, Map<OrderItemId, Money> caps) {
+  private static <K> Money capOrThrow(K id, Map<K, Money> caps) {
     Money cap = caps.get(id);
     if (cap == null) {
-      throw new IllegalArgumentException("Missing cap for item: " + id.value());
+      throw new IllegalArgumentException("Missing cap for: " + id);
     }
     return cap;
   }
 
-  private static Map<OrderItemId, Money> zeros(String currency, Iterable<OrderItemId> ids) {
-    Map<OrderItemId, Money> result = new LinkedHashMap<>();
-    for (OrderItemId id : ids) {
+  private static <K> Map<K, Money> zeros(String currency, Iterable<K> ids) {
+    Map<K, Money> result = new LinkedHashMap<>();
+    for (K id : ids) {
       result.put(id, Money.zero(currency));
     }
     return result;
@@ -211,15 +254,15 @@ public final class ProportionalAllocator {
     return total;
   }
 
-  public record Share(OrderItemId id, BigDecimal raw) {
+  public record Share<K>(K id, BigDecimal raw) {
     public Share {
       Objects.requireNonNull(id, "id must not be null");
       Objects.requireNonNull(raw, "raw must not be null");
     }
   }
 
-  record AllocationDraft(
-      List<Share> shares, Map<OrderItemId, Money> rounded, BigDecimal remainderAmount) {
+  record AllocationDraft<K>(
+      List<Share<K>> shares, Map<K, Money> rounded, BigDecimal remainderAmount) {
 
     AllocationDraft {
       Objects.requireNonNull(shares, "shares must not be null");
@@ -5,19 +5,35 @@ import com.nenkov.bar.domain.model.session.OrderItemId;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Strategy for distributing rounding remainders after proportional allocation.
  *
  * <p>The remainder is expressed as a signed monetary amount (scale=2), not as {@link Money},
  * because the domain forbids negative {@code Money} values.
+ *
+ * <p>Allocations are keyed by any type {@code K}; {@code tieBreakKey} orders keys whose shares are
+ * otherwise equally good candidates for a cent.
  */
 public interface RemainderDistributor {
 
-  Map<OrderItemId, Money> distribute(
+  <K, T extends Comparable<? super T>> Map<K, Money> distribute(
+      String currency,
+      BigDecimal remainderAmount,
+      Map<K, Money> caps,
+      List<ProportionalAllocator.Share<K>> shares,
+      Map<K, Money> current,
+      Function<? super K, ? extends T> tieBreakKey);
+
+  /** Distributes a remainder between order items, breaking ties by the item id's string form. */
+  default Map<OrderItemId, Money> distribute(
       String currency,
       BigDecimal remainderAmount,
       Map<OrderItemId, Money> caps,
-      List<ProportionalAllocator.Share> shares,
-      Map<OrderItemId, Money> current);
+      List<ProportionalAllocator.Share<OrderItemId>> shares,
+      Map<OrderItemId, Money> current) {
+    return distribute(
+        currency, remainderAmount, caps, shares, current, ProportionalAllocator::itemTieBreakKey);
+  }
 }
@@ -7,6 +7,7 @@ import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
 import com.nenkov.bar.domain.service.payment.PaymentCalculationContext;
 import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,10 +20,12 @@ import java.util.Objects;
  * <p>Item write-offs are quantity-based. This allocator:
  *
  * <ol>
- *   <li>Aggregates all {@link ItemWriteOff}s per {@link OrderItemId}
- *   <li>Computes a per-unit write-off amount (total / totalQuantity) using {@link
- *       MoneyPolicy#WORK_CONTEXT}
- *   <li>Applies per-unit amount to the requested scope quantity
+ *   <li>Groups all {@link ItemWriteOff}s per {@link OrderItemId}, keeping the order they were given
+ *       in
+ *   <li>Covers the requested scope quantity with the write-offs in that order: the first
+ *       write-off's units are used up before the next one's
+ *   <li>Applies each write-off's own per-unit amount (amount / quantity, using {@link
+ *       MoneyPolicy#WORK_CONTEXT}) to the units taken from it
  *   <li>Caps the result by the provided gross payable cap per item
  * </ol>
  *
@@ -32,35 +35,32 @@ import java.util.Objects;
 public final class ItemWriteOffAllocation {
 
   private final String currency;
-  private final Map<OrderItemId, AggregatedItemWriteOff> aggregatedByItem;
+  private final Map<OrderItemId, List<ItemWriteOff>> writeOffsByItem;
 
   private ItemWriteOffAllocation(
-      String currency, Map<OrderItemId, AggregatedItemWriteOff> aggregatedByItem) {
+      String currency, Map<OrderItemId, List<ItemWriteOff>> writeOffsByItem) {
     this.currency = currency;
-    this.aggregatedByItem = aggregatedByItem;
+    this.writeOffsByItem = writeOffsByItem;
   }
 
   /**
-   * Aggregates item write-offs by item id.
+   * Groups item write-offs by item id.
    *
-   * <p>All write-offs must be in the provided {@code currency}. Aggregation sums amounts and
-   * quantities.
+   * <p>All write-offs must be in the provided {@code currency}. Within an item, write-offs cover
+   * units in the order they appear in {@code itemWriteOffs}.
    */
   public static ItemWriteOffAllocation from(String currency, List<ItemWriteOff> itemWriteOffs) {
     Objects.requireNonNull(currency, "currency must not be null");
     Objects.requireNonNull(itemWriteOffs, "itemWriteOffs must not be null");
 
-    Map<OrderItemId, AggregatedItemWriteOff> aggregated = new LinkedHashMap<>();
+    Map<OrderItemId, List<ItemWriteOff>> byItem = new LinkedHashMap<>();
     for (ItemWriteOff wo : itemWriteOffs) {
       if (!currency.equals(wo.amount().currency())) {
         throw new IllegalArgumentException("Currency mismatch in item write-offs");
       }
-      aggregated.merge(
-          wo.itemId(),
-          new AggregatedItemWriteOff(wo.amount(), wo.quantity()),
-          AggregatedItemWriteOff::merge);
+      byItem.computeIfAbsent(wo.itemId(), id -> new ArrayList<>()).add(wo);
     }
-    return new ItemWriteOffAllocation(currency, aggregated);
+    return new ItemWriteOffAllocation(currency, byItem);
   }
 
   /**
@@ -99,14 +99,14 @@ public final class ItemWriteOffAllocation {
   }
 
   /**
-   * Allocates aggregated item write-offs to a quantity scope.
+   * Allocates item write-offs to a quantity scope.
    *
    * <p>For each item id in {@code qtyByItem}:
    *
    * <ul>
    *   <li>If scope quantity is &lt;= 0, allocation is zero
    *   <li>If no write-off exists for the item, allocation is zero
-   *   <li>Otherwise allocate up to {@code min(scopeQty, aggregatedQty)}
+   *   <li>Otherwise cover up to {@code scopeQty} units with the item's write-offs in order
    *   <li>Cap allocation by {@code grossCapByItem[itemId]}
    * </ul>
    *
@@ -138,69 +138,42 @@ public final class ItemWriteOffAllocation {
   }
 
   private Money allocationFor(OrderItemId itemId, int scopeQty, Money cap) {
-    if (scopeQty <= 0) {
+    List<ItemWriteOff> writeOffs = writeOffsByItem.get(itemId);
+    if (scopeQty <= 0 || writeOffs == null) {
       return Money.zero(currency);
     }
 
-    AggregatedItemWriteOff agg = aggregatedByItem.get(itemId);
-    if (agg == null) {
-      return Money.zero(currency);
-    }
-
-    int allocQty = Math.min(scopeQty, agg.totalQuantity());
-    if (allocQty == 0) {
-      return Money.zero(currency);
+    Money computed = Money.zero(currency);
+    int unitsLeft = scopeQty;
+    for (ItemWriteOff writeOff : writeOffs) {
+      if (unitsLeft == 0) {
+        break;
+      }
+      int units = Math.min(unitsLeft, writeOff.quantity());
+      computed = computed.plus(computeAllocation(writeOff, units));
+      unitsLeft -= units;
     }
-
-    Money computed = computeAllocation(agg, allocQty);
     return computed.compareTo(cap) > 0 ? cap : computed;
   }
 
   /**
-   * Computes the write-off amount for {@code allocQty} units based on an aggregated per-unit
-   * amount.
+   * Computes the write-off amount for {@code units} units taken from {@code writeOff}.
    *
    * <p>Per-unit is computed with {@link MoneyPolicy#WORK_CONTEXT} precision; final rounding is
-   * applied via {@link Money#of(String, java.math.BigDecimal)}.
+   * applied via {@link Money#of(String, java.math.BigDecimal)}. When every unit of the write-off is
+   * taken, its full amount is returned, so per-unit rounding never leaves part of a write-off
+   * unapplied.
    */
-  private Money computeAllocation(AggregatedItemWriteOff agg, int allocQty) {
-    Money perUnit = agg.perUnitAmount(currency);
-    BigDecimal raw = perUnit.amount().multiply(BigDecimal.valueOf(allocQty));
-    return Money.of(currency, raw);
-  }
-
-  private record AggregatedItemWriteOff(Money totalAmount, int totalQuantity) {
-
-    AggregatedItemWriteOff {
-      Objects.requireNonNull(totalAmount, "totalAmount must not be null");
-      if (totalQuantity <= 0) {
-        throw new IllegalArgumentException("totalQuantity must be > 0");
-      }
-    }
-
-    static AggregatedItemWriteOff merge(AggregatedItemWriteOff a, AggregatedItemWriteOff b) {
-      if (!a.totalAmount.currency().equals(b.totalAmount.currency())) {
-        throw new IllegalArgumentException("Currency mismatch in aggregated item write-offs");
-      }
-      return new AggregatedItemWriteOff(
-          a.totalAmount.plus(b.totalAmount), a.totalQuantity + b.totalQuantity);
-    }
-
-    /**
-     * Computes a per-unit write-off amount for the aggregated write-off.
-     *
-     * <p>Intermediate division uses {@link MoneyPolicy#WORK_CONTEXT}. Final rounding is applied via
-     * {@link Money#of(String, java.math.BigDecimal)}.
-     */
-    Money perUnitAmount(String currency) {
-      if (!currency.equals(totalAmount.currency())) {
-        throw new IllegalArgumentException("Currency mismatch in per-unit calculation");
-      }
-
-      BigDecimal raw =
-          totalAmount.amount().divide(BigDecimal.valueOf(totalQuantity), MoneyPolicy.WORK_CONTEXT);
-
-      return Money.of(currency, raw);
+  private Money computeAllocation(ItemWriteOff writeOff, int units) {
+    if (units == writeOff.quantity()) {
+      return writeOff.amount();
     }
+    BigDecimal raw =
+        writeOff
+            .amount()
+            .amount()
+            .multiply(BigDecimal.valueOf(units))
+            .divide(BigDecimal.valueOf(writeOff.quantity()), MoneyPolicy.WORK_CONTEXT);
+    return Money.of(currency, raw);
   }
 }
@@ -0,0 +1,108 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+/**
+ * Accounts the bytes each request allocates and publishes them per route and stage ({@value
+ * #NAME}).
+ *
+ * <p>Allocation is read from the per-thread allocated-bytes counter. The filter binds a {@link
+ * RequestAllocation} to the request; handler decorators and the repository proxy attribute load,
+ * compute and save. The filter itself measures the response write, which for annotated controllers
+ * also drives the handler; handler stages measured inside it are subtracted, leaving serialization.
+ *
+ * <p>Allocation on threads outside the request chain (provider calls, pollers) is not attributed.
+ * Opt-in: per-thread counters are cheap but not free, and context propagation adds a small cost to
+ * every Reactor operator.
+ */
+public final class AllocationAccountingWebFilter implements WebFilter, Ordered {
+
+  /** Distribution summary name; tags: {@code route}, {@code method}, {@code stage}. */
+  public static final String NAME = "app.request.allocation";
+
+  /**
+   * Runs before every other web filter, so they all see the request's {@link RequestAllocation}.
+   */
+  public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+  static final String TOTAL_STAGE = "total";
+  static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+  private final MeterRegistry registry;
+
+  public AllocationAccountingWebFilter(MeterRegistry registry) {
+    this.registry = Objects.requireNonNull(registry, "registry must not be null");
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    RequestAllocation allocation = new RequestAllocation();
+    ServerWebExchange measured =
+        exchange
+            .mutate()
+            .response(
+                new MeasuringResponse(
+                    exchange.getResponse(), segment -> measureSerialization(allocation, segment)))
+            .build();
+    return chain
+        .filter(measured)
+        .contextWrite(context -> context.put(RequestAllocation.CONTEXT_KEY, allocation))
+        .doFinally(_ -> publish(exchange, allocation));
+  }
+
+  @Override
+  public int getOrder() {
+    return ORDER;
+  }
+
+  private void publish(ServerWebExchange exchange, RequestAllocation allocation) {
+    String route = route(exchange);
+    String method = exchange.getRequest().getMethod().name();
+    for (AllocationStage stage : AllocationStage.values()) {
+      summary(route, method, stage.tagValue()).record(allocation.bytes(stage));
+    }
+    summary(route, method, TOTAL_STAGE).record(allocation.total());
+  }
+
+  private DistributionSummary summary(String route, String method, String stage) {
+    return DistributionSummary.builder(NAME)
+        .baseUnit("bytes")
+        .tag("route", route)
+        .tag("method", method)
+        .tag("stage", stage)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  static String route(ServerWebExchange exchange) {
+    Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern instanceof PathPattern pathPattern
+        ? pathPattern.getPatternString()
+        : UNMATCHED_ROUTE;
+  }
+
+  /**
+   * Attributes to {@link AllocationStage#SERIALIZE} what the calling thread allocates while
+   * producing the response body, less the stages attributed meanwhile.
+   */
+  private static void measureSerialization(RequestAllocation allocation, Runnable segment) {
+    long attributedBefore = allocation.total();
+    long start = ThreadAllocatedBytes.current();
+    try {
+      segment.run();
+    } finally {
+      long segmentBytes = ThreadAllocatedBytes.current() - start;
+      long attributedMeanwhile = allocation.total() - attributedBefore;
+      allocation.add(AllocationStage.SERIALIZE, segmentBytes - attributedMeanwhile);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import java.util.Locale;
+
+/** Request stages that allocation is attributed to. */
+public enum AllocationStage {
+  /** Repository reads. */
+  LOAD,
+  /** Handler work outside repository calls: validation, domain logic, result mapping. */
+  COMPUTE,
+  /** Repository writes. */
+  SAVE,
+  /** Response encoding and writing, excluding the handler stages above. */
+  SERIALIZE;
+
+  String tagValue() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
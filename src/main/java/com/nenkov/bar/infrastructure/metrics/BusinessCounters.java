@@ -0,0 +1,102 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.writeoff.WriteOffReason;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Business throughput counters: orders, items, checks, payments, sessions and write-offs.
+ *
+ * <p>Each counter is a {@link LongAdder}, so handlers on many threads add to per-thread cells
+ * without contending or locking; the cells are only summed when the registry is scraped. They are
+ * published as monotonic counters (Prometheus {@code _total}), which dashboards turn into rates.
+ *
+ * <p>One instance is shared by all service decorators: registering a function counter binds it to
+ * the first object registered under its name and tags.
+ */
+public final class BusinessCounters {
+
+  /** Name prefix of every counter. */
+  public static final String PREFIX = "app.business.";
+
+  private final LongAdder orders = new LongAdder();
+  private final LongAdder orderItems = new LongAdder();
+  private final LongAdder checksCreated = new LongAdder();
+  private final LongAdder sessionsOpened = new LongAdder();
+  private final LongAdder sessionsClosed = new LongAdder();
+  private final Map<PaymentAttemptStatus, LongAdder> payments =
+      new EnumMap<>(PaymentAttemptStatus.class);
+  private final Map<WriteOffReason, LongAdder> writeOffs = new EnumMap<>(WriteOffReason.class);
+  private final Map<WriteOffReason, LongAdder> writeOffCents = new EnumMap<>(WriteOffReason.class);
+
+  public BusinessCounters(MeterRegistry registry) {
+    Objects.requireNonNull(registry, "registry must not be null");
+    register(registry, "orders", Tags.empty(), orders);
+    register(registry, "order.items", Tags.empty(), orderItems);
+    register(registry, "checks.created", Tags.empty(), checksCreated);
+    register(registry, "sessions", Tags.of("event", "opened"), sessionsOpened);
+    register(registry, "sessions", Tags.of("event", "closed"), sessionsClosed);
+    for (PaymentAttemptStatus status : PaymentAttemptStatus.values()) {
+      LongAdder adder = new LongAdder();
+      payments.put(status, adder);
+      register(registry, "payments", Tags.of("outcome", tagValue(status)), adder);
+    }
+    for (WriteOffReason reason : WriteOffReason.values()) {
+      LongAdder count = new LongAdder();
+      LongAdder cents = new LongAdder();
+      writeOffs.put(reason, count);
+      writeOffCents.put(reason, cents);
+      register(registry, "writeoffs", Tags.of("reason", tagValue(reason)), count);
+      FunctionCounter.builder(PREFIX + "writeoff.amount", cents, LongAdder::doubleValue)
+          .tags(Tags.of("reason", tagValue(reason)))
+          .baseUnit("cents")
+          .register(registry);
+    }
+  }
+
+  /** An order adding {@code items} items. */
+  public void orderAdded(int items) {
+    orders.increment();
+    orderItems.add(items);
+  }
+
+  public void checksCreated(int checks) {
+    checksCreated.add(checks);
+  }
+
+  /** A payment attempt's outcome as first reported by the provider. */
+  public void paymentAttempted(PaymentAttemptStatus outcome) {
+    payments.get(outcome).increment();
+  }
+
+  public void sessionOpened() {
+    sessionsOpened.increment();
+  }
+
+  public void sessionClosed() {
+    sessionsClosed.increment();
+  }
+
+  public void writeOff(WriteOffReason reason, Money amount) {
+    writeOffs.get(reason).increment();
+    writeOffCents.get(reason).add(amount.amount().movePointRight(2).longValueExact());
+  }
+
+  private static void register(MeterRegistry registry, String name, Tags tags, LongAdder adder) {
+    FunctionCounter.builder(PREFIX + name, adder, LongAdder::doubleValue)
+        .tags(tags)
+        .register(registry);
+  }
+
+  private static String tagValue(Enum<?> value) {
+    return value.name().toLowerCase(Locale.ROOT);
+  }
+}
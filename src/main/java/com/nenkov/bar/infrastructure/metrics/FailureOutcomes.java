@@ -0,0 +1,44 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Outcome tag values for failed calls.
+ *
+ * <p>Only the exception types the API maps to problem codes are named after their simple class
+ * name; any other failure is tagged {@value #ERROR}. Types match exactly, as in the API's mapper
+ * registry, so the set of outcome tag values stays fixed however many exception types the code
+ * throws.
+ */
+public final class FailureOutcomes {
+
+  /** Outcome of a failure whose type is not named. */
+  public static final String ERROR = "error";
+
+  private final Set<Class<? extends Throwable>> namedTypes;
+
+  private FailureOutcomes(Set<Class<? extends Throwable>> namedTypes) {
+    this.namedTypes = namedTypes;
+  }
+
+  public static FailureOutcomes naming(Collection<Class<? extends Throwable>> namedTypes) {
+    Objects.requireNonNull(namedTypes, "namedTypes must not be null");
+    return new FailureOutcomes(Set.copyOf(namedTypes));
+  }
+
+  /** Tags every failure {@value #ERROR}. */
+  public static FailureOutcomes unnamed() {
+    return new FailureOutcomes(Set.of());
+  }
+
+  public boolean isNamed(Class<?> type) {
+    return namedTypes.contains(type);
+  }
+
+  public String outcome(Throwable failure) {
+    Objects.requireNonNull(failure, "failure must not be null");
+    return isNamed(failure.getClass()) ? failure.getClass().getSimpleName() : ERROR;
+  }
+}
@@ -0,0 +1,18 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/** Naming for application handler timers. */
+public final class HandlerTimers {
+
+  /** Timer name; tags: {@code handler}, {@code outcome}. */
+  public static final String NAME = "app.handler";
+
+  private HandlerTimers() {}
+
+  public static OutcomeTimer forHandler(
+      MeterRegistry registry, String handler, FailureOutcomes failureOutcomes) {
+    return new OutcomeTimer(registry, NAME, Tags.of("handler", handler), failureOutcomes);
+  }
+}
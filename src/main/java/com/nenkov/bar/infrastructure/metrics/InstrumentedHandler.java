@@ -0,0 +1,73 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import com.nenkov.bar.infrastructure.tracing.Spans;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Instrumentation applied around one application handler.
+ *
+ * <p>Each call runs in a span named after the handler, is timed ({@value HandlerTimers#NAME}) and
+ * has its time and allocation attributed to the current {@link RequestProfile} and {@link
+ * RequestAllocation}, if any.
+ */
+public final class InstrumentedHandler {
+
+  private final String name;
+  private final OutcomeTimer timer;
+  private final Tracer tracer;
+
+  public InstrumentedHandler(
+      MeterRegistry registry, Tracer tracer, FailureOutcomes failureOutcomes, String name) {
+    this.name = Objects.requireNonNull(name, "name must not be null");
+    this.tracer = Objects.requireNonNull(tracer, "tracer must not be null");
+    this.timer = HandlerTimers.forHandler(registry, name, failureOutcomes);
+  }
+
+  public <T> T call(Supplier<T> call) {
+    return Spans.inSpan(
+        tracer,
+        name,
+        () ->
+            timer.record(
+                () -> RequestProfile.measureHandler(() -> RequestAllocation.measureHandler(call))),
+        "handler",
+        name);
+  }
+
+  /**
+   * Like {@link #call}, for a handler that completes asynchronously. The span and timer run until
+   * the returned future completes; profile and allocation attribution cover only the part run on
+   * the calling thread.
+   */
+  public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> call) {
+    Span span = Spans.start(tracer, name, "handler", name);
+    long start = System.nanoTime();
+    CompletableFuture<T> future;
+    try (Tracer.SpanInScope _ = tracer.withSpan(span)) {
+      future = RequestProfile.measureHandler(() -> RequestAllocation.measureHandler(call));
+    } catch (RuntimeException | Error e) {
+      timer.record(System.nanoTime() - start, e);
+      span.error(e);
+      span.end();
+      throw e;
+    }
+    return future.whenComplete(
+        (result, failure) -> {
+          Throwable cause =
+              failure instanceof CompletionException && failure.getCause() != null
+                  ? failure.getCause()
+                  : failure;
+          timer.record(System.nanoTime() - start, cause);
+          if (cause != null) {
+            span.error(cause);
+          }
+          span.end();
+        });
+  }
+}
@@ -0,0 +1,81 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import java.util.function.Consumer;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Response decorator handing every segment of body production to {@code measure}.
+ *
+ * <p>A segment is the calling thread subscribing to or requesting from the body publisher. That is
+ * where the upstream encoder runs and, for annotated controllers, where the handler itself is
+ * driven; {@code measure} runs the segment and is expected to subtract handler stages it attributed
+ * meanwhile.
+ */
+final class MeasuringResponse extends ServerHttpResponseDecorator {
+
+  private final Consumer<Runnable> measure;
+
+  MeasuringResponse(ServerHttpResponse delegate, Consumer<Runnable> measure) {
+    super(delegate);
+    this.measure = measure;
+  }
+
+  @Override
+  public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+    return super.writeWith(new MeasuringPublisher<>(body, measure));
+  }
+
+  @Override
+  public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+    return super.writeAndFlushWith(new MeasuringPublisher<>(body, measure));
+  }
+
+  private record MeasuringPublisher<T>(Publisher<T> body, Consumer<Runnable> measure)
+      implements Publisher<T> {
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+      measure.accept(
+          () ->
+              body.subscribe(
+                  new Subscriber<T>() {
+                    @Override
+                    public void onSubscribe(Subscription subscription) {
+                      subscriber.onSubscribe(
+                          new Subscription() {
+                            @Override
+                            public void request(long n) {
+                              measure.accept(() -> subscription.request(n));
+                            }
+
+                            @Override
+                            public void cancel() {
+                              subscription.cancel();
+                            }
+                          });
+                    }
+
+                    @Override
+                    public void onNext(T item) {
+                      subscriber.onNext(item);
+                    }
+
+                    @Override
+                    public void onError(Throwable failure) {
+                      subscriber.onError(failure);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                      subscriber.onComplete();
+                    }
+                  }));
+    }
+  }
+}
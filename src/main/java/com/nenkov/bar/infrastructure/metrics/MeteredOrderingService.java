@@ -0,0 +1,38 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import com.nenkov.bar.application.ordering.model.AddOrderItemsInput;
+import com.nenkov.bar.application.ordering.model.AddOrderItemsResult;
+import com.nenkov.bar.application.ordering.service.OrderingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.util.Objects;
+
+/**
+ * {@link OrderingService} decorator applying {@link InstrumentedHandler} to each handler and
+ * counting orders and items in {@link BusinessCounters}.
+ */
+public final class MeteredOrderingService implements OrderingService {
+
+  private final OrderingService delegate;
+  private final InstrumentedHandler addItemsHandler;
+  private final BusinessCounters counters;
+
+  public MeteredOrderingService(
+      OrderingService delegate,
+      MeterRegistry registry,
+      Tracer tracer,
+      FailureOutcomes failureOutcomes,
+      BusinessCounters counters) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    this.counters = Objects.requireNonNull(counters, "counters must not be null");
+    this.addItemsHandler =
+        new InstrumentedHandler(registry, tracer, failureOutcomes, "AddOrderItemsHandler");
+  }
+
+  @Override
+  public AddOrderItemsResult addItems(AddOrderItemsInput input) {
+    AddOrderItemsResult result = addItemsHandler.call(() -> delegate.addItems(input));
+    counters.orderAdded(result.createdItemIds().size());
+    return result;
+  }
+}
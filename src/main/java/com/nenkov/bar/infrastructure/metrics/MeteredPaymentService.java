@@ -0,0 +1,82 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import com.nenkov.bar.application.payment.model.CreateCheckInput;
+import com.nenkov.bar.application.payment.model.CreateCheckResult;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksInput;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksResult;
+import com.nenkov.bar.application.payment.model.RecordPaymentAttemptInput;
+import com.nenkov.bar.application.payment.model.RecordPaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.SplitChecksInput;
+import com.nenkov.bar.application.payment.model.SplitChecksResult;
+import com.nenkov.bar.application.payment.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link PaymentService} decorator applying {@link InstrumentedHandler} to each handler and
+ * counting created checks and payment outcomes in {@link BusinessCounters}. Payment outcomes are
+ * counted once per provider call, not per idempotent replay.
+ */
+public final class MeteredPaymentService implements PaymentService {
+
+  private final PaymentService delegate;
+  private final InstrumentedHandler createCheckHandler;
+  private final InstrumentedHandler recordPaymentAttemptHandler;
+  private final InstrumentedHandler splitChecksHandler;
+  private final InstrumentedHandler ingestCallbacksHandler;
+  private final BusinessCounters counters;
+
+  public MeteredPaymentService(
+      PaymentService delegate,
+      MeterRegistry registry,
+      Tracer tracer,
+      FailureOutcomes failureOutcomes,
+      BusinessCounters counters) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    this.counters = Objects.requireNonNull(counters, "counters must not be null");
+    this.createCheckHandler =
+        new InstrumentedHandler(registry, tracer, failureOutcomes, "CreateCheckHandler");
+    this.recordPaymentAttemptHandler =
+        new InstrumentedHandler(registry, tracer, failureOutcomes, "RecordPaymentAttemptHandler");
+    this.splitChecksHandler =
+        new InstrumentedHandler(registry, tracer, failureOutcomes, "SplitChecksHandler");
+    this.ingestCallbacksHandler =
+        new InstrumentedHandler(registry, tracer, failureOutcomes, "IngestPaymentCallbacksHandler");
+  }
+
+  @Override
+  public CreateCheckResult createCheck(CreateCheckInput input) {
+    CreateCheckResult result = createCheckHandler.call(() -> delegate.createCheck(input));
+    counters.checksCreated(1);
+    return result;
+  }
+
+  @Override
+  public CompletableFuture<RecordPaymentAttemptResult> recordPaymentAttempt(
+      RecordPaymentAttemptInput input) {
+    return recordPaymentAttemptHandler
+        .callAsync(() -> delegate.recordPaymentAttempt(input))
+        .thenApply(
+            result -> {
+              // Replays did not reach the provider; their outcome was counted the first time.
+              if (!result.replayed()) {
+                counters.paymentAttempted(result.attemptResult().status());
+              }
+              return result;
+            });
+  }
+
+  @Override
+  public SplitChecksResult splitIntoChecks(SplitChecksInput input) {
+    SplitChecksResult result = splitChecksHandler.call(() -> delegate.splitIntoChecks(input));
+    counters.checksCreated(result.checks().size());
+    return result;
+  }
+
+  @Override
+  public IngestPaymentCallbacksResult ingestCallbacks(IngestPaymentCallbacksInput input) {
+    return ingestCallbacksHandler.call(() -> delegate.ingestCallbacks(input));
+  }
+}
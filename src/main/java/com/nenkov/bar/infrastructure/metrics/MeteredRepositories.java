@@ -0,0 +1,228 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.infrastructure.tracing.Spans;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Wraps repository implementations so every repository method is timed ({@value #NAME}) and traced
+ * as a span named {@code Repository.method}.
+ *
+ * <p>A JDK proxy is used so any repository interface, including ones added later, is covered
+ * without a hand-written decorator. Timers are created once per method when the proxy is built.
+ *
+ * <p>Each call also emits a {@link RepositoryCallEvent} carrying the session it concerns and the
+ * number of rows read or written. Those details are only worked out while a Flight Recorder
+ * recording has the event enabled.
+ *
+ * <p>While a {@link RequestProfile} or {@link RequestAllocation} is bound to the calling thread,
+ * each call's time or allocation is attributed to its load or save stage, and table sessions read
+ * or written are noted on the profile.
+ */
+public final class MeteredRepositories {
+
+  /** Timer name; tags: {@code repository}, {@code method}, {@code outcome}. */
+  public static final String NAME = "app.repository";
+
+  private MeteredRepositories() {}
+
+  /**
+   * Returns a proxy of {@code type} that times and traces calls and delegates to {@code target}.
+   *
+   * @param type repository interface
+   * @param target implementation to delegate to
+   * @param registry meter registry
+   * @param tracer tracer; each call becomes a child span of the current span
+   * @param failureOutcomes outcome tag values for failed calls
+   */
+  public static <T> T wrap(
+      Class<T> type,
+      T target,
+      MeterRegistry registry,
+      Tracer tracer,
+      FailureOutcomes failureOutcomes) {
+    Objects.requireNonNull(type, "type must not be null");
+    Objects.requireNonNull(target, "target must not be null");
+    Objects.requireNonNull(registry, "registry must not be null");
+    Objects.requireNonNull(tracer, "tracer must not be null");
+    Objects.requireNonNull(failureOutcomes, "failureOutcomes must not be null");
+    if (!type.isInterface()) {
+      throw new IllegalArgumentException("type must be an interface: " + type.getName());
+    }
+
+    Map<Method, OutcomeTimer> timers = new HashMap<>();
+    for (Method method : type.getMethods()) {
+      if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+        timers.put(
+            method,
+            new OutcomeTimer(
+                registry,
+                NAME,
+                Tags.of("repository", type.getSimpleName(), "method", method.getName()),
+                failureOutcomes));
+      }
+    }
+
+    InvocationHandler handler =
+        (_, method, args) -> {
+          OutcomeTimer timer = timers.get(method);
+          if (timer == null) {
+            // Object methods (equals/hashCode/toString) and default methods are not timed.
+            return invoke(target, method, args);
+          }
+          RepositoryCallEvent event = new RepositoryCallEvent();
+          event.begin();
+          RequestProfile profile = RequestProfile.current();
+          RequestAllocation allocation = RequestAllocation.current();
+          long allocatedBefore = allocation == null ? 0 : ThreadAllocatedBytes.current();
+          Span span =
+              Spans.start(
+                  tracer,
+                  type.getSimpleName() + "." + method.getName(),
+                  "repository",
+                  type.getSimpleName(),
+                  "method",
+                  method.getName());
+          long start = System.nanoTime();
+          try (Tracer.SpanInScope _ = tracer.withSpan(span)) {
+            Object result = invoke(target, method, args);
+            timer.record(System.nanoTime() - start, null);
+            if (profile != null) {
+              noteSession(profile, args, result);
+            }
+            commit(event, type, method, args, result, null);
+            return result;
+          } catch (Throwable failure) {
+            timer.record(System.nanoTime() - start, failure);
+            commit(event, type, method, args, null, failure);
+            span.error(failure);
+            throw failure;
+          } finally {
+            span.end();
+            boolean read = isRead(method);
+            if (profile != null) {
+              profile.add(read ? RequestStage.LOAD : RequestStage.SAVE, System.nanoTime() - start);
+            }
+            if (allocation != null) {
+              allocation.add(
+                  read ? AllocationStage.LOAD : AllocationStage.SAVE,
+                  ThreadAllocatedBytes.current() - allocatedBefore);
+            }
+          }
+        };
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+
+  /** Reads count towards the load stage, everything else towards save. */
+  private static boolean isRead(Method method) {
+    String name = method.getName();
+    return name.startsWith("find") || name.startsWith("exists");
+  }
+
+  private static void noteSession(RequestProfile profile, Object[] args, Object result) {
+    TableSession session = tableSessionOf(result);
+    if (session == null && args != null && args.length == 1) {
+      session = tableSessionOf(args[0]);
+    }
+    if (session != null) {
+      profile.noteSession(session);
+    }
+  }
+
+  private static TableSession tableSessionOf(Object value) {
+    return switch (value) {
+      case TableSession session -> session;
+      case Optional<?> optional -> optional.map(MeteredRepositories::tableSessionOf).orElse(null);
+      case null, default -> null;
+    };
+  }
+
+  private static void commit(
+      RepositoryCallEvent event,
+      Class<?> type,
+      Method method,
+      Object[] args,
+      Object result,
+      Throwable failure) {
+    if (!event.shouldCommit()) {
+      return;
+    }
+    event.repository = type.getSimpleName();
+    event.method = method.getName();
+    event.outcome = failure == null ? "success" : failure.getClass().getSimpleName();
+    TableSessionId sessionId = sessionIdOf(args);
+    if (sessionId == null) {
+      sessionId = sessionIdOf(result);
+    }
+    event.sessionId = sessionId == null ? null : sessionId.value();
+    event.rowCount = failure == null ? rowCount(method, args, result) : -1;
+    event.commit();
+  }
+
+  private static TableSessionId sessionIdOf(Object[] args) {
+    if (args == null) {
+      return null;
+    }
+    for (Object arg : args) {
+      TableSessionId sessionId = sessionIdOf(arg);
+      if (sessionId != null) {
+        return sessionId;
+      }
+    }
+    return null;
+  }
+
+  private static TableSessionId sessionIdOf(Object value) {
+    return switch (value) {
+      case TableSessionId id -> id;
+      case TableSession session -> session.id();
+      case Check check -> check.sessionId();
+      case RecordedPaymentAttempt attempt -> attempt.sessionId();
+      case Optional<?> optional -> optional.map(MeteredRepositories::sessionIdOf).orElse(null);
+      case Collection<?> values when !values.isEmpty() -> sessionIdOf(values.iterator().next());
+      case null, default -> null;
+    };
+  }
+
+  /**
+   * Rows returned by a read, or rows handed to a write. Calls returning anything else, such as
+   * existence checks, report -1.
+   */
+  private static int rowCount(Method method, Object[] args, Object result) {
+    if (method.getReturnType() == void.class) {
+      if (args == null || args.length != 1) {
+        return -1;
+      }
+      return args[0] instanceof Collection<?> rows ? rows.size() : 1;
+    }
+    return switch (result) {
+      case Collection<?> rows -> rows.size();
+      case Optional<?> row -> row.isPresent() ? 1 : 0;
+      case null, default -> -1;
+    };
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
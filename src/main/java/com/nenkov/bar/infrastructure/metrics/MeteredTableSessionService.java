@@ -0,0 +1,69 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import com.nenkov.bar.application.session.model.CloseTableSessionInput;
+import com.nenkov.bar.application.session.model.CloseTableSessionResult;
+import com.nenkov.bar.application.session.model.GetTableSessionInput;
+import com.nenkov.bar.application.session.model.GetTableSessionResult;
+import com.nenkov.bar.application.session.model.OpenTableSessionInput;
+import com.nenkov.bar.application.session.model.OpenTableSessionResult;
+import com.nenkov.bar.application.session.service.TableSessionService;
+import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOff;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.util.Objects;
+
+/**
+ * {@link TableSessionService} decorator applying {@link InstrumentedHandler} to each handler and
+ * counting opened and closed sessions, and the write-offs each session closed with, in {@link
+ * BusinessCounters}.
+ */
+public final class MeteredTableSessionService implements TableSessionService {
+
+  private final TableSessionService delegate;
+  private final InstrumentedHandler openHandler;
+  private final InstrumentedHandler getHandler;
+  private final InstrumentedHandler closeHandler;
+  private final BusinessCounters counters;
+
+  public MeteredTableSessionService(
+      TableSessionService delegate,
+      MeterRegistry registry,
+      Tracer tracer,
+      FailureOutcomes failureOutcomes,
+      BusinessCounters counters) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    this.counters = Objects.requireNonNull(counters, "counters must not be null");
+    this.openHandler =
+        new InstrumentedHandler(registry, tracer, failureOutcomes, "OpenTableSessionHandler");
+    this.getHandler =
+        new InstrumentedHandler(registry, tracer, failureOutcomes, "GetTableSessionHandler");
+    this.closeHandler =
+        new InstrumentedHandler(registry, tracer, failureOutcomes, "CloseTableSessionHandler");
+  }
+
+  @Override
+  public OpenTableSessionResult open(OpenTableSessionInput input) {
+    OpenTableSessionResult result = openHandler.call(() -> delegate.open(input));
+    counters.sessionOpened();
+    return result;
+  }
+
+  @Override
+  public GetTableSessionResult getById(GetTableSessionInput input) {
+    return getHandler.call(() -> delegate.getById(input));
+  }
+
+  @Override
+  public CloseTableSessionResult close(CloseTableSessionInput input) {
+    CloseTableSessionResult result = closeHandler.call(() -> delegate.close(input));
+    counters.sessionClosed();
+    for (ItemWriteOff writeOff : result.itemWriteOffs()) {
+      counters.writeOff(writeOff.reason(), writeOff.amount());
+    }
+    for (WriteOff writeOff : result.sessionWriteOffs()) {
+      counters.writeOff(writeOff.reason(), writeOff.amount());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,73 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times one operation and tags each call with its outcome.
+ *
+ * <p>The outcome tag is {@code success}, or the failure's outcome as named by {@link
+ * FailureOutcomes}: the simple name of an exception the web layer maps to a problem code, {@value
+ * FailureOutcomes#ERROR} for anything else. Timers publish percentile histograms.
+ *
+ * <p>The success timer is registered up front and failure timers are cached per outcome on first
+ * use, so the hot path never goes back to the registry.
+ */
+public final class OutcomeTimer {
+
+  public static final String SUCCESS = "success";
+
+  private final MeterRegistry registry;
+  private final String name;
+  private final Tags tags;
+  private final FailureOutcomes failureOutcomes;
+  private final Timer successTimer;
+  private final ConcurrentMap<String, Timer> failureTimers = new ConcurrentHashMap<>();
+
+  public OutcomeTimer(
+      MeterRegistry registry, String name, Tags tags, FailureOutcomes failureOutcomes) {
+    this.registry = Objects.requireNonNull(registry, "registry must not be null");
+    this.name = Objects.requireNonNull(name, "name must not be null");
+    this.tags = Objects.requireNonNull(tags, "tags must not be null");
+    this.failureOutcomes =
+        Objects.requireNonNull(failureOutcomes, "failureOutcomes must not be null");
+    this.successTimer = timer(SUCCESS);
+  }
+
+  public <T> T record(Supplier<T> call) {
+    long start = System.nanoTime();
+    T result;
+    try {
+      result = call.get();
+    } catch (RuntimeException e) {
+      failureTimer(e).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      throw e;
+    }
+    successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return result;
+  }
+
+  /** Records an already measured call; {@code failure} is {@code null} on success. */
+  public void record(long durationNanos, Throwable failure) {
+    Timer timer = failure == null ? successTimer : failureTimer(failure);
+    timer.record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private Timer failureTimer(Throwable failure) {
+    return failureTimers.computeIfAbsent(failureOutcomes.outcome(failure), this::timer);
+  }
+
+  private Timer timer(String outcome) {
+    return Timer.builder(name)
+        .tags(tags)
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+}
@@ -0,0 +1,31 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import java.util.Objects;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/** Attributes token decoding time to {@link RequestStage#AUTH} of the request being profiled. */
+public final class ProfiledReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+  private final ReactiveJwtDecoder delegate;
+
+  public ProfiledReactiveJwtDecoder(ReactiveJwtDecoder delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+  }
+
+  @Override
+  public Mono<Jwt> decode(String token) {
+    return Mono.deferContextual(
+        context -> {
+          RequestProfile profile = context.getOrDefault(RequestProfile.CONTEXT_KEY, null);
+          if (profile == null) {
+            return delegate.decode(token);
+          }
+          long start = System.nanoTime();
+          return delegate
+              .decode(token)
+              .doFinally(_ -> profile.add(RequestStage.AUTH, System.nanoTime() - start));
+        });
+  }
+}
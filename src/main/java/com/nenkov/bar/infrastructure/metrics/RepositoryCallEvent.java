@@ -0,0 +1,37 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one repository call, emitted by {@link MeteredRepositories}.
+ *
+ * <p>Costs nothing beyond a field write unless a recording has the event enabled.
+ */
+@Name("com.nenkov.bar.RepositoryCall")
+@Label("Repository Call")
+@Category({"Bar", "Repository"})
+@Description("Call to a repository implementation")
+@StackTrace(false)
+final class RepositoryCallEvent extends jdk.jfr.Event {
+
+  @Label("Repository")
+  String repository;
+
+  @Label("Method")
+  String method;
+
+  @Label("Session Id")
+  @Description("Table session the call concerns, when it can be told from the arguments or result")
+  String sessionId;
+
+  @Label("Rows")
+  @Description("Rows read or written; -1 when not applicable")
+  int rowCount;
+
+  @Label("Outcome")
+  String outcome;
+}
@@ -0,0 +1,99 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import io.micrometer.context.ContextRegistry;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import reactor.core.publisher.Hooks;
+
+/**
+ * Bytes allocated by one HTTP request, split by {@link AllocationStage}.
+ *
+ * <p>{@link AllocationAccountingWebFilter} creates one per request and binds it to the calling
+ * thread through the Reactor context. Handler decorators and the repository proxy then find it via
+ * {@link #current()} and add what they measured. With accounting disabled nothing is ever bound, so
+ * every measuring method falls through to a plain call.
+ *
+ * <p>Stages may be added from different threads over the life of a request, but never concurrently
+ * for the same stage and request in practice; atomic counters keep the totals exact regardless.
+ */
+public final class RequestAllocation {
+
+  /** Reactor context key; also the context-propagation key of the thread-local binding. */
+  public static final String CONTEXT_KEY = "com.nenkov.bar.requestAllocation";
+
+  private static final ThreadLocal<RequestAllocation> CURRENT = new ThreadLocal<>();
+
+  private final AtomicLongArray bytes = new AtomicLongArray(AllocationStage.values().length);
+
+  /** Request bound to the calling thread, or {@code null} when none is being accounted. */
+  public static RequestAllocation current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Makes Reactor restore the thread-local binding from the {@link #CONTEXT_KEY} context entry
+   * wherever a request's chain runs, including handler suppliers and thread hops.
+   */
+  public static void enableContextPropagation() {
+    ContextRegistry.getInstance()
+        .registerThreadLocalAccessor(
+            CONTEXT_KEY,
+            RequestAllocation::current,
+            RequestAllocation::bind,
+            RequestAllocation::unbind);
+    Hooks.enableAutomaticContextPropagation();
+  }
+
+  static void bind(RequestAllocation allocation) {
+    CURRENT.set(allocation);
+  }
+
+  static void unbind() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Runs a handler call, attributing its allocation to {@link AllocationStage#COMPUTE} minus
+   * whatever repository calls inside it already attributed to load and save.
+   */
+  public static <T> T measureHandler(Supplier<T> call) {
+    RequestAllocation allocation = current();
+    if (allocation == null) {
+      return call.get();
+    }
+    long repositoryBefore =
+        allocation.bytes(AllocationStage.LOAD) + allocation.bytes(AllocationStage.SAVE);
+    long start = ThreadAllocatedBytes.current();
+    try {
+      return call.get();
+    } finally {
+      long handler = ThreadAllocatedBytes.current() - start;
+      long repository =
+          allocation.bytes(AllocationStage.LOAD)
+              + allocation.bytes(AllocationStage.SAVE)
+              - repositoryBefore;
+      allocation.add(AllocationStage.COMPUTE, handler - repository);
+    }
+  }
+
+  /** Adds {@code bytes} to {@code stage}; negative values are ignored. */
+  void add(AllocationStage stage, long bytes) {
+    if (bytes > 0) {
+      this.bytes.addAndGet(stage.ordinal(), bytes);
+    }
+  }
+
+  /** Bytes attributed to {@code stage} so far. */
+  public long bytes(AllocationStage stage) {
+    return bytes.get(stage.ordinal());
+  }
+
+  /** Bytes attributed to all stages so far. */
+  public long total() {
+    long total = 0;
+    for (int i = 0; i < bytes.length(); i++) {
+      total += bytes.get(i);
+    }
+    return total;
+  }
+}
@@ -0,0 +1,134 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import com.nenkov.bar.domain.model.session.TableSession;
+import io.micrometer.context.ContextRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Time one HTTP request spends in each {@link RequestStage}, plus the table session it worked on.
+ *
+ * <p>{@link SlowRequestWebFilter} creates one per request and binds it like {@link
+ * RequestAllocation}: through the Reactor context, restored as a thread local wherever the chain
+ * runs. The JWT decoder, handler decorators and the repository proxy add what they measured. With
+ * the sampler disabled nothing is ever bound and every measuring method is a plain call.
+ */
+public final class RequestProfile {
+
+  /** Reactor context key; also the context-propagation key of the thread-local binding. */
+  public static final String CONTEXT_KEY = "com.nenkov.bar.requestProfile";
+
+  private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+  private static final long NOT_STARTED = Long.MIN_VALUE;
+
+  private final long startNanos;
+  private final AtomicLongArray nanos = new AtomicLongArray(RequestStage.values().length);
+  private final AtomicLong firstHandlerNanos = new AtomicLong(NOT_STARTED);
+  private volatile TableSession session;
+
+  RequestProfile(long startNanos) {
+    this.startNanos = startNanos;
+  }
+
+  /** Request bound to the calling thread, or {@code null} when none is being profiled. */
+  public static RequestProfile current() {
+    return CURRENT.get();
+  }
+
+  /** Registers the thread-local binding of the {@link #CONTEXT_KEY} context entry with Reactor. */
+  public static void enableContextPropagation() {
+    ContextRegistry.getInstance()
+        .registerThreadLocalAccessor(
+            CONTEXT_KEY, RequestProfile::current, RequestProfile::bind, RequestProfile::unbind);
+  }
+
+  static void bind(RequestProfile profile) {
+    CURRENT.set(profile);
+  }
+
+  static void unbind() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Runs a handler call, attributing its time to {@link RequestStage#COMPUTE} minus whatever
+   * repository calls inside it already attributed to load and save. The first handler call of a
+   * request also ends its queue wait.
+   */
+  public static <T> T measureHandler(Supplier<T> call) {
+    RequestProfile profile = current();
+    if (profile == null) {
+      return call.get();
+    }
+    long repositoryBefore = profile.nanos(RequestStage.LOAD) + profile.nanos(RequestStage.SAVE);
+    long start = System.nanoTime();
+    profile.firstHandlerNanos.compareAndSet(NOT_STARTED, start);
+    try {
+      return call.get();
+    } finally {
+      long handler = System.nanoTime() - start;
+      long repository =
+          profile.nanos(RequestStage.LOAD) + profile.nanos(RequestStage.SAVE) - repositoryBefore;
+      profile.add(RequestStage.COMPUTE, handler - repository);
+    }
+  }
+
+  /**
+   * Runs a segment of response production, attributing its time to {@link RequestStage#SERIALIZE}
+   * less the stages attributed meanwhile.
+   */
+  void measureSerialization(Runnable segment) {
+    long attributedBefore = attributed();
+    long start = System.nanoTime();
+    try {
+      segment.run();
+    } finally {
+      long segmentNanos = System.nanoTime() - start;
+      add(RequestStage.SERIALIZE, segmentNanos - (attributed() - attributedBefore));
+    }
+  }
+
+  /** Adds {@code nanos} to {@code stage}; negative values are ignored. */
+  void add(RequestStage stage, long nanos) {
+    if (nanos > 0) {
+      this.nanos.addAndGet(stage.ordinal(), nanos);
+    }
+  }
+
+  /** Remembers the table session the request loaded or saved; the last one wins. */
+  void noteSession(TableSession session) {
+    this.session = session;
+  }
+
+  /**
+   * Nanoseconds attributed to {@code stage} so far. {@link RequestStage#QUEUE} is derived: it runs
+   * from arrival to the first handler call, less auth, and is 0 until a handler has started.
+   */
+  public long nanos(RequestStage stage) {
+    if (stage != RequestStage.QUEUE) {
+      return nanos.get(stage.ordinal());
+    }
+    long handlerStart = firstHandlerNanos.get();
+    return handlerStart == NOT_STARTED
+        ? 0
+        : Math.max(0, handlerStart - startNanos - nanos(RequestStage.AUTH));
+  }
+
+  /** Table session noted by a repository call, or {@code null}. */
+  public TableSession session() {
+    return session;
+  }
+
+  long startNanos() {
+    return startNanos;
+  }
+
+  private long attributed() {
+    long total = 0;
+    for (int i = 0; i < nanos.length(); i++) {
+      total += nanos.get(i);
+    }
+    return total;
+  }
+}
@@ -0,0 +1,25 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import java.util.Locale;
+
+/** Request stages that time is attributed to by {@link RequestProfile}. */
+public enum RequestStage {
+  /** Bearer token decoding and verification. */
+  AUTH,
+  /**
+   * From arrival to the first handler starting, less auth: filters, routing, scheduler dispatch.
+   */
+  QUEUE,
+  /** Repository reads. */
+  LOAD,
+  /** Handler work outside repository calls: validation, domain logic, result mapping. */
+  COMPUTE,
+  /** Repository writes. */
+  SAVE,
+  /** Response encoding and writing, excluding the handler stages above. */
+  SERIALIZE;
+
+  String key() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,36 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One request that took at least the slow-request threshold.
+ *
+ * @param at when the request completed
+ * @param method HTTP method
+ * @param route matched route pattern, or {@code UNMATCHED}
+ * @param status response status, or 0 if none was set
+ * @param sessionId table session the request concerned, or {@code null}
+ * @param tab size of that session's tab when it was loaded or saved, or {@code null}
+ * @param durationMicros time from arrival to completion
+ * @param stageMicros time per {@link RequestStage}, keyed by lower-case stage name
+ * @param allocatedBytes bytes allocated, or {@code null} without allocation accounting
+ */
+public record SlowRequest(
+    Instant at,
+    String method,
+    String route,
+    int status,
+    String sessionId,
+    TabSize tab,
+    long durationMicros,
+    Map<String, Long> stageMicros,
+    Long allocatedBytes) {
+
+  /**
+   * @param orderItems order items on the tab
+   * @param payableItems items still payable
+   * @param writeOffs item and session write-offs
+   */
+  public record TabSize(int orderItems, int payableItems, int writeOffs) {}
+}
@@ -0,0 +1,39 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/** Keeps the most recent {@code capacity} slow requests. */
+public final class SlowRequestLog {
+
+  private final int capacity;
+  private final ArrayDeque<SlowRequest> requests;
+
+  public SlowRequestLog(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be >= 1");
+    }
+    this.capacity = capacity;
+    this.requests = new ArrayDeque<>(capacity);
+  }
+
+  public synchronized void record(SlowRequest request) {
+    Objects.requireNonNull(request, "request must not be null");
+    if (requests.size() == capacity) {
+      requests.removeFirst();
+    }
+    requests.addLast(request);
+  }
+
+  /** Slow requests held, newest first. */
+  public synchronized List<SlowRequest> recent() {
+    List<SlowRequest> recent = new ArrayList<>(requests);
+    return List.copyOf(recent.reversed());
+  }
+
+  public synchronized void clear() {
+    requests.clear();
+  }
+}
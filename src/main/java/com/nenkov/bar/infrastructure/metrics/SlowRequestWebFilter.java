@@ -0,0 +1,109 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import com.nenkov.bar.domain.model.session.TableSession;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Captures every request taking at least {@code threshold} into a {@link SlowRequestLog}.
+ *
+ * <p>Each request is profiled with a {@link RequestProfile}: the JWT decoder attributes auth, the
+ * handler decorators and repository proxy attribute load, compute and save, and this filter
+ * measures the response write the same way {@link AllocationAccountingWebFilter} does. Requests
+ * under the threshold only cost a few clock reads; slow ones are recorded with their route,
+ * session, tab size, stage breakdown and, when allocation accounting is on, allocated bytes.
+ *
+ * <p>Runs right after allocation accounting and ahead of Spring Security, so auth is covered.
+ */
+public final class SlowRequestWebFilter implements WebFilter, Ordered {
+
+  public static final int ORDER = AllocationAccountingWebFilter.ORDER + 1;
+
+  private static final String SESSION_ID_VARIABLE = "sessionId";
+
+  private final SlowRequestLog log;
+  private final long thresholdNanos;
+  private final Clock clock;
+
+  public SlowRequestWebFilter(SlowRequestLog log, Duration threshold, Clock clock) {
+    this.log = Objects.requireNonNull(log, "log must not be null");
+    Objects.requireNonNull(threshold, "threshold must not be null");
+    this.clock = Objects.requireNonNull(clock, "clock must not be null");
+    if (threshold.isNegative()) {
+      throw new IllegalArgumentException("threshold must not be negative");
+    }
+    this.thresholdNanos = threshold.toNanos();
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    return Mono.deferContextual(
+        context -> {
+          RequestProfile profile = new RequestProfile(System.nanoTime());
+          RequestAllocation allocation = context.getOrDefault(RequestAllocation.CONTEXT_KEY, null);
+          ServerWebExchange measured =
+              exchange
+                  .mutate()
+                  .response(
+                      new MeasuringResponse(exchange.getResponse(), profile::measureSerialization))
+                  .build();
+          return chain
+              .filter(measured)
+              .contextWrite(c -> c.put(RequestProfile.CONTEXT_KEY, profile))
+              .doFinally(_ -> complete(exchange, profile, allocation));
+        });
+  }
+
+  @Override
+  public int getOrder() {
+    return ORDER;
+  }
+
+  private void complete(
+      ServerWebExchange exchange, RequestProfile profile, RequestAllocation allocation) {
+    long durationNanos = System.nanoTime() - profile.startNanos();
+    if (durationNanos < thresholdNanos) {
+      return;
+    }
+    Map<String, Long> stageMicros = new LinkedHashMap<>();
+    for (RequestStage stage : RequestStage.values()) {
+      stageMicros.put(stage.key(), profile.nanos(stage) / 1_000);
+    }
+    TableSession session = profile.session();
+    HttpStatusCode status = exchange.getResponse().getStatusCode();
+    log.record(
+        new SlowRequest(
+            clock.instant(),
+            exchange.getRequest().getMethod().name(),
+            AllocationAccountingWebFilter.route(exchange),
+            status == null ? 0 : status.value(),
+            session != null ? session.id().value() : sessionIdVariable(exchange),
+            session == null ? null : tabSize(session),
+            durationNanos / 1_000,
+            stageMicros,
+            allocation == null ? null : allocation.total()));
+  }
+
+  private static String sessionIdVariable(ServerWebExchange exchange) {
+    Map<String, String> variables =
+        exchange.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    return variables == null ? null : variables.get(SESSION_ID_VARIABLE);
+  }
+
+  private static SlowRequest.TabSize tabSize(TableSession session) {
+    return new SlowRequest.TabSize(
+        session.orderItems().size(),
+        session.payableItemsSnapshot().size(),
+        session.itemWriteOffs().size() + session.sessionWriteOffs().size());
+  }
+}
@@ -0,0 +1,30 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import java.util.List;
+import java.util.Objects;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint ({@code /actuator/slowrequests}) listing recent slow requests, newest first.
+ */
+@Endpoint(id = "slowrequests")
+public final class SlowRequestsEndpoint {
+
+  private final SlowRequestLog log;
+
+  public SlowRequestsEndpoint(SlowRequestLog log) {
+    this.log = Objects.requireNonNull(log, "log must not be null");
+  }
+
+  @ReadOperation
+  public List<SlowRequest> slowRequests() {
+    return log.recent();
+  }
+
+  @DeleteOperation
+  public void clear() {
+    log.clear();
+  }
+}
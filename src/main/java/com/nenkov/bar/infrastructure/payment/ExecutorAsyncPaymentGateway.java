@@ -0,0 +1,77 @@
+package com.nenkov.bar.infrastructure.payment;
+
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.gateway.AsyncPaymentGateway;
+import com.nenkov.bar.application.payment.gateway.PaymentGateway;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Adapts a blocking {@link PaymentGateway} to {@link AsyncPaymentGateway}.
+ *
+ * <p>Each provider call runs on the given executor (virtual threads in production), so a slow
+ * terminal only parks a cheap virtual thread instead of a request worker. The deadline is applied
+ * to the returned future; the blocking call itself may outlive it and its late result is discarded.
+ *
+ * <p>The gateway owns the executor: {@link #close()} shuts it down and interrupts calls still
+ * waiting on the provider.
+ */
+public final class ExecutorAsyncPaymentGateway implements AsyncPaymentGateway, AutoCloseable {
+
+  private final PaymentGateway delegate;
+  private final ExecutorService executor;
+
+  public ExecutorAsyncPaymentGateway(PaymentGateway delegate, ExecutorService executor) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    this.executor = Objects.requireNonNull(executor, "executor must not be null");
+  }
+
+  @Override
+  public CompletableFuture<PaymentAttemptResult> initiatePayment(
+      PaymentRequestId requestId,
+      TableSessionId sessionId,
+      CheckId checkId,
+      Money amount,
+      Duration deadline) {
+    return call(() -> delegate.initiatePayment(requestId, sessionId, checkId, amount), deadline);
+  }
+
+  @Override
+  public CompletableFuture<PaymentAttemptResult> fetchPaymentStatus(
+      PaymentRequestId requestId, Duration deadline) {
+    return call(() -> delegate.getPaymentStatus(requestId), deadline);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private CompletableFuture<PaymentAttemptResult> call(
+      Supplier<PaymentAttemptResult> providerCall, Duration deadline) {
+    Objects.requireNonNull(deadline, "deadline must not be null");
+    return CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return providerCall.get();
+              } catch (PaymentGatewayException e) {
+                throw e;
+              } catch (RuntimeException e) {
+                throw new CompletionException(
+                    new PaymentGatewayException("Payment provider call failed", e));
+              }
+            },
+            executor)
+        .orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,205 @@
+package com.nenkov.bar.infrastructure.payment;
+
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.gateway.PaymentGateway;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.infrastructure.resilience.CircuitBreaker;
+import com.nenkov.bar.infrastructure.tracing.Spans;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Tracer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Resilience decorator for {@link PaymentGateway}.
+ *
+ * <p>Every provider call passes through:
+ *
+ * <ol>
+ *   <li>a bulkhead bounding concurrent provider calls; excess calls are rejected immediately
+ *   <li>a {@link CircuitBreaker} opening on high failure or slow-call rates; while open, calls are
+ *       rejected without contacting the provider
+ * </ol>
+ *
+ * <p>Rejections surface as {@link PaymentGatewayException}, so callers and the HTTP error mapping
+ * treat them like any other provider outage. Declines are business outcomes and count as successful
+ * calls.
+ *
+ * <p>Each call, rejected or not, is traced as a span named {@code payment.gateway.<operation>}.
+ *
+ * <p>Metrics:
+ *
+ * <ul>
+ *   <li>{@code payment.gateway.calls} (operation, outcome): success, failure, rejected_bulkhead,
+ *       rejected_circuit_open
+ *   <li>{@code payment.gateway.call.duration} (operation): provider latency of permitted calls
+ *   <li>{@code payment.gateway.circuit.state} (state): 1 for the current state, 0 otherwise
+ *   <li>{@code payment.gateway.circuit.transitions} (state): transitions into each state
+ *   <li>{@code payment.gateway.bulkhead.available}: free bulkhead permits
+ * </ul>
+ *
+ * <p>All meters are registered up front, so calls never go back to the registry.
+ */
+public final class ResilientPaymentGateway implements PaymentGateway {
+
+  private static final String OP_INITIATE = "initiate";
+  private static final String OP_STATUS = "status";
+
+  private enum Outcome {
+    SUCCESS,
+    FAILURE,
+    REJECTED_BULKHEAD,
+    REJECTED_CIRCUIT_OPEN
+  }
+
+  /** Meters of one operation. */
+  private record OperationMeters(String name, Timer duration, Map<Outcome, Counter> calls) {
+
+    static OperationMeters register(String operation, MeterRegistry registry) {
+      Map<Outcome, Counter> calls = new EnumMap<>(Outcome.class);
+      for (Outcome outcome : Outcome.values()) {
+        calls.put(
+            outcome,
+            Counter.builder("payment.gateway.calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+      }
+      Timer duration =
+          Timer.builder("payment.gateway.call.duration")
+              .tag("operation", operation)
+              .publishPercentileHistogram()
+              .register(registry);
+      return new OperationMeters(operation, duration, calls);
+    }
+
+    void count(Outcome outcome) {
+      calls.get(outcome).increment();
+    }
+  }
+
+  private final PaymentGateway delegate;
+  private final Semaphore bulkhead;
+  private final CircuitBreaker circuitBreaker;
+  private final Tracer tracer;
+  private final LongSupplier nanoClock;
+  private final OperationMeters initiateMeters;
+  private final OperationMeters statusMeters;
+  private final Map<CircuitBreaker.State, Counter> transitions =
+      new EnumMap<>(CircuitBreaker.State.class);
+
+  public ResilientPaymentGateway(
+      PaymentGateway delegate,
+      int maxConcurrentCalls,
+      CircuitBreaker.Settings circuitBreakerSettings,
+      MeterRegistry meterRegistry,
+      Tracer tracer,
+      LongSupplier nanoClock) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    Objects.requireNonNull(meterRegistry, "meterRegistry must not be null");
+    this.tracer = Objects.requireNonNull(tracer, "tracer must not be null");
+    this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must not be null");
+    if (maxConcurrentCalls < 1) {
+      throw new IllegalArgumentException("maxConcurrentCalls must be >= 1");
+    }
+    this.initiateMeters = OperationMeters.register(OP_INITIATE, meterRegistry);
+    this.statusMeters = OperationMeters.register(OP_STATUS, meterRegistry);
+    for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+      transitions.put(
+          state,
+          Counter.builder("payment.gateway.circuit.transitions")
+              .tag("state", tagValue(state))
+              .register(meterRegistry));
+    }
+    this.bulkhead = new Semaphore(maxConcurrentCalls);
+    this.circuitBreaker = new CircuitBreaker(circuitBreakerSettings, nanoClock, this::onTransition);
+
+    for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+      Gauge.builder(
+              "payment.gateway.circuit.state",
+              circuitBreaker,
+              cb -> cb.state() == state ? 1.0 : 0.0)
+          .tag("state", tagValue(state))
+          .register(meterRegistry);
+    }
+    Gauge.builder("payment.gateway.bulkhead.available", bulkhead, Semaphore::availablePermits)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public PaymentAttemptResult initiatePayment(
+      PaymentRequestId requestId, TableSessionId sessionId, CheckId checkId, Money amount) {
+    return execute(
+        initiateMeters, () -> delegate.initiatePayment(requestId, sessionId, checkId, amount));
+  }
+
+  @Override
+  public PaymentAttemptResult getPaymentStatus(PaymentRequestId requestId) {
+    return execute(statusMeters, () -> delegate.getPaymentStatus(requestId));
+  }
+
+  /** Returns the current circuit breaker state. */
+  public CircuitBreaker.State circuitState() {
+    return circuitBreaker.state();
+  }
+
+  private PaymentAttemptResult execute(
+      OperationMeters meters, Supplier<PaymentAttemptResult> call) {
+    return Spans.inSpan(
+        tracer,
+        "payment.gateway." + meters.name(),
+        () -> guarded(meters, call),
+        "operation",
+        meters.name());
+  }
+
+  private PaymentAttemptResult guarded(
+      OperationMeters meters, Supplier<PaymentAttemptResult> call) {
+    if (!bulkhead.tryAcquire()) {
+      meters.count(Outcome.REJECTED_BULKHEAD);
+      throw new PaymentGatewayException("Payment provider bulkhead is full");
+    }
+    try {
+      if (!circuitBreaker.tryAcquirePermission()) {
+        meters.count(Outcome.REJECTED_CIRCUIT_OPEN);
+        throw new PaymentGatewayException("Payment provider circuit is open");
+      }
+
+      long start = nanoClock.getAsLong();
+      boolean failed = true;
+      try {
+        PaymentAttemptResult result = call.get();
+        failed = false;
+        return result;
+      } finally {
+        long duration = nanoClock.getAsLong() - start;
+        circuitBreaker.onResult(duration, failed);
+        meters.duration().record(duration, TimeUnit.NANOSECONDS);
+        meters.count(failed ? Outcome.FAILURE : Outcome.SUCCESS);
+      }
+    } finally {
+      bulkhead.release();
+    }
+  }
+
+  private void onTransition(CircuitBreaker.State state) {
+    transitions.get(state).increment();
+  }
+
+  private static String tagValue(CircuitBreaker.State state) {
+    return state.name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,230 @@
+package com.nenkov.bar.infrastructure.payment;
+
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.gateway.PaymentGateway;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Offline {@link PaymentGateway} that imitates a provider's latency, outcomes and faults.
+ *
+ * <p>Intended for load tests and local runs without network access. Every call draws from a random
+ * stream seeded by the configured seed, the request id and the operation. The same seed therefore
+ * gives the same latency and outcome per request, whatever the thread interleaving.
+ *
+ * <p>Status lookups never return {@code PENDING}. A pending initiation resolves to approved or
+ * declined on its first status call, in the configured approve/decline proportion.
+ */
+public final class SimulatedPaymentGateway implements PaymentGateway {
+
+  private static final long INITIATE_SALT = 0x1A2B3C4DL;
+  private static final long STATUS_SALT = 0x5E6F7081L;
+
+  private final Settings settings;
+  private final Sleeper sleeper;
+
+  public SimulatedPaymentGateway(Settings settings) {
+    this(settings, Sleeper.THREAD_SLEEP);
+  }
+
+  SimulatedPaymentGateway(Settings settings, Sleeper sleeper) {
+    this.settings = Objects.requireNonNull(settings, "settings must not be null");
+    this.sleeper = Objects.requireNonNull(sleeper, "sleeper must not be null");
+  }
+
+  @Override
+  public PaymentAttemptResult initiatePayment(
+      PaymentRequestId requestId, TableSessionId sessionId, CheckId checkId, Money amount) {
+    Objects.requireNonNull(requestId, "requestId must not be null");
+    SplittableRandom random = randomFor(requestId, INITIATE_SALT);
+    simulateCall(random);
+
+    String reference = providerReference(requestId);
+    Outcomes outcomes = settings.outcomes();
+    double draw = random.nextDouble() * outcomes.total();
+    if (draw < outcomes.approveWeight()) {
+      return PaymentAttemptResult.approved(reference);
+    }
+    if (draw < outcomes.approveWeight() + outcomes.declineWeight()) {
+      return PaymentAttemptResult.declined(reference, "Simulated decline");
+    }
+    return PaymentAttemptResult.pending(reference);
+  }
+
+  @Override
+  public PaymentAttemptResult getPaymentStatus(PaymentRequestId requestId) {
+    Objects.requireNonNull(requestId, "requestId must not be null");
+    SplittableRandom random = randomFor(requestId, STATUS_SALT);
+    simulateCall(random);
+
+    String reference = providerReference(requestId);
+    Outcomes outcomes = settings.outcomes();
+    double settled = outcomes.approveWeight() + outcomes.declineWeight();
+    if (settled == 0 || random.nextDouble() * settled < outcomes.approveWeight()) {
+      return PaymentAttemptResult.approved(reference);
+    }
+    return PaymentAttemptResult.declined(reference, "Simulated decline");
+  }
+
+  private void simulateCall(SplittableRandom random) {
+    Faults faults = settings.faults();
+    double fault = random.nextDouble();
+    if (fault < faults.timeoutRate()) {
+      sleep(faults.timeoutDuration());
+      throw new PaymentGatewayException("Simulated provider timeout");
+    }
+    if (fault < faults.timeoutRate() + faults.errorRate()) {
+      throw new PaymentGatewayException("Simulated provider error");
+    }
+    sleep(settings.latency().sample(random));
+  }
+
+  private void sleep(Duration duration) {
+    if (duration.isZero()) {
+      return;
+    }
+    try {
+      sleeper.sleep(duration);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PaymentGatewayException("Simulated provider call interrupted", e);
+    }
+  }
+
+  private SplittableRandom randomFor(PaymentRequestId requestId, long salt) {
+    long mixed = settings.seed() * 0x9E3779B97F4A7C15L;
+    mixed = (mixed ^ requestId.value().hashCode()) * 0xBF58476D1CE4E5B9L;
+    return new SplittableRandom(mixed ^ salt);
+  }
+
+  private static String providerReference(PaymentRequestId requestId) {
+    return "sim-" + requestId.value();
+  }
+
+  /** Shape of the simulated provider latency. */
+  public enum Distribution {
+    /** Every call takes {@code min}. */
+    FIXED,
+    /** Calls are spread evenly between {@code min} and {@code max}. */
+    UNIFORM,
+    /** Pareto-distributed from {@code min}, capped at {@code max}; most calls fast, a few slow. */
+    LONG_TAIL
+  }
+
+  /**
+   * Simulation settings.
+   *
+   * @param seed seed for every random draw; equal seeds replay equal runs
+   * @param latency latency applied to calls that do not fault
+   * @param outcomes relative weights of initiation outcomes
+   * @param faults fault injection rates
+   */
+  public record Settings(long seed, Latency latency, Outcomes outcomes, Faults faults) {
+
+    public Settings {
+      Objects.requireNonNull(latency, "latency must not be null");
+      Objects.requireNonNull(outcomes, "outcomes must not be null");
+      Objects.requireNonNull(faults, "faults must not be null");
+    }
+  }
+
+  /**
+   * Latency distribution.
+   *
+   * @param distribution distribution shape
+   * @param min fixed latency, or lower bound
+   * @param max upper bound; ignored by {@link Distribution#FIXED}
+   * @param tailIndex Pareto shape for {@link Distribution#LONG_TAIL}; lower means heavier tail
+   */
+  public record Latency(Distribution distribution, Duration min, Duration max, double tailIndex) {
+
+    public Latency {
+      Objects.requireNonNull(distribution, "distribution must not be null");
+      Objects.requireNonNull(min, "min must not be null");
+      Objects.requireNonNull(max, "max must not be null");
+      if (min.isNegative() || max.compareTo(min) < 0) {
+        throw new IllegalArgumentException("latency bounds must satisfy 0 <= min <= max");
+      }
+      if (tailIndex <= 0) {
+        throw new IllegalArgumentException("tailIndex must be > 0");
+      }
+    }
+
+    Duration sample(SplittableRandom random) {
+      long minNanos = min.toNanos();
+      long maxNanos = max.toNanos();
+      return switch (distribution) {
+        case FIXED -> min;
+        case UNIFORM ->
+            minNanos == maxNanos ? min : Duration.ofNanos(random.nextLong(minNanos, maxNanos + 1));
+        case LONG_TAIL -> {
+          double u = 1.0 - random.nextDouble(); // (0, 1]
+          double pareto = Math.max(minNanos, 1) / Math.pow(u, 1.0 / tailIndex);
+          yield Duration.ofNanos((long) Math.min(pareto, maxNanos));
+        }
+      };
+    }
+  }
+
+  /**
+   * Relative weights of initiation outcomes; they need not sum to one.
+   *
+   * @param approveWeight weight of approved outcomes
+   * @param declineWeight weight of declined outcomes
+   * @param pendingWeight weight of pending outcomes
+   */
+  public record Outcomes(double approveWeight, double declineWeight, double pendingWeight) {
+
+    public Outcomes {
+      if (approveWeight < 0 || declineWeight < 0 || pendingWeight < 0) {
+        throw new IllegalArgumentException("outcome weights must be >= 0");
+      }
+      if (approveWeight + declineWeight + pendingWeight <= 0) {
+        throw new IllegalArgumentException("at least one outcome weight must be > 0");
+      }
+    }
+
+    double total() {
+      return approveWeight + declineWeight + pendingWeight;
+    }
+  }
+
+  /**
+   * Fault injection rates, applied before latency.
+   *
+   * @param timeoutRate probability a call hangs for {@code timeoutDuration} and then fails
+   * @param timeoutDuration how long a timed-out call hangs
+   * @param errorRate probability a call fails immediately
+   */
+  public record Faults(double timeoutRate, Duration timeoutDuration, double errorRate) {
+
+    public Faults {
+      Objects.requireNonNull(timeoutDuration, "timeoutDuration must not be null");
+      if (timeoutDuration.isNegative()) {
+        throw new IllegalArgumentException("timeoutDuration must be >= 0");
+      }
+      if (timeoutRate < 0 || errorRate < 0 || timeoutRate + errorRate > 1) {
+        throw new IllegalArgumentException("fault rates must be >= 0 and sum to at most 1");
+      }
+    }
+
+    public static Faults none() {
+      return new Faults(0, Duration.ZERO, 0);
+    }
+  }
+
+  /** Blocks the calling thread; replaceable in tests. */
+  @FunctionalInterface
+  interface Sleeper {
+
+    Sleeper THREAD_SLEEP = Thread::sleep;
+
+    void sleep(Duration duration) throws InterruptedException;
+  }
+}
@@ -0,0 +1,75 @@
+package com.nenkov.bar.infrastructure.persistence;
+
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CheckRepository} held in memory, for local runs and load tests without a database.
+ *
+ * <p>Checks are stored by reference, like entities in a persistence context: the domain cannot
+ * rebuild a check in a given state, and callers mutate a loaded check and then save it. Lookups by
+ * session or status scan every stored check.
+ */
+public final class InMemoryCheckRepository implements CheckRepository {
+
+  private final Map<CheckId, Check> checks = new ConcurrentHashMap<>();
+
+  @Override
+  public Optional<Check> findById(CheckId checkId) {
+    Objects.requireNonNull(checkId, "checkId must not be null");
+    return Optional.ofNullable(checks.get(checkId));
+  }
+
+  @Override
+  public List<Check> findAllById(Collection<CheckId> checkIds) {
+    Objects.requireNonNull(checkIds, "checkIds must not be null");
+    List<Check> found = new ArrayList<>(checkIds.size());
+    for (CheckId checkId : checkIds) {
+      Check check = checks.get(checkId);
+      if (check != null) {
+        found.add(check);
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public List<Check> findBySessionId(TableSessionId sessionId) {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    return checks.values().stream().filter(c -> c.sessionId().equals(sessionId)).toList();
+  }
+
+  @Override
+  public List<Check> findByStatus(CheckStatus status) {
+    Objects.requireNonNull(status, "status must not be null");
+    return checks.values().stream().filter(c -> c.status() == status).toList();
+  }
+
+  @Override
+  public void save(Check check) {
+    Objects.requireNonNull(check, "check must not be null");
+    checks.put(check.id(), check);
+  }
+
+  /** Rejects the whole batch before storing anything if it contains a null. */
+  @Override
+  public void saveAll(List<Check> checks) {
+    Objects.requireNonNull(checks, "checks must not be null");
+    for (Check check : checks) {
+      Objects.requireNonNull(check, "checks must not contain null");
+    }
+    for (Check check : checks) {
+      this.checks.put(check.id(), check);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.nenkov.bar.infrastructure.persistence;
+
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link PaymentAttemptRepository} held in memory, for local runs and load tests without a
+ * database.
+ *
+ * <p>Attempts are indexed by request id and by provider reference, so callback lookups do not scan.
+ * {@code PENDING} attempts are also indexed by check.
+ */
+public final class InMemoryPaymentAttemptRepository implements PaymentAttemptRepository {
+
+  private final Map<PaymentRequestId, RecordedPaymentAttempt> attempts = new ConcurrentHashMap<>();
+  private final Map<String, PaymentRequestId> requestIdsByReference = new ConcurrentHashMap<>();
+  private final Map<CheckId, PaymentRequestId> pendingRequestIdsByCheck = new ConcurrentHashMap<>();
+
+  @Override
+  public Optional<RecordedPaymentAttempt> findByRequestId(PaymentRequestId requestId) {
+    Objects.requireNonNull(requestId, "requestId must not be null");
+    return Optional.ofNullable(attempts.get(requestId));
+  }
+
+  @Override
+  public Optional<RecordedPaymentAttempt> findByProviderReference(String providerReference) {
+    Objects.requireNonNull(providerReference, "providerReference must not be null");
+    return Optional.ofNullable(requestIdsByReference.get(providerReference)).map(attempts::get);
+  }
+
+  @Override
+  public Optional<RecordedPaymentAttempt> findPendingByCheckId(CheckId checkId) {
+    Objects.requireNonNull(checkId, "checkId must not be null");
+    return Optional.ofNullable(pendingRequestIdsByCheck.get(checkId))
+        .map(attempts::get)
+        .filter(a -> a.attemptResult().status() == PaymentAttemptStatus.PENDING);
+  }
+
+  @Override
+  public List<RecordedPaymentAttempt> findAllPending() {
+    return pendingRequestIdsByCheck.values().stream()
+        .map(attempts::get)
+        .filter(a -> a != null && a.attemptResult().status() == PaymentAttemptStatus.PENDING)
+        .toList();
+  }
+
+  @Override
+  public void save(RecordedPaymentAttempt paymentAttempt) {
+    Objects.requireNonNull(paymentAttempt, "paymentAttempt must not be null");
+    if (attempts.putIfAbsent(paymentAttempt.requestId(), paymentAttempt) == null) {
+      indexReference(paymentAttempt);
+      indexPending(paymentAttempt);
+    }
+  }
+
+  @Override
+  public void update(RecordedPaymentAttempt paymentAttempt) {
+    Objects.requireNonNull(paymentAttempt, "paymentAttempt must not be null");
+    attempts.put(paymentAttempt.requestId(), paymentAttempt);
+    indexReference(paymentAttempt);
+    indexPending(paymentAttempt);
+  }
+
+  private void indexReference(RecordedPaymentAttempt paymentAttempt) {
+    String reference = paymentAttempt.attemptResult().providerReference();
+    if (reference != null) {
+      requestIdsByReference.put(reference, paymentAttempt.requestId());
+    }
+  }
+
+  private void indexPending(RecordedPaymentAttempt paymentAttempt) {
+    if (paymentAttempt.attemptResult().status() == PaymentAttemptStatus.PENDING) {
+      pendingRequestIdsByCheck.put(paymentAttempt.checkId(), paymentAttempt.requestId());
+    } else {
+      pendingRequestIdsByCheck.remove(paymentAttempt.checkId(), paymentAttempt.requestId());
+    }
+  }
+}
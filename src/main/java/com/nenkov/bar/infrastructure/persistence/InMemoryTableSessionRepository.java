@@ -0,0 +1,54 @@
+package com.nenkov.bar.infrastructure.persistence;
+
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TableSessionRepository} held in memory, for local runs and load tests without a database.
+ *
+ * <p>Sessions are immutable, so they are stored as given apart from the version, which is bumped on
+ * every save. Conditional saves compare-and-swap the stored instance.
+ *
+ * <p>Tables are not part of the session aggregate yet, so this store cannot tell which table a
+ * session belongs to: {@link #existsOpenByTableId} always answers {@code false} and one open
+ * session per table is not enforced.
+ */
+public final class InMemoryTableSessionRepository implements TableSessionRepository {
+
+  private final Map<TableSessionId, TableSession> sessions = new ConcurrentHashMap<>();
+
+  @Override
+  public Optional<TableSession> findById(TableSessionId sessionId) {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    return Optional.ofNullable(sessions.get(sessionId));
+  }
+
+  @Override
+  public boolean existsOpenByTableId(String tableId) {
+    Objects.requireNonNull(tableId, "tableId must not be null");
+    return false;
+  }
+
+  @Override
+  public void save(TableSession session) {
+    Objects.requireNonNull(session, "session must not be null");
+    sessions.merge(
+        session.id(), session, (stored, saved) -> saved.withVersion(stored.version() + 1));
+  }
+
+  @Override
+  public boolean saveIfUnchanged(TableSession session) {
+    Objects.requireNonNull(session, "session must not be null");
+    TableSession stored = sessions.get(session.id());
+    if (stored == null || stored.version() != session.version()) {
+      return false;
+    }
+    // TableSession has identity equality, so this fails if another save replaced it meanwhile.
+    return sessions.replace(session.id(), stored, session.withVersion(stored.version() + 1));
+  }
+}
@@ -0,0 +1,281 @@
+package com.nenkov.bar.infrastructure.reactive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Samples event-loop threads and reports the ones caught blocking ({@value #METRIC}).
+ *
+ * <p>Every {@code interval} the states and top frames of all event-loop threads are read in one
+ * call. A thread found {@code BLOCKED}, {@code WAITING} or {@code TIMED_WAITING} on two consecutive
+ * samples, with no wake-up in between, has blocked for at least one interval. Only then is its full
+ * stack captured and reported. Idle Netty event loops wait in the selector and stay {@code
+ * RUNNABLE}; idle scheduler workers wait for their next task, which the top frames reveal. Neither
+ * is reported.
+ *
+ * <p>A report increments the counter, tagged with the web endpoint found on the stack (the first
+ * frame under {@code endpointPackage}), and logs the stack. The first report per endpoint and
+ * blocking frame is logged at WARN, repeats at DEBUG. In {@link Mode#STRICT} reports are also kept
+ * for {@link #violations()}, so tests can fail on them.
+ *
+ * <p>Sampling cannot see blocks shorter than {@code interval}. It trades completeness for overhead
+ * that does not depend on request volume.
+ */
+public final class EventLoopBlockingDetector implements AutoCloseable {
+
+  /** Counter name; tags: {@code endpoint}. */
+  public static final String METRIC = "app.eventloop.blocked";
+
+  static final String UNKNOWN_ENDPOINT = "unknown";
+
+  private static final Logger log = LoggerFactory.getLogger(EventLoopBlockingDetector.class);
+
+  private static final Pattern LAMBDA = Pattern.compile("lambda\\$(\\w+?)\\$\\d+");
+  private static final int REFRESH_EVERY_SAMPLES = 50;
+  private static final int LOGGED_FRAMES = 40;
+  private static final int IDLE_CHECK_DEPTH = 16;
+  private static final String IDLE_WORKER_CLASS = "java.util.concurrent.ThreadPoolExecutor";
+  private static final String IDLE_WORKER_METHOD = "getTask";
+
+  private final Mode mode;
+  private final Duration interval;
+  private final ScheduledExecutorService scheduler;
+  private final MeterRegistry registry;
+  private final Predicate<Thread> eventLoopThread;
+  private final String endpointPackage;
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  private final Map<Long, Observation> blocking = new HashMap<>();
+  private final Set<String> loggedSignatures = ConcurrentHashMap.newKeySet();
+  private final List<Violation> violations = new CopyOnWriteArrayList<>();
+  private long[] eventLoopIds = new long[0];
+  private long samples;
+
+  public EventLoopBlockingDetector(
+      Mode mode,
+      Duration interval,
+      ScheduledExecutorService scheduler,
+      MeterRegistry registry,
+      Predicate<Thread> eventLoopThread,
+      String endpointPackage) {
+    this.mode = Objects.requireNonNull(mode, "mode must not be null");
+    this.interval = Objects.requireNonNull(interval, "interval must not be null");
+    this.scheduler = Objects.requireNonNull(scheduler, "scheduler must not be null");
+    this.registry = Objects.requireNonNull(registry, "registry must not be null");
+    this.eventLoopThread =
+        Objects.requireNonNull(eventLoopThread, "eventLoopThread must not be null");
+    this.endpointPackage =
+        Objects.requireNonNull(endpointPackage, "endpointPackage must not be null");
+    if (interval.toMillis() < 1) {
+      throw new IllegalArgumentException("interval must be at least 1ms");
+    }
+  }
+
+  /** Starts periodic sampling. */
+  public void start() {
+    long millis = interval.toMillis();
+    scheduler.scheduleWithFixedDelay(this::sampleSafely, millis, millis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Takes one sample and reports threads that were blocking on the previous sample and still are.
+   * Called by the scheduler; exposed for tests and for a final check before asserting.
+   */
+  public synchronized void sample() {
+    if (samples++ % REFRESH_EVERY_SAMPLES == 0) {
+      refreshEventLoopThreads();
+    }
+    if (eventLoopIds.length == 0) {
+      return;
+    }
+
+    for (ThreadInfo info : threads.getThreadInfo(eventLoopIds, IDLE_CHECK_DEPTH)) {
+      if (info == null) {
+        continue; // thread terminated since the last refresh
+      }
+      long id = info.getThreadId();
+      if (!isBlocking(info)) {
+        blocking.remove(id);
+        continue;
+      }
+      long wakeUps = info.getBlockedCount() + info.getWaitedCount();
+      Observation previous = blocking.get(id);
+      if (previous == null || previous.wakeUps() != wakeUps) {
+        blocking.put(id, new Observation(wakeUps, false));
+      } else if (!previous.reported()) {
+        // Same block as last sample: it has lasted at least one interval. Report it once.
+        blocking.put(id, new Observation(wakeUps, true));
+        report(id);
+      }
+    }
+  }
+
+  /** Reports kept in {@link Mode#STRICT}; always empty otherwise. */
+  public List<Violation> violations() {
+    return List.copyOf(violations);
+  }
+
+  /** Forgets kept reports. */
+  public void clearViolations() {
+    violations.clear();
+  }
+
+  public Mode mode() {
+    return mode;
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private void sampleSafely() {
+    try {
+      sample();
+    } catch (RuntimeException e) {
+      // Keep the periodic task alive; the next sample tries again.
+      log.warn("Event-loop blocking sample failed", e);
+    }
+  }
+
+  private void report(long threadId) {
+    ThreadInfo info = threads.getThreadInfo(threadId, Integer.MAX_VALUE);
+    if (info == null || !isBlocking(info)) {
+      return; // woke up while we were looking
+    }
+    List<StackTraceElement> stack = Arrays.asList(info.getStackTrace());
+    String endpoint = endpoint(stack);
+    Violation violation =
+        new Violation(info.getThreadName(), endpoint, info.getThreadState(), stack);
+
+    Counter.builder(METRIC).tag("endpoint", endpoint).register(registry).increment();
+    if (mode == Mode.STRICT) {
+      violations.add(violation);
+    }
+    String signature = endpoint + '@' + (stack.isEmpty() ? "" : stack.getFirst());
+    if (loggedSignatures.add(signature)) {
+      log.warn("Event-loop thread blocked: {}", violation.describe());
+    } else if (log.isDebugEnabled()) {
+      log.debug("Event-loop thread blocked: {}", violation.describe());
+    }
+  }
+
+  private String endpoint(List<StackTraceElement> stack) {
+    for (StackTraceElement frame : stack) {
+      String className = frame.getClassName();
+      if (className.startsWith(endpointPackage)) {
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int nested = simpleName.indexOf('$');
+        if (nested >= 0) {
+          simpleName = simpleName.substring(0, nested);
+        }
+        Matcher lambda = LAMBDA.matcher(frame.getMethodName());
+        String method = lambda.matches() ? lambda.group(1) : frame.getMethodName();
+        return simpleName + "." + method;
+      }
+    }
+    return UNKNOWN_ENDPOINT;
+  }
+
+  private void refreshEventLoopThreads() {
+    ThreadGroup root = Thread.currentThread().getThreadGroup();
+    while (root.getParent() != null) {
+      root = root.getParent();
+    }
+    Thread[] all = new Thread[root.activeCount() * 2 + 16];
+    int count = root.enumerate(all, true);
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      if (eventLoopThread.test(all[i])) {
+        ids.add(all[i].threadId());
+      }
+    }
+    eventLoopIds = ids.stream().mapToLong(Long::longValue).toArray();
+    blocking.keySet().retainAll(ids);
+  }
+
+  private static boolean isBlocking(ThreadInfo info) {
+    Thread.State state = info.getThreadState();
+    if (state != Thread.State.BLOCKED
+        && state != Thread.State.WAITING
+        && state != Thread.State.TIMED_WAITING) {
+      return false;
+    }
+    return !isIdleWorker(info.getStackTrace());
+  }
+
+  /** Executor worker parked waiting for its next task, not blocked inside one. */
+  private static boolean isIdleWorker(StackTraceElement[] stack) {
+    for (int i = 0; i < Math.min(stack.length, IDLE_CHECK_DEPTH); i++) {
+      if (IDLE_WORKER_CLASS.equals(stack[i].getClassName())
+          && IDLE_WORKER_METHOD.equals(stack[i].getMethodName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private record Observation(long wakeUps, boolean reported) {}
+
+  /** What to do with detected blocking. */
+  public enum Mode {
+    /** No sampling. */
+    OFF,
+    /** Count and log. */
+    SAMPLED,
+    /** Count, log and keep each report for {@link #violations()}. */
+    STRICT
+  }
+
+  /**
+   * One detected block.
+   *
+   * @param threadName event-loop thread that blocked
+   * @param endpoint web endpoint on the stack, or {@value #UNKNOWN_ENDPOINT}
+   * @param state thread state when sampled
+   * @param stack full stack, innermost frame first
+   */
+  public record Violation(
+      String threadName, String endpoint, Thread.State state, List<StackTraceElement> stack) {
+
+    public Violation {
+      stack = List.copyOf(stack);
+    }
+
+    /** Thread, endpoint, state and the innermost frames, one per line. */
+    public String describe() {
+      StringBuilder text =
+          new StringBuilder()
+              .append(threadName)
+              .append(" in ")
+              .append(endpoint)
+              .append(" (")
+              .append(state)
+              .append(')');
+      stack.stream()
+          .limit(LOGGED_FRAMES)
+          .forEach(frame -> text.append(System.lineSeparator()).append("\tat ").append(frame));
+      return text.toString();
+    }
+  }
+}
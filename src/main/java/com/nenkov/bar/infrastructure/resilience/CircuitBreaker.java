@@ -0,0 +1,204 @@
+package com.nenkov.bar.infrastructure.resilience;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker tracking both failures and slow calls.
+ *
+ * <p>States:
+ *
+ * <ul>
+ *   <li>CLOSED: calls pass; the last {@code slidingWindowSize} outcomes are recorded. Once at least
+ *       {@code minimumCalls} are recorded and either the failure rate or the slow-call rate reaches
+ *       its threshold, the breaker opens.
+ *   <li>OPEN: calls are rejected until {@code openStateDuration} has elapsed, then HALF_OPEN.
+ *   <li>HALF_OPEN: up to {@code halfOpenPermittedCalls} trial calls pass. If all succeed without
+ *       being slow the breaker closes; the first failed or slow trial re-opens it.
+ * </ul>
+ *
+ * <p>Thread-safe. Callers must report every permitted call through {@link #onResult}.
+ */
+public final class CircuitBreaker {
+
+  /** Circuit breaker state. */
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  /**
+   * Breaker settings.
+   *
+   * @param slidingWindowSize number of most recent calls considered while CLOSED
+   * @param minimumCalls calls required in the window before rates are evaluated
+   * @param failureRateThreshold failure percentage (0-100] that opens the breaker
+   * @param slowCallRateThreshold slow-call percentage (0-100] that opens the breaker
+   * @param slowCallDuration calls taking at least this long count as slow
+   * @param openStateDuration how long the breaker rejects calls before probing again
+   * @param halfOpenPermittedCalls trial calls allowed while HALF_OPEN
+   */
+  public record Settings(
+      int slidingWindowSize,
+      int minimumCalls,
+      double failureRateThreshold,
+      double slowCallRateThreshold,
+      Duration slowCallDuration,
+      Duration openStateDuration,
+      int halfOpenPermittedCalls) {
+
+    public Settings {
+      Objects.requireNonNull(slowCallDuration, "slowCallDuration must not be null");
+      Objects.requireNonNull(openStateDuration, "openStateDuration must not be null");
+      if (slidingWindowSize < 1) {
+        throw new IllegalArgumentException("slidingWindowSize must be >= 1");
+      }
+      if (minimumCalls < 1 || minimumCalls > slidingWindowSize) {
+        throw new IllegalArgumentException("minimumCalls must be in [1, slidingWindowSize]");
+      }
+      requirePercentage(failureRateThreshold, "failureRateThreshold");
+      requirePercentage(slowCallRateThreshold, "slowCallRateThreshold");
+      if (halfOpenPermittedCalls < 1) {
+        throw new IllegalArgumentException("halfOpenPermittedCalls must be >= 1");
+      }
+    }
+
+    private static void requirePercentage(double value, String name) {
+      if (value <= 0.0 || value > 100.0) {
+        throw new IllegalArgumentException(name + " must be in (0, 100]");
+      }
+    }
+  }
+
+  private final Settings settings;
+  private final LongSupplier nanoClock;
+  private final Consumer<State> transitionListener;
+
+  // Ring buffer of outcomes while CLOSED.
+  private final boolean[] failed;
+  private final boolean[] slow;
+  private int next;
+  private int recorded;
+  private int failedCount;
+  private int slowCount;
+
+  private State state = State.CLOSED;
+  private long openedAtNanos;
+  private int halfOpenInFlight;
+  private int halfOpenSucceeded;
+
+  /**
+   * @param settings breaker settings (non-null)
+   * @param nanoClock monotonic time source in nanoseconds, e.g. {@code System::nanoTime}
+   * @param transitionListener notified with the new state after every transition (non-null)
+   */
+  public CircuitBreaker(
+      Settings settings, LongSupplier nanoClock, Consumer<State> transitionListener) {
+    this.settings = Objects.requireNonNull(settings, "settings must not be null");
+    this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must not be null");
+    this.transitionListener =
+        Objects.requireNonNull(transitionListener, "transitionListener must not be null");
+    this.failed = new boolean[settings.slidingWindowSize()];
+    this.slow = new boolean[settings.slidingWindowSize()];
+  }
+
+  /**
+   * Asks for permission to perform a call.
+   *
+   * @return {@code true} if the call may proceed; the caller must then report it via {@link
+   *     #onResult}
+   */
+  public synchronized boolean tryAcquirePermission() {
+    if (state == State.OPEN) {
+      long elapsed = nanoClock.getAsLong() - openedAtNanos;
+      if (elapsed < settings.openStateDuration().toNanos()) {
+        return false;
+      }
+      transitionTo(State.HALF_OPEN);
+    }
+    if (state == State.HALF_OPEN) {
+      if (halfOpenInFlight + halfOpenSucceeded >= settings.halfOpenPermittedCalls()) {
+        return false;
+      }
+      halfOpenInFlight++;
+    }
+    return true;
+  }
+
+  /**
+   * Reports the outcome of a permitted call.
+   *
+   * @param durationNanos call duration
+   * @param callFailed whether the call ended with a technical failure
+   */
+  public synchronized void onResult(long durationNanos, boolean callFailed) {
+    boolean callSlow = durationNanos >= settings.slowCallDuration().toNanos();
+
+    switch (state) {
+      case CLOSED -> {
+        record(callFailed, callSlow);
+        if (recorded >= settings.minimumCalls() && thresholdReached()) {
+          transitionTo(State.OPEN);
+        }
+      }
+      case HALF_OPEN -> {
+        halfOpenInFlight--;
+        if (callFailed || callSlow) {
+          transitionTo(State.OPEN);
+        } else if (++halfOpenSucceeded >= settings.halfOpenPermittedCalls()) {
+          transitionTo(State.CLOSED);
+        }
+      }
+      case OPEN -> {
+        // Call was permitted before the breaker opened; nothing to evaluate.
+      }
+    }
+  }
+
+  /** Returns the current state without triggering the OPEN -> HALF_OPEN transition. */
+  public synchronized State state() {
+    return state;
+  }
+
+  private void record(boolean callFailed, boolean callSlow) {
+    if (recorded == failed.length) {
+      failedCount -= failed[next] ? 1 : 0;
+      slowCount -= slow[next] ? 1 : 0;
+    } else {
+      recorded++;
+    }
+    failed[next] = callFailed;
+    slow[next] = callSlow;
+    failedCount += callFailed ? 1 : 0;
+    slowCount += callSlow ? 1 : 0;
+    next = (next + 1) % failed.length;
+  }
+
+  private boolean thresholdReached() {
+    double failureRate = 100.0 * failedCount / recorded;
+    double slowRate = 100.0 * slowCount / recorded;
+    return failureRate >= settings.failureRateThreshold()
+        || slowRate >= settings.slowCallRateThreshold();
+  }
+
+  private void transitionTo(State target) {
+    state = target;
+    switch (target) {
+      case OPEN -> openedAtNanos = nanoClock.getAsLong();
+      case HALF_OPEN -> {
+        halfOpenInFlight = 0;
+        halfOpenSucceeded = 0;
+      }
+      case CLOSED -> {
+        next = 0;
+        recorded = 0;
+        failedCount = 0;
+        slowCount = 0;
+      }
+    }
+    transitionListener.accept(target);
+  }
+}
@@ -0,0 +1,29 @@
+package com.nenkov.bar.infrastructure.tracing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.reactive.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+
+/**
+ * Adds the client's correlation id ({@value #HEADER}) to the server request span.
+ *
+ * <p>Added as a high-cardinality key value, so it lands on the span but never becomes a metric tag.
+ * The same header is echoed as {@code correlationId} in problem responses, which links error
+ * reports to their trace.
+ */
+public final class CorrelatedServerRequestObservationConvention
+    extends DefaultServerRequestObservationConvention {
+
+  public static final String HEADER = "X-Request-Id";
+  public static final String KEY = "request.id";
+
+  @Override
+  public KeyValues getHighCardinalityKeyValues(ServerRequestObservationContext context) {
+    KeyValues keyValues = super.getHighCardinalityKeyValues(context);
+    String requestId = context.getCarrier().getHeaders().getFirst(HEADER);
+    return requestId == null || requestId.isBlank()
+        ? keyValues
+        : keyValues.and(KeyValue.of(KEY, requestId));
+  }
+}
@@ -0,0 +1,150 @@
+package com.nenkov.bar.infrastructure.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends exported spans to a file, one JSON object per line.
+ *
+ * <p>Meant for local runs without a collector; {@code jq} or a notebook can rebuild timelines from
+ * trace and parent ids. Each line carries trace/span/parent ids, name, kind, start time and
+ * duration in microseconds, status and string-valued attributes.
+ */
+public final class FileSpanExporter implements SpanExporter {
+
+  private static final Logger log = LoggerFactory.getLogger(FileSpanExporter.class);
+
+  private final Path file;
+  private final BufferedWriter writer;
+  private boolean closed;
+
+  public FileSpanExporter(Path file) {
+    this.file = Objects.requireNonNull(file, "file must not be null");
+    try {
+      Path parent = file.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      this.writer =
+          Files.newBufferedWriter(
+              file,
+              StandardCharsets.UTF_8,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.APPEND,
+              StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open span file " + file, e);
+    }
+  }
+
+  @Override
+  public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+    if (closed) {
+      return CompletableResultCode.ofFailure();
+    }
+    try {
+      for (SpanData span : spans) {
+        writer.write(toJson(span));
+        writer.newLine();
+      }
+      writer.flush();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      log.warn("Failed to write {} spans to {}", spans.size(), file, e);
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  @Override
+  public synchronized CompletableResultCode flush() {
+    try {
+      writer.flush();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  @Override
+  public synchronized CompletableResultCode shutdown() {
+    if (closed) {
+      return CompletableResultCode.ofSuccess();
+    }
+    closed = true;
+    try {
+      writer.close();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  static String toJson(SpanData span) {
+    StringBuilder json = new StringBuilder(256).append('{');
+    field(json, "traceId", span.getTraceId()).append(',');
+    field(json, "spanId", span.getSpanId()).append(',');
+    field(
+            json,
+            "parentSpanId",
+            span.getParentSpanContext().isValid() ? span.getParentSpanId() : null)
+        .append(',');
+    field(json, "name", span.getName()).append(',');
+    field(json, "kind", span.getKind().name()).append(',');
+    json.append("\"startEpochNanos\":").append(span.getStartEpochNanos()).append(',');
+    json.append("\"durationMicros\":")
+        .append((span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000)
+        .append(',');
+    field(json, "status", span.getStatus().getStatusCode().name()).append(',');
+    json.append("\"attributes\":{");
+    boolean first = true;
+    for (Map.Entry<AttributeKey<?>, Object> attribute : span.getAttributes().asMap().entrySet()) {
+      if (!first) {
+        json.append(',');
+      }
+      first = false;
+      field(json, attribute.getKey().getKey(), String.valueOf(attribute.getValue()));
+    }
+    return json.append("}}").toString();
+  }
+
+  private static StringBuilder field(StringBuilder json, String name, String value) {
+    quote(json, name).append(':');
+    return value == null ? json.append("null") : quote(json, value);
+  }
+
+  private static StringBuilder quote(StringBuilder json, String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        case '\n' -> json.append("\\n");
+        case '\r' -> json.append("\\r");
+        case '\t' -> json.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+    return json.append('"');
+  }
+}
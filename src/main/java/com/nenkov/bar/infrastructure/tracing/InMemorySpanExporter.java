@@ -0,0 +1,53 @@
+package com.nenkov.bar.infrastructure.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+
+/** Keeps the most recent {@code capacity} exported spans in memory, for local inspection. */
+public final class InMemorySpanExporter implements SpanExporter {
+
+  private final int capacity;
+  private final ArrayDeque<SpanData> spans;
+
+  public InMemorySpanExporter(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be >= 1");
+    }
+    this.capacity = capacity;
+    this.spans = new ArrayDeque<>(capacity);
+  }
+
+  @Override
+  public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+    for (SpanData span : batch) {
+      if (spans.size() == capacity) {
+        spans.removeFirst();
+      }
+      spans.addLast(span);
+    }
+    return CompletableResultCode.ofSuccess();
+  }
+
+  /** Spans held, oldest first. */
+  public synchronized List<SpanData> spans() {
+    return List.copyOf(spans);
+  }
+
+  public synchronized void reset() {
+    spans.clear();
+  }
+
+  @Override
+  public CompletableResultCode flush() {
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public CompletableResultCode shutdown() {
+    return CompletableResultCode.ofSuccess();
+  }
+}
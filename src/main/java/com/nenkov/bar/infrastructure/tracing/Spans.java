@@ -0,0 +1,40 @@
+package com.nenkov.bar.infrastructure.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.util.function.Supplier;
+
+/** Runs calls in child spans of the current span. */
+public final class Spans {
+
+  private Spans() {}
+
+  /**
+   * Runs {@code call} in a new span named {@code name}, recording any exception on the span.
+   *
+   * @param tags alternating tag keys and values
+   */
+  public static <T> T inSpan(Tracer tracer, String name, Supplier<T> call, String... tags) {
+    Span span = start(tracer, name, tags);
+    try (Tracer.SpanInScope _ = tracer.withSpan(span)) {
+      return call.get();
+    } catch (RuntimeException | Error e) {
+      span.error(e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+
+  /** Starts a span named {@code name} as a child of the current span; the caller must end it. */
+  public static Span start(Tracer tracer, String name, String... tags) {
+    if (tags.length % 2 != 0) {
+      throw new IllegalArgumentException("tags must be key/value pairs");
+    }
+    Span span = tracer.nextSpan().name(name);
+    for (int i = 0; i < tags.length; i += 2) {
+      span.tag(tags[i], tags[i + 1]);
+    }
+    return span.start();
+  }
+}
@@ -0,0 +1,214 @@
+package com.nenkov.bar.infrastructure.tracing;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps traces that head sampling passed over but that turned out slow or failed.
+ *
+ * <p>Spans of recorded-but-unsampled traces (see {@link TraceSampling}) are buffered per trace.
+ * When the trace's local root span ends, the whole trace is exported if any span has an error
+ * status or the root took at least {@code slowThreshold}; otherwise it is discarded. Sampled spans
+ * are left to the regular export pipeline.
+ *
+ * <p>Memory is bounded: at most {@code maxTraces} traces are buffered, the oldest being dropped
+ * first, with at most {@code maxSpansPerTrace} spans each. Export runs on {@code exportExecutor} so
+ * that ending a span never waits on an exporter; kept traces are dropped if it rejects them. An
+ * {@link ExecutorService} is owned by the processor and shut down with it, after queued exports.
+ *
+ * <p>Ending a span only locks its own trace's buffer, and {@link SpanData} is only built for spans
+ * the buffer still has room for.
+ */
+public final class TailSamplingSpanProcessor implements SpanProcessor {
+
+  private final SpanExporter exporter;
+  private final long slowThresholdNanos;
+  private final int maxTraces;
+  private final int maxSpansPerTrace;
+  private final Executor exportExecutor;
+  private final ConcurrentMap<String, TraceBuffer> pending = new ConcurrentHashMap<>();
+  // Buffers in arrival order, for dropping the oldest; closed ones are purged in batches.
+  private final Queue<TraceBuffer> arrivals = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger closedArrivals = new AtomicInteger();
+
+  public TailSamplingSpanProcessor(
+      SpanExporter exporter,
+      Duration slowThreshold,
+      int maxTraces,
+      int maxSpansPerTrace,
+      Executor exportExecutor) {
+    this.exporter = Objects.requireNonNull(exporter, "exporter must not be null");
+    Objects.requireNonNull(slowThreshold, "slowThreshold must not be null");
+    this.exportExecutor = Objects.requireNonNull(exportExecutor, "exportExecutor must not be null");
+    if (maxTraces < 1 || maxSpansPerTrace < 1) {
+      throw new IllegalArgumentException("maxTraces and maxSpansPerTrace must be >= 1");
+    }
+    this.slowThresholdNanos = slowThreshold.toNanos();
+    this.maxTraces = maxTraces;
+    this.maxSpansPerTrace = maxSpansPerTrace;
+  }
+
+  @Override
+  public void onStart(Context parentContext, ReadWriteSpan span) {
+    // Decisions are made when spans end.
+  }
+
+  @Override
+  public boolean isStartRequired() {
+    return false;
+  }
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    if (span.getSpanContext().isSampled()) {
+      return;
+    }
+    SpanContext parent = span.getParentSpanContext();
+    String traceId = span.getSpanContext().getTraceId();
+
+    if (parent.isValid() && !parent.isRemote()) {
+      bufferFor(traceId).add(span, maxSpansPerTrace);
+      return;
+    }
+
+    TraceBuffer buffer = pending.remove(traceId);
+    List<SpanData> trace;
+    boolean failed;
+    if (buffer == null) {
+      trace = new ArrayList<>(1);
+      failed = false;
+    } else {
+      trace = buffer.close();
+      failed = buffer.hasFailed();
+      closedArrivals.incrementAndGet();
+    }
+    if (!failed && span.getLatencyNanos() < slowThresholdNanos) {
+      SpanData root = span.toSpanData();
+      if (root.getStatus().getStatusCode() != StatusCode.ERROR) {
+        return;
+      }
+      trace.add(root);
+    } else {
+      trace.add(span.toSpanData());
+    }
+    export(trace);
+  }
+
+  @Override
+  public boolean isEndRequired() {
+    return true;
+  }
+
+  /** Number of traces currently buffered. */
+  public int pendingTraces() {
+    return pending.size();
+  }
+
+  @Override
+  public CompletableResultCode shutdown() {
+    pending.clear();
+    arrivals.clear();
+    if (exportExecutor instanceof ExecutorService service) {
+      service.shutdown();
+    }
+    // The exporter is shared with the regular pipeline, which shuts it down.
+    return CompletableResultCode.ofSuccess();
+  }
+
+  private TraceBuffer bufferFor(String traceId) {
+    TraceBuffer buffer = pending.get(traceId);
+    if (buffer != null) {
+      return buffer;
+    }
+    TraceBuffer created = new TraceBuffer(traceId);
+    buffer = pending.putIfAbsent(traceId, created);
+    if (buffer != null) {
+      return buffer;
+    }
+    arrivals.offer(created);
+    while (pending.size() > maxTraces) {
+      if (!dropOldest()) {
+        break;
+      }
+    }
+    if (closedArrivals.get() > maxTraces) {
+      closedArrivals.set(0);
+      arrivals.removeIf(TraceBuffer::isClosed);
+    }
+    return created;
+  }
+
+  private boolean dropOldest() {
+    TraceBuffer oldest;
+    while ((oldest = arrivals.poll()) != null) {
+      if (pending.remove(oldest.traceId, oldest)) {
+        oldest.close();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void export(List<SpanData> trace) {
+    try {
+      exportExecutor.execute(() -> exporter.export(trace));
+    } catch (RejectedExecutionException _) {
+      // Export backlog is full; dropping a tail-sampled trace is preferable to blocking.
+    }
+  }
+
+  /** Spans of one trace; guarded by its own monitor. */
+  private static final class TraceBuffer {
+
+    private final String traceId;
+    private final List<SpanData> spans = new ArrayList<>();
+    private boolean failed;
+    private boolean closed;
+
+    private TraceBuffer(String traceId) {
+      this.traceId = traceId;
+    }
+
+    synchronized void add(ReadableSpan span, int maxSpans) {
+      if (closed || spans.size() >= maxSpans) {
+        return;
+      }
+      SpanData data = span.toSpanData();
+      spans.add(data);
+      failed |= data.getStatus().getStatusCode() == StatusCode.ERROR;
+    }
+
+    /** Stops accepting spans and hands out the buffered ones. */
+    synchronized List<SpanData> close() {
+      closed = true;
+      return spans;
+    }
+
+    synchronized boolean hasFailed() {
+      return failed;
+    }
+
+    synchronized boolean isClosed() {
+      return closed;
+    }
+  }
+}
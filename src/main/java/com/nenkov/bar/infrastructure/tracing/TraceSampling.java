@@ -0,0 +1,88 @@
+package com.nenkov.bar.infrastructure.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.List;
+
+/**
+ * Head sampling that leaves room for tail sampling.
+ *
+ * <p>A fixed ratio of new traces, chosen by trace id, is sampled up front and exported as usual.
+ * With tail sampling enabled, the remaining traces are still recorded, though not sampled, so that
+ * {@link TailSamplingSpanProcessor} can keep the ones that turn out slow or failed. With tail
+ * sampling disabled they are dropped and cost next to nothing.
+ *
+ * <p>Children follow their parent's decision; a remote parent's decision is honoured as is.
+ */
+public final class TraceSampling {
+
+  private TraceSampling() {}
+
+  /**
+   * @param headRatio fraction of traces sampled up front, between 0 and 1
+   * @param recordUnsampled whether unsampled traces are recorded for tail sampling
+   */
+  public static Sampler sampler(double headRatio, boolean recordUnsampled) {
+    if (headRatio < 0 || headRatio > 1) {
+      throw new IllegalArgumentException("headRatio must be between 0 and 1");
+    }
+    Sampler notSampled = recordUnsampled ? RecordOnly.INSTANCE : Sampler.alwaysOff();
+    return Sampler.parentBasedBuilder(
+            new RatioOrElse(Sampler.traceIdRatioBased(headRatio), notSampled))
+        .setLocalParentNotSampled(notSampled)
+        .build();
+  }
+
+  /** Ratio sampling at the root, falling back to {@code otherwise} for traces it does not take. */
+  private record RatioOrElse(Sampler ratio, Sampler otherwise) implements Sampler {
+
+    @Override
+    public SamplingResult shouldSample(
+        Context parentContext,
+        String traceId,
+        String name,
+        SpanKind spanKind,
+        Attributes attributes,
+        List<LinkData> parentLinks) {
+      SamplingResult result =
+          ratio.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+      return result.getDecision() == SamplingDecision.RECORD_AND_SAMPLE
+          ? result
+          : otherwise.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+    }
+
+    @Override
+    public String getDescription() {
+      return "RatioOrElse{" + ratio.getDescription() + "," + otherwise.getDescription() + "}";
+    }
+  }
+
+  /** Records spans without sampling them, so only span processors see them. */
+  private enum RecordOnly implements Sampler {
+    INSTANCE;
+
+    private static final SamplingResult RESULT =
+        SamplingResult.create(SamplingDecision.RECORD_ONLY);
+
+    @Override
+    public SamplingResult shouldSample(
+        Context parentContext,
+        String traceId,
+        String name,
+        SpanKind spanKind,
+        Attributes attributes,
+        List<LinkData> parentLinks) {
+      return RESULT;
+    }
+
+    @Override
+    public String getDescription() {
+      return "RecordOnly";
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.nenkov.bar.web.api.auth;
+
+import com.nenkov.bar.auth.LoginThrottle;
+import com.nenkov.bar.infrastructure.metrics.SlowRequestWebFilter;
+import com.nenkov.bar.web.api.error.factory.ApiProblemFactory;
+import com.nenkov.bar.web.api.error.mapping.LoginThrottledExceptionMapper;
+import com.nenkov.bar.web.api.error.model.ApiProblemCode;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Refuses {@code POST /auth/login} from clients that have failed to log in too often, before the
+ * request body is read or Spring Security runs.
+ *
+ * <p>The filter counts every {@code 401} the login endpoint answers against the client address; the
+ * per-username count lives in {@link com.nenkov.bar.auth.AuthService}, which is where the username
+ * is known. The failure is reserved before the login runs and taken back if it does not fail, so a
+ * burst of concurrent attempts cannot exceed the limit. A refused client gets a {@code 429} problem
+ * with a {@code Retry-After} of one window.
+ *
+ * <p>The client address is the connection's remote address. Behind a proxy, enable {@code
+ * server.forward-headers-strategy} so that it is the original client's.
+ */
+public final class LoginThrottlingWebFilter implements WebFilter, Ordered {
+
+  /** Runs right after slow-request sampling, so refused logins still show up there. */
+  public static final int ORDER = SlowRequestWebFilter.ORDER + 1;
+
+  private static final String LOGIN_PATH = "/auth/login";
+
+  private final LoginThrottle throttle;
+  private final ApiProblemFactory problemFactory;
+  private final HttpMessageWriter<ProblemDetail> problemWriter;
+
+  public LoginThrottlingWebFilter(
+      LoginThrottle throttle, ApiProblemFactory problemFactory, ServerCodecConfigurer codecs) {
+    this.throttle = Objects.requireNonNull(throttle, "throttle must not be null");
+    this.problemFactory = Objects.requireNonNull(problemFactory, "problemFactory must not be null");
+    this.problemWriter = problemWriter(Objects.requireNonNull(codecs, "codecs must not be null"));
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    if (exchange.getRequest().getMethod() != HttpMethod.POST
+        || !LOGIN_PATH.equals(exchange.getRequest().getPath().value())) {
+      return chain.filter(exchange);
+    }
+    String client = clientAddress(exchange);
+    // Reserves this attempt's failure up front; taken back unless the login answers 401
+    if (!throttle.tryAcquireClient(client)) {
+      return refuse(exchange);
+    }
+    return chain
+        .filter(exchange)
+        .doFinally(
+            signal -> {
+              if (signal != SignalType.ON_COMPLETE
+                  || exchange.getResponse().getStatusCode() != HttpStatus.UNAUTHORIZED) {
+                throttle.releaseClient(client);
+              }
+            });
+  }
+
+  @Override
+  public int getOrder() {
+    return ORDER;
+  }
+
+  private Mono<Void> refuse(ServerWebExchange exchange) {
+    ApiProblemCode code = ApiProblemCode.AUTH_THROTTLED;
+    ProblemDetail problem =
+        problemFactory.problem(code, LoginThrottledExceptionMapper.DETAIL, exchange);
+    ServerHttpResponse response = exchange.getResponse();
+    response.setStatusCode(code.status());
+    response
+        .getHeaders()
+        .set(HttpHeaders.RETRY_AFTER, Long.toString(throttle.clientWindow().toSeconds()));
+    return problemWriter.write(
+        Mono.just(problem),
+        ResolvableType.forClass(ProblemDetail.class),
+        MediaType.APPLICATION_PROBLEM_JSON,
+        response,
+        Map.of());
+  }
+
+  private static String clientAddress(ServerWebExchange exchange) {
+    InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+    if (remote == null) {
+      return "unknown";
+    }
+    return remote.getAddress() != null
+        ? remote.getAddress().getHostAddress()
+        : remote.getHostString();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static HttpMessageWriter<ProblemDetail> problemWriter(ServerCodecConfigurer codecs) {
+    ResolvableType type = ResolvableType.forClass(ProblemDetail.class);
+    return codecs.getWriters().stream()
+        .filter(writer -> writer.canWrite(type, MediaType.APPLICATION_PROBLEM_JSON))
+        .map(writer -> (HttpMessageWriter<ProblemDetail>) writer)
+        .findFirst()
+        .orElseThrow(() -> new IllegalStateException("No writer for application/problem+json"));
+  }
+}
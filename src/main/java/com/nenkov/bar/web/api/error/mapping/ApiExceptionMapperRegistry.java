@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.stereotype.Component;
 
 /**
@@ -43,6 +44,11 @@ public class ApiExceptionMapperRegistry {
     this.byType = Map.copyOf(map);
   }
 
+  /** Exception types with a registered mapper. */
+  public Set<Class<? extends Throwable>> mappedTypes() {
+    return byType.keySet();
+  }
+
   @SuppressWarnings("unchecked")
   public <E extends Throwable> Optional<ApiExceptionMapper<E>> findExact(E ex) {
     if (ex == null) {
@@ -0,0 +1,26 @@
+package com.nenkov.bar.web.api.error.mapping;
+
+import com.nenkov.bar.application.payment.exception.CheckNotPayableException;
+import com.nenkov.bar.web.api.error.model.ApiProblemCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+@Component
+public class CheckNotPayableExceptionMapper
+    implements ApiExceptionMapper<CheckNotPayableException> {
+
+  @Override
+  public Class<CheckNotPayableException> type() {
+    return CheckNotPayableException.class;
+  }
+
+  @Override
+  public ApiProblemCode code() {
+    return ApiProblemCode.PAYMENT_CONFLICT;
+  }
+
+  @Override
+  public String safeDetail(CheckNotPayableException exception, ServerWebExchange exchange) {
+    return "This check is already paid, failed or canceled.";
+  }
+}
@@ -0,0 +1,25 @@
+package com.nenkov.bar.web.api.error.mapping;
+
+import com.nenkov.bar.auth.LoginBusyException;
+import com.nenkov.bar.web.api.error.model.ApiProblemCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+@Component
+public class LoginBusyExceptionMapper implements ApiExceptionMapper<LoginBusyException> {
+
+  @Override
+  public Class<LoginBusyException> type() {
+    return LoginBusyException.class;
+  }
+
+  @Override
+  public ApiProblemCode code() {
+    return ApiProblemCode.AUTH_BUSY;
+  }
+
+  @Override
+  public String safeDetail(LoginBusyException exception, ServerWebExchange exchange) {
+    return "Too many logins are in progress. Retry shortly.";
+  }
+}
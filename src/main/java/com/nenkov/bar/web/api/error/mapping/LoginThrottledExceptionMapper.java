@@ -0,0 +1,28 @@
+package com.nenkov.bar.web.api.error.mapping;
+
+import com.nenkov.bar.auth.LoginThrottledException;
+import com.nenkov.bar.web.api.error.model.ApiProblemCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+@Component
+public class LoginThrottledExceptionMapper implements ApiExceptionMapper<LoginThrottledException> {
+
+  /** Shared with the login throttling filter, which answers without going through this mapper. */
+  public static final String DETAIL = "Too many failed logins. Retry later.";
+
+  @Override
+  public Class<LoginThrottledException> type() {
+    return LoginThrottledException.class;
+  }
+
+  @Override
+  public ApiProblemCode code() {
+    return ApiProblemCode.AUTH_THROTTLED;
+  }
+
+  @Override
+  public String safeDetail(LoginThrottledException exception, ServerWebExchange exchange) {
+    return DETAIL;
+  }
+}
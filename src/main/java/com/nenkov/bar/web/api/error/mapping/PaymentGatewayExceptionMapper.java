@@ -0,0 +1,25 @@
+package com.nenkov.bar.web.api.error.mapping;
+
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.web.api.error.model.ApiProblemCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+@Component
+public class PaymentGatewayExceptionMapper implements ApiExceptionMapper<PaymentGatewayException> {
+
+  @Override
+  public Class<PaymentGatewayException> type() {
+    return PaymentGatewayException.class;
+  }
+
+  @Override
+  public ApiProblemCode code() {
+    return ApiProblemCode.PAYMENT_PROVIDER_UNAVAILABLE;
+  }
+
+  @Override
+  public String safeDetail(PaymentGatewayException exception, ServerWebExchange exchange) {
+    return "Payment provider is temporarily unavailable. Retry later.";
+  }
+}
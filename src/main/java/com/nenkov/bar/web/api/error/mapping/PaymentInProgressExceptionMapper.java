@@ -0,0 +1,26 @@
+package com.nenkov.bar.web.api.error.mapping;
+
+import com.nenkov.bar.application.payment.exception.PaymentInProgressException;
+import com.nenkov.bar.web.api.error.model.ApiProblemCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+@Component
+public class PaymentInProgressExceptionMapper
+    implements ApiExceptionMapper<PaymentInProgressException> {
+
+  @Override
+  public Class<PaymentInProgressException> type() {
+    return PaymentInProgressException.class;
+  }
+
+  @Override
+  public ApiProblemCode code() {
+    return ApiProblemCode.PAYMENT_IN_PROGRESS;
+  }
+
+  @Override
+  public String safeDetail(PaymentInProgressException exception, ServerWebExchange exchange) {
+    return "Another payment attempt for this check is in progress. Retry once it completes.";
+  }
+}
@@ -17,15 +17,28 @@ public enum ApiProblemCode {
       "urn:problem:session-already-open-for-table"),
   AUTH_INVALID_CREDENTIALS(
       HttpStatus.UNAUTHORIZED, "Invalid credentials", "urn:problem:auth-invalid-credentials"),
+  AUTH_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Login busy", "urn:problem:auth-busy"),
+  AUTH_THROTTLED(
+      HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts", "urn:problem:auth-throttled"),
+  CALLBACK_SIGNATURE_INVALID(
+      HttpStatus.UNAUTHORIZED,
+      "Invalid callback signature",
+      "urn:problem:callback-signature-invalid"),
   INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "Internal error", "urn:problem:internal-error"),
   RESPONSE_STATUS(HttpStatus.BAD_REQUEST, "Request failed", "urn:problem:response-status"),
   ORDERING_CONFLICT(HttpStatus.CONFLICT, "Ordering conflict", "urn:problem:ordering-conflict"),
   PAYMENT_CONFLICT(HttpStatus.CONFLICT, "Payment conflict", "urn:problem:payment-conflict"),
   PAYMENT_REQUEST_CONFLICT(
       HttpStatus.CONFLICT, "Payment request conflict", "urn:problem:payment-request-conflict"),
+  PAYMENT_IN_PROGRESS(
+      HttpStatus.CONFLICT, "Payment in progress", "urn:problem:payment-in-progress"),
   CHECK_NOT_FOUND(HttpStatus.NOT_FOUND, "Check not found", "urn:problem:check-not-found"),
   PAYMENT_SELECTION_INVALID(
-      HttpStatus.BAD_REQUEST, "Invalid payment selection", "urn:problem:payment-selection-invalid");
+      HttpStatus.BAD_REQUEST, "Invalid payment selection", "urn:problem:payment-selection-invalid"),
+  PAYMENT_PROVIDER_UNAVAILABLE(
+      HttpStatus.SERVICE_UNAVAILABLE,
+      "Payment provider unavailable",
+      "urn:problem:payment-provider-unavailable");
 
   private final HttpStatus status;
   private final String title;
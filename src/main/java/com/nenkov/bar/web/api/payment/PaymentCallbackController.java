@@ -0,0 +1,76 @@
+package com.nenkov.bar.web.api.payment;
+
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksInput;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.model.PaymentCallback;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.application.payment.service.PaymentService;
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Payment provider callback (webhook) HTTP API.
+ *
+ * <p>Providers push payment outcomes here in batches instead of the application polling for them.
+ * Replays are safe: duplicates are detected and reported, never re-applied.
+ */
+@RestController
+@RequestMapping(path = "/payments", produces = MediaType.APPLICATION_JSON_VALUE)
+public final class PaymentCallbackController {
+
+  private final PaymentService paymentService;
+
+  public PaymentCallbackController(PaymentService paymentService) {
+    this.paymentService = paymentService;
+  }
+
+  /**
+   * Ingests a batch of provider callbacks.
+   *
+   * <p>HTTP: {@code 200 OK} with per-batch counters on success.
+   */
+  @PostMapping(path = "/callbacks", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<PaymentCallbacksResponse> ingestCallbacks(
+      @Valid @RequestBody PaymentCallbacksRequest request) {
+
+    return Mono.fromSupplier(
+        () -> {
+          List<PaymentCallback> callbacks =
+              request.callbacks().stream().map(PaymentCallbackController::toCallback).toList();
+
+          IngestPaymentCallbacksResult result =
+              paymentService.ingestCallbacks(new IngestPaymentCallbacksInput(callbacks));
+
+          return new PaymentCallbacksResponse(
+              result.received(), result.applied(), result.duplicates(), result.ignored());
+        });
+  }
+
+  /**
+   * Maps a callback line. Unknown statuses and callbacks without any key are treated as client
+   * input errors and mapped to {@code 400 Bad Request}.
+   */
+  private static PaymentCallback toCallback(PaymentCallbacksRequest.CallbackLine line) {
+    try {
+      PaymentRequestId requestId =
+          line.requestId() == null || line.requestId().isBlank()
+              ? null
+              : PaymentRequestId.of(line.requestId());
+      PaymentAttemptStatus status =
+          PaymentAttemptStatus.valueOf(line.status().trim().toUpperCase(Locale.ROOT));
+      return new PaymentCallback(requestId, line.providerReference(), status, line.failureReason());
+    } catch (IllegalArgumentException _) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid callback.");
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.nenkov.bar.web.api.payment;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Objects;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * HMAC-SHA256 signature a payment provider puts on each callback batch.
+ *
+ * <p>The provider signs the raw request body with the shared secret and sends {@code sha256=<hex>}
+ * in {@value #HEADER}. Verification compares in constant time.
+ */
+public final class PaymentCallbackSignature {
+
+  public static final String HEADER = "X-Payment-Signature";
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final String PREFIX = "sha256=";
+
+  private final SecretKeySpec key;
+
+  public PaymentCallbackSignature(String secret) {
+    Objects.requireNonNull(secret, "secret must not be null");
+    if (secret.isBlank()) {
+      throw new IllegalArgumentException("secret must not be blank");
+    }
+    this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+  }
+
+  /** Header value for {@code body}. */
+  public String sign(byte[] body) {
+    return PREFIX + HexFormat.of().formatHex(mac(body));
+  }
+
+  /**
+   * Whether {@code header} is the signature of {@code body}.
+   *
+   * @param header received header value, {@code null} if absent
+   */
+  public boolean verify(byte[] body, String header) {
+    if (header == null || !header.startsWith(PREFIX)) {
+      return false;
+    }
+    byte[] received;
+    try {
+      received = HexFormat.of().parseHex(header, PREFIX.length(), header.length());
+    } catch (IllegalArgumentException _) {
+      return false;
+    }
+    return MessageDigest.isEqual(mac(body), received);
+  }
+
+  private byte[] mac(byte[] body) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return mac.doFinal(body);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(ALGORITHM + " unavailable", e);
+    }
+  }
+}
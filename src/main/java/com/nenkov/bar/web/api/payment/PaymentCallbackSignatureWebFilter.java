@@ -0,0 +1,135 @@
+package com.nenkov.bar.web.api.payment;
+
+import com.nenkov.bar.web.api.auth.LoginThrottlingWebFilter;
+import com.nenkov.bar.web.api.error.factory.ApiProblemFactory;
+import com.nenkov.bar.web.api.error.model.ApiProblemCode;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authenticates {@code POST /payments/callbacks} by the provider's {@link PaymentCallbackSignature}
+ * instead of a staff JWT.
+ *
+ * <p>The body is read once (at most {@value #MAX_BODY_BYTES} bytes), its signature checked, and
+ * then handed on unchanged to the controller. Unsigned or tampered batches get a {@code 401}
+ * problem and never reach the application. Without a configured secret every batch is refused.
+ */
+public final class PaymentCallbackSignatureWebFilter implements WebFilter, Ordered {
+
+  public static final int ORDER = LoginThrottlingWebFilter.ORDER + 1;
+
+  static final int MAX_BODY_BYTES = 256 * 1024;
+
+  private static final String CALLBACKS_PATH = "/payments/callbacks";
+  private static final String DETAIL = "Callback signature is missing or invalid.";
+
+  private final PaymentCallbackSignature signature;
+  private final ApiProblemFactory problemFactory;
+  private final HttpMessageWriter<ProblemDetail> problemWriter;
+
+  /**
+   * @param signature verifier for the shared secret, {@code null} to refuse every batch
+   */
+  public PaymentCallbackSignatureWebFilter(
+      PaymentCallbackSignature signature,
+      ApiProblemFactory problemFactory,
+      ServerCodecConfigurer codecs) {
+    this.signature = signature;
+    this.problemFactory = Objects.requireNonNull(problemFactory, "problemFactory must not be null");
+    this.problemWriter = problemWriter(Objects.requireNonNull(codecs, "codecs must not be null"));
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    ServerHttpRequest request = exchange.getRequest();
+    if (request.getMethod() != HttpMethod.POST
+        || !CALLBACKS_PATH.equals(request.getPath().value())) {
+      return chain.filter(exchange);
+    }
+    if (signature == null) {
+      return refuse(exchange);
+    }
+    String header = request.getHeaders().getFirst(PaymentCallbackSignature.HEADER);
+    return DataBufferUtils.join(request.getBody(), MAX_BODY_BYTES)
+        .map(PaymentCallbackSignatureWebFilter::drain)
+        .defaultIfEmpty(new byte[0])
+        .flatMap(
+            body ->
+                signature.verify(body, header)
+                    ? chain.filter(exchange.mutate().request(replaying(request, body)).build())
+                    : refuse(exchange))
+        .onErrorResume(DataBufferLimitException.class, _ -> tooLarge(exchange));
+  }
+
+  @Override
+  public int getOrder() {
+    return ORDER;
+  }
+
+  private static byte[] drain(DataBuffer buffer) {
+    try {
+      byte[] bytes = new byte[buffer.readableByteCount()];
+      buffer.read(bytes);
+      return bytes;
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+
+  private static ServerHttpRequest replaying(ServerHttpRequest request, byte[] body) {
+    return new ServerHttpRequestDecorator(request) {
+      @Override
+      public Flux<DataBuffer> getBody() {
+        return Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+      }
+    };
+  }
+
+  private Mono<Void> refuse(ServerWebExchange exchange) {
+    ApiProblemCode code = ApiProblemCode.CALLBACK_SIGNATURE_INVALID;
+    ProblemDetail problem = problemFactory.problem(code, DETAIL, exchange);
+    ServerHttpResponse response = exchange.getResponse();
+    response.setStatusCode(code.status());
+    return problemWriter.write(
+        Mono.just(problem),
+        ResolvableType.forClass(ProblemDetail.class),
+        MediaType.APPLICATION_PROBLEM_JSON,
+        response,
+        Map.of());
+  }
+
+  private static Mono<Void> tooLarge(ServerWebExchange exchange) {
+    exchange.getResponse().setStatusCode(HttpStatus.CONTENT_TOO_LARGE);
+    return exchange.getResponse().setComplete();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static HttpMessageWriter<ProblemDetail> problemWriter(ServerCodecConfigurer codecs) {
+    ResolvableType type = ResolvableType.forClass(ProblemDetail.class);
+    return codecs.getWriters().stream()
+        .filter(writer -> writer.canWrite(type, MediaType.APPLICATION_PROBLEM_JSON))
+        .map(writer -> (HttpMessageWriter<ProblemDetail>) writer)
+        .findFirst()
+        .orElseThrow(() -> new IllegalStateException("No writer for application/problem+json"));
+  }
+}
@@ -0,0 +1,20 @@
+package com.nenkov.bar.web.api.payment;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Batch of provider callbacks.
+ *
+ * <p>Each callback must carry {@code requestId} or {@code providerReference}; {@code status} is one
+ * of {@code APPROVED}, {@code DECLINED}, {@code PENDING}.
+ */
+public record PaymentCallbacksRequest(
+    @NotEmpty @Size(max = 500) @Valid List<CallbackLine> callbacks) {
+
+  public record CallbackLine(
+      String requestId, String providerReference, @NotBlank String status, String failureReason) {}
+}
@@ -0,0 +1,4 @@
+package com.nenkov.bar.web.api.payment;
+
+/** Response summarizing how a callback batch was processed. */
+public record PaymentCallbacksResponse(int received, int applied, int duplicates, int ignored) {}
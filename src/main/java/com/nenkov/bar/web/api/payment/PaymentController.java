@@ -1,18 +1,22 @@
 package com.nenkov.bar.web.api.payment;
 
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
 import com.nenkov.bar.application.payment.model.CreateCheckInput;
 import com.nenkov.bar.application.payment.model.CreateCheckResult;
 import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
 import com.nenkov.bar.application.payment.model.PaymentRequestId;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptInput;
-import com.nenkov.bar.application.payment.model.RecordPaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.SplitChecksInput;
+import com.nenkov.bar.application.payment.model.SplitChecksResult;
 import com.nenkov.bar.application.payment.service.PaymentService;
+import com.nenkov.bar.config.PaymentProperties;
 import com.nenkov.bar.domain.model.money.Money;
 import com.nenkov.bar.domain.model.payment.CheckId;
 import com.nenkov.bar.domain.model.payment.PaymentSelection;
 import com.nenkov.bar.domain.model.session.OrderItemId;
 import com.nenkov.bar.domain.model.session.TableSessionId;
 import jakarta.validation.Valid;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
@@ -41,9 +45,11 @@ import reactor.core.publisher.Mono;
 public final class PaymentController {
 
   private final PaymentService paymentService;
+  private final Duration responseTimeout;
 
-  public PaymentController(PaymentService paymentService) {
+  public PaymentController(PaymentService paymentService, PaymentProperties paymentProperties) {
     this.paymentService = paymentService;
+    this.responseTimeout = paymentProperties.responseTimeout();
   }
 
   /**
@@ -65,10 +71,7 @@ public final class PaymentController {
 
     return Mono.fromSupplier(
         () -> {
-          List<PaymentSelection> selections =
-              request.selections().stream()
-                  .map(s -> PaymentSelection.of(parseOrderItemId(s.itemId()), s.quantity()))
-                  .toList();
+          List<PaymentSelection> selections = toSelections(request.selections());
 
           CreateCheckResult result =
               paymentService.createCheck(new CreateCheckInput(sessionId, selections));
@@ -80,10 +83,43 @@ public final class PaymentController {
         });
   }
 
+  /**
+   * Splits the session bill into several checks in one all-or-nothing operation.
+   *
+   * <p>HTTP: {@code 201 Created} on success. Either every requested check is created or none is;
+   * the combined selection of all checks must not exceed the remaining quantities.
+   */
+  @PostMapping(path = "/{sessionId}/checks/split", consumes = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.CREATED)
+  public Mono<SplitChecksResponse> splitChecks(
+      @PathVariable TableSessionId sessionId, @Valid @RequestBody SplitChecksRequest request) {
+
+    return Mono.fromSupplier(
+        () -> {
+          List<SplitChecksInput.Split> splits =
+              request.checks().stream()
+                  .map(line -> new SplitChecksInput.Split(toSelections(line.selections())))
+                  .toList();
+
+          SplitChecksResult result =
+              paymentService.splitIntoChecks(new SplitChecksInput(sessionId, splits));
+
+          List<SplitChecksResponse.CheckLine> checks =
+              result.checks().stream()
+                  .map(
+                      c ->
+                          new SplitChecksResponse.CheckLine(
+                              c.checkId().value().toString(), toMoney(c.amount())))
+                  .toList();
+          return new SplitChecksResponse(result.sessionId().value(), checks);
+        });
+  }
+
   /**
    * Records a payment attempt for an existing check using an idempotency request id.
    *
-   * <p>HTTP: {@code 200 OK} on success.
+   * <p>HTTP: {@code 200 OK} on success. If the attempt is not recorded within {@code
+   * app.payment.response-timeout}, {@code 503 Service Unavailable}; the attempt is not cancelled.
    */
   @PostMapping(
       path = "/{sessionId}/checks/{checkId}/attempts",
@@ -93,20 +129,34 @@ public final class PaymentController {
       @PathVariable CheckId checkId,
       @Valid @RequestBody RecordPaymentAttemptRequest request) {
 
-    return Mono.fromSupplier(
-        () -> {
-          PaymentRequestId requestId = parseRequestId(request.requestId());
-
-          RecordPaymentAttemptResult result =
-              paymentService.recordPaymentAttempt(
-                  new RecordPaymentAttemptInput(requestId, sessionId, checkId));
+    // The attempt completes off the event loop; no thread waits for the provider here.
+    return Mono.defer(
+            () -> {
+              PaymentRequestId requestId = parseRequestId(request.requestId());
+              return Mono.fromFuture(
+                  paymentService.recordPaymentAttempt(
+                      new RecordPaymentAttemptInput(requestId, sessionId, checkId)),
+                  true);
+            })
+        .timeout(
+            responseTimeout,
+            Mono.error(
+                () ->
+                    new PaymentGatewayException(
+                        "Payment attempt not recorded in time; retry with the same requestId")))
+        .map(
+            result ->
+                new RecordPaymentAttemptResponse(
+                    result.requestId().value(),
+                    result.sessionId().value(),
+                    result.checkId().value().toString(),
+                    toAttempt(result.attemptResult())));
+  }
 
-          return new RecordPaymentAttemptResponse(
-              result.requestId().value(),
-              result.sessionId().value(),
-              result.checkId().value().toString(),
-              toAttempt(result.attemptResult()));
-        });
+  private static List<PaymentSelection> toSelections(List<CreateCheckRequest.SelectionLine> lines) {
+    return lines.stream()
+        .map(s -> PaymentSelection.of(parseOrderItemId(s.itemId()), s.quantity()))
+        .toList();
   }
 
   /**
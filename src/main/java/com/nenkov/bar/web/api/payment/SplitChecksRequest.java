@@ -0,0 +1,15 @@
+package com.nenkov.bar.web.api.payment;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * Request to split a session bill into several checks at once.
+ *
+ * <p>Each entry of {@code checks} becomes one check. All checks are created together or none is.
+ */
+public record SplitChecksRequest(@NotEmpty @Valid List<CheckLine> checks) {
+
+  public record CheckLine(@NotEmpty @Valid List<CreateCheckRequest.SelectionLine> selections) {}
+}
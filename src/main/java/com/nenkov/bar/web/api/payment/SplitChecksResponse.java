@@ -0,0 +1,9 @@
+package com.nenkov.bar.web.api.payment;
+
+import java.util.List;
+
+/** Response returned after successfully splitting a session bill into checks. */
+public record SplitChecksResponse(String sessionId, List<CheckLine> checks) {
+
+  public record CheckLine(String checkId, CreateCheckResponse.Money amount) {}
+}
@@ -0,0 +1,39 @@
+package com.nenkov.bar.application.payment.callback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+final class RecentCallbackIdsTest {
+
+  @Test
+  void add_thenContains() {
+    RecentCallbackIds ids = new RecentCallbackIds(2);
+
+    ids.add("a");
+
+    assertThat(ids.contains("a")).isTrue();
+    assertThat(ids.contains("b")).isFalse();
+  }
+
+  @Test
+  void add_beyondCapacity_evictsLeastRecentlyUsed() {
+    RecentCallbackIds ids = new RecentCallbackIds(2);
+    ids.add("a");
+    ids.add("b");
+    ids.contains("a"); // refresh "a"
+
+    ids.add("c");
+
+    assertThat(ids.size()).isEqualTo(2);
+    assertThat(ids.contains("a")).isTrue();
+    assertThat(ids.contains("b")).isFalse();
+    assertThat(ids.contains("c")).isTrue();
+  }
+
+  @Test
+  void constructor_rejectsNonPositiveCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new RecentCallbackIds(0));
+  }
+}
@@ -0,0 +1,327 @@
+package com.nenkov.bar.application.payment.expiry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.common.persistence.RepositoryAccessException;
+import com.nenkov.bar.application.payment.handler.CheckClaims;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.model.payment.PaymentReference;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class CheckExpirySchedulerTest {
+
+  private static final Instant T0 = Instant.parse("2026-01-01T12:00:00Z");
+  private static final Duration TTL = Duration.ofMinutes(30);
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-1");
+
+  @Mock private CheckRepository checkRepository;
+  @Mock private PaymentAttemptRepository paymentAttemptRepository;
+  @Mock private ScheduledExecutorService executor;
+
+  @Captor private ArgumentCaptor<List<Check>> savedCaptor;
+
+  private final MutableClock clock = new MutableClock(T0);
+  private final CheckClaims checkClaims = new CheckClaims();
+
+  @Test
+  void sweep_cancelsCheckStillCreatedAfterTtl() {
+    CheckExpiryScheduler scheduler = rebuiltScheduler(100);
+    Check check = createdAt(T0);
+    scheduler.track(check);
+
+    clock.set(T0.plus(TTL).minusSeconds(1));
+    assertThat(scheduler.sweep()).isZero();
+
+    clock.set(T0.plus(TTL));
+    when(checkRepository.findAllById(List.of(check.id()))).thenReturn(List.of(check));
+    assertThat(scheduler.sweep()).isEqualTo(1);
+
+    verify(checkRepository).saveAll(savedCaptor.capture());
+    assertThat(savedCaptor.getValue()).containsExactly(check);
+    assertThat(check.status()).isEqualTo(CheckStatus.CANCELED);
+    assertThat(check.completedAt()).isEqualTo(T0.plus(TTL));
+    assertThat(scheduler.trackedCount()).isZero();
+  }
+
+  @Test
+  void sweep_skipsChecksThatLeftCreatedMeanwhile() {
+    CheckExpiryScheduler scheduler = rebuiltScheduler(100);
+    Check check = createdAt(T0);
+    scheduler.track(check);
+    check.markPaid(PaymentReference.of("prov-1"), T0.plusSeconds(60));
+
+    clock.set(T0.plus(TTL));
+    when(checkRepository.findAllById(List.of(check.id()))).thenReturn(List.of(check));
+
+    assertThat(scheduler.sweep()).isZero();
+    verify(checkRepository, never()).saveAll(any());
+    assertThat(check.status()).isEqualTo(CheckStatus.PAID);
+  }
+
+  @Test
+  void sweep_keepsCheckWhoseProviderCallIsInFlight() {
+    CheckExpiryScheduler scheduler = rebuiltScheduler(100);
+    Check check = createdAt(T0);
+    scheduler.track(check);
+    // The payment handler holds the check while the provider call runs; nothing is stored yet.
+    checkClaims.claim(check.id(), CheckClaims.Holder.PAYMENT);
+
+    clock.set(T0.plus(TTL));
+    assertThat(scheduler.sweep()).isZero();
+
+    verify(checkRepository, never()).saveAll(any());
+    assertThat(check.status()).isEqualTo(CheckStatus.CREATED);
+    assertThat(scheduler.trackedCount()).isEqualTo(1);
+    assertThat(checkClaims.isInFlight(check.id())).isTrue();
+  }
+
+  @Test
+  void sweep_releasesItsClaimsAfterTheBatch() {
+    CheckExpiryScheduler scheduler = rebuiltScheduler(100);
+    Check check = createdAt(T0);
+    scheduler.track(check);
+    when(checkRepository.findAllById(List.of(check.id()))).thenReturn(List.of(check));
+
+    clock.set(T0.plus(TTL));
+    scheduler.sweep();
+
+    assertThat(checkClaims.claim(check.id(), CheckClaims.Holder.PAYMENT)).isNull();
+  }
+
+  @Test
+  void sweep_keepsCheckWithPendingAttempt_untilThePaymentResolves() {
+    CheckExpiryScheduler scheduler = rebuiltScheduler(100);
+    Check check = createdAt(T0);
+    scheduler.track(check);
+    when(checkRepository.findAllById(List.of(check.id()))).thenReturn(List.of(check));
+    // The provider has not answered within the initiation deadline.
+    when(paymentAttemptRepository.findPendingByCheckId(check.id()))
+        .thenReturn(
+            Optional.of(
+                new RecordedPaymentAttempt(
+                    PaymentRequestId.of("req-1"),
+                    SESSION_ID,
+                    check.id(),
+                    PaymentAttemptResult.pending(null))));
+
+    clock.set(T0.plus(TTL));
+    assertThat(scheduler.sweep()).isZero();
+
+    verify(checkRepository, never()).saveAll(any());
+    assertThat(check.status()).isEqualTo(CheckStatus.CREATED);
+    assertThat(scheduler.trackedCount()).isEqualTo(1);
+
+    // The status poller then applies the approval; the re-armed deadline finds the check paid.
+    check.markPaid(PaymentReference.of("prov-1"), T0.plus(TTL).plusSeconds(5));
+    clock.set(T0.plus(TTL).plus(TTL));
+    assertThat(scheduler.sweep()).isZero();
+
+    verify(checkRepository, never()).saveAll(any());
+    assertThat(check.status()).isEqualTo(CheckStatus.PAID);
+    assertThat(scheduler.trackedCount()).isZero();
+  }
+
+  @Test
+  void sweep_processesDueChecksInBatches() {
+    CheckExpiryScheduler scheduler = rebuiltScheduler(2);
+    List<Check> checks = List.of(createdAt(T0), createdAt(T0), createdAt(T0), createdAt(T0));
+    checks.forEach(scheduler::track);
+    when(checkRepository.findAllById(anyCollection()))
+        .thenAnswer(
+            invocation -> {
+              Collection<CheckId> ids = invocation.getArgument(0);
+              return checks.stream().filter(c -> ids.contains(c.id())).toList();
+            });
+
+    clock.set(T0.plus(TTL));
+
+    assertThat(scheduler.sweep()).isEqualTo(4);
+    verify(checkRepository, times(2)).findAllById(anyCollection());
+    verify(checkRepository, times(2)).saveAll(savedCaptor.capture());
+    assertThat(savedCaptor.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSize(2));
+  }
+
+  @Test
+  void firstSweep_rebuildsFromPersistedCreatedChecks() {
+    CheckExpiryScheduler scheduler = scheduler(100);
+    Check old = createdAt(T0.minus(TTL).minusSeconds(5));
+    Check fresh = createdAt(T0.minusSeconds(60));
+    when(checkRepository.findByStatus(CheckStatus.CREATED)).thenReturn(List.of(old, fresh));
+    when(checkRepository.findAllById(List.of(old.id()))).thenReturn(List.of(old));
+
+    assertThat(scheduler.sweep()).isEqualTo(1);
+
+    assertThat(old.status()).isEqualTo(CheckStatus.CANCELED);
+    assertThat(fresh.status()).isEqualTo(CheckStatus.CREATED);
+    assertThat(scheduler.trackedCount()).isEqualTo(1);
+
+    // Rebuild happens once.
+    scheduler.sweep();
+    verify(checkRepository, times(1)).findByStatus(CheckStatus.CREATED);
+  }
+
+  @Test
+  void rebuildFailure_isRetriedOnNextSweep() {
+    CheckExpiryScheduler scheduler = scheduler(100);
+    when(checkRepository.findByStatus(CheckStatus.CREATED))
+        .thenThrow(new RepositoryAccessException("db down"))
+        .thenReturn(List.of());
+
+    scheduler.sweep();
+    scheduler.sweep();
+    scheduler.sweep();
+
+    verify(checkRepository, times(2)).findByStatus(CheckStatus.CREATED);
+  }
+
+  @Test
+  void failedBatch_isRetriedOnNextTick() {
+    CheckExpiryScheduler scheduler = rebuiltScheduler(100);
+    Check check = createdAt(T0);
+    scheduler.track(check);
+    when(checkRepository.findAllById(List.of(check.id())))
+        .thenThrow(new RepositoryAccessException("db down"))
+        .thenReturn(List.of(check));
+
+    clock.set(T0.plus(TTL));
+    assertThat(scheduler.sweep()).isZero();
+    assertThat(scheduler.trackedCount()).isEqualTo(1);
+
+    clock.set(T0.plus(TTL).plusSeconds(1));
+    assertThat(scheduler.sweep()).isEqualTo(1);
+    assertThat(check.status()).isEqualTo(CheckStatus.CANCELED);
+  }
+
+  @Test
+  void track_ignoresChecksNotCreated() {
+    CheckExpiryScheduler scheduler = rebuiltScheduler(100);
+    Check paid = createdAt(T0);
+    paid.markPaid(PaymentReference.of("prov-1"), T0);
+
+    scheduler.track(paid);
+
+    assertThat(scheduler.trackedCount()).isZero();
+  }
+
+  @Test
+  void constructor_rejectsInvalidSettings() {
+    Clock fixed = Clock.fixed(T0, ZoneOffset.UTC);
+    Duration tick = Duration.ofSeconds(1);
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new CheckExpiryScheduler(
+                checkRepository,
+                paymentAttemptRepository,
+                checkClaims,
+                executor,
+                Duration.ZERO,
+                tick,
+                64,
+                100,
+                fixed));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new CheckExpiryScheduler(
+                checkRepository,
+                paymentAttemptRepository,
+                checkClaims,
+                executor,
+                TTL,
+                tick,
+                64,
+                0,
+                fixed));
+  }
+
+  private CheckExpiryScheduler rebuiltScheduler(int batchSize) {
+    CheckExpiryScheduler scheduler = scheduler(batchSize);
+    when(checkRepository.findByStatus(CheckStatus.CREATED)).thenReturn(List.of());
+    scheduler.sweep();
+    return scheduler;
+  }
+
+  private CheckExpiryScheduler scheduler(int batchSize) {
+    return new CheckExpiryScheduler(
+        checkRepository,
+        paymentAttemptRepository,
+        checkClaims,
+        executor,
+        TTL,
+        Duration.ofSeconds(1),
+        64,
+        batchSize,
+        clock);
+  }
+
+  private static Check createdAt(Instant createdAt) {
+    Money amount = Money.of("EUR", new BigDecimal("5.00"));
+    return Check.createNew(
+        SESSION_ID,
+        amount,
+        List.of(PaidItem.of(OrderItemId.random(), 1, amount, amount)),
+        createdAt);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void set(Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(java.time.ZoneId zone) {
+      return this;
+    }
+  }
+}
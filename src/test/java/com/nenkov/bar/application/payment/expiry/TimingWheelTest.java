@@ -0,0 +1,97 @@
+package com.nenkov.bar.application.payment.expiry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+final class TimingWheelTest {
+
+  private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Test
+  void releasesItemOnlyOnceDeadlineHasPassed() {
+    TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 8, T0);
+    wheel.schedule("a", T0.plusMillis(3_500));
+
+    assertThat(wheel.advanceTo(T0.plusSeconds(2))).isEmpty();
+    assertThat(wheel.advanceTo(T0.plusMillis(3_900))).isEmpty();
+    assertThat(wheel.advanceTo(T0.plusMillis(4_000))).containsExactly("a");
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void pastDeadline_isReleasedByNextAdvance() {
+    TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 8, T0);
+    wheel.schedule("late", T0.minusSeconds(10));
+
+    assertThat(wheel.size()).isEqualTo(1);
+    assertThat(wheel.advanceTo(T0)).containsExactly("late");
+  }
+
+  @Test
+  void deadlinesBeyondFirstLevel_cascadeThroughOverflowLevels() {
+    TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 4, T0);
+    wheel.schedule("level0", T0.plusSeconds(2));
+    wheel.schedule("level1", T0.plusSeconds(9));
+    wheel.schedule("level2", T0.plusSeconds(40));
+
+    assertThat(wheel.advanceTo(T0.plusSeconds(2))).containsExactly("level0");
+    assertThat(wheel.advanceTo(T0.plusSeconds(8))).isEmpty();
+    assertThat(wheel.advanceTo(T0.plusSeconds(9))).containsExactly("level1");
+    assertThat(wheel.advanceTo(T0.plusSeconds(39))).isEmpty();
+    assertThat(wheel.advanceTo(T0.plusSeconds(40))).containsExactly("level2");
+  }
+
+  @Test
+  void largeJump_releasesEverythingDue_andKeepsTheRest() {
+    TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 4, T0);
+    wheel.schedule("due", T0.plusSeconds(30));
+    wheel.schedule("later", T0.plusSeconds(500));
+
+    assertThat(wheel.advanceTo(T0.plusSeconds(100))).containsExactly("due");
+    assertThat(wheel.size()).isEqualTo(1);
+    assertThat(wheel.advanceTo(T0.plusSeconds(499))).isEmpty();
+    assertThat(wheel.advanceTo(T0.plusSeconds(500))).containsExactly("later");
+  }
+
+  @Test
+  void randomDeadlines_areReleasedExactlyOnce_neverEarly_andAtMostOneTickLate() {
+    TimingWheel<Long> wheel = new TimingWheel<>(Duration.ofMillis(100), 16, T0);
+    SplittableRandom random = new SplittableRandom(17);
+    List<Long> deadlines = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      long deadline = random.nextLong(0, 3_600_000);
+      deadlines.add(deadline);
+      wheel.schedule(deadline, T0.plusMillis(deadline));
+    }
+
+    List<Long> released = new ArrayList<>();
+    for (long now = 0; now <= 3_700_000; now += random.nextLong(1, 20_000)) {
+      for (Long deadline : wheel.advanceTo(T0.plusMillis(now))) {
+        assertThat(deadline).isLessThanOrEqualTo(now);
+        released.add(deadline);
+      }
+      // Anything due a full tick ago must already be out.
+      long cutoff = now - 100;
+      assertThat(deadlines.stream().filter(d -> d < cutoff).count())
+          .isLessThanOrEqualTo(released.size());
+    }
+    released.addAll(wheel.advanceTo(T0.plusMillis(3_800_000)));
+
+    assertThat(released).containsExactlyInAnyOrderElementsOf(deadlines);
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void constructor_rejectsInvalidSettings() {
+    assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(Duration.ZERO, 8, T0));
+    assertThrows(
+        IllegalArgumentException.class, () -> new TimingWheel<>(Duration.ofSeconds(1), 1, T0));
+  }
+}
@@ -9,6 +9,7 @@ import static org.mockito.Mockito.when;
 
 import com.nenkov.bar.application.payment.exception.CheckCreationNotAllowedException;
 import com.nenkov.bar.application.payment.exception.InvalidPaymentSelectionException;
+import com.nenkov.bar.application.payment.expiry.CheckExpiryScheduler;
 import com.nenkov.bar.application.payment.model.CreateCheckInput;
 import com.nenkov.bar.application.payment.model.CreateCheckResult;
 import com.nenkov.bar.application.payment.repository.CheckRepository;
@@ -42,13 +43,15 @@ final class CreateCheckHandlerTest {
   @Mock private TableSessionRepository tableSessionRepository;
   @Mock private CheckRepository checkRepository;
   @Mock private CheckAmountCalculator checkAmountCalculator;
+  @Mock private CheckExpiryScheduler expiryScheduler;
 
   @Captor private ArgumentCaptor<Check> checkCaptor;
 
   @Test
   void handle_happyPath_loadsSession_quotes_createsAndSavesCheck_andReturnsResult() {
     CreateCheckHandler handler =
-        new CreateCheckHandler(tableSessionRepository, checkRepository, checkAmountCalculator);
+        new CreateCheckHandler(
+            tableSessionRepository, checkRepository, checkAmountCalculator, expiryScheduler);
 
     TableSessionId sessionId = TableSessionId.of("S-1");
 
@@ -71,8 +74,8 @@ final class CreateCheckHandlerTest {
             "EUR",
             session.payableItemsSnapshot(),
             selections,
-            session.itemWriteOffs(),
-            session.sessionWriteOffs()))
+            session.outstandingItemWriteOffs(),
+            session.outstandingSessionWriteOffs()))
         .thenReturn(quote);
 
     Instant before = Instant.now();
@@ -85,12 +88,13 @@ final class CreateCheckHandlerTest {
             "EUR",
             session.payableItemsSnapshot(),
             selections,
-            session.itemWriteOffs(),
-            session.sessionWriteOffs());
+            session.outstandingItemWriteOffs(),
+            session.outstandingSessionWriteOffs());
 
     // Verify saved Check
     verify(checkRepository).save(checkCaptor.capture());
     Check saved = checkCaptor.getValue();
+    verify(expiryScheduler).track(saved);
 
     assertThat(saved).isNotNull();
     assertThat(saved.sessionId()).isEqualTo(sessionId);
@@ -110,7 +114,8 @@ final class CreateCheckHandlerTest {
   @Test
   void handle_whenSessionMissing_throwsNotFound_andDoesNotQuoteOrSave() {
     CreateCheckHandler handler =
-        new CreateCheckHandler(tableSessionRepository, checkRepository, checkAmountCalculator);
+        new CreateCheckHandler(
+            tableSessionRepository, checkRepository, checkAmountCalculator, expiryScheduler);
 
     TableSessionId sessionId = TableSessionId.of("missing");
     CreateCheckInput input =
@@ -130,7 +135,8 @@ final class CreateCheckHandlerTest {
   @Test
   void handle_whenSessionClosed_throwsCheckCreationNotAllowed_andDoesNotQuoteOrSave() {
     CreateCheckHandler handler =
-        new CreateCheckHandler(tableSessionRepository, checkRepository, checkAmountCalculator);
+        new CreateCheckHandler(
+            tableSessionRepository, checkRepository, checkAmountCalculator, expiryScheduler);
 
     TableSessionId sessionId = TableSessionId.of("S-closed");
     OrderItemId itemId = OrderItemId.random();
@@ -157,7 +163,8 @@ final class CreateCheckHandlerTest {
   void
       handle_whenCalculatorThrowsIllegalArgumentException_mapsToInvalidPaymentSelection_andDoesNotSaveCheck() {
     CreateCheckHandler handler =
-        new CreateCheckHandler(tableSessionRepository, checkRepository, checkAmountCalculator);
+        new CreateCheckHandler(
+            tableSessionRepository, checkRepository, checkAmountCalculator, expiryScheduler);
 
     TableSessionId sessionId = TableSessionId.of("S-1");
     OrderItemId itemId = OrderItemId.random();
@@ -175,8 +182,8 @@ final class CreateCheckHandlerTest {
             "EUR",
             session.payableItemsSnapshot(),
             selections,
-            session.itemWriteOffs(),
-            session.sessionWriteOffs()))
+            session.outstandingItemWriteOffs(),
+            session.outstandingSessionWriteOffs()))
         .thenThrow(new IllegalArgumentException("invalid selection"));
 
     assertThrows(InvalidPaymentSelectionException.class, () -> handler.handle(input));
@@ -187,7 +194,8 @@ final class CreateCheckHandlerTest {
   @Test
   void handle_whenCalculatorThrows_propagates_andDoesNotSaveCheck() {
     CreateCheckHandler handler =
-        new CreateCheckHandler(tableSessionRepository, checkRepository, checkAmountCalculator);
+        new CreateCheckHandler(
+            tableSessionRepository, checkRepository, checkAmountCalculator, expiryScheduler);
 
     TableSessionId sessionId = TableSessionId.of("S-1");
 
@@ -207,8 +215,8 @@ final class CreateCheckHandlerTest {
             "EUR",
             session.payableItemsSnapshot(),
             selections,
-            session.itemWriteOffs(),
-            session.sessionWriteOffs()))
+            session.outstandingItemWriteOffs(),
+            session.outstandingSessionWriteOffs()))
         .thenThrow(boom);
 
     Throwable thrown = assertThrows(RuntimeException.class, () -> handler.handle(input));
@@ -220,7 +228,8 @@ final class CreateCheckHandlerTest {
   @Test
   void handle_nullInput_throwsNpe() {
     CreateCheckHandler handler =
-        new CreateCheckHandler(tableSessionRepository, checkRepository, checkAmountCalculator);
+        new CreateCheckHandler(
+            tableSessionRepository, checkRepository, checkAmountCalculator, expiryScheduler);
 
     Throwable thrown = assertThrows(NullPointerException.class, () -> handler.handle(null));
 
@@ -232,7 +241,9 @@ final class CreateCheckHandlerTest {
     Throwable thrown =
         assertThrows(
             NullPointerException.class,
-            () -> new CreateCheckHandler(null, checkRepository, checkAmountCalculator));
+            () ->
+                new CreateCheckHandler(
+                    null, checkRepository, checkAmountCalculator, expiryScheduler));
 
     assertThat(thrown.getMessage()).contains("tableSessionRepository must not be null");
   }
@@ -242,7 +253,9 @@ final class CreateCheckHandlerTest {
     Throwable thrown =
         assertThrows(
             NullPointerException.class,
-            () -> new CreateCheckHandler(tableSessionRepository, null, checkAmountCalculator));
+            () ->
+                new CreateCheckHandler(
+                    tableSessionRepository, null, checkAmountCalculator, expiryScheduler));
 
     assertThat(thrown.getMessage()).contains("checkRepository must not be null");
   }
@@ -252,7 +265,9 @@ final class CreateCheckHandlerTest {
     Throwable thrown =
         assertThrows(
             NullPointerException.class,
-            () -> new CreateCheckHandler(tableSessionRepository, checkRepository, null));
+            () ->
+                new CreateCheckHandler(
+                    tableSessionRepository, checkRepository, null, expiryScheduler));
 
     assertThat(thrown.getMessage()).contains("checkAmountCalculator must not be null");
   }
@@ -0,0 +1,237 @@
+package com.nenkov.bar.application.payment.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.payment.callback.RecentCallbackIds;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksInput;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.model.PaymentCallback;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class IngestPaymentCallbacksHandlerTest {
+
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-1");
+  private static final Money AMOUNT = Money.of("EUR", new BigDecimal("6.00"));
+
+  @Mock private PaymentAttemptRepository paymentAttemptRepository;
+  @Mock private CheckRepository checkRepository;
+  @Mock private PaymentOutcomeApplier outcomeApplier;
+
+  @Captor private ArgumentCaptor<Map<Check, PaymentAttemptResult>> outcomesCaptor;
+
+  private final RecentCallbackIds recentCallbackIds = new RecentCallbackIds(100);
+
+  @Test
+  void handle_resolvesPendingAttempt_inOneBatch_andUpdatesRecord() {
+    Check check = createdCheck();
+    RecordedPaymentAttempt pending = pendingRecord("req-1", check.id(), "prov-1");
+    when(paymentAttemptRepository.findByRequestId(pending.requestId()))
+        .thenReturn(Optional.of(pending));
+    when(checkRepository.findAllById(anyCollection())).thenReturn(List.of(check));
+
+    IngestPaymentCallbacksResult result =
+        handler().handle(input(callback("req-1", null, PaymentAttemptStatus.APPROVED)));
+
+    assertThat(result).isEqualTo(new IngestPaymentCallbacksResult(1, 1, 0, 0));
+    verify(outcomeApplier).applyAll(outcomesCaptor.capture(), any());
+    PaymentAttemptResult applied = outcomesCaptor.getValue().get(check);
+    assertThat(applied.status()).isEqualTo(PaymentAttemptStatus.APPROVED);
+    assertThat(applied.providerReference()).isEqualTo("prov-1");
+    verify(paymentAttemptRepository)
+        .update(new RecordedPaymentAttempt(pending.requestId(), SESSION_ID, check.id(), applied));
+  }
+
+  @Test
+  void handle_replayOfRecentCallback_isDuplicate_withoutRepositoryAccess() {
+    Check check = createdCheck();
+    RecordedPaymentAttempt pending = pendingRecord("req-1", check.id(), "prov-1");
+    when(paymentAttemptRepository.findByRequestId(pending.requestId()))
+        .thenReturn(Optional.of(pending));
+    when(checkRepository.findAllById(anyCollection())).thenReturn(List.of(check));
+
+    IngestPaymentCallbacksHandler handler = handler();
+    PaymentCallback callback = callback("req-1", null, PaymentAttemptStatus.APPROVED);
+    handler.handle(input(callback));
+
+    IngestPaymentCallbacksResult replay = handler.handle(input(callback, callback));
+
+    assertThat(replay).isEqualTo(new IngestPaymentCallbacksResult(2, 0, 2, 0));
+    verify(paymentAttemptRepository).findByRequestId(pending.requestId());
+  }
+
+  @Test
+  void handle_outcomeAlreadyRecorded_isDuplicate_viaIdempotencyTable() {
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    RecordedPaymentAttempt approved =
+        new RecordedPaymentAttempt(
+            PaymentRequestId.of("req-2"),
+            SESSION_ID,
+            checkId,
+            PaymentAttemptResult.approved("prov-2"));
+    when(paymentAttemptRepository.findByRequestId(approved.requestId()))
+        .thenReturn(Optional.of(approved));
+
+    IngestPaymentCallbacksResult result =
+        handler().handle(input(callback("req-2", "prov-2", PaymentAttemptStatus.APPROVED)));
+
+    assertThat(result).isEqualTo(new IngestPaymentCallbacksResult(1, 0, 1, 0));
+    verifyNoInteractions(checkRepository, outcomeApplier);
+    verify(paymentAttemptRepository, never()).update(any());
+  }
+
+  @Test
+  void handle_coalescesCallbacksForSameCheck_approvedWins() {
+    Check check = createdCheck();
+    RecordedPaymentAttempt first = pendingRecord("req-a", check.id(), "prov-a");
+    RecordedPaymentAttempt second = pendingRecord("req-b", check.id(), "prov-b");
+    when(paymentAttemptRepository.findByRequestId(first.requestId()))
+        .thenReturn(Optional.of(first));
+    when(paymentAttemptRepository.findByRequestId(second.requestId()))
+        .thenReturn(Optional.of(second));
+    when(checkRepository.findAllById(anyCollection())).thenReturn(List.of(check));
+
+    IngestPaymentCallbacksResult result =
+        handler()
+            .handle(
+                input(
+                    callback("req-a", null, PaymentAttemptStatus.APPROVED),
+                    callback("req-b", null, PaymentAttemptStatus.DECLINED)));
+
+    assertThat(result).isEqualTo(new IngestPaymentCallbacksResult(2, 1, 0, 1));
+    verify(outcomeApplier).applyAll(outcomesCaptor.capture(), any());
+    assertThat(outcomesCaptor.getValue()).hasSize(1);
+    assertThat(outcomesCaptor.getValue().get(check).status())
+        .isEqualTo(PaymentAttemptStatus.APPROVED);
+    verify(checkRepository).findAllById(anyCollection());
+  }
+
+  @Test
+  void handle_matchesByProviderReference_whenRequestIdMissing() {
+    Check check = createdCheck();
+    RecordedPaymentAttempt pending = pendingRecord("req-3", check.id(), "prov-3");
+    when(paymentAttemptRepository.findByProviderReference("prov-3"))
+        .thenReturn(Optional.of(pending));
+    when(checkRepository.findAllById(anyCollection())).thenReturn(List.of(check));
+
+    IngestPaymentCallbacksResult result =
+        handler().handle(input(callback(null, "prov-3", PaymentAttemptStatus.DECLINED)));
+
+    assertThat(result.applied()).isEqualTo(1);
+    verify(paymentAttemptRepository, never()).findByRequestId(any());
+  }
+
+  @Test
+  void handle_ignoresUnknownPendingAndConflictingCallbacks() {
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    RecordedPaymentAttempt declined =
+        new RecordedPaymentAttempt(
+            PaymentRequestId.of("req-declined"),
+            SESSION_ID,
+            checkId,
+            PaymentAttemptResult.declined("prov-d", "no funds"));
+    when(paymentAttemptRepository.findByRequestId(PaymentRequestId.of("req-unknown")))
+        .thenReturn(Optional.empty());
+    when(paymentAttemptRepository.findByRequestId(PaymentRequestId.of("req-pending")))
+        .thenReturn(Optional.of(pendingRecord("req-pending", checkId, null)));
+    when(paymentAttemptRepository.findByRequestId(declined.requestId()))
+        .thenReturn(Optional.of(declined));
+
+    IngestPaymentCallbacksResult result =
+        handler()
+            .handle(
+                input(
+                    callback("req-unknown", null, PaymentAttemptStatus.APPROVED),
+                    callback("req-pending", null, PaymentAttemptStatus.PENDING),
+                    callback("req-declined", null, PaymentAttemptStatus.APPROVED)));
+
+    assertThat(result).isEqualTo(new IngestPaymentCallbacksResult(3, 0, 0, 3));
+    verifyNoInteractions(checkRepository, outcomeApplier);
+    verify(paymentAttemptRepository, never()).update(any());
+  }
+
+  @Test
+  void handle_approvalForCheckNoLongerOpen_isRecordedButCountedAsIgnored() {
+    Check canceled = createdCheck();
+    canceled.cancel(Instant.parse("2026-01-01T00:15:00Z"));
+    RecordedPaymentAttempt pending = pendingRecord("req-late", canceled.id(), "prov-late");
+    when(paymentAttemptRepository.findByRequestId(pending.requestId()))
+        .thenReturn(Optional.of(pending));
+    when(checkRepository.findAllById(anyCollection())).thenReturn(List.of(canceled));
+
+    IngestPaymentCallbacksResult result =
+        handler().handle(input(callback("req-late", null, PaymentAttemptStatus.APPROVED)));
+
+    assertThat(result).isEqualTo(new IngestPaymentCallbacksResult(1, 0, 0, 1));
+    verify(outcomeApplier).applyAll(outcomesCaptor.capture(), any());
+    assertThat(outcomesCaptor.getValue()).isEmpty();
+    verify(paymentAttemptRepository)
+        .update(
+            argThat(
+                recorded ->
+                    recorded.requestId().equals(pending.requestId())
+                        && recorded.attemptResult().status() == PaymentAttemptStatus.APPROVED));
+  }
+
+  private IngestPaymentCallbacksHandler handler() {
+    return new IngestPaymentCallbacksHandler(
+        paymentAttemptRepository, checkRepository, outcomeApplier, recentCallbackIds);
+  }
+
+  private static IngestPaymentCallbacksInput input(PaymentCallback... callbacks) {
+    return new IngestPaymentCallbacksInput(List.of(callbacks));
+  }
+
+  private static PaymentCallback callback(
+      String requestId, String providerReference, PaymentAttemptStatus status) {
+    return new PaymentCallback(
+        requestId == null ? null : PaymentRequestId.of(requestId), providerReference, status, null);
+  }
+
+  private static RecordedPaymentAttempt pendingRecord(
+      String requestId, CheckId checkId, String providerReference) {
+    return new RecordedPaymentAttempt(
+        PaymentRequestId.of(requestId),
+        SESSION_ID,
+        checkId,
+        PaymentAttemptResult.pending(providerReference));
+  }
+
+  private static Check createdCheck() {
+    return Check.createNew(
+        SESSION_ID,
+        AMOUNT,
+        List.of(PaidItem.of(OrderItemId.random(), 1, AMOUNT, AMOUNT)),
+        Instant.parse("2026-01-01T00:00:00Z"));
+  }
+}
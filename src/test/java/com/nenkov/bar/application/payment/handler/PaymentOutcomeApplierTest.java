@@ -0,0 +1,254 @@
+package com.nenkov.bar.application.payment.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.common.persistence.RepositoryAccessException;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.session.exception.TableSessionNotFoundException;
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.domain.exceptions.IllegalDomainStateException;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionContents;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.domain.model.session.TableSessionStatus;
+import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class PaymentOutcomeApplierTest {
+
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-1");
+  private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+  private static final Money AMOUNT = Money.of("EUR", new BigDecimal("4.00"));
+
+  @Mock private CheckRepository checkRepository;
+  @Mock private TableSessionRepository tableSessionRepository;
+
+  @Captor private ArgumentCaptor<TableSession> sessionCaptor;
+
+  @Test
+  void apply_approved_marksPaid_savesCheck_andUpdatesSessionLedger() {
+    OrderItemId itemId = OrderItemId.random();
+    Check check = check(itemId);
+    TableSession session =
+        new TableSession(
+            SESSION_ID,
+            "EUR",
+            new TableSessionContents(
+                List.of(new SessionItemSnapshot(itemId, AMOUNT, 1)),
+                List.of(),
+                List.of(),
+                List.of()),
+            TableSessionStatus.OPEN,
+            null);
+    when(tableSessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+    when(tableSessionRepository.saveIfUnchanged(any())).thenReturn(true);
+
+    applier().apply(check, PaymentAttemptResult.approved("prov-1"), NOW);
+
+    assertThat(check.status()).isEqualTo(CheckStatus.PAID);
+    assertThat(check.completedAt()).isEqualTo(NOW);
+    verify(checkRepository).save(check);
+    verify(tableSessionRepository).saveIfUnchanged(sessionCaptor.capture());
+    assertThat(sessionCaptor.getValue().paymentTotals()).hasSize(1);
+  }
+
+  @Test
+  void apply_approved_whenSessionChangedConcurrently_reloadsAndRecordsOnTheNewerSession() {
+    OrderItemId itemId = OrderItemId.random();
+    OrderItemId orderedMeanwhile = OrderItemId.random();
+    Check check = check(itemId);
+    TableSession loaded = session(new SessionItemSnapshot(itemId, AMOUNT, 1));
+    TableSession newer =
+        session(
+                new SessionItemSnapshot(itemId, AMOUNT, 1),
+                new SessionItemSnapshot(orderedMeanwhile, AMOUNT, 2))
+            .withVersion(1);
+    when(tableSessionRepository.findById(SESSION_ID))
+        .thenReturn(Optional.of(loaded), Optional.of(newer));
+    when(tableSessionRepository.saveIfUnchanged(any())).thenReturn(false, true);
+
+    applier().apply(check, PaymentAttemptResult.approved("prov-1"), NOW);
+
+    verify(tableSessionRepository, times(2)).saveIfUnchanged(sessionCaptor.capture());
+    TableSession saved = sessionCaptor.getValue();
+    assertThat(saved.version()).isEqualTo(1);
+    assertThat(saved.payableItemsSnapshot())
+        .extracting(SessionItemSnapshot::remainingQuantity)
+        .containsExactly(0, 2);
+    verify(checkRepository).save(check);
+  }
+
+  @Test
+  void apply_approved_whenSessionKeepsChanging_givesUpWithoutSavingTheCheck() {
+    OrderItemId itemId = OrderItemId.random();
+    Check check = check(itemId);
+    PaymentOutcomeApplier applier = applier();
+    PaymentAttemptResult approved = PaymentAttemptResult.approved("prov-1");
+    when(tableSessionRepository.findById(SESSION_ID))
+        .thenReturn(Optional.of(session(new SessionItemSnapshot(itemId, AMOUNT, 1))));
+    when(tableSessionRepository.saveIfUnchanged(any())).thenReturn(false);
+
+    assertThrows(RepositoryAccessException.class, () -> applier.apply(check, approved, NOW));
+
+    verify(tableSessionRepository, times(PaymentOutcomeApplier.MAX_SESSION_SAVE_ATTEMPTS))
+        .saveIfUnchanged(any());
+    verify(checkRepository, never()).save(any());
+    assertThat(check.status()).isEqualTo(CheckStatus.CREATED);
+  }
+
+  @Test
+  void apply_approved_whenSessionRejectsTheCheck_leavesTheCheckUntouched() {
+    OrderItemId itemId = OrderItemId.random();
+    Check check = check(itemId);
+    PaymentOutcomeApplier applier = applier();
+    PaymentAttemptResult approved = PaymentAttemptResult.approved("prov-1");
+    // A concurrent payment already settled the only unit.
+    when(tableSessionRepository.findById(SESSION_ID))
+        .thenReturn(Optional.of(session(new SessionItemSnapshot(itemId, AMOUNT, 0))));
+
+    assertThrows(IllegalDomainStateException.class, () -> applier.apply(check, approved, NOW));
+
+    assertThat(check.status()).isEqualTo(CheckStatus.CREATED);
+    assertThat(check.paymentReference()).isNull();
+    verify(checkRepository, never()).save(any());
+  }
+
+  @Test
+  void apply_toClosedCheck_throwsWithoutTouchingTheSession() {
+    Check check = check(OrderItemId.random());
+    check.cancel(NOW);
+    PaymentOutcomeApplier applier = applier();
+    PaymentAttemptResult approved = PaymentAttemptResult.approved("prov-1");
+
+    assertThrows(IllegalDomainStateException.class, () -> applier.apply(check, approved, NOW));
+
+    verifyNoInteractions(tableSessionRepository, checkRepository);
+  }
+
+  @Test
+  void apply_approved_whenSessionMissing_throwsNotFound() {
+    Check check = check(OrderItemId.random());
+    PaymentOutcomeApplier applier = applier();
+    PaymentAttemptResult approved = PaymentAttemptResult.approved("prov-1");
+    when(tableSessionRepository.findById(SESSION_ID)).thenReturn(Optional.empty());
+
+    assertThrows(TableSessionNotFoundException.class, () -> applier.apply(check, approved, NOW));
+  }
+
+  @Test
+  void apply_declined_marksFailed_andDoesNotTouchSession() {
+    Check check = check(OrderItemId.random());
+
+    applier().apply(check, PaymentAttemptResult.declined("prov-2", "no funds"), NOW);
+
+    assertThat(check.status()).isEqualTo(CheckStatus.FAILED);
+    verify(checkRepository).save(check);
+    verifyNoInteractions(tableSessionRepository);
+  }
+
+  @Test
+  void apply_pending_changesNothing() {
+    Check check = check(OrderItemId.random());
+
+    applier().apply(check, PaymentAttemptResult.pending("prov-3"), NOW);
+
+    assertThat(check.status()).isEqualTo(CheckStatus.CREATED);
+    verify(checkRepository, never()).save(any());
+    verifyNoInteractions(tableSessionRepository);
+  }
+
+  @Test
+  void applyAll_savesChangedChecksOnce_andLoadsEachSessionOnce() {
+    OrderItemId first = OrderItemId.random();
+    OrderItemId second = OrderItemId.random();
+    Check paidFirst = check(first);
+    Check paidSecond = check(second);
+    Check declined = check(OrderItemId.random());
+    Check pending = check(OrderItemId.random());
+    TableSession session =
+        new TableSession(
+            SESSION_ID,
+            "EUR",
+            new TableSessionContents(
+                List.of(
+                    new SessionItemSnapshot(first, AMOUNT, 1),
+                    new SessionItemSnapshot(second, AMOUNT, 1)),
+                List.of(),
+                List.of(),
+                List.of()),
+            TableSessionStatus.OPEN,
+            null);
+    when(tableSessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+    when(tableSessionRepository.saveIfUnchanged(any())).thenReturn(true);
+
+    Map<Check, PaymentAttemptResult> outcomes = new LinkedHashMap<>();
+    outcomes.put(paidFirst, PaymentAttemptResult.approved("prov-1"));
+    outcomes.put(declined, PaymentAttemptResult.declined("prov-2", "no funds"));
+    outcomes.put(paidSecond, PaymentAttemptResult.approved("prov-3"));
+    outcomes.put(pending, PaymentAttemptResult.pending("prov-4"));
+
+    List<Check> changed = applier().applyAll(outcomes, NOW);
+
+    assertThat(changed).containsExactly(paidFirst, declined, paidSecond);
+    verify(checkRepository).saveAll(changed);
+    verify(checkRepository, never()).save(any());
+    verify(tableSessionRepository).saveIfUnchanged(sessionCaptor.capture());
+    assertThat(sessionCaptor.getValue().paymentTotals()).hasSize(2);
+    assertThat(pending.status()).isEqualTo(CheckStatus.CREATED);
+  }
+
+  @Test
+  void constructor_nullTableSessionRepository_throwsNpe() {
+    Throwable thrown =
+        assertThrows(
+            NullPointerException.class, () -> new PaymentOutcomeApplier(checkRepository, null));
+
+    assertThat(thrown.getMessage()).contains("tableSessionRepository must not be null");
+  }
+
+  private PaymentOutcomeApplier applier() {
+    return new PaymentOutcomeApplier(checkRepository, tableSessionRepository);
+  }
+
+  private static TableSession session(SessionItemSnapshot... payableItems) {
+    return new TableSession(
+        SESSION_ID,
+        "EUR",
+        new TableSessionContents(List.of(payableItems), List.of(), List.of(), List.of()),
+        TableSessionStatus.OPEN,
+        null);
+  }
+
+  private static Check check(OrderItemId itemId) {
+    return Check.createNew(
+        SESSION_ID,
+        AMOUNT,
+        List.of(PaidItem.of(itemId, 1, AMOUNT, AMOUNT)),
+        Instant.parse("2026-01-01T00:00:00Z"));
+  }
+}
@@ -1,32 +1,49 @@
 package com.nenkov.bar.application.payment.handler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.nenkov.bar.application.payment.exception.CheckNotFoundException;
+import com.nenkov.bar.application.payment.exception.CheckNotPayableException;
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.exception.PaymentInProgressException;
 import com.nenkov.bar.application.payment.exception.PaymentRequestIdConflictException;
-import com.nenkov.bar.application.payment.gateway.PaymentGateway;
+import com.nenkov.bar.application.payment.gateway.AsyncPaymentGateway;
 import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
 import com.nenkov.bar.application.payment.model.PaymentRequestId;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptInput;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptResult;
 import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.application.payment.polling.PaymentStatusPoller;
 import com.nenkov.bar.application.payment.repository.CheckRepository;
 import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
 import com.nenkov.bar.domain.model.money.Money;
 import com.nenkov.bar.domain.model.payment.Check;
 import com.nenkov.bar.domain.model.payment.CheckId;
 import com.nenkov.bar.domain.model.payment.CheckStatus;
 import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.model.session.ItemPaymentTotal;
 import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionContents;
 import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.domain.model.session.TableSessionStatus;
+import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -37,16 +54,23 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 final class RecordPaymentAttemptHandlerTest {
 
-  @Mock private PaymentGateway paymentGateway;
+  private static final Duration TIMEOUT = Duration.ofMillis(200);
+
+  @Mock private AsyncPaymentGateway paymentGateway;
   @Mock private CheckRepository checkRepository;
   @Mock private PaymentAttemptRepository paymentAttemptRepository;
+  @Mock private TableSessionRepository tableSessionRepository;
+  @Mock private PaymentStatusPoller statusPoller;
 
   @Captor private ArgumentCaptor<Check> savedCheckCaptor;
 
+  private final CheckClaims checkClaims = new CheckClaims();
+  @Captor private ArgumentCaptor<TableSession> savedSessionCaptor;
+  @Captor private ArgumentCaptor<RecordedPaymentAttempt> recordedCaptor;
+
   @Test
   void handle_whenApproved_marksPaid_andSaves() {
-    RecordPaymentAttemptHandler handler =
-        new RecordPaymentAttemptHandler(paymentGateway, checkRepository, paymentAttemptRepository);
+    RecordPaymentAttemptHandler handler = handler();
 
     PaymentRequestId requestId = PaymentRequestId.of("req-1");
     TableSessionId sessionId = TableSessionId.of("S-1");
@@ -63,16 +87,24 @@ final class RecordPaymentAttemptHandlerTest {
     when(checkRepository.findById(checkId)).thenReturn(Optional.of(check));
     when(paymentAttemptRepository.findByRequestId(requestId)).thenReturn(Optional.empty());
 
+    TableSessionContents contents =
+        new TableSessionContents(
+            List.of(new SessionItemSnapshot(itemId, amount, 2)), List.of(), List.of(), List.of());
+    TableSession session =
+        new TableSession(sessionId, "EUR", contents, TableSessionStatus.OPEN, null);
+    when(tableSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+    when(tableSessionRepository.saveIfUnchanged(any())).thenReturn(true);
+
     PaymentAttemptResult approved = PaymentAttemptResult.approved("prov-123");
-    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount))
-        .thenReturn(approved);
+    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT))
+        .thenReturn(CompletableFuture.completedFuture(approved));
 
     Instant before = Instant.now();
     RecordPaymentAttemptResult result =
-        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId));
+        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId)).join();
     Instant after = Instant.now();
 
-    verify(paymentGateway).initiatePayment(requestId, sessionId, checkId, amount);
+    verify(paymentGateway).initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT);
 
     verify(paymentAttemptRepository)
         .save(new RecordedPaymentAttempt(requestId, sessionId, checkId, approved));
@@ -87,6 +119,12 @@ final class RecordPaymentAttemptHandlerTest {
     assertThat(saved.completedAt()).isNotNull();
     assertThat(saved.completedAt()).isBetween(before.minusSeconds(1), after.plusSeconds(1));
 
+    verify(tableSessionRepository).saveIfUnchanged(savedSessionCaptor.capture());
+    TableSession savedSession = savedSessionCaptor.getValue();
+    assertThat(savedSession.payableItemsSnapshot().getFirst().remainingQuantity()).isEqualTo(1);
+    assertThat(savedSession.paymentTotals())
+        .containsExactly(new ItemPaymentTotal(itemId, 1, amount));
+
     assertThat(result.requestId()).isEqualTo(requestId);
     assertThat(result.sessionId()).isEqualTo(sessionId);
     assertThat(result.checkId()).isEqualTo(checkId);
@@ -95,8 +133,7 @@ final class RecordPaymentAttemptHandlerTest {
 
   @Test
   void handle_whenDeclined_marksFailed_andSaves() {
-    RecordPaymentAttemptHandler handler =
-        new RecordPaymentAttemptHandler(paymentGateway, checkRepository, paymentAttemptRepository);
+    RecordPaymentAttemptHandler handler = handler();
 
     PaymentRequestId requestId = PaymentRequestId.of("req-2");
     TableSessionId sessionId = TableSessionId.of("S-1");
@@ -114,15 +151,15 @@ final class RecordPaymentAttemptHandlerTest {
     when(paymentAttemptRepository.findByRequestId(requestId)).thenReturn(Optional.empty());
 
     PaymentAttemptResult declined = PaymentAttemptResult.declined("prov-456", "no funds");
-    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount))
-        .thenReturn(declined);
+    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT))
+        .thenReturn(CompletableFuture.completedFuture(declined));
 
     Instant before = Instant.now();
     RecordPaymentAttemptResult result =
-        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId));
+        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId)).join();
     Instant after = Instant.now();
 
-    verify(paymentGateway).initiatePayment(requestId, sessionId, checkId, amount);
+    verify(paymentGateway).initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT);
 
     verify(paymentAttemptRepository)
         .save(new RecordedPaymentAttempt(requestId, sessionId, checkId, declined));
@@ -136,14 +173,15 @@ final class RecordPaymentAttemptHandlerTest {
     assertThat(saved.completedAt()).isNotNull();
     assertThat(saved.completedAt()).isBetween(before.minusSeconds(1), after.plusSeconds(1));
 
+    verify(tableSessionRepository, never()).save(org.mockito.ArgumentMatchers.any());
+
     assertThat(result.attemptResult()).isSameAs(declined);
     assertThat(result.attemptResult().failureReason()).contains("no funds");
   }
 
   @Test
   void handle_whenPending_doesNotChangeState_andDoesNotSaveCheck() {
-    RecordPaymentAttemptHandler handler =
-        new RecordPaymentAttemptHandler(paymentGateway, checkRepository, paymentAttemptRepository);
+    RecordPaymentAttemptHandler handler = handler();
 
     PaymentRequestId requestId = PaymentRequestId.of("req-3");
     TableSessionId sessionId = TableSessionId.of("S-1");
@@ -163,12 +201,13 @@ final class RecordPaymentAttemptHandlerTest {
     when(paymentAttemptRepository.findByRequestId(requestId)).thenReturn(Optional.empty());
 
     PaymentAttemptResult pending = PaymentAttemptResult.pending("prov-789");
-    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount)).thenReturn(pending);
+    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT))
+        .thenReturn(CompletableFuture.completedFuture(pending));
 
     RecordPaymentAttemptResult result =
-        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId));
+        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId)).join();
 
-    verify(paymentGateway).initiatePayment(requestId, sessionId, checkId, amount);
+    verify(paymentGateway).initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT);
 
     verify(checkRepository, never()).save(org.mockito.ArgumentMatchers.any());
 
@@ -178,13 +217,90 @@ final class RecordPaymentAttemptHandlerTest {
     assertThat(check.status()).isEqualTo(CheckStatus.CREATED);
     assertThat(check.completedAt()).isNull();
 
+    verify(statusPoller).track(new RecordedPaymentAttempt(requestId, sessionId, checkId, pending));
+
     assertThat(result.attemptResult()).isSameAs(pending);
   }
 
+  @Test
+  void handle_whenGatewayMissesDeadline_recordsPending_andHandsToPoller() {
+    RecordPaymentAttemptHandler handler = handler();
+
+    PaymentRequestId requestId = PaymentRequestId.of("req-slow");
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    Money amount = Money.of("EUR", new BigDecimal("7.00"));
+    Check check = createdCheck(sessionId, checkId, amount);
+
+    when(checkRepository.findById(checkId)).thenReturn(Optional.of(check));
+    when(paymentAttemptRepository.findByRequestId(requestId)).thenReturn(Optional.empty());
+    // Never completes: the handler's own deadline must complete the attempt.
+    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT))
+        .thenReturn(new CompletableFuture<>());
+
+    RecordPaymentAttemptResult result =
+        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId)).join();
+
+    assertThat(result.attemptResult().status()).isEqualTo(PaymentAttemptStatus.PENDING);
+    assertThat(result.attemptResult().providerReference()).isNull();
+    assertThat(check.status()).isEqualTo(CheckStatus.CREATED);
+
+    verify(paymentAttemptRepository).save(recordedCaptor.capture());
+    verify(statusPoller).track(recordedCaptor.getValue());
+    verify(checkRepository, never()).save(org.mockito.ArgumentMatchers.any());
+  }
+
+  @Test
+  void handle_whenGatewayTimesOutExplicitly_recordsPending() {
+    RecordPaymentAttemptHandler handler = handler();
+
+    PaymentRequestId requestId = PaymentRequestId.of("req-timeout");
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    Money amount = Money.of("EUR", new BigDecimal("7.00"));
+
+    when(checkRepository.findById(checkId))
+        .thenReturn(Optional.of(createdCheck(sessionId, checkId, amount)));
+    when(paymentAttemptRepository.findByRequestId(requestId)).thenReturn(Optional.empty());
+    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT))
+        .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+    RecordPaymentAttemptResult result =
+        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId)).join();
+
+    assertThat(result.attemptResult().status()).isEqualTo(PaymentAttemptStatus.PENDING);
+    verify(statusPoller).track(org.mockito.ArgumentMatchers.any());
+  }
+
+  @Test
+  void handle_whenGatewayFails_rethrowsGatewayException_andRecordsNothing() {
+    RecordPaymentAttemptHandler handler = handler();
+
+    PaymentRequestId requestId = PaymentRequestId.of("req-fail");
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    Money amount = Money.of("EUR", new BigDecimal("7.00"));
+    RecordPaymentAttemptInput input = new RecordPaymentAttemptInput(requestId, sessionId, checkId);
+
+    when(checkRepository.findById(checkId))
+        .thenReturn(Optional.of(createdCheck(sessionId, checkId, amount)));
+    when(paymentAttemptRepository.findByRequestId(requestId)).thenReturn(Optional.empty());
+    PaymentGatewayException failure = new PaymentGatewayException("provider down");
+    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT))
+        .thenReturn(CompletableFuture.failedFuture(failure));
+
+    CompletableFuture<RecordPaymentAttemptResult> outcome = handler.handle(input);
+
+    Throwable thrown =
+        org.junit.jupiter.api.Assertions.assertThrows(CompletionException.class, outcome::join);
+    assertThat(thrown.getCause()).isSameAs(failure);
+    verify(paymentAttemptRepository, never()).save(org.mockito.ArgumentMatchers.any());
+    verify(statusPoller, never()).track(org.mockito.ArgumentMatchers.any());
+  }
+
   @Test
   void handle_whenCheckMissing_throwsNotFound_andDoesNotCallGatewayOrSave() {
-    RecordPaymentAttemptHandler handler =
-        new RecordPaymentAttemptHandler(paymentGateway, checkRepository, paymentAttemptRepository);
+    RecordPaymentAttemptHandler handler = handler();
 
     PaymentRequestId requestId = PaymentRequestId.of("req-4");
     TableSessionId sessionId = TableSessionId.of("S-1");
@@ -205,16 +321,56 @@ final class RecordPaymentAttemptHandlerTest {
             org.mockito.ArgumentMatchers.any(),
             org.mockito.ArgumentMatchers.any(),
             org.mockito.ArgumentMatchers.any(),
+            org.mockito.ArgumentMatchers.any(),
             org.mockito.ArgumentMatchers.any());
 
     verify(checkRepository, never()).save(org.mockito.ArgumentMatchers.any());
     verify(paymentAttemptRepository, never()).save(org.mockito.ArgumentMatchers.any());
   }
 
+  @Test
+  void handle_whenCheckNoLongerOpen_rejectsWithoutCallingGateway() {
+    RecordPaymentAttemptHandler handler = handler();
+    PaymentRequestId requestId = PaymentRequestId.of("req-closed");
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    Check check = createdCheck(sessionId, checkId, Money.of("EUR", new BigDecimal("5.00")));
+    check.cancel(Instant.parse("2026-01-01T00:10:00Z"));
+    when(checkRepository.findById(checkId)).thenReturn(Optional.of(check));
+
+    RecordPaymentAttemptInput input = new RecordPaymentAttemptInput(requestId, sessionId, checkId);
+    org.junit.jupiter.api.Assertions.assertThrows(
+        CheckNotPayableException.class, () -> handler.handle(input));
+
+    verify(paymentGateway, never()).initiatePayment(any(), any(), any(), any(), any());
+    verify(paymentAttemptRepository, never()).save(any());
+  }
+
+  @Test
+  void handle_whenApplyingOutcomeFails_attemptIsStillRecordedForRetries() {
+    RecordPaymentAttemptHandler handler = handler();
+    PaymentRequestId requestId = PaymentRequestId.of("req-apply-fails");
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    Money amount = Money.of("EUR", new BigDecimal("5.00"));
+    when(checkRepository.findById(checkId))
+        .thenReturn(Optional.of(createdCheck(sessionId, checkId, amount)));
+    PaymentAttemptResult approved = PaymentAttemptResult.approved("prov-9");
+    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT))
+        .thenReturn(CompletableFuture.completedFuture(approved));
+    // The session is gone, so recording the paid check fails after the provider charged.
+    when(tableSessionRepository.findById(sessionId)).thenReturn(Optional.empty());
+
+    assertThat(handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId)))
+        .isCompletedExceptionally();
+
+    verify(paymentAttemptRepository)
+        .save(new RecordedPaymentAttempt(requestId, sessionId, checkId, approved));
+  }
+
   @Test
   void handle_nullInput_throwsNpe() {
-    RecordPaymentAttemptHandler handler =
-        new RecordPaymentAttemptHandler(paymentGateway, checkRepository, paymentAttemptRepository);
+    RecordPaymentAttemptHandler handler = handler();
 
     Throwable thrown =
         org.junit.jupiter.api.Assertions.assertThrows(
@@ -228,7 +384,15 @@ final class RecordPaymentAttemptHandlerTest {
     Throwable thrown =
         org.junit.jupiter.api.Assertions.assertThrows(
             NullPointerException.class,
-            () -> new RecordPaymentAttemptHandler(null, checkRepository, paymentAttemptRepository));
+            () ->
+                new RecordPaymentAttemptHandler(
+                    null,
+                    checkRepository,
+                    paymentAttemptRepository,
+                    outcomeApplier(),
+                    statusPoller,
+                    checkClaims,
+                    TIMEOUT));
 
     assertThat(thrown.getMessage()).contains("paymentGateway must not be null");
   }
@@ -238,7 +402,15 @@ final class RecordPaymentAttemptHandlerTest {
     Throwable thrown =
         org.junit.jupiter.api.Assertions.assertThrows(
             NullPointerException.class,
-            () -> new RecordPaymentAttemptHandler(paymentGateway, null, paymentAttemptRepository));
+            () ->
+                new RecordPaymentAttemptHandler(
+                    paymentGateway,
+                    null,
+                    paymentAttemptRepository,
+                    outcomeApplier(),
+                    statusPoller,
+                    checkClaims,
+                    TIMEOUT));
 
     assertThat(thrown.getMessage()).contains("checkRepository must not be null");
   }
@@ -248,15 +420,57 @@ final class RecordPaymentAttemptHandlerTest {
     Throwable thrown =
         org.junit.jupiter.api.Assertions.assertThrows(
             NullPointerException.class,
-            () -> new RecordPaymentAttemptHandler(paymentGateway, checkRepository, null));
+            () ->
+                new RecordPaymentAttemptHandler(
+                    paymentGateway,
+                    checkRepository,
+                    null,
+                    outcomeApplier(),
+                    statusPoller,
+                    checkClaims,
+                    TIMEOUT));
 
     assertThat(thrown.getMessage()).contains("paymentAttemptRepository must not be null");
   }
 
+  @Test
+  void constructor_nullStatusPoller_throwsNpe() {
+    Throwable thrown =
+        org.junit.jupiter.api.Assertions.assertThrows(
+            NullPointerException.class,
+            () ->
+                new RecordPaymentAttemptHandler(
+                    paymentGateway,
+                    checkRepository,
+                    paymentAttemptRepository,
+                    outcomeApplier(),
+                    null,
+                    checkClaims,
+                    TIMEOUT));
+
+    assertThat(thrown.getMessage()).contains("statusPoller must not be null");
+  }
+
+  @Test
+  void constructor_nonPositiveTimeout_throwsIllegalArgument() {
+    PaymentOutcomeApplier applier = outcomeApplier();
+
+    org.junit.jupiter.api.Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new RecordPaymentAttemptHandler(
+                paymentGateway,
+                checkRepository,
+                paymentAttemptRepository,
+                applier,
+                statusPoller,
+                checkClaims,
+                Duration.ZERO));
+  }
+
   @Test
   void handle_whenSameRequestIdReplayed_returnsStoredOutcome_withoutGatewayOrWrites() {
-    RecordPaymentAttemptHandler handler =
-        new RecordPaymentAttemptHandler(paymentGateway, checkRepository, paymentAttemptRepository);
+    RecordPaymentAttemptHandler handler = handler();
 
     PaymentRequestId requestId = PaymentRequestId.of("req-replay");
     TableSessionId sessionId = TableSessionId.of("S-1");
@@ -269,13 +483,14 @@ final class RecordPaymentAttemptHandlerTest {
     when(paymentAttemptRepository.findByRequestId(requestId)).thenReturn(Optional.of(existing));
 
     RecordPaymentAttemptResult result =
-        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId));
+        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId)).join();
 
     verify(paymentGateway, never())
         .initiatePayment(
             org.mockito.ArgumentMatchers.any(),
             org.mockito.ArgumentMatchers.any(),
             org.mockito.ArgumentMatchers.any(),
+            org.mockito.ArgumentMatchers.any(),
             org.mockito.ArgumentMatchers.any());
     verify(checkRepository, never()).findById(org.mockito.ArgumentMatchers.any());
     verify(checkRepository, never()).save(org.mockito.ArgumentMatchers.any());
@@ -285,12 +500,12 @@ final class RecordPaymentAttemptHandlerTest {
     assertThat(result.requestId()).isEqualTo(requestId);
     assertThat(result.sessionId()).isEqualTo(sessionId);
     assertThat(result.checkId()).isEqualTo(checkId);
+    assertThat(result.replayed()).isTrue();
   }
 
   @Test
   void handle_whenRequestIdReusedForDifferentTarget_throwsConflict_andDoesNotCallGateway() {
-    RecordPaymentAttemptHandler handler =
-        new RecordPaymentAttemptHandler(paymentGateway, checkRepository, paymentAttemptRepository);
+    RecordPaymentAttemptHandler handler = handler();
 
     PaymentRequestId requestId = PaymentRequestId.of("req-conflict");
     TableSessionId existingSessionId = TableSessionId.of("S-1");
@@ -319,8 +534,224 @@ final class RecordPaymentAttemptHandlerTest {
             org.mockito.ArgumentMatchers.any(),
             org.mockito.ArgumentMatchers.any(),
             org.mockito.ArgumentMatchers.any(),
+            org.mockito.ArgumentMatchers.any(),
             org.mockito.ArgumentMatchers.any());
     verify(checkRepository, never()).save(org.mockito.ArgumentMatchers.any());
     verify(paymentAttemptRepository, never()).save(org.mockito.ArgumentMatchers.any());
   }
+
+  @Test
+  void handle_returnsBeforeProviderAnswers() {
+    RecordPaymentAttemptHandler handler = handler(Duration.ofSeconds(5));
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    Money amount = Money.of("EUR", new BigDecimal("10.00"));
+    PaymentRequestId requestId = PaymentRequestId.of("req-async");
+
+    when(checkRepository.findById(checkId))
+        .thenReturn(Optional.of(createdCheck(sessionId, checkId, amount)));
+    CompletableFuture<PaymentAttemptResult> providerCall = new CompletableFuture<>();
+    when(paymentGateway.initiatePayment(
+            requestId, sessionId, checkId, amount, Duration.ofSeconds(5)))
+        .thenReturn(providerCall);
+
+    CompletableFuture<RecordPaymentAttemptResult> outcome =
+        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId));
+
+    assertThat(outcome).isNotDone();
+    verify(paymentAttemptRepository, never()).save(org.mockito.ArgumentMatchers.any());
+
+    providerCall.complete(PaymentAttemptResult.declined("prov-1", "no funds"));
+
+    assertThat(outcome.join().attemptResult().status()).isEqualTo(PaymentAttemptStatus.DECLINED);
+    verify(paymentAttemptRepository).save(org.mockito.ArgumentMatchers.any());
+  }
+
+  @Test
+  void handle_whenOtherRequestInFlightForSameCheck_rejectsWithoutCallingGateway() {
+    RecordPaymentAttemptHandler handler = handler(Duration.ofSeconds(5));
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    Money amount = Money.of("EUR", new BigDecimal("10.00"));
+    PaymentRequestId first = PaymentRequestId.of("req-device-a");
+    PaymentRequestId second = PaymentRequestId.of("req-device-b");
+
+    when(checkRepository.findById(checkId))
+        .thenReturn(Optional.of(createdCheck(sessionId, checkId, amount)));
+    CompletableFuture<PaymentAttemptResult> providerCall = new CompletableFuture<>();
+    when(paymentGateway.initiatePayment(first, sessionId, checkId, amount, Duration.ofSeconds(5)))
+        .thenReturn(providerCall);
+
+    CompletableFuture<RecordPaymentAttemptResult> owner =
+        handler.handle(new RecordPaymentAttemptInput(first, sessionId, checkId));
+
+    RecordPaymentAttemptInput competing = new RecordPaymentAttemptInput(second, sessionId, checkId);
+    Throwable thrown =
+        org.junit.jupiter.api.Assertions.assertThrows(
+            PaymentInProgressException.class, () -> handler.handle(competing));
+    assertThat(thrown.getMessage()).contains("req-device-a");
+
+    providerCall.complete(PaymentAttemptResult.declined("prov-1", "no funds"));
+    assertThat(owner.join().attemptResult().status()).isEqualTo(PaymentAttemptStatus.DECLINED);
+
+    verify(paymentGateway, never())
+        .initiatePayment(
+            org.mockito.ArgumentMatchers.eq(second),
+            org.mockito.ArgumentMatchers.any(),
+            org.mockito.ArgumentMatchers.any(),
+            org.mockito.ArgumentMatchers.any(),
+            org.mockito.ArgumentMatchers.any());
+  }
+
+  @Test
+  void handle_whenEarlierAttemptStillPending_rejectsWithoutCallingGateway() {
+    RecordPaymentAttemptHandler handler = handler();
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    PaymentRequestId timedOut = PaymentRequestId.of("req-device-a");
+    PaymentRequestId second = PaymentRequestId.of("req-device-b");
+
+    when(paymentAttemptRepository.findPendingByCheckId(checkId))
+        .thenReturn(
+            Optional.of(
+                new RecordedPaymentAttempt(
+                    timedOut, sessionId, checkId, PaymentAttemptResult.pending(null))));
+
+    RecordPaymentAttemptInput input = new RecordPaymentAttemptInput(second, sessionId, checkId);
+    Throwable thrown =
+        org.junit.jupiter.api.Assertions.assertThrows(
+            PaymentInProgressException.class, () -> handler.handle(input));
+
+    assertThat(thrown.getMessage()).contains("req-device-a");
+    verify(paymentGateway, never())
+        .initiatePayment(
+            org.mockito.ArgumentMatchers.any(),
+            org.mockito.ArgumentMatchers.any(),
+            org.mockito.ArgumentMatchers.any(),
+            org.mockito.ArgumentMatchers.any(),
+            org.mockito.ArgumentMatchers.any());
+    verify(paymentAttemptRepository, never()).save(org.mockito.ArgumentMatchers.any());
+  }
+
+  @Test
+  void handle_claimsCheckWhileProviderCallIsInFlight() {
+    RecordPaymentAttemptHandler handler = handler();
+    PaymentRequestId requestId = PaymentRequestId.of("req-claim");
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    Money amount = Money.of("EUR", new BigDecimal("5.00"));
+    when(checkRepository.findById(checkId))
+        .thenReturn(Optional.of(createdCheck(sessionId, checkId, amount)));
+    CompletableFuture<PaymentAttemptResult> providerCall = new CompletableFuture<>();
+    when(paymentGateway.initiatePayment(requestId, sessionId, checkId, amount, TIMEOUT))
+        .thenReturn(providerCall);
+
+    CompletableFuture<RecordPaymentAttemptResult> result =
+        handler.handle(new RecordPaymentAttemptInput(requestId, sessionId, checkId));
+
+    assertThat(checkClaims.isInFlight(checkId)).isTrue();
+    assertThat(checkClaims.claim(checkId, CheckClaims.Holder.EXPIRY))
+        .isEqualTo(CheckClaims.Holder.PAYMENT);
+
+    providerCall.complete(PaymentAttemptResult.declined("prov-1", "no"));
+    result.join();
+    assertThat(checkClaims.isInFlight(checkId)).isFalse();
+  }
+
+  @Test
+  void handle_whenExpiryIsCancellingTheCheck_rejectsWithoutCallingGateway() {
+    RecordPaymentAttemptHandler handler = handler();
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    checkClaims.claim(checkId, CheckClaims.Holder.EXPIRY);
+    RecordPaymentAttemptInput input =
+        new RecordPaymentAttemptInput(
+            PaymentRequestId.of("req-expiring"), TableSessionId.of("S-1"), checkId);
+
+    org.junit.jupiter.api.Assertions.assertThrows(
+        CheckNotPayableException.class, () -> handler.handle(input));
+
+    verify(paymentGateway, never()).initiatePayment(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void handle_whenSameRequestRetriedWhileInFlight_sharesOutcome_withSingleGatewayCall() {
+    RecordPaymentAttemptHandler handler = handler(Duration.ofSeconds(5));
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    Money amount = Money.of("EUR", new BigDecimal("10.00"));
+    PaymentRequestId requestId = PaymentRequestId.of("req-retry");
+    RecordPaymentAttemptInput input = new RecordPaymentAttemptInput(requestId, sessionId, checkId);
+
+    when(checkRepository.findById(checkId))
+        .thenReturn(Optional.of(createdCheck(sessionId, checkId, amount)));
+    CompletableFuture<PaymentAttemptResult> providerCall = new CompletableFuture<>();
+    when(paymentGateway.initiatePayment(
+            requestId, sessionId, checkId, amount, Duration.ofSeconds(5)))
+        .thenReturn(providerCall);
+
+    CompletableFuture<RecordPaymentAttemptResult> owner = handler.handle(input);
+    CompletableFuture<RecordPaymentAttemptResult> retry = handler.handle(input);
+    assertThat(retry).isNotDone();
+
+    PaymentAttemptResult declined = PaymentAttemptResult.declined("prov-1", "no funds");
+    providerCall.complete(declined);
+
+    assertThat(owner.join().attemptResult()).isSameAs(declined);
+    assertThat(owner.join().replayed()).isFalse();
+    assertThat(retry.join().attemptResult()).isSameAs(declined);
+    assertThat(retry.join().replayed()).isTrue();
+    verify(paymentGateway, times(1))
+        .initiatePayment(requestId, sessionId, checkId, amount, Duration.ofSeconds(5));
+    verify(paymentAttemptRepository, times(1)).save(org.mockito.ArgumentMatchers.any());
+  }
+
+  @Test
+  void handle_afterFailedAttempt_releasesCheckForNextAttempt() {
+    RecordPaymentAttemptHandler handler = handler();
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    Money amount = Money.of("EUR", new BigDecimal("10.00"));
+    PaymentRequestId first = PaymentRequestId.of("req-first");
+    PaymentRequestId second = PaymentRequestId.of("req-second");
+
+    when(checkRepository.findById(checkId))
+        .thenReturn(Optional.of(createdCheck(sessionId, checkId, amount)));
+    when(paymentGateway.initiatePayment(first, sessionId, checkId, amount, TIMEOUT))
+        .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayException("down")));
+    when(paymentGateway.initiatePayment(second, sessionId, checkId, amount, TIMEOUT))
+        .thenReturn(
+            CompletableFuture.completedFuture(PaymentAttemptResult.declined("prov-2", "no")));
+
+    assertThat(handler.handle(new RecordPaymentAttemptInput(first, sessionId, checkId)))
+        .isCompletedExceptionally();
+    RecordPaymentAttemptResult result =
+        handler.handle(new RecordPaymentAttemptInput(second, sessionId, checkId)).join();
+
+    assertThat(result.attemptResult().status()).isEqualTo(PaymentAttemptStatus.DECLINED);
+  }
+
+  private RecordPaymentAttemptHandler handler() {
+    return handler(TIMEOUT);
+  }
+
+  private RecordPaymentAttemptHandler handler(Duration initiationTimeout) {
+    return new RecordPaymentAttemptHandler(
+        paymentGateway,
+        checkRepository,
+        paymentAttemptRepository,
+        outcomeApplier(),
+        statusPoller,
+        checkClaims,
+        initiationTimeout);
+  }
+
+  private PaymentOutcomeApplier outcomeApplier() {
+    return new PaymentOutcomeApplier(checkRepository, tableSessionRepository);
+  }
+
+  private static Check createdCheck(TableSessionId sessionId, CheckId checkId, Money amount) {
+    PaidItem paidItem = PaidItem.of(OrderItemId.random(), 1, amount, amount);
+    return Check.create(
+        sessionId, checkId, amount, List.of(paidItem), Instant.parse("2026-01-01T00:00:00Z"));
+  }
 }
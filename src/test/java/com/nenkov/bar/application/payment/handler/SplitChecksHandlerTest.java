@@ -0,0 +1,251 @@
+package com.nenkov.bar.application.payment.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.payment.exception.CheckCreationNotAllowedException;
+import com.nenkov.bar.application.payment.exception.InvalidPaymentSelectionException;
+import com.nenkov.bar.application.payment.expiry.CheckExpiryScheduler;
+import com.nenkov.bar.application.payment.model.CreateCheckResult;
+import com.nenkov.bar.application.payment.model.SplitChecksInput;
+import com.nenkov.bar.application.payment.model.SplitChecksResult;
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.session.exception.TableSessionNotFoundException;
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckQuote;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.model.payment.PaymentSelection;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionContents;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.domain.model.session.TableSessionStatus;
+import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOffReason;
+import com.nenkov.bar.domain.service.payment.CheckAmountCalculator;
+import com.nenkov.bar.domain.service.payment.DefaultCheckAmountCalculator;
+import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class SplitChecksHandlerTest {
+
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-split");
+
+  @Mock private TableSessionRepository tableSessionRepository;
+  @Mock private CheckRepository checkRepository;
+  @Mock private CheckAmountCalculator checkAmountCalculator;
+  @Mock private CheckExpiryScheduler expiryScheduler;
+
+  @Captor private ArgumentCaptor<List<Check>> checksCaptor;
+
+  @Test
+  void handle_happyPath_quotesSplitsTogether_andSavesAllChecksInOneBatch() {
+    SplitChecksHandler handler = handler();
+
+    OrderItemId beer = OrderItemId.random();
+    TableSession session = openSession(new SessionItemSnapshot(beer, eur("4.00"), 2));
+
+    List<PaymentSelection> first = List.of(PaymentSelection.of(beer, 1));
+    List<PaymentSelection> second = List.of(PaymentSelection.of(beer, 1));
+    SplitChecksInput input =
+        new SplitChecksInput(
+            SESSION_ID,
+            List.of(new SplitChecksInput.Split(first), new SplitChecksInput.Split(second)));
+
+    CheckQuote combined =
+        CheckQuote.of(eur("8.00"), List.of(PaidItem.of(beer, 2, eur("4.00"), eur("8.00"))));
+
+    when(tableSessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+    when(checkAmountCalculator.quote(
+            eq("EUR"),
+            eq(session.payableItemsSnapshot()),
+            eq(List.of(PaymentSelection.of(beer, 1), PaymentSelection.of(beer, 1))),
+            anyList(),
+            anyList()))
+        .thenReturn(combined);
+
+    SplitChecksResult result = handler.handle(input);
+
+    verify(checkRepository).saveAll(checksCaptor.capture());
+    List<Check> saved = checksCaptor.getValue();
+
+    assertThat(saved).hasSize(2);
+    assertThat(saved).extracting(Check::amount).containsExactly(eur("4.00"), eur("4.00"));
+    assertThat(saved).allSatisfy(c -> assertThat(c.status()).isEqualTo(CheckStatus.CREATED));
+    assertThat(saved.get(0).id()).isNotEqualTo(saved.get(1).id());
+
+    assertThat(result.sessionId()).isEqualTo(SESSION_ID);
+    assertThat(result.checks())
+        .extracting(CreateCheckResult::checkId)
+        .containsExactly(saved.get(0).id(), saved.get(1).id());
+    verify(checkRepository, never()).save(any());
+    verify(expiryScheduler).track(saved.get(0));
+    verify(expiryScheduler).track(saved.get(1));
+  }
+
+  @Test
+  void handle_withWriteOffs_splitsAddUpToOneQuoteOfTheCombinedSelection() {
+    DefaultCheckAmountCalculator calculator = new DefaultCheckAmountCalculator();
+    SplitChecksHandler handler =
+        new SplitChecksHandler(
+            tableSessionRepository, checkRepository, calculator, expiryScheduler);
+
+    OrderItemId beer = OrderItemId.random();
+    OrderItemId fries = OrderItemId.random();
+    TableSession session =
+        new TableSession(
+            SESSION_ID,
+            "EUR",
+            new TableSessionContents(
+                List.of(
+                    new SessionItemSnapshot(beer, eur("3.00"), 3),
+                    new SessionItemSnapshot(fries, eur("5.00"), 2)),
+                List.of(),
+                List.of(ItemWriteOff.of(beer, 1, eur("1.00"), WriteOffReason.COMPENSATION)),
+                List.of(WriteOff.of(eur("1.00"), WriteOffReason.DISCOUNT))),
+            TableSessionStatus.OPEN,
+            null);
+    List<List<PaymentSelection>> splits =
+        List.of(
+            List.of(PaymentSelection.of(beer, 1)),
+            List.of(PaymentSelection.of(beer, 1)),
+            List.of(PaymentSelection.of(beer, 1), PaymentSelection.of(fries, 1)));
+    when(tableSessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+
+    handler.handle(
+        new SplitChecksInput(
+            SESSION_ID, splits.stream().map(SplitChecksInput.Split::new).toList()));
+
+    verify(checkRepository).saveAll(checksCaptor.capture());
+    CheckQuote combined =
+        calculator.quote(
+            "EUR",
+            session.payableItemsSnapshot(),
+            splits.stream().flatMap(List::stream).toList(),
+            session.itemWriteOffs(),
+            session.sessionWriteOffs());
+    Money total = Money.zero("EUR");
+    for (Check check : checksCaptor.getValue()) {
+      total = total.plus(check.amount());
+    }
+    assertThat(total).isEqualTo(combined.checkAmount());
+    assertThat(checksCaptor.getValue().get(2).paidItems())
+        .extracting(PaidItem::itemId)
+        .containsExactly(beer, fries);
+  }
+
+  @Test
+  void handle_whenSplitsTogetherOverSelect_throwsInvalidSelection_andSavesNothing() {
+    SplitChecksHandler handler = handler();
+
+    OrderItemId beer = OrderItemId.random();
+    TableSession session = openSession(new SessionItemSnapshot(beer, eur("4.00"), 1));
+
+    SplitChecksInput input =
+        new SplitChecksInput(
+            SESSION_ID,
+            List.of(
+                new SplitChecksInput.Split(List.of(PaymentSelection.of(beer, 1))),
+                new SplitChecksInput.Split(List.of(PaymentSelection.of(beer, 1)))));
+
+    when(tableSessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+    when(checkAmountCalculator.quote(
+            eq("EUR"), eq(session.payableItemsSnapshot()), anyList(), anyList(), anyList()))
+        .thenThrow(new IllegalArgumentException("Selected quantity exceeds remaining quantity"));
+
+    assertThrows(InvalidPaymentSelectionException.class, () -> handler.handle(input));
+
+    verify(checkRepository, never()).saveAll(anyList());
+  }
+
+  @Test
+  void handle_whenSessionMissing_throwsNotFound() {
+    SplitChecksHandler handler = handler();
+    SplitChecksInput input = singleSplitInput();
+
+    when(tableSessionRepository.findById(SESSION_ID)).thenReturn(Optional.empty());
+
+    assertThrows(TableSessionNotFoundException.class, () -> handler.handle(input));
+    verify(checkRepository, never()).saveAll(anyList());
+  }
+
+  @Test
+  void handle_whenSessionClosed_throwsCreationNotAllowed() {
+    SplitChecksHandler handler = handler();
+    TableSession closed =
+        new TableSession(
+            SESSION_ID,
+            "EUR",
+            TableSessionContents.empty(),
+            TableSessionStatus.CLOSED,
+            Instant.parse("2026-01-01T00:00:00Z"));
+
+    when(tableSessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(closed));
+
+    SplitChecksInput input = singleSplitInput();
+    assertThrows(CheckCreationNotAllowedException.class, () -> handler.handle(input));
+    verify(checkRepository, never()).saveAll(anyList());
+  }
+
+  @Test
+  void handle_nullInput_throwsNpe() {
+    SplitChecksHandler handler = handler();
+
+    Throwable thrown = assertThrows(NullPointerException.class, () -> handler.handle(null));
+
+    assertThat(thrown.getMessage()).contains("input must not be null");
+  }
+
+  @Test
+  void constructor_nullCheckRepository_throwsNpe() {
+    Throwable thrown =
+        assertThrows(
+            NullPointerException.class,
+            () ->
+                new SplitChecksHandler(
+                    tableSessionRepository, null, checkAmountCalculator, expiryScheduler));
+
+    assertThat(thrown.getMessage()).contains("checkRepository must not be null");
+  }
+
+  private SplitChecksHandler handler() {
+    return new SplitChecksHandler(
+        tableSessionRepository, checkRepository, checkAmountCalculator, expiryScheduler);
+  }
+
+  private static SplitChecksInput singleSplitInput() {
+    return new SplitChecksInput(
+        SESSION_ID,
+        List.of(new SplitChecksInput.Split(List.of(PaymentSelection.of(OrderItemId.random(), 1)))));
+  }
+
+  private static TableSession openSession(SessionItemSnapshot... payableItems) {
+    TableSessionContents contents =
+        new TableSessionContents(List.of(payableItems), List.of(), List.of(), List.of());
+    return new TableSession(SESSION_ID, "EUR", contents, TableSessionStatus.OPEN, null);
+  }
+
+  private static Money eur(String amount) {
+    return Money.of("EUR", new BigDecimal(amount));
+  }
+}
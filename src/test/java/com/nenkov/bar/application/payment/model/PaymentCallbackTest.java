@@ -0,0 +1,50 @@
+package com.nenkov.bar.application.payment.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+final class PaymentCallbackTest {
+
+  @Test
+  void constructor_requiresRequestIdOrProviderReference() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new PaymentCallback(null, "  ", PaymentAttemptStatus.APPROVED, null));
+  }
+
+  @Test
+  void constructor_rejectsUnresolved_whichOnlyTheApplicationAssigns() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new PaymentCallback(
+                PaymentRequestId.of("req-1"), null, PaymentAttemptStatus.UNRESOLVED, null));
+  }
+
+  @Test
+  void dedupKey_prefersRequestId_andIncludesStatus() {
+    PaymentCallback byRequest =
+        new PaymentCallback(
+            PaymentRequestId.of("req-1"), "prov-1", PaymentAttemptStatus.APPROVED, null);
+    PaymentCallback byReference =
+        new PaymentCallback(null, "prov-1", PaymentAttemptStatus.DECLINED, "no funds");
+
+    assertThat(byRequest.dedupKey()).isEqualTo("req:req-1|APPROVED");
+    assertThat(byReference.dedupKey()).isEqualTo("ref:prov-1|DECLINED");
+  }
+
+  @Test
+  void toAttemptResult_fallsBackToKnownProviderReference() {
+    PaymentCallback callback =
+        new PaymentCallback(
+            PaymentRequestId.of("req-1"), null, PaymentAttemptStatus.DECLINED, "expired");
+
+    PaymentAttemptResult result = callback.toAttemptResult("prov-known");
+
+    assertThat(result.status()).isEqualTo(PaymentAttemptStatus.DECLINED);
+    assertThat(result.providerReference()).isEqualTo("prov-known");
+    assertThat(result.failureReason()).contains("expired");
+  }
+}
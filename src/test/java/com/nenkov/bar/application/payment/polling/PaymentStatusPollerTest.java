@@ -0,0 +1,204 @@
+package com.nenkov.bar.application.payment.polling;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.gateway.AsyncPaymentGateway;
+import com.nenkov.bar.application.payment.handler.PaymentOutcomeApplier;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.application.payment.repository.CheckRepository;
+import com.nenkov.bar.application.payment.repository.PaymentAttemptRepository;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.model.payment.PaymentReference;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class PaymentStatusPollerTest {
+
+  private static final long WAIT_MS = 2_000;
+  private static final PaymentRequestId REQUEST_ID = PaymentRequestId.of("req-poll");
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-1");
+  private static final Money AMOUNT = Money.of("EUR", new BigDecimal("5.00"));
+
+  @Mock private AsyncPaymentGateway paymentGateway;
+  @Mock private CheckRepository checkRepository;
+  @Mock private PaymentAttemptRepository paymentAttemptRepository;
+  @Mock private PaymentOutcomeApplier outcomeApplier;
+
+  private ScheduledExecutorService scheduler;
+  private Check check;
+  private RecordedPaymentAttempt attempt;
+
+  @BeforeEach
+  void setUp() {
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    CheckId checkId = CheckId.of(UUID.randomUUID());
+    check =
+        Check.create(
+            SESSION_ID,
+            checkId,
+            AMOUNT,
+            List.of(PaidItem.of(OrderItemId.random(), 1, AMOUNT, AMOUNT)),
+            Instant.parse("2026-01-01T00:00:00Z"));
+    attempt =
+        new RecordedPaymentAttempt(
+            REQUEST_ID, SESSION_ID, checkId, PaymentAttemptResult.pending(null));
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  void track_pollsUntilResolved_thenAppliesOutcome_andUpdatesRecord() {
+    PaymentAttemptResult approved = PaymentAttemptResult.approved("prov-1");
+    when(paymentGateway.fetchPaymentStatus(eq(REQUEST_ID), any()))
+        .thenReturn(
+            CompletableFuture.completedFuture(PaymentAttemptResult.pending("prov-1")),
+            CompletableFuture.failedFuture(new PaymentGatewayException("blip")),
+            CompletableFuture.completedFuture(approved));
+    when(checkRepository.findById(check.id())).thenReturn(Optional.of(check));
+
+    poller(policy(5, Duration.ofSeconds(1))).track(attempt);
+
+    verify(outcomeApplier, timeout(WAIT_MS)).apply(eq(check), eq(approved), any());
+    verify(paymentAttemptRepository, timeout(WAIT_MS))
+        .update(new RecordedPaymentAttempt(REQUEST_ID, SESSION_ID, check.id(), approved));
+    verify(paymentGateway, times(3)).fetchPaymentStatus(eq(REQUEST_ID), any());
+  }
+
+  @Test
+  void track_hedgesSlowStatusCall_andFirstAnswerWins() {
+    PaymentAttemptResult declined = PaymentAttemptResult.declined("prov-2", "no funds");
+    when(paymentGateway.fetchPaymentStatus(eq(REQUEST_ID), any()))
+        .thenReturn(new CompletableFuture<>(), CompletableFuture.completedFuture(declined));
+    when(checkRepository.findById(check.id())).thenReturn(Optional.of(check));
+
+    poller(policy(1, Duration.ofMillis(5))).track(attempt);
+
+    verify(outcomeApplier, timeout(WAIT_MS)).apply(eq(check), eq(declined), any());
+    verify(paymentGateway, times(2)).fetchPaymentStatus(eq(REQUEST_ID), any());
+  }
+
+  @Test
+  void track_givesUpAfterMaxAttempts_recordingAttemptUnresolved() {
+    when(paymentGateway.fetchPaymentStatus(eq(REQUEST_ID), any()))
+        .thenReturn(CompletableFuture.completedFuture(PaymentAttemptResult.pending(null)));
+    when(checkRepository.findById(check.id())).thenReturn(Optional.of(check));
+
+    poller(policy(3, Duration.ofSeconds(1))).track(attempt);
+
+    verify(paymentAttemptRepository, timeout(WAIT_MS))
+        .update(
+            argThat(
+                recorded ->
+                    recorded.requestId().equals(REQUEST_ID)
+                        && recorded.attemptResult().status() == PaymentAttemptStatus.UNRESOLVED));
+    verify(paymentGateway, after(100).times(3)).fetchPaymentStatus(eq(REQUEST_ID), any());
+    verify(outcomeApplier, never()).apply(any(), any(), any());
+  }
+
+  @Test
+  void start_resumesPollingForPersistedPendingAttempts() {
+    PaymentAttemptResult approved = PaymentAttemptResult.approved("prov-1");
+    when(paymentAttemptRepository.findAllPending()).thenReturn(List.of(attempt));
+    when(paymentGateway.fetchPaymentStatus(eq(REQUEST_ID), any()))
+        .thenReturn(CompletableFuture.completedFuture(approved));
+    when(checkRepository.findById(check.id())).thenReturn(Optional.of(check));
+
+    poller(policy(5, Duration.ofSeconds(1))).start();
+
+    verify(outcomeApplier, timeout(WAIT_MS)).apply(eq(check), eq(approved), any());
+  }
+
+  @Test
+  void start_retriesWhenPendingAttemptsCannotBeLoaded() {
+    when(paymentAttemptRepository.findAllPending())
+        .thenThrow(new IllegalStateException("db down"))
+        .thenReturn(List.of());
+
+    poller(policy(5, Duration.ofSeconds(1))).start();
+
+    verify(paymentAttemptRepository, timeout(WAIT_MS).times(2)).findAllPending();
+  }
+
+  @Test
+  void track_stopsPolling_whenCheckResolvedElsewhere() {
+    check.markPaid(PaymentReference.of("webhook"), Instant.now());
+    when(paymentGateway.fetchPaymentStatus(eq(REQUEST_ID), any()))
+        .thenReturn(CompletableFuture.completedFuture(PaymentAttemptResult.pending(null)));
+    when(checkRepository.findById(check.id())).thenReturn(Optional.of(check));
+
+    poller(policy(5, Duration.ofSeconds(1))).track(attempt);
+
+    verify(paymentGateway, timeout(WAIT_MS)).fetchPaymentStatus(eq(REQUEST_ID), any());
+    verify(paymentGateway, after(100).times(1)).fetchPaymentStatus(eq(REQUEST_ID), any());
+    verify(outcomeApplier, never()).apply(any(), any(), any());
+  }
+
+  @Test
+  void track_whenResolvedButCheckAlreadyTerminal_onlyUpdatesRecord() {
+    check.markFailed(Instant.now());
+    PaymentAttemptResult declined = PaymentAttemptResult.declined("prov-3", "expired");
+    when(paymentGateway.fetchPaymentStatus(eq(REQUEST_ID), any()))
+        .thenReturn(CompletableFuture.completedFuture(declined));
+    when(checkRepository.findById(check.id())).thenReturn(Optional.of(check));
+
+    poller(policy(5, Duration.ofSeconds(1))).track(attempt);
+
+    verify(paymentAttemptRepository, timeout(WAIT_MS))
+        .update(new RecordedPaymentAttempt(REQUEST_ID, SESSION_ID, check.id(), declined));
+    verify(outcomeApplier, never()).apply(any(), any(), any());
+  }
+
+  private PaymentStatusPoller poller(PaymentStatusPollingPolicy policy) {
+    return new PaymentStatusPoller(
+        paymentGateway,
+        checkRepository,
+        paymentAttemptRepository,
+        outcomeApplier,
+        scheduler,
+        policy);
+  }
+
+  private static PaymentStatusPollingPolicy policy(int maxAttempts, Duration hedgeDelay) {
+    return new PaymentStatusPollingPolicy(
+        Duration.ofMillis(1),
+        2.0,
+        Duration.ofMillis(4),
+        maxAttempts,
+        Duration.ofSeconds(1),
+        hedgeDelay);
+  }
+}
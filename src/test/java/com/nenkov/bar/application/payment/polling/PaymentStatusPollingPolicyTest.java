@@ -0,0 +1,60 @@
+package com.nenkov.bar.application.payment.polling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+final class PaymentStatusPollingPolicyTest {
+
+  @Test
+  void delayBeforeAttempt_growsExponentially_andIsCapped() {
+    PaymentStatusPollingPolicy policy =
+        new PaymentStatusPollingPolicy(
+            Duration.ofSeconds(1),
+            2.0,
+            Duration.ofSeconds(10),
+            10,
+            Duration.ofSeconds(5),
+            Duration.ofSeconds(2));
+
+    assertThat(policy.delayBeforeAttempt(1)).isEqualTo(Duration.ofSeconds(1));
+    assertThat(policy.delayBeforeAttempt(2)).isEqualTo(Duration.ofSeconds(2));
+    assertThat(policy.delayBeforeAttempt(4)).isEqualTo(Duration.ofSeconds(8));
+    assertThat(policy.delayBeforeAttempt(5)).isEqualTo(Duration.ofSeconds(10));
+    assertThat(policy.delayBeforeAttempt(60)).isEqualTo(Duration.ofSeconds(10));
+  }
+
+  @Test
+  void hedgingEnabled_onlyWhenHedgeDelayIsShorterThanCallTimeout() {
+    assertThat(policy(Duration.ofSeconds(2), Duration.ofSeconds(5)).hedgingEnabled()).isTrue();
+    assertThat(policy(Duration.ofSeconds(5), Duration.ofSeconds(5)).hedgingEnabled()).isFalse();
+  }
+
+  @Test
+  void constructor_rejectsInvalidSettings() {
+    Duration one = Duration.ofSeconds(1);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new PaymentStatusPollingPolicy(one, 0.5, one, 1, one, one));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new PaymentStatusPollingPolicy(Duration.ofSeconds(2), 2.0, one, 1, one, one));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new PaymentStatusPollingPolicy(one, 2.0, one, 0, one, one));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new PaymentStatusPollingPolicy(Duration.ZERO, 2.0, one, 1, one, one));
+    assertThrows(
+        NullPointerException.class,
+        () -> new PaymentStatusPollingPolicy(one, 2.0, one, 1, null, one));
+  }
+
+  private static PaymentStatusPollingPolicy policy(Duration hedgeDelay, Duration callTimeout) {
+    return new PaymentStatusPollingPolicy(
+        Duration.ofSeconds(1), 2.0, Duration.ofSeconds(10), 3, callTimeout, hedgeDelay);
+  }
+}
@@ -5,12 +5,20 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.nenkov.bar.application.payment.handler.CreateCheckHandler;
+import com.nenkov.bar.application.payment.handler.IngestPaymentCallbacksHandler;
 import com.nenkov.bar.application.payment.handler.RecordPaymentAttemptHandler;
+import com.nenkov.bar.application.payment.handler.SplitChecksHandler;
 import com.nenkov.bar.application.payment.model.CreateCheckInput;
 import com.nenkov.bar.application.payment.model.CreateCheckResult;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksInput;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.model.PaymentCallback;
 import com.nenkov.bar.application.payment.model.PaymentRequestId;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptInput;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.SplitChecksInput;
+import com.nenkov.bar.application.payment.model.SplitChecksResult;
 import com.nenkov.bar.domain.model.money.Money;
 import com.nenkov.bar.domain.model.payment.CheckId;
 import com.nenkov.bar.domain.model.session.OrderItemId;
@@ -18,6 +26,7 @@ import com.nenkov.bar.domain.model.session.TableSessionId;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -28,11 +37,17 @@ final class DefaultPaymentServiceTest {
 
   @Mock private CreateCheckHandler createCheckHandler;
   @Mock private RecordPaymentAttemptHandler recordPaymentAttemptHandler;
+  @Mock private SplitChecksHandler splitChecksHandler;
+  @Mock private IngestPaymentCallbacksHandler ingestPaymentCallbacksHandler;
 
   @Test
   void createCheck_delegatesToHandler() {
     DefaultPaymentService service =
-        new DefaultPaymentService(createCheckHandler, recordPaymentAttemptHandler);
+        new DefaultPaymentService(
+            createCheckHandler,
+            recordPaymentAttemptHandler,
+            splitChecksHandler,
+            ingestPaymentCallbacksHandler);
 
     TableSessionId sessionId = TableSessionId.of("S-1");
     CreateCheckInput input =
@@ -56,7 +71,11 @@ final class DefaultPaymentServiceTest {
   @Test
   void recordPaymentAttempt_delegatesToHandler() {
     DefaultPaymentService service =
-        new DefaultPaymentService(createCheckHandler, recordPaymentAttemptHandler);
+        new DefaultPaymentService(
+            createCheckHandler,
+            recordPaymentAttemptHandler,
+            splitChecksHandler,
+            ingestPaymentCallbacksHandler);
 
     PaymentRequestId requestId = PaymentRequestId.of("req-1");
     TableSessionId sessionId = TableSessionId.of("S-1");
@@ -71,20 +90,79 @@ final class DefaultPaymentServiceTest {
             checkId,
             com.nenkov.bar.application.payment.model.PaymentAttemptResult.pending("prov-x"));
 
-    when(recordPaymentAttemptHandler.handle(input)).thenReturn(expected);
+    when(recordPaymentAttemptHandler.handle(input))
+        .thenReturn(CompletableFuture.completedFuture(expected));
 
-    RecordPaymentAttemptResult actual = service.recordPaymentAttempt(input);
+    RecordPaymentAttemptResult actual = service.recordPaymentAttempt(input).join();
 
     assertThat(actual).isSameAs(expected);
     verify(recordPaymentAttemptHandler).handle(input);
   }
 
+  @Test
+  void splitIntoChecks_delegatesToHandler() {
+    DefaultPaymentService service =
+        new DefaultPaymentService(
+            createCheckHandler,
+            recordPaymentAttemptHandler,
+            splitChecksHandler,
+            ingestPaymentCallbacksHandler);
+
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    SplitChecksInput input =
+        new SplitChecksInput(
+            sessionId,
+            List.of(
+                new SplitChecksInput.Split(
+                    List.of(
+                        com.nenkov.bar.domain.model.payment.PaymentSelection.of(
+                            OrderItemId.random(), 1)))));
+
+    SplitChecksResult expected = new SplitChecksResult(sessionId, List.of());
+
+    when(splitChecksHandler.handle(input)).thenReturn(expected);
+
+    SplitChecksResult actual = service.splitIntoChecks(input);
+
+    assertThat(actual).isSameAs(expected);
+    verify(splitChecksHandler).handle(input);
+  }
+
+  @Test
+  void ingestCallbacks_delegatesToHandler() {
+    DefaultPaymentService service =
+        new DefaultPaymentService(
+            createCheckHandler,
+            recordPaymentAttemptHandler,
+            splitChecksHandler,
+            ingestPaymentCallbacksHandler);
+
+    IngestPaymentCallbacksInput input =
+        new IngestPaymentCallbacksInput(
+            List.of(
+                new PaymentCallback(
+                    PaymentRequestId.of("req-1"), "prov-1", PaymentAttemptStatus.APPROVED, null)));
+    IngestPaymentCallbacksResult expected = new IngestPaymentCallbacksResult(1, 1, 0, 0);
+
+    when(ingestPaymentCallbacksHandler.handle(input)).thenReturn(expected);
+
+    IngestPaymentCallbacksResult actual = service.ingestCallbacks(input);
+
+    assertThat(actual).isSameAs(expected);
+    verify(ingestPaymentCallbacksHandler).handle(input);
+  }
+
   @Test
   void constructor_nullCreateHandler_throwsNpe() {
     Throwable thrown =
         org.junit.jupiter.api.Assertions.assertThrows(
             NullPointerException.class,
-            () -> new DefaultPaymentService(null, recordPaymentAttemptHandler));
+            () ->
+                new DefaultPaymentService(
+                    null,
+                    recordPaymentAttemptHandler,
+                    splitChecksHandler,
+                    ingestPaymentCallbacksHandler));
 
     assertThat(thrown.getMessage()).contains("createCheckHandler must not be null");
   }
@@ -93,8 +171,38 @@ final class DefaultPaymentServiceTest {
   void constructor_nullRecordHandler_throwsNpe() {
     Throwable thrown =
         org.junit.jupiter.api.Assertions.assertThrows(
-            NullPointerException.class, () -> new DefaultPaymentService(createCheckHandler, null));
+            NullPointerException.class,
+            () ->
+                new DefaultPaymentService(
+                    createCheckHandler, null, splitChecksHandler, ingestPaymentCallbacksHandler));
 
     assertThat(thrown.getMessage()).contains("recordPaymentAttemptHandler must not be null");
   }
+
+  @Test
+  void constructor_nullSplitHandler_throwsNpe() {
+    Throwable thrown =
+        org.junit.jupiter.api.Assertions.assertThrows(
+            NullPointerException.class,
+            () ->
+                new DefaultPaymentService(
+                    createCheckHandler,
+                    recordPaymentAttemptHandler,
+                    null,
+                    ingestPaymentCallbacksHandler));
+
+    assertThat(thrown.getMessage()).contains("splitChecksHandler must not be null");
+  }
+
+  @Test
+  void constructor_nullIngestCallbacksHandler_throwsNpe() {
+    Throwable thrown =
+        org.junit.jupiter.api.Assertions.assertThrows(
+            NullPointerException.class,
+            () ->
+                new DefaultPaymentService(
+                    createCheckHandler, recordPaymentAttemptHandler, splitChecksHandler, null));
+
+    assertThat(thrown.getMessage()).contains("ingestPaymentCallbacksHandler must not be null");
+  }
 }
@@ -64,6 +64,8 @@ final class CloseTableSessionHandlerTest {
     assertThat(result.sessionId()).isEqualTo(id);
     assertThat(result.status()).isEqualTo(TableSessionStatus.CLOSED);
     assertThat(result.closedAt()).isEqualTo(saved.closedAt());
+    assertThat(result.itemWriteOffs()).isEqualTo(saved.itemWriteOffs());
+    assertThat(result.sessionWriteOffs()).isEqualTo(saved.sessionWriteOffs());
 
     // sanity: closedAt should be "now-ish" (not in the future)
     assertThat(result.closedAt()).isBeforeOrEqualTo(Instant.now());
@@ -73,7 +73,11 @@ final class DefaultTableSessionServiceTest {
     CloseTableSessionInput input = new CloseTableSessionInput(id);
     CloseTableSessionResult expected =
         new CloseTableSessionResult(
-            id, TableSessionStatus.CLOSED, Instant.parse("2026-01-01T00:00:00Z"));
+            id,
+            TableSessionStatus.CLOSED,
+            Instant.parse("2026-01-01T00:00:00Z"),
+            List.of(),
+            List.of());
     when(closeTableSessionHandler.handle(input)).thenReturn(expected);
 
     CloseTableSessionResult actual = service.close(input);
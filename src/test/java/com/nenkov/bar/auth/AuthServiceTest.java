@@ -0,0 +1,143 @@
+package com.nenkov.bar.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.auth.jwt.JwtService;
+import com.nenkov.bar.infrastructure.metrics.FailureOutcomes;
+import com.nenkov.bar.user.UserEntity;
+import com.nenkov.bar.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+final class AuthServiceTest {
+
+  private static final BCryptPasswordEncoder BCRYPT = new BCryptPasswordEncoder(4);
+  private static final String HASH = BCRYPT.encode("correct horse");
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final UserRepository users = mock(UserRepository.class);
+  private final JwtService jwtService = mock(JwtService.class);
+  private final PasswordHashing passwordHashing = new PasswordHashing(BCRYPT, 1, 4, registry);
+  private final LoginThrottle loginThrottle =
+      new LoginThrottle(
+          new LoginThrottle.Limit(2, Duration.ofMinutes(5)),
+          new LoginThrottle.Limit(50, Duration.ofMinutes(1)),
+          100,
+          Clock.systemUTC(),
+          registry);
+  private final AuthService authService =
+      new AuthService(
+          users,
+          passwordHashing,
+          jwtService,
+          loginThrottle,
+          registry,
+          FailureOutcomes.naming(
+              List.of(InvalidCredentialsException.class, LoginThrottledException.class)));
+
+  @AfterEach
+  void tearDown() {
+    passwordHashing.close();
+  }
+
+  @Test
+  void login_issuesTokenForMatchingPassword() {
+    when(users.findByUsername("waiter")).thenReturn(Mono.just(user(true)));
+    when(jwtService.generateAccessToken(anyString(), anyString())).thenReturn("token");
+    when(jwtService.ttlSeconds()).thenReturn(3600L);
+
+    StepVerifier.create(authService.login("waiter", "correct horse"))
+        .assertNext(response -> assertThat(response.accessToken()).isEqualTo("token"))
+        .verifyComplete();
+    assertThat(logins("success")).isEqualTo(1);
+  }
+
+  @Test
+  void login_rejectsWrongPasswordAndInactiveOrUnknownUsers() {
+    when(users.findByUsername("waiter")).thenReturn(Mono.just(user(true)));
+    when(users.findByUsername("retired")).thenReturn(Mono.just(user(false)));
+    when(users.findByUsername("nobody")).thenReturn(Mono.empty());
+
+    StepVerifier.create(authService.login("waiter", "wrong"))
+        .verifyError(InvalidCredentialsException.class);
+    StepVerifier.create(authService.login("retired", "correct horse"))
+        .verifyError(InvalidCredentialsException.class);
+    StepVerifier.create(authService.login("nobody", "correct horse"))
+        .verifyError(InvalidCredentialsException.class);
+    assertThat(logins("InvalidCredentialsException")).isEqualTo(3);
+  }
+
+  @Test
+  void login_refusesAThrottledUsernameWithoutLookingItUp() {
+    when(users.findByUsername("waiter")).thenReturn(Mono.just(user(true)));
+    StepVerifier.create(authService.login("waiter", "wrong"))
+        .verifyError(InvalidCredentialsException.class);
+    StepVerifier.create(authService.login("waiter", "wrong"))
+        .verifyError(InvalidCredentialsException.class);
+    clearInvocations(users);
+
+    StepVerifier.create(authService.login("waiter", "correct horse"))
+        .verifyError(LoginThrottledException.class);
+
+    verify(users, never()).findByUsername(anyString());
+    assertThat(logins("LoginThrottledException")).isEqualTo(1);
+  }
+
+  @Test
+  void login_concurrentWrongPasswords_checkNoMorePasswordsThanTheLimit() {
+    // Slow lookups keep every attempt in flight before any of them has failed.
+    when(users.findByUsername("waiter"))
+        .thenReturn(Mono.just(user(true)).delayElement(Duration.ofMillis(100)));
+
+    List<Class<?>> outcomes =
+        Flux.range(0, 10)
+            .flatMap(
+                _ ->
+                    authService
+                        .login("waiter", "wrong")
+                        .<Class<?>>map(Object::getClass)
+                        .onErrorResume(e -> Mono.<Class<?>>just(e.getClass())))
+            .collectList()
+            .block(Duration.ofSeconds(10));
+
+    assertThat(outcomes).filteredOn(InvalidCredentialsException.class::equals).hasSize(2);
+    assertThat(outcomes).filteredOn(LoginThrottledException.class::equals).hasSize(8);
+  }
+
+  @Test
+  void login_releasesTheReservationWhenTheAttemptDoesNotFail() {
+    when(users.findByUsername("waiter")).thenReturn(Mono.error(new IllegalStateException("db")));
+
+    for (int i = 0; i < 5; i++) {
+      StepVerifier.create(authService.login("waiter", "wrong"))
+          .verifyError(IllegalStateException.class);
+    }
+
+    assertThat(logins(FailureOutcomes.ERROR)).isEqualTo(5);
+  }
+
+  private long logins(String outcome) {
+    return registry.get(AuthService.LOGIN_TIMER).tag("outcome", outcome).timer().count();
+  }
+
+  private static UserEntity user(boolean active) {
+    Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    return new UserEntity(UUID.randomUUID(), "waiter", HASH, "ROLE_USER", active, now, now);
+  }
+}
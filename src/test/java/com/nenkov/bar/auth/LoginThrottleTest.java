@@ -0,0 +1,161 @@
+package com.nenkov.bar.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+final class LoginThrottleTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final LoginThrottle throttle =
+      new LoginThrottle(
+          new LoginThrottle.Limit(3, Duration.ofMinutes(5)),
+          new LoginThrottle.Limit(10, Duration.ofMinutes(1)),
+          1_000,
+          clock,
+          registry);
+
+  @Test
+  void username_isRefusedAfterTooManyFailures() {
+    for (int i = 0; i < 3; i++) {
+      // Each failed attempt keeps its reservation.
+      assertThat(throttle.tryAcquireUsername("waiter")).isTrue();
+    }
+
+    assertThat(throttle.tryAcquireUsername("waiter")).isFalse();
+    assertThat(throttle.tryAcquireUsername(" Waiter ")).isFalse();
+    assertThat(throttle.tryAcquireUsername("manager")).isTrue();
+    assertThat(throttled("username")).isEqualTo(2);
+  }
+
+  @Test
+  void username_isAllowedAgainOnceFailuresLeaveTheWindow() {
+    for (int i = 0; i < 3; i++) {
+      throttle.tryAcquireUsername("waiter");
+    }
+
+    clock.advance(Duration.ofMinutes(10));
+
+    assertThat(throttle.tryAcquireUsername("waiter")).isTrue();
+  }
+
+  @Test
+  void successfulLogin_resetsTheUsernameCount() {
+    throttle.tryAcquireUsername("waiter");
+    throttle.tryAcquireUsername("waiter");
+
+    throttle.usernameSucceeded("waiter");
+    throttle.tryAcquireUsername("waiter");
+    throttle.tryAcquireUsername("waiter");
+
+    assertThat(throttle.tryAcquireUsername("waiter")).isTrue();
+  }
+
+  @Test
+  void releasedReservations_doNotCountAsFailures() {
+    for (int i = 0; i < 10; i++) {
+      assertThat(throttle.tryAcquireUsername("waiter")).isTrue();
+      throttle.releaseUsername("waiter");
+    }
+
+    assertThat(throttle.tryAcquireUsername("waiter")).isTrue();
+    assertThat(throttled("username")).isZero();
+  }
+
+  @Test
+  void concurrentAttempts_admitNoMoreThanTheLimit() throws Exception {
+    int attempts = 64;
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger admitted = new AtomicInteger();
+    try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < attempts; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  if (throttle.tryAcquireUsername("waiter")) {
+                    admitted.incrementAndGet();
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(5, TimeUnit.SECONDS);
+      }
+    }
+
+    assertThat(admitted.get()).isEqualTo(3);
+    assertThat(throttled("username")).isEqualTo(attempts - 3);
+  }
+
+  @Test
+  void client_isRefusedAfterItsOwnLimit() {
+    for (int i = 0; i < 10; i++) {
+      throttle.tryAcquireClient("10.0.0.7");
+    }
+
+    assertThat(throttle.tryAcquireClient("10.0.0.7")).isFalse();
+    assertThat(throttle.tryAcquireClient("10.0.0.8")).isTrue();
+    assertThat(throttled("client")).isEqualTo(1);
+    assertThat(
+            registry
+                .get(LoginThrottle.METRIC_PREFIX + "tracked")
+                .tag("key", "client")
+                .gauge()
+                .value())
+        .isEqualTo(2);
+  }
+
+  private double throttled(String key) {
+    return registry
+        .get(LoginThrottle.METRIC_PREFIX + "throttled")
+        .tag("key", key)
+        .counter()
+        .count();
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      this.now = now.plus(duration);
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+  }
+}
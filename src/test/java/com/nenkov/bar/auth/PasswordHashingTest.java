@@ -0,0 +1,101 @@
+package com.nenkov.bar.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+
+final class PasswordHashingTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void matches_runsOnTheHashingPool() {
+    AtomicReference<String> hashedOn = new AtomicReference<>();
+    PasswordEncoder encoder =
+        new PlainEncoder() {
+          @Override
+          public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            hashedOn.set(Thread.currentThread().getName());
+            return super.matches(rawPassword, encodedPassword);
+          }
+        };
+
+    try (PasswordHashing hashing = new PasswordHashing(encoder, 1, 1, registry)) {
+      assertThat(hashing.matches("secret", "plain:secret").block()).isTrue();
+      assertThat(hashing.matches("guess", "plain:secret").block()).isFalse();
+      assertThat(hashing.encode("secret").block()).isEqualTo("plain:secret");
+    }
+
+    assertThat(hashedOn.get()).startsWith("password-hashing-");
+    assertThat(registry.get(PasswordHashing.METRIC_PREFIX + "duration").timer().count())
+        .isEqualTo(3);
+  }
+
+  @Test
+  void saturatedPool_rejectsBeyondTheQueue() throws InterruptedException {
+    CountDownLatch hashing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder slow =
+        new PlainEncoder() {
+          @Override
+          public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            hashing.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException _) {
+              Thread.currentThread().interrupt();
+            }
+            return super.matches(rawPassword, encodedPassword);
+          }
+        };
+
+    try (PasswordHashing pool = new PasswordHashing(slow, 1, 1, registry)) {
+      Mono<Boolean> running = pool.matches("secret", "plain:secret").cache();
+      running.subscribe();
+      assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+      Mono<Boolean> queued = pool.matches("secret", "plain:secret").cache();
+      queued.subscribe();
+
+      assertThatThrownBy(() -> pool.matches("secret", "plain:secret").block())
+          .isInstanceOf(LoginBusyException.class);
+      assertThat(pool.queued()).isEqualTo(1);
+      assertThat(registry.get(PasswordHashing.METRIC_PREFIX + "queue").gauge().value())
+          .isEqualTo(1);
+      assertThat(registry.get(PasswordHashing.METRIC_PREFIX + "rejected").counter().count())
+          .isEqualTo(1);
+
+      release.countDown();
+      assertThat(running.block()).isTrue();
+      assertThat(queued.block()).isTrue();
+    }
+  }
+
+  @Test
+  void constructor_rejectsEmptyPoolOrQueue() {
+    assertThatThrownBy(() -> new PasswordHashing(new PlainEncoder(), 0, 1, registry))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new PasswordHashing(new PlainEncoder(), 1, 0, registry))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /** Stand-in for BCrypt that prefixes the raw password. */
+  private static class PlainEncoder implements PasswordEncoder {
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+      return "plain:" + rawPassword;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      return encode(rawPassword).equals(encodedPassword);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.nenkov.bar.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+final class SlidingWindowCountersTest {
+
+  private static final Instant T0 = Instant.parse("2026-01-01T12:00:00Z");
+  private static final Duration WINDOW = Duration.ofMinutes(1);
+
+  private final MutableClock clock = new MutableClock(T0);
+  private final SlidingWindowCounters counters = new SlidingWindowCounters(WINDOW, 100, clock);
+
+  @Test
+  void count_addsUpEventsWithinTheWindow() {
+    counters.increment("a");
+    counters.increment("a");
+    counters.increment("b");
+
+    assertThat(counters.count("a")).isEqualTo(2);
+    assertThat(counters.count("b")).isEqualTo(1);
+    assertThat(counters.count("c")).isZero();
+  }
+
+  @Test
+  void count_weighsThePreviousWindowByItsOverlap() {
+    for (int i = 0; i < 4; i++) {
+      counters.increment("a");
+    }
+
+    clock.advance(Duration.ofSeconds(75)); // a quarter into the next window
+    counters.increment("a");
+
+    assertThat(counters.count("a")).isCloseTo(4 * 0.75 + 1, within(1e-9));
+  }
+
+  @Test
+  void count_decaysToZeroAndTheKeyIsDropped() {
+    counters.increment("a");
+
+    clock.advance(WINDOW.multipliedBy(2));
+
+    assertThat(counters.count("a")).isZero();
+    assertThat(counters.size()).isZero();
+  }
+
+  @Test
+  void clear_forgetsTheKey() {
+    counters.increment("a");
+
+    counters.clear("a");
+
+    assertThat(counters.count("a")).isZero();
+    assertThat(counters.size()).isZero();
+  }
+
+  @Test
+  void beyondMaxKeys_staleKeysAreSweptAndNewKeysWaitForRoom() {
+    SlidingWindowCounters small = new SlidingWindowCounters(WINDOW, 2, clock);
+    small.increment("a");
+    small.increment("b");
+
+    small.increment("c");
+    assertThat(small.count("c")).isZero();
+    small.increment("a");
+    assertThat(small.count("a")).isEqualTo(2);
+
+    clock.advance(WINDOW.multipliedBy(2));
+    small.increment("c");
+
+    assertThat(small.count("c")).isEqualTo(1);
+    assertThat(small.size()).isEqualTo(1);
+  }
+
+  @Test
+  void constructor_rejectsEmptyWindowOrCapacity() {
+    assertThatThrownBy(() -> new SlidingWindowCounters(Duration.ZERO, 1, clock))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new SlidingWindowCounters(WINDOW, 0, clock))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      this.now = now.plus(duration);
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.nenkov.bar.auth.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+final class CachingReactiveJwtDecoderTest {
+
+  private static final Instant T0 = Instant.parse("2026-01-01T12:00:00Z");
+  private static final Duration TTL = Duration.ofMinutes(10);
+
+  private final MutableClock clock = new MutableClock(T0);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final List<String> decoded = new ArrayList<>();
+
+  /** Accepts every token starting with "good" until T0 + TTL, like the real decoder would. */
+  private final ReactiveJwtDecoder delegate =
+      token -> {
+        decoded.add(token);
+        if (!token.startsWith("good") || !clock.instant().isBefore(T0.plus(TTL))) {
+          return Mono.error(new BadJwtException("rejected " + token));
+        }
+        return Mono.just(jwt(token, T0.plus(TTL)));
+      };
+
+  @Test
+  void repeatedToken_isVerifiedOnce() {
+    CachingReactiveJwtDecoder decoder =
+        new CachingReactiveJwtDecoder(delegate, 10, clock, registry);
+
+    Jwt first = decoder.decode("good-1").block();
+    Jwt second = decoder.decode("good-1").block();
+
+    assertThat(second).isSameAs(first);
+    assertThat(decoded).containsExactly("good-1");
+    assertThat(gets("hit")).isEqualTo(1);
+    assertThat(gets("miss")).isEqualTo(1);
+    assertThat(registry.get(CachingReactiveJwtDecoder.METRIC_PREFIX + "size").gauge().value())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void cachedToken_isDroppedOnceExpired() {
+    CachingReactiveJwtDecoder decoder =
+        new CachingReactiveJwtDecoder(delegate, 10, clock, registry);
+    decoder.decode("good-1").block();
+
+    clock.set(T0.plus(TTL));
+
+    assertThatThrownBy(() -> decoder.decode("good-1").block()).isInstanceOf(BadJwtException.class);
+    assertThat(decoded).containsExactly("good-1", "good-1");
+    assertThat(decoder.size()).isZero();
+  }
+
+  @Test
+  void rejectedToken_isNeverCached() {
+    CachingReactiveJwtDecoder decoder =
+        new CachingReactiveJwtDecoder(delegate, 10, clock, registry);
+
+    for (int i = 0; i < 3; i++) {
+      assertThatThrownBy(() -> decoder.decode("forged").block())
+          .isInstanceOf(BadJwtException.class);
+    }
+
+    assertThat(decoded).containsExactly("forged", "forged", "forged");
+    assertThat(decoder.size()).isZero();
+  }
+
+  @Test
+  void tokenWithoutExpiry_isNeverCached() {
+    ReactiveJwtDecoder noExpiry =
+        token -> {
+          decoded.add(token);
+          return Mono.just(jwt(token, null));
+        };
+    CachingReactiveJwtDecoder decoder =
+        new CachingReactiveJwtDecoder(noExpiry, 10, clock, registry);
+
+    decoder.decode("good-1").block();
+    decoder.decode("good-1").block();
+
+    assertThat(decoded).hasSize(2);
+    assertThat(decoder.size()).isZero();
+  }
+
+  @Test
+  void beyondCapacity_leastRecentlyUsedTokenIsEvicted() {
+    CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(delegate, 2, clock, registry);
+    decoder.decode("good-1").block();
+    decoder.decode("good-2").block();
+    decoder.decode("good-1").block();
+
+    decoder.decode("good-3").block();
+    decoder.decode("good-1").block();
+    decoder.decode("good-2").block();
+
+    assertThat(decoded).containsExactly("good-1", "good-2", "good-3", "good-2");
+    assertThat(decoder.size()).isEqualTo(2);
+    assertThat(
+            registry
+                .get(CachingReactiveJwtDecoder.METRIC_PREFIX + "evictions")
+                .functionCounter()
+                .count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void constructor_rejectsNonPositiveCapacity() {
+    assertThatThrownBy(() -> new CachingReactiveJwtDecoder(delegate, 0, clock, registry))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private double gets(String result) {
+    return registry
+        .get(CachingReactiveJwtDecoder.METRIC_PREFIX + "gets")
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  private static Jwt jwt(String token, Instant expiresAt) {
+    Jwt.Builder builder =
+        Jwt.withTokenValue(token).header("alg", "HS256").subject("tablet-7").issuedAt(T0);
+    return expiresAt == null ? builder.build() : builder.expiresAt(expiresAt).build();
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void set(Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+  }
+}
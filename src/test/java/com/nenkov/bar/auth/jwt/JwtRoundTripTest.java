@@ -1,5 +1,8 @@
 package com.nenkov.bar.auth.jwt;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +26,10 @@ class JwtRoundTripTest {
 
   @Autowired private JwtProperties props;
 
+  @Autowired private JwtService jwtService;
+
+  @Autowired private MeterRegistry meterRegistry;
+
   @Test
   void shouldEncodeAndDecodeJwt() {
     Instant now = Instant.now();
@@ -56,4 +63,24 @@ class JwtRoundTripTest {
             })
         .verifyComplete();
   }
+
+  @Test
+  void repeatedToken_isServedFromTheVerificationCache() {
+    String token = jwtService.generateAccessToken("tablet-7", "ROLE_WAITER");
+    double hitsBefore = cacheHits();
+
+    Jwt first = reactiveJwtDecoder.decode(token).block();
+    Jwt second = reactiveJwtDecoder.decode(token).block();
+
+    assertThat(second).isSameAs(first);
+    assertThat(cacheHits() - hitsBefore).isEqualTo(1);
+  }
+
+  private double cacheHits() {
+    return meterRegistry
+        .get(CachingReactiveJwtDecoder.METRIC_PREFIX + "gets")
+        .tag("result", "hit")
+        .functionCounter()
+        .count();
+  }
 }
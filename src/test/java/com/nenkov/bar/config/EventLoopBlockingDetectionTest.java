@@ -0,0 +1,154 @@
+package com.nenkov.bar.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.application.payment.model.RecordPaymentAttemptInput;
+import com.nenkov.bar.application.payment.model.RecordPaymentAttemptResult;
+import com.nenkov.bar.application.payment.service.PaymentService;
+import com.nenkov.bar.application.session.exception.TableSessionNotFoundException;
+import com.nenkov.bar.application.session.model.GetTableSessionInput;
+import com.nenkov.bar.application.session.service.TableSessionService;
+import com.nenkov.bar.auth.jwt.JwtService;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.infrastructure.reactive.EventLoopBlockingDetector;
+import com.nenkov.bar.testsupport.EventLoopBlockingTestExecutionListener;
+import com.nenkov.bar.web.api.payment.RecordPaymentAttemptRequest;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EventLoopBlockingDetectionTest {
+
+  @LocalServerPort int port;
+
+  @Autowired JwtService jwtService;
+
+  @Autowired EventLoopBlockingDetector detector;
+
+  @Autowired ApplicationContext applicationContext;
+
+  @MockitoBean TableSessionService tableSessionService;
+
+  @MockitoBean PaymentService paymentService;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setUp() {
+    this.webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    // The violation below is intended; keep it from failing the test afterwards.
+    detector.clearViolations();
+  }
+
+  @Test
+  void blockingHandler_isReportedWithItsEndpoint() {
+    when(tableSessionService.getById(any(GetTableSessionInput.class)))
+        .thenAnswer(
+            _ -> {
+              Thread.sleep(200);
+              throw new TableSessionNotFoundException(TableSessionId.of("S-1"));
+            });
+
+    webTestClient
+        .get()
+        .uri("/sessions/S-1")
+        .header("Authorization", "Bearer " + jwtService.generateAccessToken("test-user", "MANAGER"))
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+
+    assertThat(detector.mode()).isEqualTo(EventLoopBlockingDetector.Mode.STRICT);
+    assertThat(detector.violations())
+        .extracting(EventLoopBlockingDetector.Violation::endpoint)
+        .contains("SessionController.getById");
+  }
+
+  @Test
+  void blockingHandler_failsTheTestOnlyWhenItRanOnTheServer() throws Exception {
+    when(tableSessionService.getById(any(GetTableSessionInput.class)))
+        .thenAnswer(
+            _ -> {
+              Thread.sleep(200);
+              throw new TableSessionNotFoundException(TableSessionId.of("S-1"));
+            });
+    webTestClient
+        .get()
+        .uri("/sessions/S-1")
+        .header("Authorization", "Bearer " + jwtService.generateAccessToken("test-user", "MANAGER"))
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+    EventLoopBlockingTestExecutionListener listener = new EventLoopBlockingTestExecutionListener();
+    StaticApplicationContext withoutServer = new StaticApplicationContext();
+    withoutServer.getBeanFactory().registerSingleton("detector", detector);
+
+    listener.afterTestMethod(testContextOf(withoutServer));
+
+    assertThatThrownBy(() -> listener.afterTestMethod(testContextOf(applicationContext)))
+        .isInstanceOf(AssertionError.class)
+        .hasMessageContaining("SessionController.getById");
+  }
+
+  @Test
+  void slowPaymentAttempt_doesNotHoldTheEventLoop() {
+    RecordPaymentAttemptResult result =
+        new RecordPaymentAttemptResult(
+            PaymentRequestId.of("req-1"),
+            TableSessionId.of("S-1"),
+            CheckId.of(UUID.fromString("11111111-1111-1111-1111-111111111111")),
+            PaymentAttemptResult.approved("prov-1"));
+    when(paymentService.recordPaymentAttempt(any(RecordPaymentAttemptInput.class)))
+        .thenAnswer(
+            _ ->
+                CompletableFuture.supplyAsync(
+                    () -> result, CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS)));
+
+    webTestClient
+        .post()
+        .uri(
+            "/sessions/{sessionId}/checks/{checkId}/attempts",
+            "S-1",
+            "11111111-1111-1111-1111-111111111111")
+        .header("Authorization", "Bearer " + jwtService.generateAccessToken("test-user", "MANAGER"))
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new RecordPaymentAttemptRequest("req-1"))
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    assertThat(detector.violations())
+        .extracting(EventLoopBlockingDetector.Violation::endpoint)
+        .doesNotContain("PaymentController.recordPaymentAttempt");
+  }
+
+  private static TestContext testContextOf(ApplicationContext applicationContext) {
+    TestContext testContext = mock(TestContext.class);
+    when(testContext.hasApplicationContext()).thenReturn(true);
+    when(testContext.getApplicationContext()).thenReturn(applicationContext);
+    return testContext;
+  }
+}
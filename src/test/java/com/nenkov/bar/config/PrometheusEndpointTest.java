@@ -0,0 +1,46 @@
+package com.nenkov.bar.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+// Metrics export is disabled in tests by default; re-enable the Prometheus registry here.
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "management.defaults.metrics.export.enabled=true",
+      "management.prometheus.metrics.export.enabled=true"
+    })
+class PrometheusEndpointTest {
+
+  @LocalServerPort private int port;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setUp() {
+    this.webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+  }
+
+  @Test
+  void prometheusEndpoint_isScrapeableWithoutToken_andExposesHandlerAndRepositoryTimers() {
+    String body =
+        webTestClient
+            .get()
+            .uri("/actuator/prometheus")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(body)
+        .contains("app_handler_seconds_bucket{handler=\"RecordPaymentAttemptHandler\"")
+        .contains("app_repository_seconds_count{method=\"findById\"");
+  }
+}
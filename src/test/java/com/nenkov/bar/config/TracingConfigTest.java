@@ -0,0 +1,101 @@
+package com.nenkov.bar.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nenkov.bar.auth.jwt.JwtService;
+import com.nenkov.bar.infrastructure.tracing.CorrelatedServerRequestObservationConvention;
+import com.nenkov.bar.infrastructure.tracing.InMemorySpanExporter;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"app.tracing.head-sample-ratio=1.0", "app.tracing.export.exporter=MEMORY"})
+class TracingConfigTest {
+
+  @LocalServerPort int port;
+
+  @Autowired JwtService jwtService;
+
+  @Autowired InMemorySpanExporter exporter;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setUp() {
+    this.webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    exporter.reset();
+  }
+
+  @Test
+  void request_isTracedThroughHandlerAndRepository() throws InterruptedException {
+    // The placeholder repository fails, which is recorded on its span and every span above it.
+    webTestClient
+        .get()
+        .uri("/sessions/S-1")
+        .header("Authorization", "Bearer " + jwtService.generateAccessToken("test-user", "MANAGER"))
+        .header(CorrelatedServerRequestObservationConvention.HEADER, "req-42")
+        .exchange()
+        .expectStatus()
+        .is5xxServerError();
+
+    List<SpanData> spans = awaitSpans("TableSessionRepository.findById", "GetTableSessionHandler");
+    SpanData server =
+        spans.stream()
+            .filter(span -> "req-42".equals(requestId(span)))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("no server span with request id: " + spans));
+    SpanData handler = named(spans, "GetTableSessionHandler");
+    SpanData repository = named(spans, "TableSessionRepository.findById");
+
+    assertThat(handler.getTraceId()).isEqualTo(server.getTraceId());
+    assertThat(repository.getParentSpanId()).isEqualTo(handler.getSpanId());
+    assertThat(repository.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+    assertThat(handler.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+  }
+
+  private static String requestId(SpanData span) {
+    return span.getAttributes()
+        .get(AttributeKey.stringKey(CorrelatedServerRequestObservationConvention.KEY));
+  }
+
+  private static SpanData named(List<SpanData> spans, String name) {
+    return spans.stream()
+        .filter(span -> span.getName().equalsIgnoreCase(name))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("no span named " + name + ": " + spans));
+  }
+
+  /**
+   * Sampled spans are exported in batches, after the response has been written. The server span
+   * ends last, so it is awaited along with {@code names}.
+   */
+  private List<SpanData> awaitSpans(String... names) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (true) {
+      List<SpanData> spans = exporter.spans();
+      boolean serverEnded = spans.stream().anyMatch(span -> requestId(span) != null);
+      boolean allEnded =
+          Stream.of(names)
+              .allMatch(
+                  name -> spans.stream().anyMatch(span -> span.getName().equalsIgnoreCase(name)));
+      if (serverEnded && allEnded) {
+        return spans;
+      }
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("spans not exported: " + spans);
+      }
+      Thread.sleep(20);
+    }
+  }
+}
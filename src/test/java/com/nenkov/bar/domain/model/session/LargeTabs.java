@@ -0,0 +1,53 @@
+package com.nenkov.bar.domain.model.session;
+
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deterministic table sessions of a given size, shared by the scaling test and the JMH benchmarks.
+ */
+final class LargeTabs {
+
+  static final String CURRENCY = "EUR";
+  static final TableSessionId SESSION_ID = TableSessionId.of("S-large");
+
+  private static final Money UNIT_PRICE = Money.of(CURRENCY, new BigDecimal("4.50"));
+
+  private LargeTabs() {}
+
+  /** Open session with {@code size} accepted, unpaid order items. */
+  static TableSession open(int size) {
+    return new TableSession(
+        SESSION_ID,
+        CURRENCY,
+        contents(size, OrderItemStatus.ACCEPTED, 1),
+        TableSessionStatus.OPEN,
+        null);
+  }
+
+  /** Open session with {@code size} delivered, fully paid order items; closing it succeeds. */
+  static TableSession settled(int size) {
+    return new TableSession(
+        SESSION_ID,
+        CURRENCY,
+        contents(size, OrderItemStatus.DELIVERED, 0),
+        TableSessionStatus.OPEN,
+        null);
+  }
+
+  /** Contents of {@code size} items, each with a payable snapshot of {@code remaining} units. */
+  static TableSessionContents contents(int size, OrderItemStatus status, int remaining) {
+    List<OrderItem> orderItems = new ArrayList<>(size);
+    List<SessionItemSnapshot> payableItems = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      OrderItemId id = OrderItemId.of(new UUID(0L, i));
+      orderItems.add(new OrderItem(id, "product-" + (i % 40), 1, status));
+      payableItems.add(new SessionItemSnapshot(id, UNIT_PRICE, remaining));
+    }
+    return new TableSessionContents(payableItems, orderItems, List.of(), List.of());
+  }
+}
@@ -0,0 +1,157 @@
+package com.nenkov.bar.domain.model.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
+import com.nenkov.bar.testsupport.Footprint;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports the retained heap size of table session state and guards how much each item adds.
+ *
+ * <p>Tabs here are built the way a repository hydrates them: every item has its own id, product id
+ * string and prices, and the currency code is a fresh string per price rather than a shared
+ * constant. Measured sizes are logged; run with {@code -Dfootprint.report=true} to also log a
+ * per-class breakdown of the largest tab.
+ *
+ * <p>Budgets are in bytes per item, with roughly a quarter of headroom over the measured size on a
+ * 64-bit JVM with compressed oops. They are skipped on other layouts (see {@link
+ * Footprint#hasCompressedLayout()}). Override one with {@code -Dfootprint.budget.<name>=<bytes>},
+ * for example to try out a layout change before committing to it.
+ *
+ * <p>At the time of writing an item costs about 280 bytes in a tab. A third of that is the UUID
+ * behind its id and its product id string, and every price carries about 48 bytes of its own
+ * currency string, so interning currency codes and compacting ids are the first places to look.
+ */
+final class TableSessionFootprintTest {
+
+  private static final Logger log = LoggerFactory.getLogger(TableSessionFootprintTest.class);
+
+  private static final int[] TAB_SIZES = {1, 10, 100, 1_000};
+  private static final int SMALL = 100;
+  private static final int LARGE = 1_100;
+
+  private static final Instant CREATED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Test
+  void retainedSize_growsWithTabSize() {
+    for (int size : TAB_SIZES) {
+      TableSessionContents contents = contents(size);
+      TableSession tab = tab(contents);
+      log.info(
+          "{} items: TableSession {} B, TableSessionContents {} B, Check {} B",
+          size,
+          Footprint.retained(tab),
+          Footprint.retained(contents),
+          Footprint.retained(paidInFull(tab)));
+    }
+    TableSession largest = tab(contents(TAB_SIZES[TAB_SIZES.length - 1]));
+    if (Boolean.getBoolean("footprint.report")) {
+      log.info(
+          "Largest classes in a {}-item tab:{}{}",
+          TAB_SIZES[TAB_SIZES.length - 1],
+          System.lineSeparator(),
+          Footprint.breakdown(largest));
+    }
+
+    assertThat(Footprint.retained(largest)).isGreaterThan(Footprint.retained(tab(contents(1))));
+  }
+
+  @Test
+  void tableSession_perItemOverheadStaysWithinBudget() {
+    assertPerItem("tableSession", 350, size -> tab(contents(size)));
+  }
+
+  @Test
+  void contents_perItemOverheadStaysWithinBudget() {
+    assertPerItem("contents", 350, TableSessionFootprintTest::contents);
+  }
+
+  @Test
+  void orderItem_perItemOverheadStaysWithinBudget() {
+    assertPerItem("orderItem", 175, size -> contents(size).orderItems());
+  }
+
+  @Test
+  void sessionItemSnapshot_perItemOverheadStaysWithinBudget() {
+    assertPerItem("sessionItemSnapshot", 235, size -> contents(size).payableItems());
+  }
+
+  @Test
+  void money_perItemOverheadStaysWithinBudget() {
+    assertPerItem(
+        "money",
+        145,
+        size ->
+            contents(size).payableItems().stream().map(SessionItemSnapshot::unitPrice).toList());
+  }
+
+  @Test
+  void check_perItemOverheadStaysWithinBudget() {
+    assertPerItem("check", 385, size -> paidInFull(tab(contents(size))));
+  }
+
+  private static void assertPerItem(String name, long defaultBudget, IntFunction<?> build) {
+    long budget = Long.getLong("footprint.budget." + name, defaultBudget);
+    double perItem = Footprint.perItem(SMALL, LARGE, build);
+    log.info("{}: {} B per item (budget {})", name, "%.1f".formatted(perItem), budget);
+
+    assumeTrue(
+        Footprint.hasCompressedLayout(), "budgets assume compressed references, 8-byte alignment");
+    assertThat(perItem).as("%s bytes per item", name).isLessThanOrEqualTo(budget);
+  }
+
+  /** Open tab holding {@code contents}. */
+  private static TableSession tab(TableSessionContents contents) {
+    return new TableSession(
+        LargeTabs.SESSION_ID, LargeTabs.CURRENCY, contents, TableSessionStatus.OPEN, null);
+  }
+
+  /** {@code size} delivered items, each with its own ids, product id and price. */
+  private static TableSessionContents contents(int size) {
+    List<OrderItem> orderItems = new ArrayList<>(size);
+    List<SessionItemSnapshot> payableItems = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      OrderItemId id = OrderItemId.of(new UUID(i, i));
+      orderItems.add(new OrderItem(id, "product-" + i, 1, OrderItemStatus.DELIVERED));
+      payableItems.add(new SessionItemSnapshot(id, price(i), 1));
+    }
+    return new TableSessionContents(payableItems, orderItems, List.of(), List.of());
+  }
+
+  /** A check paying every item of {@code tab}, with freshly allocated amounts per line. */
+  private static Check paidInFull(TableSession tab) {
+    List<PaidItem> paidItems = new ArrayList<>();
+    BigDecimal total = BigDecimal.ZERO;
+    int line = 0;
+    for (SessionItemSnapshot item : tab.payableItemsSnapshot()) {
+      Money unitPrice = price(line);
+      paidItems.add(PaidItem.of(item.itemId(), 1, unitPrice, price(line++)));
+      total = total.add(unitPrice.amount());
+    }
+    return Check.create(
+        tab.id(), CheckId.of(new UUID(1L, 1L)), Money.of(currency(), total), paidItems, CREATED_AT);
+  }
+
+  /** A price as decoded from a database row: its own amount and its own currency string. */
+  private static Money price(int line) {
+    return Money.of(currency(), BigDecimal.valueOf(450 + line % 100, 2));
+  }
+
+  private static String currency() {
+    return new String(LargeTabs.CURRENCY.toCharArray());
+  }
+}
@@ -0,0 +1,268 @@
+package com.nenkov.bar.domain.model.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nenkov.bar.domain.exceptions.IllegalDomainStateException;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckQuote;
+import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.model.payment.PaymentReference;
+import com.nenkov.bar.domain.model.payment.PaymentSelection;
+import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOffReason;
+import com.nenkov.bar.domain.service.payment.DefaultCheckAmountCalculator;
+import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TableSessionRecordPaidCheckTest {
+
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-ledger");
+  private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Test
+  void recordPaidCheck_reducesRemainingQuantity_andAccumulatesTotals() {
+    OrderItemId beer = OrderItemId.random();
+    OrderItemId fries = OrderItemId.random();
+    TableSession session =
+        openSession(
+            List.of(
+                new SessionItemSnapshot(beer, eur("4.00"), 3),
+                new SessionItemSnapshot(fries, eur("5.00"), 1)));
+
+    TableSession afterFirst =
+        session.recordPaidCheck(paidCheck(PaidItem.of(beer, 2, eur("4.00"), eur("7.50"))));
+    TableSession afterSecond =
+        afterFirst.recordPaidCheck(
+            paidCheck(
+                PaidItem.of(beer, 1, eur("4.00"), eur("3.75")),
+                PaidItem.of(fries, 1, eur("5.00"), eur("5.00"))));
+
+    assertThat(afterSecond.payableItemsSnapshot())
+        .extracting(SessionItemSnapshot::remainingQuantity)
+        .containsExactly(0, 0);
+    assertThat(afterSecond.paymentTotals())
+        .containsExactly(
+            new ItemPaymentTotal(beer, 3, eur("11.25")),
+            new ItemPaymentTotal(fries, 1, eur("5.00")));
+
+    // Original instances are untouched.
+    assertThat(session.paymentTotals()).isEmpty();
+    assertThat(afterFirst.payableItemsSnapshot().getFirst().remainingQuantity()).isEqualTo(1);
+  }
+
+  @Test
+  void sequentialChecks_consumeSessionWriteOffOnlyOnce() {
+    OrderItemId beer = OrderItemId.random();
+    TableSession session =
+        new TableSession(
+            SESSION_ID,
+            "EUR",
+            new TableSessionContents(
+                List.of(new SessionItemSnapshot(beer, eur("10.00"), 10)),
+                List.of(),
+                List.of(),
+                List.of(WriteOff.of(eur("10.00"), WriteOffReason.DISCOUNT))),
+            TableSessionStatus.OPEN,
+            null);
+
+    Check first = payQuote(session, PaymentSelection.of(beer, 5));
+    TableSession afterFirst = session.recordPaidCheck(first);
+    Check second = payQuote(afterFirst, PaymentSelection.of(beer, 5));
+    TableSession afterSecond = afterFirst.recordPaidCheck(second);
+
+    assertThat(first.amount()).isEqualTo(eur("45.00"));
+    assertThat(second.amount()).isEqualTo(eur("45.00"));
+    assertThat(afterFirst.outstandingSessionWriteOffs())
+        .extracting(WriteOff::amount)
+        .containsExactly(eur("5.00"));
+    assertThat(afterSecond.outstandingSessionWriteOffs()).isEmpty();
+    assertThat(afterSecond.paymentTotals())
+        .containsExactly(new ItemPaymentTotal(beer, 10, eur("90.00"), eur("0.00"), eur("10.00")));
+  }
+
+  @Test
+  void sequentialChecks_sumToGrossMinusItemAndSessionWriteOffs() {
+    OrderItemId beer = OrderItemId.random();
+    OrderItemId fries = OrderItemId.random();
+    TableSession session =
+        new TableSession(
+            SESSION_ID,
+            "EUR",
+            new TableSessionContents(
+                List.of(
+                    new SessionItemSnapshot(beer, eur("5.00"), 4),
+                    new SessionItemSnapshot(fries, eur("7.00"), 3)),
+                List.of(),
+                List.of(ItemWriteOff.of(beer, 3, eur("10.00"), WriteOffReason.COMPENSATION)),
+                List.of(WriteOff.of(eur("3.00"), WriteOffReason.DISCOUNT))),
+            TableSessionStatus.OPEN,
+            null);
+
+    Check first = payQuote(session, PaymentSelection.of(beer, 1), PaymentSelection.of(fries, 1));
+    session = session.recordPaidCheck(first);
+    Check second = payQuote(session, PaymentSelection.of(beer, 2));
+    session = session.recordPaidCheck(second);
+    Check third = payQuote(session, PaymentSelection.of(beer, 1), PaymentSelection.of(fries, 2));
+    session = session.recordPaidCheck(third);
+
+    // gross 41.00 - item write-off 10.00 - session write-off 3.00
+    assertThat(first.amount().plus(second.amount()).plus(third.amount())).isEqualTo(eur("28.00"));
+    assertThat(session.outstandingItemWriteOffs()).isEmpty();
+    assertThat(session.outstandingSessionWriteOffs()).isEmpty();
+  }
+
+  @Test
+  void outstandingItemWriteOffs_coverOnlyUnitsNotYetPaid() {
+    OrderItemId beer = OrderItemId.random();
+    TableSession session =
+        new TableSession(
+            SESSION_ID,
+            "EUR",
+            new TableSessionContents(
+                List.of(new SessionItemSnapshot(beer, eur("5.00"), 4)),
+                List.of(),
+                List.of(ItemWriteOff.of(beer, 2, eur("4.00"), WriteOffReason.PROMOTION, "happy")),
+                List.of()),
+            TableSessionStatus.OPEN,
+            null);
+
+    TableSession paid = session.recordPaidCheck(payQuote(session, PaymentSelection.of(beer, 1)));
+
+    assertThat(paid.outstandingItemWriteOffs())
+        .containsExactly(ItemWriteOff.of(beer, 1, eur("2.00"), WriteOffReason.PROMOTION, "happy"));
+    assertThat(paid.itemWriteOffs()).isEqualTo(session.itemWriteOffs());
+  }
+
+  @Test
+  void outstandingItemWriteOffs_keepEachWriteOff_andConsumeThemInRecordingOrder() {
+    OrderItemId beer = OrderItemId.random();
+    ItemWriteOff happyHour =
+        ItemWriteOff.of(beer, 2, eur("2.00"), WriteOffReason.PROMOTION, "happy");
+    ItemWriteOff spilled =
+        ItemWriteOff.of(beer, 2, eur("6.00"), WriteOffReason.COMPENSATION, "spilled");
+    TableSession session =
+        new TableSession(
+            SESSION_ID,
+            "EUR",
+            new TableSessionContents(
+                List.of(new SessionItemSnapshot(beer, eur("5.00"), 5)),
+                List.of(),
+                List.of(happyHour, spilled),
+                List.of()),
+            TableSessionStatus.OPEN,
+            null);
+
+    Check first = payQuote(session, PaymentSelection.of(beer, 1));
+    TableSession afterFirst = session.recordPaidCheck(first);
+    Check second = payQuote(afterFirst, PaymentSelection.of(beer, 2));
+    TableSession afterSecond = afterFirst.recordPaidCheck(second);
+
+    assertThat(first.amount()).isEqualTo(eur("4.00"));
+    assertThat(afterFirst.outstandingItemWriteOffs())
+        .containsExactly(
+            ItemWriteOff.of(beer, 1, eur("1.00"), WriteOffReason.PROMOTION, "happy"), spilled);
+    // The last happy-hour unit (1.00) is used up before one spilled unit (3.00).
+    assertThat(second.amount()).isEqualTo(eur("6.00"));
+    assertThat(afterSecond.outstandingItemWriteOffs())
+        .containsExactly(
+            ItemWriteOff.of(beer, 1, eur("3.00"), WriteOffReason.COMPENSATION, "spilled"));
+  }
+
+  @Test
+  void recordPaidCheck_allowsCloseOnceDeliveredItemsArePaid() {
+    OrderItem delivered = new OrderItem(OrderItemId.random(), "P-1", 2, OrderItemStatus.DELIVERED);
+    TableSessionContents contents =
+        new TableSessionContents(
+            List.of(new SessionItemSnapshot(delivered.id(), eur("2.00"), 2)),
+            List.of(delivered),
+            List.of(),
+            List.of());
+    TableSession session =
+        new TableSession(SESSION_ID, "EUR", contents, TableSessionStatus.OPEN, null);
+
+    TableSession paid =
+        session.recordPaidCheck(
+            paidCheck(PaidItem.of(delivered.id(), 2, eur("2.00"), eur("4.00"))));
+
+    assertThat(paid.closeByManager(T0).status()).isEqualTo(TableSessionStatus.CLOSED);
+  }
+
+  @Test
+  void recordPaidCheck_whenCheckNotPaid_throwsIllegalDomainState() {
+    OrderItemId itemId = OrderItemId.random();
+    TableSession session = openSession(List.of(new SessionItemSnapshot(itemId, eur("4.00"), 1)));
+    Check created =
+        Check.createNew(
+            SESSION_ID, eur("4.00"), List.of(PaidItem.of(itemId, 1, eur("4.00"), eur("4.00"))), T0);
+
+    assertThrows(IllegalDomainStateException.class, () -> session.recordPaidCheck(created));
+  }
+
+  @Test
+  void recordPaidCheck_whenQuantityExceedsRemaining_throwsIllegalDomainState() {
+    OrderItemId itemId = OrderItemId.random();
+    TableSession session = openSession(List.of(new SessionItemSnapshot(itemId, eur("4.00"), 1)));
+    Check check = paidCheck(PaidItem.of(itemId, 2, eur("4.00"), eur("8.00")));
+
+    Throwable thrown =
+        assertThrows(IllegalDomainStateException.class, () -> session.recordPaidCheck(check));
+
+    assertThat(thrown.getMessage()).contains("exceeds remaining quantity");
+  }
+
+  @Test
+  void recordPaidCheck_whenCheckBelongsToOtherSession_throwsIllegalArgument() {
+    OrderItemId itemId = OrderItemId.random();
+    TableSession session = openSession(List.of(new SessionItemSnapshot(itemId, eur("4.00"), 1)));
+    Check foreign =
+        Check.createNew(
+            TableSessionId.of("S-other"),
+            eur("4.00"),
+            List.of(PaidItem.of(itemId, 1, eur("4.00"), eur("4.00"))),
+            T0);
+    foreign.markPaid(PaymentReference.of("ref"), T0);
+
+    assertThrows(IllegalArgumentException.class, () -> session.recordPaidCheck(foreign));
+  }
+
+  private static TableSession openSession(List<SessionItemSnapshot> payableItems) {
+    TableSessionContents contents =
+        new TableSessionContents(payableItems, List.of(), List.of(), List.of());
+    return new TableSession(SESSION_ID, "EUR", contents, TableSessionStatus.OPEN, null);
+  }
+
+  private static Check paidCheck(PaidItem... items) {
+    Money amount = Money.zero("EUR");
+    for (PaidItem item : items) {
+      amount = amount.plus(item.paidAmount());
+    }
+    Check check = Check.createNew(SESSION_ID, amount, List.of(items), T0);
+    check.markPaid(PaymentReference.of("ref"), T0);
+    return check;
+  }
+
+  /** Quotes {@code selections} the way CreateCheckHandler does and pays the resulting check. */
+  private static Check payQuote(TableSession session, PaymentSelection... selections) {
+    CheckQuote quote =
+        new DefaultCheckAmountCalculator()
+            .quote(
+                session.currency(),
+                session.payableItemsSnapshot(),
+                List.of(selections),
+                session.outstandingItemWriteOffs(),
+                session.outstandingSessionWriteOffs());
+    Check check = Check.createNew(SESSION_ID, quote.checkAmount(), quote.paidItems(), T0);
+    check.markPaid(PaymentReference.of("ref"), T0);
+    return check;
+  }
+
+  private static Money eur(String amount) {
+    return Money.of("EUR", new BigDecimal(amount));
+  }
+}
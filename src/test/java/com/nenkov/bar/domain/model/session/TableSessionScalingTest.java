@@ -0,0 +1,71 @@
+package com.nenkov.bar.domain.model.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nenkov.bar.testsupport.GrowthRate;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Guards the growth rate of per-operation cost on large tabs.
+ *
+ * <p>Each operation is timed on tabs sixteen times apart in size. Appending copies the tab once and
+ * closing indexes it once, so both should grow linearly; an exponent near 2 means a nested scan has
+ * crept in. Tagged {@code scaling}, so it only runs with {@code -Pscaling}.
+ */
+@Tag("scaling")
+final class TableSessionScalingTest {
+
+  private static final int SMALL = 1_000;
+  private static final int LARGE = 16_000;
+  private static final double MAX_EXPONENT = 1.5;
+
+  private static final Instant CLOSED_AT = Instant.parse("2026-01-01T00:00:00Z");
+  private static final List<OrderItemDraft> ONE_DRAFT = List.of(new OrderItemDraft("beer", 1));
+
+  @Test
+  void addOrderItems_costGrowsLinearlyWithTabSize() {
+    TableSession small = LargeTabs.open(SMALL);
+    TableSession large = LargeTabs.open(LARGE);
+
+    double exponent =
+        GrowthRate.exponent(
+            SMALL,
+            () -> small.addOrderItems(ONE_DRAFT),
+            LARGE,
+            () -> large.addOrderItems(ONE_DRAFT));
+
+    assertThat(exponent).as("addOrderItems grows as size^k").isLessThan(MAX_EXPONENT);
+  }
+
+  @Test
+  void closeByManager_costGrowsLinearlyWithTabSize() {
+    TableSession small = LargeTabs.settled(SMALL);
+    TableSession large = LargeTabs.settled(LARGE);
+
+    double exponent =
+        GrowthRate.exponent(
+            SMALL,
+            () -> small.closeByManager(CLOSED_AT),
+            LARGE,
+            () -> large.closeByManager(CLOSED_AT));
+
+    assertThat(exponent).as("closeByManager grows as size^k").isLessThan(MAX_EXPONENT);
+  }
+
+  @Test
+  void contentsConstruction_costGrowsLinearlyWithTabSize() {
+    double exponent =
+        GrowthRate.exponent(
+            SMALL,
+            () -> LargeTabs.contents(SMALL, OrderItemStatus.DELIVERED, 0),
+            LARGE,
+            () -> LargeTabs.contents(LARGE, OrderItemStatus.DELIVERED, 0));
+
+    assertThat(exponent)
+        .as("TableSessionContents construction grows as size^k")
+        .isLessThan(MAX_EXPONENT);
+  }
+}
@@ -0,0 +1,59 @@
+package com.nenkov.bar.domain.service.payment;
+
+import static com.nenkov.bar.testsupport.TestFixtures.itemId;
+import static com.nenkov.bar.testsupport.TestFixtures.money;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nenkov.bar.domain.model.payment.PaymentSelection;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOffReason;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class CheckQuoteEventTest {
+
+  private static final String EVENT = "com.nenkov.bar.CheckQuote";
+  private static final String BGN = "BGN";
+  private static final OrderItemId A = itemId("00000000-0000-0000-0000-000000000001");
+  private static final OrderItemId B = itemId("00000000-0000-0000-0000-000000000002");
+
+  @TempDir Path tempDir;
+
+  @Test
+  void quote_emitsEventWithInputSizes_whenRecording() throws Exception {
+    DefaultCheckAmountCalculator calc = new DefaultCheckAmountCalculator();
+    Path dump = tempDir.resolve("quote.jfr");
+
+    try (Recording recording = new Recording()) {
+      recording.enable(EVENT).withoutThreshold();
+      recording.start();
+      calc.quote(
+          BGN,
+          List.of(
+              new SessionItemSnapshot(A, money(BGN, "10.00"), 3),
+              new SessionItemSnapshot(B, money(BGN, "5.00"), 2)),
+          List.of(PaymentSelection.of(A, 1)),
+          List.of(ItemWriteOff.of(A, 1, money(BGN, "1.00"), WriteOffReason.DISCOUNT, null)),
+          List.of(WriteOff.of(money(BGN, "0.50"), WriteOffReason.DISCOUNT, null)));
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    List<RecordedEvent> events =
+        RecordingFile.readAllEvents(dump).stream()
+            .filter(e -> e.getEventType().getName().equals(EVENT))
+            .toList();
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.getFirst();
+    assertThat(event.getInt("itemCount")).isEqualTo(2);
+    assertThat(event.getInt("selectionCount")).isEqualTo(1);
+    assertThat(event.getInt("writeOffCount")).isEqualTo(2);
+  }
+}
@@ -0,0 +1,62 @@
+package com.nenkov.bar.domain.service.payment.allocation;
+
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cap sets that leave the largest rounding remainder a proportional allocation can produce.
+ *
+ * <p>Every cap is one cent and the total is chosen so each raw share sits just below or just above
+ * half a cent. Every share then rounds the same way, leaving a remainder of about half the item
+ * count in cents, and each cent has to go to a different item because caps and zero block repeats.
+ * Shared by the scaling test and the JMH benchmarks.
+ */
+final class AdversarialCaps {
+
+  static final String CURRENCY = "EUR";
+
+  /** Direction of the remainder left after rounding. */
+  enum Remainder {
+    /** Shares of 0.0049 round down to zero; about {@code 0.49 * size} cents must be added. */
+    POSITIVE("0.49"),
+    /** Shares of 0.0051 round up to one cent; about {@code 0.49 * size} cents must be removed. */
+    NEGATIVE("0.51");
+
+    private final BigDecimal centsPerItem;
+
+    Remainder(String centsPerItem) {
+      this.centsPerItem = new BigDecimal(centsPerItem);
+    }
+  }
+
+  final Money total;
+  final Map<OrderItemId, Money> caps;
+
+  private AdversarialCaps(Money total, Map<OrderItemId, Money> caps) {
+    this.total = total;
+    this.caps = caps;
+  }
+
+  /**
+   * Builds {@code size} one-cent caps and a total whose shares all round in {@code remainder}'s
+   * direction.
+   *
+   * @param size item count; must be a positive multiple of 100 so the total is whole cents
+   */
+  static AdversarialCaps of(int size, Remainder remainder) {
+    if (size <= 0 || size % 100 != 0) {
+      throw new IllegalArgumentException("size must be a positive multiple of 100");
+    }
+    Money oneCent = Money.of(CURRENCY, new BigDecimal("0.01"));
+    Map<OrderItemId, Money> caps = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      caps.put(OrderItemId.of(new UUID(0L, i)), oneCent);
+    }
+    BigDecimal totalCents = remainder.centsPerItem.multiply(BigDecimal.valueOf(size));
+    return new AdversarialCaps(Money.of(CURRENCY, totalCents.movePointLeft(2)), caps);
+  }
+}
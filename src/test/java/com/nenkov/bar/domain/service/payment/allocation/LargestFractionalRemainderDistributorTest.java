@@ -30,11 +30,11 @@ final class LargestFractionalRemainderDistributorTest {
     //
     // raw 0.004 -> rounded 0.00 => roundingError +0.004
     // all equal => smallest id first => A receives the cent.
-    List<ProportionalAllocator.Share> shares =
+    List<ProportionalAllocator.Share<OrderItemId>> shares =
         List.of(
-            new ProportionalAllocator.Share(A, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(B, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(C, new BigDecimal("0.004")));
+            new ProportionalAllocator.Share<>(A, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(B, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(C, new BigDecimal("0.004")));
 
     Map<OrderItemId, Money> caps = capsAll("1.00");
     Map<OrderItemId, Money> current = zerosABC();
@@ -49,13 +49,13 @@ final class LargestFractionalRemainderDistributorTest {
 
   @Test
   void distribute_positiveRemainder_multipleCents_accumulatesOnFirstCandidate_untilCap() {
-    // Important: the implementation re-walks the ranked list from the start for every cent.
+    // Important: each cent goes to the first candidate that can still take it.
     // With equal ranking and enough cap, the first candidate gets all cents (no round-robin).
-    List<ProportionalAllocator.Share> shares =
+    List<ProportionalAllocator.Share<OrderItemId>> shares =
         List.of(
-            new ProportionalAllocator.Share(A, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(B, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(C, new BigDecimal("0.004")));
+            new ProportionalAllocator.Share<>(A, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(B, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(C, new BigDecimal("0.004")));
 
     Map<OrderItemId, Money> caps = capsAll("1.00");
     Map<OrderItemId, Money> current = zerosABC();
@@ -74,11 +74,11 @@ final class LargestFractionalRemainderDistributorTest {
     //
     // raw 0.006 -> rounded 0.01 => roundingError -0.004 (rounded up)
     // all equal => smallest id first => remove from A.
-    List<ProportionalAllocator.Share> shares =
+    List<ProportionalAllocator.Share<OrderItemId>> shares =
         List.of(
-            new ProportionalAllocator.Share(A, new BigDecimal("0.006")),
-            new ProportionalAllocator.Share(B, new BigDecimal("0.006")),
-            new ProportionalAllocator.Share(C, new BigDecimal("0.006")));
+            new ProportionalAllocator.Share<>(A, new BigDecimal("0.006")),
+            new ProportionalAllocator.Share<>(B, new BigDecimal("0.006")),
+            new ProportionalAllocator.Share<>(C, new BigDecimal("0.006")));
 
     Map<OrderItemId, Money> caps = capsAll("1.00");
 
@@ -98,11 +98,11 @@ final class LargestFractionalRemainderDistributorTest {
   @Test
   void distribute_positiveRemainder_whenAllAtCap_throws() {
     // If all are already at cap, +0.01 cannot be placed anywhere => throw.
-    List<ProportionalAllocator.Share> shares =
+    List<ProportionalAllocator.Share<OrderItemId>> shares =
         List.of(
-            new ProportionalAllocator.Share(A, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(B, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(C, new BigDecimal("0.004")));
+            new ProportionalAllocator.Share<>(A, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(B, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(C, new BigDecimal("0.004")));
 
     Map<OrderItemId, Money> caps = capsAll("0.00");
     Map<OrderItemId, Money> current = zerosABC();
@@ -117,11 +117,11 @@ final class LargestFractionalRemainderDistributorTest {
   void distribute_negativeRemainder_whenCannotDecrementAnything_throws() {
     // Inconsistent state on purpose:
     // remainder is negative, but all current allocations are 0.00, so decrementing is impossible.
-    List<ProportionalAllocator.Share> shares =
+    List<ProportionalAllocator.Share<OrderItemId>> shares =
         List.of(
-            new ProportionalAllocator.Share(A, new BigDecimal("0.006")),
-            new ProportionalAllocator.Share(B, new BigDecimal("0.006")),
-            new ProportionalAllocator.Share(C, new BigDecimal("0.006")));
+            new ProportionalAllocator.Share<>(A, new BigDecimal("0.006")),
+            new ProportionalAllocator.Share<>(B, new BigDecimal("0.006")),
+            new ProportionalAllocator.Share<>(C, new BigDecimal("0.006")));
 
     Map<OrderItemId, Money> caps = capsAll("1.00");
     Map<OrderItemId, Money> current = zerosABC();
@@ -138,11 +138,11 @@ final class LargestFractionalRemainderDistributorTest {
     // Force the distributor to touch B's cap:
     // - A is blocked by cap (0.00), so it will try B next.
     // - B is missing from caps => should throw.
-    List<ProportionalAllocator.Share> shares =
+    List<ProportionalAllocator.Share<OrderItemId>> shares =
         List.of(
-            new ProportionalAllocator.Share(A, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(B, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(C, new BigDecimal("0.004")));
+            new ProportionalAllocator.Share<>(A, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(B, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(C, new BigDecimal("0.004")));
 
     Map<OrderItemId, Money> caps = new LinkedHashMap<>();
     caps.put(A, money(BGN, "0.00"));
@@ -163,11 +163,11 @@ final class LargestFractionalRemainderDistributorTest {
     // Force the distributor to touch B's current allocation:
     // - A is blocked by cap (0.00), so it will try B next.
     // - B is missing from current => should throw.
-    List<ProportionalAllocator.Share> shares =
+    List<ProportionalAllocator.Share<OrderItemId>> shares =
         List.of(
-            new ProportionalAllocator.Share(A, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(B, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(C, new BigDecimal("0.004")));
+            new ProportionalAllocator.Share<>(A, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(B, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(C, new BigDecimal("0.004")));
 
     Map<OrderItemId, Money> caps = new LinkedHashMap<>();
     caps.put(A, money(BGN, "0.00"));
@@ -186,11 +186,11 @@ final class LargestFractionalRemainderDistributorTest {
 
   @Test
   void distribute_zeroRemainder_returnsCurrentUnchanged() {
-    List<ProportionalAllocator.Share> shares =
+    List<ProportionalAllocator.Share<OrderItemId>> shares =
         List.of(
-            new ProportionalAllocator.Share(A, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(B, new BigDecimal("0.004")),
-            new ProportionalAllocator.Share(C, new BigDecimal("0.004")));
+            new ProportionalAllocator.Share<>(A, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(B, new BigDecimal("0.004")),
+            new ProportionalAllocator.Share<>(C, new BigDecimal("0.004")));
 
     Map<OrderItemId, Money> caps = capsAll("1.00");
 
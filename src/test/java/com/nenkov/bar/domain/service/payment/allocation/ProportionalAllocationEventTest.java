@@ -0,0 +1,51 @@
+package com.nenkov.bar.domain.service.payment.allocation;
+
+import static com.nenkov.bar.testsupport.TestFixtures.itemId;
+import static com.nenkov.bar.testsupport.TestFixtures.money;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class ProportionalAllocationEventTest {
+
+  private static final String EVENT = "com.nenkov.bar.ProportionalAllocation";
+  private static final String BGN = "BGN";
+
+  @TempDir Path tempDir;
+
+  @Test
+  void allocate_emitsEventWithCapCountAndRemainder_whenRecording() throws Exception {
+    Map<OrderItemId, Money> caps = new LinkedHashMap<>();
+    caps.put(itemId("00000000-0000-0000-0000-000000000001"), money(BGN, "1.00"));
+    caps.put(itemId("00000000-0000-0000-0000-000000000002"), money(BGN, "1.00"));
+    caps.put(itemId("00000000-0000-0000-0000-000000000003"), money(BGN, "1.00"));
+    Path dump = tempDir.resolve("allocation.jfr");
+
+    try (Recording recording = new Recording()) {
+      recording.enable(EVENT).withoutThreshold();
+      recording.start();
+      ProportionalAllocator.defaultAllocator().allocate(BGN, money(BGN, "1.00"), caps);
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    List<RecordedEvent> events =
+        RecordingFile.readAllEvents(dump).stream()
+            .filter(e -> e.getEventType().getName().equals(EVENT))
+            .toList();
+    assertThat(events).hasSize(1);
+    assertThat(events.getFirst().getInt("capCount")).isEqualTo(3);
+    // 3 x 0.33 leaves one cent for the remainder distributor.
+    assertThat(events.getFirst().getLong("remainderCents")).isEqualTo(1);
+  }
+}
@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import org.junit.jupiter.api.Test;
 
 final class ProportionalAllocatorTest {
@@ -241,21 +242,37 @@ final class ProportionalAllocatorTest {
 
   @Test
   void allocationDraft_nullGuards() {
-    List<ProportionalAllocator.Share> shares = List.of();
+    List<ProportionalAllocator.Share<OrderItemId>> shares = List.of();
     Map<OrderItemId, Money> rounded = Map.of();
     BigDecimal remainderAmount = BigDecimal.ZERO;
 
     assertThrows(
         NullPointerException.class,
-        () -> new ProportionalAllocator.AllocationDraft(null, rounded, remainderAmount));
+        () -> new ProportionalAllocator.AllocationDraft<>(null, rounded, remainderAmount));
 
     assertThrows(
         NullPointerException.class,
-        () -> new ProportionalAllocator.AllocationDraft(shares, null, remainderAmount));
+        () -> new ProportionalAllocator.AllocationDraft<>(shares, null, remainderAmount));
 
     assertThrows(
         NullPointerException.class,
-        () -> new ProportionalAllocator.AllocationDraft(shares, rounded, null));
+        () -> new ProportionalAllocator.AllocationDraft<>(shares, rounded, null));
+  }
+
+  @Test
+  void allocate_byPosition_givesCentTiesToTheSmallestKey() {
+    Map<Integer, Money> caps = new LinkedHashMap<>();
+    caps.put(2, money(BGN, "1.00"));
+    caps.put(0, money(BGN, "1.00"));
+    caps.put(1, money(BGN, "1.00"));
+
+    Map<Integer, Money> result =
+        allocator.allocate(BGN, money(BGN, "1.00"), caps, Function.identity());
+
+    assertEquals(money(BGN, "0.34"), result.get(0));
+    assertEquals(money(BGN, "0.33"), result.get(1));
+    assertEquals(money(BGN, "0.33"), result.get(2));
+    assertEquals(List.of(2, 0, 1), List.copyOf(result.keySet()));
   }
 
   @Test
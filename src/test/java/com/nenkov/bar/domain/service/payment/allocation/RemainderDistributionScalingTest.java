@@ -0,0 +1,54 @@
+package com.nenkov.bar.domain.service.payment.allocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.testsupport.GrowthRate;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Guards against super-linear remainder distribution.
+ *
+ * <p>Times {@link ProportionalAllocator#allocate} on {@link AdversarialCaps} at two sizes sixteen
+ * times apart. Linear work grows as about {@code size^1}; re-scanning the ranked list for every
+ * cent grows as about {@code size^2}. Tagged {@code scaling}, so it only runs with {@code
+ * -Pscaling}.
+ */
+@Tag("scaling")
+final class RemainderDistributionScalingTest {
+
+  private static final int SMALL = 1_000;
+  private static final int LARGE = 16_000;
+  private static final double MAX_EXPONENT = 1.5;
+
+  private final ProportionalAllocator allocator = ProportionalAllocator.defaultAllocator();
+
+  @ParameterizedTest
+  @EnumSource(AdversarialCaps.Remainder.class)
+  void allocate_scalesLinearly_withAdversarialRemainder(AdversarialCaps.Remainder remainder) {
+    AdversarialCaps small = AdversarialCaps.of(SMALL, remainder);
+    AdversarialCaps large = AdversarialCaps.of(LARGE, remainder);
+
+    double exponent =
+        GrowthRate.exponent(SMALL, () -> allocateFully(small), LARGE, () -> allocateFully(large));
+
+    assertTrue(
+        exponent < MAX_EXPONENT,
+        () -> "allocation time grows as size^" + String.format("%.2f", exponent));
+  }
+
+  private void allocateFully(AdversarialCaps fixture) {
+    Map<OrderItemId, Money> allocation =
+        allocator.allocate(AdversarialCaps.CURRENCY, fixture.total, fixture.caps);
+    Money total = Money.zero(AdversarialCaps.CURRENCY);
+    for (Money amount : allocation.values()) {
+      total = total.plus(amount);
+    }
+    assertEquals(fixture.total, total);
+  }
+}
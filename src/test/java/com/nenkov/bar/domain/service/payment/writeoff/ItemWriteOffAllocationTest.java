@@ -134,10 +134,9 @@ final class ItemWriteOffAllocationTest {
   }
 
   @Test
-  void allocateToSelected_aggregatesMultipleWriteOffsForSameItem() {
-    // Two write-offs for the same item:
-    // total amount = 3.00 + 1.00 = 4.00, total qty = 3 + 1 = 4 => per-unit 1.00
-    // selected qty=2 => 2.00
+  void allocateToSelected_coversSelectionWithMultipleWriteOffsForSameItem() {
+    // Two write-offs for the same item, both at 1.00 per unit:
+    // selected qty=2 => both units from the first write-off => 2.00
     PaymentCalculationContext ctx =
         PaymentCalculationContext.create(
             BGN,
@@ -160,9 +159,34 @@ final class ItemWriteOffAllocationTest {
   }
 
   @Test
-  void allocateToSelected_limitsByAggregatedQuantity_whenScopeExceedsAggregatedQty() {
-    // aggregated: amount 3.00 over qty 3 => per-unit 1.00
-    // selected qty=5, but aggregatedQty=3 => allocQty=3 => 3.00
+  void allocateToSelected_usesUpWriteOffsInTheOrderGiven() {
+    // first write-off: 1 unit at 3.00, second: 3 units at 1.00 each
+    // selected qty=2 => 3.00 (first) + 1.00 (one unit of second) = 4.00
+    PaymentCalculationContext ctx =
+        PaymentCalculationContext.create(
+            BGN,
+            List.of(new SessionItemSnapshot(ITEM_A, money(BGN, "10.00"), 10)),
+            List.of(selection(ITEM_A, 2)));
+
+    ItemWriteOffAllocation allocation =
+        ItemWriteOffAllocation.from(
+            BGN,
+            List.of(
+                itemWriteOff(ITEM_A, 1, money(BGN, "3.00")),
+                itemWriteOff(ITEM_A, 3, money(BGN, "3.00"))));
+
+    Map<OrderItemId, Money> grossSelectedByItem = new LinkedHashMap<>();
+    grossSelectedByItem.put(ITEM_A, money(BGN, "20.00"));
+
+    Map<OrderItemId, Money> result = allocation.allocateToSelected(ctx, grossSelectedByItem);
+
+    assertEquals(money(BGN, "4.00"), result.get(ITEM_A));
+  }
+
+  @Test
+  void allocateToSelected_limitsByWrittenOffQuantity_whenScopeExceedsIt() {
+    // write-off: amount 3.00 over qty 3 => per-unit 1.00
+    // selected qty=5, but only 3 units are written off => 3.00
     PaymentCalculationContext ctx =
         PaymentCalculationContext.create(
             BGN,
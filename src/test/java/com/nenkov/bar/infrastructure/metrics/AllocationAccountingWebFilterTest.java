@@ -0,0 +1,94 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.auth.jwt.JwtService;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "app.metrics.allocation.enabled=true")
+class AllocationAccountingWebFilterTest {
+
+  private static final String ROUTE = "/sessions/{sessionId}";
+
+  @LocalServerPort int port;
+
+  @Autowired JwtService jwtService;
+
+  @Autowired MeterRegistry meterRegistry;
+
+  @MockitoBean TableSessionRepository tableSessionRepository;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setUp() {
+    this.webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+  }
+
+  @Test
+  void request_publishesAllocationPerRouteAndStage() throws InterruptedException {
+    when(tableSessionRepository.findById(any(TableSessionId.class))).thenReturn(Optional.empty());
+
+    webTestClient
+        .get()
+        .uri("/sessions/S-1")
+        .header("Authorization", "Bearer " + jwtService.generateAccessToken("test-user", "MANAGER"))
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+    awaitPublished();
+
+    DistributionSummary total = summary(AllocationAccountingWebFilter.TOTAL_STAGE);
+    assertThat(total.count()).isEqualTo(1);
+    assertThat(total.totalAmount()).isPositive();
+    assertThat(summary("compute").totalAmount()).isPositive();
+    assertThat(summary("serialize").totalAmount()).isPositive();
+    assertThat(
+            summary("load").totalAmount()
+                + summary("compute").totalAmount()
+                + summary("save").totalAmount()
+                + summary("serialize").totalAmount())
+        .isEqualTo(total.totalAmount());
+  }
+
+  /** The filter publishes once the response is written, which may be after the client has it. */
+  private void awaitPublished() throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (meterRegistry
+            .find(AllocationAccountingWebFilter.NAME)
+            .tag("route", ROUTE)
+            .tag("stage", AllocationAccountingWebFilter.TOTAL_STAGE)
+            .meter()
+        == null) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("allocation was not published for " + ROUTE);
+      }
+      Thread.sleep(5);
+    }
+  }
+
+  private DistributionSummary summary(String stage) {
+    return meterRegistry
+        .get(AllocationAccountingWebFilter.NAME)
+        .tag("route", ROUTE)
+        .tag("method", "GET")
+        .tag("stage", stage)
+        .summary();
+  }
+}
@@ -0,0 +1,70 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.writeoff.WriteOffReason;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+final class BusinessCountersTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final BusinessCounters counters = new BusinessCounters(registry);
+
+  @Test
+  void counters_arePublishedPerNameAndTag() {
+    counters.orderAdded(3);
+    counters.orderAdded(2);
+    counters.checksCreated(2);
+    counters.paymentAttempted(PaymentAttemptStatus.APPROVED);
+    counters.paymentAttempted(PaymentAttemptStatus.PENDING);
+    counters.sessionOpened();
+    counters.sessionClosed();
+    counters.writeOff(WriteOffReason.DISCOUNT, Money.of("EUR", new BigDecimal("1.50")));
+    counters.writeOff(WriteOffReason.DISCOUNT, Money.of("EUR", new BigDecimal("0.25")));
+    counters.writeOff(WriteOffReason.DISCOUNT, Money.of("EUR", new BigDecimal("2")));
+
+    assertThat(count("orders")).isEqualTo(2);
+    assertThat(count("order.items")).isEqualTo(5);
+    assertThat(count("checks.created")).isEqualTo(2);
+    assertThat(count("payments", "outcome", "approved")).isEqualTo(1);
+    assertThat(count("payments", "outcome", "pending")).isEqualTo(1);
+    assertThat(count("payments", "outcome", "declined")).isZero();
+    assertThat(count("sessions", "event", "opened")).isEqualTo(1);
+    assertThat(count("sessions", "event", "closed")).isEqualTo(1);
+    assertThat(count("writeoffs", "reason", "discount")).isEqualTo(3);
+    assertThat(count("writeoff.amount", "reason", "discount")).isEqualTo(375);
+    assertThat(count("writeoffs", "reason", "compensation")).isZero();
+  }
+
+  @Test
+  void concurrentIncrements_areNotLost() throws InterruptedException {
+    int threads = 8;
+    int perThread = 10_000;
+    try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+      for (int t = 0; t < threads; t++) {
+        executor.execute(
+            () -> {
+              for (int i = 0; i < perThread; i++) {
+                counters.orderAdded(1);
+              }
+            });
+      }
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    assertThat(count("orders")).isEqualTo(threads * perThread);
+    assertThat(count("order.items")).isEqualTo(threads * perThread);
+  }
+
+  private double count(String name, String... tags) {
+    return registry.get(BusinessCounters.PREFIX + name).tags(tags).functionCounter().count();
+  }
+}
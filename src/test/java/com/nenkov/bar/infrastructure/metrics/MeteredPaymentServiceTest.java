@@ -0,0 +1,152 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.model.CreateCheckInput;
+import com.nenkov.bar.application.payment.model.CreateCheckResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.application.payment.model.RecordPaymentAttemptInput;
+import com.nenkov.bar.application.payment.model.RecordPaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.SplitChecksInput;
+import com.nenkov.bar.application.payment.model.SplitChecksResult;
+import com.nenkov.bar.application.payment.service.PaymentService;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.PaymentSelection;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class MeteredPaymentServiceTest {
+
+  private static final FailureOutcomes OUTCOMES =
+      FailureOutcomes.naming(List.of(PaymentGatewayException.class));
+
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-1");
+  private static final CheckId CHECK_ID = CheckId.of(UUID.randomUUID());
+
+  @Mock private PaymentService delegate;
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void handlerCalls_areTimedPerHandlerAndOutcome() {
+    MeteredPaymentService service =
+        new MeteredPaymentService(
+            delegate, registry, Tracer.NOOP, OUTCOMES, new BusinessCounters(registry));
+    CreateCheckInput createInput =
+        new CreateCheckInput(SESSION_ID, List.of(PaymentSelection.of(OrderItemId.random(), 1)));
+    CreateCheckResult created =
+        new CreateCheckResult(SESSION_ID, CHECK_ID, Money.of("EUR", new BigDecimal("4.00")));
+    when(delegate.createCheck(createInput)).thenReturn(created);
+    RecordPaymentAttemptInput attemptInput =
+        new RecordPaymentAttemptInput(PaymentRequestId.of("req-1"), SESSION_ID, CHECK_ID);
+    when(delegate.recordPaymentAttempt(attemptInput))
+        .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayException("down")));
+
+    assertThat(service.createCheck(createInput)).isSameAs(created);
+    assertThat(service.recordPaymentAttempt(attemptInput)).isCompletedExceptionally();
+
+    assertThat(count("CreateCheckHandler", "success")).isEqualTo(1);
+    assertThat(count("RecordPaymentAttemptHandler", "PaymentGatewayException")).isEqualTo(1);
+    assertThat(count("RecordPaymentAttemptHandler", "success")).isZero();
+  }
+
+  @Test
+  void successfulCalls_countChecksAndPaymentOutcomes() {
+    MeteredPaymentService service =
+        new MeteredPaymentService(
+            delegate, registry, Tracer.NOOP, OUTCOMES, new BusinessCounters(registry));
+    RecordPaymentAttemptInput attemptInput =
+        new RecordPaymentAttemptInput(PaymentRequestId.of("req-1"), SESSION_ID, CHECK_ID);
+    when(delegate.recordPaymentAttempt(attemptInput))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new RecordPaymentAttemptResult(
+                    PaymentRequestId.of("req-1"),
+                    SESSION_ID,
+                    CHECK_ID,
+                    PaymentAttemptResult.declined("ref-1", "insufficient funds"))));
+    SplitChecksInput splitInput =
+        new SplitChecksInput(
+            SESSION_ID,
+            List.of(
+                new SplitChecksInput.Split(List.of(PaymentSelection.of(OrderItemId.random(), 1))),
+                new SplitChecksInput.Split(List.of(PaymentSelection.of(OrderItemId.random(), 1)))));
+    CreateCheckResult check =
+        new CreateCheckResult(SESSION_ID, CHECK_ID, Money.of("EUR", new BigDecimal("4.00")));
+    when(delegate.splitIntoChecks(splitInput))
+        .thenReturn(new SplitChecksResult(SESSION_ID, List.of(check, check)));
+
+    service.recordPaymentAttempt(attemptInput).join();
+    service.splitIntoChecks(splitInput);
+
+    assertThat(
+            registry
+                .get("app.business.payments")
+                .tag("outcome", "declined")
+                .functionCounter()
+                .count())
+        .isEqualTo(1);
+    assertThat(
+            registry
+                .get("app.business.payments")
+                .tag("outcome", "approved")
+                .functionCounter()
+                .count())
+        .isZero();
+    assertThat(registry.get("app.business.checks.created").functionCounter().count()).isEqualTo(2);
+  }
+
+  @Test
+  void replayedPaymentAttempt_isNotCountedAgain() {
+    MeteredPaymentService service =
+        new MeteredPaymentService(
+            delegate, registry, Tracer.NOOP, OUTCOMES, new BusinessCounters(registry));
+    RecordPaymentAttemptInput attemptInput =
+        new RecordPaymentAttemptInput(PaymentRequestId.of("req-1"), SESSION_ID, CHECK_ID);
+    RecordPaymentAttemptResult first =
+        new RecordPaymentAttemptResult(
+            PaymentRequestId.of("req-1"),
+            SESSION_ID,
+            CHECK_ID,
+            PaymentAttemptResult.declined("ref-1", "insufficient funds"));
+    when(delegate.recordPaymentAttempt(attemptInput))
+        .thenReturn(CompletableFuture.completedFuture(first))
+        .thenReturn(CompletableFuture.completedFuture(first.asReplay()));
+
+    service.recordPaymentAttempt(attemptInput).join();
+    service.recordPaymentAttempt(attemptInput).join();
+
+    assertThat(
+            registry
+                .get("app.business.payments")
+                .tag("outcome", "declined")
+                .functionCounter()
+                .count())
+        .isEqualTo(1);
+    assertThat(count("RecordPaymentAttemptHandler", "success")).isEqualTo(2);
+  }
+
+  private long count(String handler, String outcome) {
+    return registry
+        .get(HandlerTimers.NAME)
+        .tag("handler", handler)
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+}
@@ -0,0 +1,146 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.common.persistence.RepositoryAccessException;
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionContents;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.domain.model.session.TableSessionStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class MeteredRepositoriesTest {
+
+  @Mock private TableSessionRepository delegate;
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @TempDir Path tempDir;
+
+  @Test
+  void wrap_timesEachMethodByOutcome_andPassesThroughResultsAndExceptions() {
+    TableSessionRepository repository =
+        MeteredRepositories.wrap(
+            TableSessionRepository.class,
+            delegate,
+            registry,
+            Tracer.NOOP,
+            FailureOutcomes.unnamed());
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    when(delegate.findById(sessionId)).thenReturn(Optional.empty());
+    RepositoryAccessException failure = new RepositoryAccessException("db down");
+    when(delegate.existsOpenByTableId("T-1")).thenThrow(failure);
+
+    assertThat(repository.findById(sessionId)).isEmpty();
+    RepositoryAccessException thrown =
+        assertThrows(RepositoryAccessException.class, () -> repository.existsOpenByTableId("T-1"));
+
+    assertThat(thrown).isSameAs(failure);
+    assertThat(count("findById", "success")).isEqualTo(1);
+    assertThat(count("existsOpenByTableId", FailureOutcomes.ERROR)).isEqualTo(1);
+  }
+
+  @Test
+  void wrap_emitsFlightRecorderEventWithSessionAndRowCount_whenRecording() throws Exception {
+    TableSessionRepository repository =
+        MeteredRepositories.wrap(
+            TableSessionRepository.class,
+            delegate,
+            registry,
+            Tracer.NOOP,
+            FailureOutcomes.unnamed());
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    when(delegate.findById(sessionId)).thenReturn(Optional.empty());
+    Path dump = tempDir.resolve("repository.jfr");
+
+    try (Recording recording = new Recording()) {
+      recording.enable("com.nenkov.bar.RepositoryCall").withoutThreshold();
+      recording.start();
+      repository.findById(sessionId);
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    // Application contexts started by other tests in this JVM record calls on their own threads.
+    long testThreadId = Thread.currentThread().threadId();
+    List<RecordedEvent> events =
+        RecordingFile.readAllEvents(dump).stream()
+            .filter(e -> e.getEventType().getName().equals("com.nenkov.bar.RepositoryCall"))
+            .filter(e -> e.getThread() != null && e.getThread().getJavaThreadId() == testThreadId)
+            .toList();
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.getFirst();
+    assertThat(event.getString("repository")).isEqualTo("TableSessionRepository");
+    assertThat(event.getString("method")).isEqualTo("findById");
+    assertThat(event.getString("sessionId")).isEqualTo("S-1");
+    assertThat(event.getInt("rowCount")).isZero();
+    assertThat(event.getString("outcome")).isEqualTo("success");
+  }
+
+  @Test
+  void wrap_attributesTimeAndNotesSession_whenRequestProfiled() {
+    TableSessionRepository repository =
+        MeteredRepositories.wrap(
+            TableSessionRepository.class,
+            delegate,
+            registry,
+            Tracer.NOOP,
+            FailureOutcomes.unnamed());
+    TableSessionId sessionId = TableSessionId.of("S-1");
+    TableSession session =
+        new TableSession(
+            sessionId, "EUR", TableSessionContents.empty(), TableSessionStatus.OPEN, null);
+    when(delegate.findById(sessionId)).thenReturn(Optional.of(session));
+    RequestProfile profile = new RequestProfile(System.nanoTime());
+    RequestProfile.bind(profile);
+    try {
+      repository.findById(sessionId);
+      repository.save(session);
+    } finally {
+      RequestProfile.unbind();
+    }
+
+    assertThat(profile.session()).isSameAs(session);
+    assertThat(profile.nanos(RequestStage.LOAD)).isPositive();
+    assertThat(profile.nanos(RequestStage.SAVE)).isPositive();
+  }
+
+  @Test
+  void wrap_rejectsNonInterfaceType() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            MeteredRepositories.wrap(
+                String.class,
+                "not a repository",
+                registry,
+                Tracer.NOOP,
+                FailureOutcomes.unnamed()));
+  }
+
+  private long count(String method, String outcome) {
+    return registry
+        .get(MeteredRepositories.NAME)
+        .tag("repository", "TableSessionRepository")
+        .tag("method", method)
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+}
@@ -0,0 +1,64 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nenkov.bar.application.payment.exception.CheckNotFoundException;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+final class OutcomeTimerTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final OutcomeTimer timer =
+      new OutcomeTimer(
+          registry,
+          "op",
+          Tags.of("handler", "H"),
+          FailureOutcomes.naming(List.of(CheckNotFoundException.class)));
+
+  @Test
+  void record_successfulCall_isTaggedSuccess() {
+    String result = timer.record(() -> "ok");
+
+    assertThat(result).isEqualTo("ok");
+    assertThat(timer("success").count()).isEqualTo(1);
+  }
+
+  @Test
+  void record_failingCall_isTaggedWithExceptionType_andRethrows() {
+    CheckNotFoundException failure = new CheckNotFoundException(CheckId.of(UUID.randomUUID()));
+
+    CheckNotFoundException thrown =
+        assertThrows(
+            CheckNotFoundException.class,
+            () ->
+                timer.record(
+                    () -> {
+                      throw failure;
+                    }));
+    timer.record(1_000, new CheckNotFoundException(CheckId.of(UUID.randomUUID())));
+
+    assertThat(thrown).isSameAs(failure);
+    assertThat(timer("CheckNotFoundException").count()).isEqualTo(2);
+    assertThat(timer("success").count()).isZero();
+  }
+
+  @Test
+  void record_failureOfUnmappedType_isTaggedError() {
+    timer.record(1_000, new IllegalStateException("bug"));
+    timer.record(1_000, new IllegalArgumentException("bug"));
+
+    assertThat(timer(FailureOutcomes.ERROR).count()).isEqualTo(2);
+    assertThat(registry.find("op").tag("outcome", "IllegalStateException").timer()).isNull();
+  }
+
+  private Timer timer(String outcome) {
+    return registry.get("op").tag("handler", "H").tag("outcome", outcome).timer();
+  }
+}
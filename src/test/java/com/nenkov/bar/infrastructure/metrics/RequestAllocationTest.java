@@ -0,0 +1,58 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+final class RequestAllocationTest {
+
+  @AfterEach
+  void tearDown() {
+    RequestAllocation.unbind();
+  }
+
+  @Test
+  void measureHandler_withoutBoundRequest_justCalls() {
+    assertThat(RequestAllocation.current()).isNull();
+
+    assertThat(RequestAllocation.measureHandler(() -> "result")).isEqualTo("result");
+  }
+
+  @Test
+  void measureHandler_attributesHandlerAllocationToCompute_minusRepositoryStages() {
+    assumeTrue(ThreadAllocatedBytes.supported());
+    RequestAllocation allocation = new RequestAllocation();
+    RequestAllocation.bind(allocation);
+
+    byte[] produced =
+        RequestAllocation.measureHandler(
+            () -> {
+              allocation.add(AllocationStage.LOAD, 1_000_000);
+              return new byte[64 * 1024];
+            });
+
+    assertThat(produced).hasSize(64 * 1024);
+    assertThat(allocation.bytes(AllocationStage.LOAD)).isEqualTo(1_000_000);
+    // Load claims more than the handler allocated, so nothing is left for compute.
+    assertThat(allocation.bytes(AllocationStage.COMPUTE)).isZero();
+
+    RequestAllocation.measureHandler(() -> new byte[64 * 1024]);
+
+    assertThat(allocation.bytes(AllocationStage.COMPUTE)).isGreaterThanOrEqualTo(64 * 1024);
+    assertThat(allocation.total())
+        .isEqualTo(
+            allocation.bytes(AllocationStage.LOAD) + allocation.bytes(AllocationStage.COMPUTE));
+  }
+
+  @Test
+  void add_ignoresNonPositiveBytes() {
+    RequestAllocation allocation = new RequestAllocation();
+
+    allocation.add(AllocationStage.SAVE, -5);
+    allocation.add(AllocationStage.SAVE, 0);
+
+    assertThat(allocation.total()).isZero();
+  }
+}
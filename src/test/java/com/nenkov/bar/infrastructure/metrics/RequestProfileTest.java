@@ -0,0 +1,86 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+final class RequestProfileTest {
+
+  @AfterEach
+  void tearDown() {
+    RequestProfile.unbind();
+  }
+
+  @Test
+  void measureHandler_withoutBoundRequest_justCalls() {
+    assertThat(RequestProfile.current()).isNull();
+
+    assertThat(RequestProfile.measureHandler(() -> "result")).isEqualTo("result");
+  }
+
+  @Test
+  void measureHandler_attributesHandlerTimeToCompute_minusRepositoryStages() {
+    RequestProfile profile = new RequestProfile(System.nanoTime());
+    RequestProfile.bind(profile);
+    long load = TimeUnit.SECONDS.toNanos(10);
+
+    RequestProfile.measureHandler(
+        () -> {
+          profile.add(RequestStage.LOAD, load);
+          return null;
+        });
+
+    assertThat(profile.nanos(RequestStage.LOAD)).isEqualTo(load);
+    // Load claims more than the handler took, so nothing is left for compute.
+    assertThat(profile.nanos(RequestStage.COMPUTE)).isZero();
+
+    RequestProfile.measureHandler(() -> spin(TimeUnit.MILLISECONDS.toNanos(2)));
+
+    assertThat(profile.nanos(RequestStage.COMPUTE))
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(2));
+  }
+
+  @Test
+  void queue_runsFromArrivalToFirstHandler_lessAuth() {
+    long arrival = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(50);
+    RequestProfile profile = new RequestProfile(arrival);
+    RequestProfile.bind(profile);
+
+    assertThat(profile.nanos(RequestStage.QUEUE)).isZero();
+
+    profile.add(RequestStage.AUTH, TimeUnit.MILLISECONDS.toNanos(20));
+    RequestProfile.measureHandler(() -> null);
+    long queue = profile.nanos(RequestStage.QUEUE);
+    RequestProfile.measureHandler(() -> spin(TimeUnit.MILLISECONDS.toNanos(5)));
+
+    assertThat(queue)
+        .isBetween(TimeUnit.MILLISECONDS.toNanos(30), TimeUnit.MILLISECONDS.toNanos(1_000));
+    assertThat(profile.nanos(RequestStage.QUEUE)).isEqualTo(queue);
+  }
+
+  @Test
+  void measureSerialization_excludesStagesAttributedMeanwhile() {
+    RequestProfile profile = new RequestProfile(System.nanoTime());
+    long compute = TimeUnit.SECONDS.toNanos(10);
+
+    profile.measureSerialization(() -> profile.add(RequestStage.COMPUTE, compute));
+
+    assertThat(profile.nanos(RequestStage.COMPUTE)).isEqualTo(compute);
+    assertThat(profile.nanos(RequestStage.SERIALIZE)).isZero();
+
+    profile.measureSerialization(() -> spin(TimeUnit.MILLISECONDS.toNanos(2)));
+
+    assertThat(profile.nanos(RequestStage.SERIALIZE))
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(2));
+  }
+
+  private static Object spin(long nanos) {
+    long start = System.nanoTime();
+    while (System.nanoTime() - start < nanos) {
+      Thread.onSpinWait();
+    }
+    return null;
+  }
+}
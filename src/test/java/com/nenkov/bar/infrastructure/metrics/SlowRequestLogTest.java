@@ -0,0 +1,34 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+final class SlowRequestLogTest {
+
+  @Test
+  void recent_keepsNewestUpToCapacity_newestFirst() {
+    SlowRequestLog log = new SlowRequestLog(2);
+
+    log.record(request("/a"));
+    log.record(request("/b"));
+    log.record(request("/c"));
+
+    assertThat(log.recent()).extracting(SlowRequest::route).containsExactly("/c", "/b");
+
+    log.clear();
+    assertThat(log.recent()).isEmpty();
+  }
+
+  @Test
+  void constructor_rejectsNonPositiveCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new SlowRequestLog(0));
+  }
+
+  private static SlowRequest request(String route) {
+    return new SlowRequest(Instant.EPOCH, "GET", route, 200, null, null, 1_000, Map.of(), null);
+  }
+}
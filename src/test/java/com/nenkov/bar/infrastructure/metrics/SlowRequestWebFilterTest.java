@@ -0,0 +1,97 @@
+package com.nenkov.bar.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nenkov.bar.auth.jwt.JwtService;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "app.metrics.slow-requests.threshold=0ms",
+      "app.metrics.allocation.enabled=true",
+      "management.endpoints.web.exposure.include=slowrequests"
+    })
+class SlowRequestWebFilterTest {
+
+  @LocalServerPort int port;
+
+  @Autowired JwtService jwtService;
+
+  @Autowired SlowRequestLog slowRequestLog;
+
+  private WebTestClient webTestClient;
+  private String token;
+
+  @BeforeEach
+  void setUp() {
+    this.webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    this.token = "Bearer " + jwtService.generateAccessToken("test-user", "MANAGER");
+    slowRequestLog.clear();
+  }
+
+  @Test
+  void requestOverThreshold_isKeptWithStageBreakdown_andListedByEndpoint()
+      throws InterruptedException {
+    // The placeholder repository fails, after auth, routing and the handler have all run.
+    webTestClient
+        .get()
+        .uri("/sessions/S-1")
+        .header("Authorization", token)
+        .exchange()
+        .expectStatus()
+        .is5xxServerError();
+
+    SlowRequest request = awaitRecorded("/sessions/{sessionId}");
+
+    assertThat(request.method()).isEqualTo("GET");
+    assertThat(request.status()).isEqualTo(500);
+    assertThat(request.sessionId()).isEqualTo("S-1");
+    assertThat(request.stageMicros())
+        .containsOnlyKeys("auth", "queue", "load", "compute", "save", "serialize");
+    assertThat(request.stageMicros().get("auth")).isPositive();
+    assertThat(request.durationMicros())
+        .isGreaterThanOrEqualTo(
+            request.stageMicros().values().stream().mapToLong(Long::longValue).sum());
+    assertThat(request.allocatedBytes()).isNotNull();
+
+    webTestClient
+        .get()
+        .uri("/actuator/slowrequests")
+        .header("Authorization", token)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$[?(@.route == '/sessions/{sessionId}')].sessionId")
+        .isEqualTo("S-1");
+  }
+
+  @Test
+  void endpoint_requiresAuthentication() {
+    webTestClient.get().uri("/actuator/slowrequests").exchange().expectStatus().isUnauthorized();
+  }
+
+  /** The filter records once the response is written, which may be after the client has it. */
+  private SlowRequest awaitRecorded(String route) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (true) {
+      List<SlowRequest> matching =
+          slowRequestLog.recent().stream().filter(r -> r.route().equals(route)).toList();
+      if (!matching.isEmpty()) {
+        return matching.getFirst();
+      }
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("no slow request recorded for " + route);
+      }
+      Thread.sleep(5);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.nenkov.bar.infrastructure.payment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.gateway.PaymentGateway;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class ExecutorAsyncPaymentGatewayTest {
+
+  private static final PaymentRequestId REQUEST_ID = PaymentRequestId.of("req-1");
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-1");
+  private static final CheckId CHECK_ID = CheckId.of(UUID.randomUUID());
+  private static final Money AMOUNT = Money.of("EUR", new BigDecimal("3.00"));
+
+  @Mock private PaymentGateway delegate;
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void initiatePayment_completesWithDelegateResult() {
+    PaymentAttemptResult approved = PaymentAttemptResult.approved("prov-1");
+    when(delegate.initiatePayment(REQUEST_ID, SESSION_ID, CHECK_ID, AMOUNT)).thenReturn(approved);
+
+    PaymentAttemptResult result =
+        gateway()
+            .initiatePayment(REQUEST_ID, SESSION_ID, CHECK_ID, AMOUNT, Duration.ofSeconds(1))
+            .join();
+
+    assertThat(result).isSameAs(approved);
+  }
+
+  @Test
+  void fetchPaymentStatus_whenDelegateIsTooSlow_completesWithTimeout() {
+    CountDownLatch release = new CountDownLatch(1);
+    when(delegate.getPaymentStatus(REQUEST_ID))
+        .thenAnswer(
+            _ -> {
+              release.await();
+              return PaymentAttemptResult.pending(null);
+            });
+
+    try {
+      assertThatThrownBy(
+              () -> gateway().fetchPaymentStatus(REQUEST_ID, Duration.ofMillis(20)).join())
+          .isInstanceOf(CompletionException.class)
+          .hasCauseInstanceOf(TimeoutException.class);
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void fetchPaymentStatus_wrapsUnexpectedFailuresAsGatewayException() {
+    when(delegate.getPaymentStatus(REQUEST_ID)).thenThrow(new IllegalStateException("boom"));
+
+    assertThatThrownBy(() -> gateway().fetchPaymentStatus(REQUEST_ID, Duration.ofSeconds(1)).join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(PaymentGatewayException.class);
+  }
+
+  @Test
+  void close_shutsDownExecutor() {
+    gateway().close();
+
+    assertThat(executor.isShutdown()).isTrue();
+  }
+
+  private ExecutorAsyncPaymentGateway gateway() {
+    return new ExecutorAsyncPaymentGateway(delegate, executor);
+  }
+}
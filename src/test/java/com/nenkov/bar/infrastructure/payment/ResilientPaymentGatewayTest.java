@@ -0,0 +1,161 @@
+package com.nenkov.bar.infrastructure.payment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.gateway.PaymentGateway;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.infrastructure.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class ResilientPaymentGatewayTest {
+
+  private static final PaymentRequestId REQUEST_ID = PaymentRequestId.of("req-1");
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-1");
+  private static final CheckId CHECK_ID = CheckId.of(UUID.randomUUID());
+  private static final Money AMOUNT = Money.of("EUR", new BigDecimal("9.00"));
+
+  @Mock private PaymentGateway delegate;
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void declines_countAsSuccessfulCalls() {
+    when(delegate.initiatePayment(REQUEST_ID, SESSION_ID, CHECK_ID, AMOUNT))
+        .thenReturn(PaymentAttemptResult.declined("prov-1", "no funds"));
+
+    ResilientPaymentGateway gateway = gateway(4);
+    for (int i = 0; i < 5; i++) {
+      gateway.initiatePayment(REQUEST_ID, SESSION_ID, CHECK_ID, AMOUNT);
+    }
+
+    assertThat(gateway.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(callCount("initiate", "success")).isEqualTo(5.0);
+    assertThat(
+            registry
+                .get("payment.gateway.call.duration")
+                .tag("operation", "initiate")
+                .timer()
+                .count())
+        .isEqualTo(5);
+  }
+
+  @Test
+  void constructor_registersCallMetersUpFront() {
+    gateway(4);
+
+    assertThat(registry.get("payment.gateway.calls").counters()).hasSize(8);
+    assertThat(registry.get("payment.gateway.call.duration").timers()).hasSize(2);
+    assertThat(registry.get("payment.gateway.circuit.transitions").counters()).hasSize(3);
+    assertThat(callCount("status", "rejected_circuit_open")).isZero();
+  }
+
+  @Test
+  void failures_openCircuit_andFurtherCallsFailFastWithoutProvider() {
+    when(delegate.getPaymentStatus(REQUEST_ID)).thenThrow(new PaymentGatewayException("down"));
+    ResilientPaymentGateway gateway = gateway(4);
+
+    for (int i = 0; i < 3; i++) {
+      assertThrows(PaymentGatewayException.class, () -> gateway.getPaymentStatus(REQUEST_ID));
+    }
+    assertThat(gateway.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    PaymentGatewayException rejected =
+        assertThrows(PaymentGatewayException.class, () -> gateway.getPaymentStatus(REQUEST_ID));
+
+    assertThat(rejected.getMessage()).contains("circuit is open");
+    verify(delegate, times(3)).getPaymentStatus(REQUEST_ID);
+    assertThat(callCount("status", "failure")).isEqualTo(3.0);
+    assertThat(callCount("status", "rejected_circuit_open")).isEqualTo(1.0);
+    assertThat(registry.get("payment.gateway.circuit.state").tag("state", "open").gauge().value())
+        .isEqualTo(1.0);
+    assertThat(
+            registry
+                .get("payment.gateway.circuit.transitions")
+                .tag("state", "open")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void bulkhead_rejectsCallsBeyondConcurrencyLimit() throws Exception {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(delegate.getPaymentStatus(REQUEST_ID))
+        .thenAnswer(
+            _ -> {
+              entered.countDown();
+              release.await();
+              return PaymentAttemptResult.pending(null);
+            });
+    ResilientPaymentGateway gateway = gateway(1);
+
+    try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+      Future<PaymentAttemptResult> inFlight =
+          executor.submit(() -> gateway.getPaymentStatus(REQUEST_ID));
+      assertThat(entered.await(2, TimeUnit.SECONDS)).isTrue();
+
+      PaymentGatewayException rejected =
+          assertThrows(PaymentGatewayException.class, () -> gateway.getPaymentStatus(REQUEST_ID));
+      assertThat(rejected.getMessage()).contains("bulkhead is full");
+      assertThat(registry.get("payment.gateway.bulkhead.available").gauge().value()).isZero();
+
+      release.countDown();
+      inFlight.get(2, TimeUnit.SECONDS);
+    }
+
+    assertThat(callCount("status", "rejected_bulkhead")).isEqualTo(1.0);
+    assertThat(registry.get("payment.gateway.bulkhead.available").gauge().value()).isEqualTo(1.0);
+  }
+
+  @Test
+  void constructor_rejectsNonPositiveConcurrency() {
+    assertThrows(IllegalArgumentException.class, () -> gateway(0));
+    verify(delegate, never()).getPaymentStatus(any());
+  }
+
+  private ResilientPaymentGateway gateway(int maxConcurrentCalls) {
+    return new ResilientPaymentGateway(
+        delegate,
+        maxConcurrentCalls,
+        new CircuitBreaker.Settings(
+            10, 3, 50.0, 100.0, Duration.ofSeconds(2), Duration.ofMinutes(1), 1),
+        registry,
+        Tracer.NOOP,
+        System::nanoTime);
+  }
+
+  private double callCount(String operation, String outcome) {
+    return registry
+        .get("payment.gateway.calls")
+        .tag("operation", operation)
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+}
@@ -0,0 +1,192 @@
+package com.nenkov.bar.infrastructure.payment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+final class SimulatedPaymentGatewayTest {
+
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-1");
+  private static final CheckId CHECK_ID = CheckId.of(UUID.randomUUID());
+  private static final Money AMOUNT = Money.of("EUR", new BigDecimal("10.00"));
+
+  private final List<Duration> sleeps = new ArrayList<>();
+
+  @Test
+  void sameSeed_replaysSameOutcomesAndLatencies() {
+    SimulatedPaymentGateway.Settings settings =
+        settings(
+            7L,
+            new SimulatedPaymentGateway.Latency(
+                SimulatedPaymentGateway.Distribution.UNIFORM,
+                Duration.ofMillis(10),
+                Duration.ofMillis(200),
+                1.0),
+            SimulatedPaymentGateway.Faults.none());
+
+    List<Duration> firstSleeps = new ArrayList<>();
+    List<Duration> secondSleeps = new ArrayList<>();
+    List<PaymentAttemptStatus> first =
+        run(new SimulatedPaymentGateway(settings, firstSleeps::add), 200);
+    List<PaymentAttemptStatus> second =
+        run(new SimulatedPaymentGateway(settings, secondSleeps::add), 200);
+
+    assertThat(first).isEqualTo(second);
+    assertThat(firstSleeps).isEqualTo(secondSleeps);
+  }
+
+  @Test
+  void outcomes_followConfiguredWeights() {
+    SimulatedPaymentGateway gateway =
+        new SimulatedPaymentGateway(
+            settings(1L, fixed(Duration.ZERO), SimulatedPaymentGateway.Faults.none()), sleeps::add);
+
+    Map<PaymentAttemptStatus, Integer> counts = new EnumMap<>(PaymentAttemptStatus.class);
+    for (PaymentAttemptStatus status : run(gateway, 10_000)) {
+      counts.merge(status, 1, Integer::sum);
+    }
+
+    assertThat(counts.get(PaymentAttemptStatus.APPROVED)).isBetween(6_700, 7_300);
+    assertThat(counts.get(PaymentAttemptStatus.DECLINED)).isBetween(1_700, 2_300);
+    assertThat(counts.get(PaymentAttemptStatus.PENDING)).isBetween(800, 1_200);
+    assertThat(sleeps).isEmpty();
+  }
+
+  @Test
+  void statusLookup_neverReturnsPending() {
+    SimulatedPaymentGateway gateway =
+        new SimulatedPaymentGateway(
+            new SimulatedPaymentGateway.Settings(
+                3L,
+                fixed(Duration.ofMillis(5)),
+                new SimulatedPaymentGateway.Outcomes(0, 0, 1),
+                SimulatedPaymentGateway.Faults.none()),
+            sleeps::add);
+
+    PaymentAttemptResult initiated =
+        gateway.initiatePayment(PaymentRequestId.of("req-1"), SESSION_ID, CHECK_ID, AMOUNT);
+    PaymentAttemptResult status = gateway.getPaymentStatus(PaymentRequestId.of("req-1"));
+
+    assertThat(initiated.status()).isEqualTo(PaymentAttemptStatus.PENDING);
+    assertThat(status.status()).isEqualTo(PaymentAttemptStatus.APPROVED);
+    assertThat(status.providerReference()).isEqualTo("sim-req-1");
+    assertThat(sleeps).containsExactly(Duration.ofMillis(5), Duration.ofMillis(5));
+  }
+
+  @Test
+  void longTail_staysWithinBounds_withMostCallsNearMinimum() {
+    SimulatedPaymentGateway gateway =
+        new SimulatedPaymentGateway(
+            settings(
+                11L,
+                new SimulatedPaymentGateway.Latency(
+                    SimulatedPaymentGateway.Distribution.LONG_TAIL,
+                    Duration.ofMillis(20),
+                    Duration.ofSeconds(2),
+                    2.0),
+                SimulatedPaymentGateway.Faults.none()),
+            sleeps::add);
+
+    run(gateway, 2_000);
+
+    List<Duration> sorted = sleeps.stream().sorted().toList();
+    assertThat(sorted.getFirst()).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+    assertThat(sorted.getLast()).isLessThanOrEqualTo(Duration.ofSeconds(2));
+    assertThat(sorted.get(sorted.size() / 2)).isLessThan(Duration.ofMillis(40));
+    assertThat(sorted.get(sorted.size() * 99 / 100)).isGreaterThan(Duration.ofMillis(100));
+  }
+
+  @Test
+  void errorFault_failsImmediately() {
+    SimulatedPaymentGateway gateway =
+        new SimulatedPaymentGateway(
+            settings(
+                5L,
+                fixed(Duration.ofMillis(10)),
+                new SimulatedPaymentGateway.Faults(0, Duration.ZERO, 1.0)),
+            sleeps::add);
+
+    PaymentGatewayException thrown =
+        assertThrows(
+            PaymentGatewayException.class,
+            () ->
+                gateway.initiatePayment(
+                    PaymentRequestId.of("req-1"), SESSION_ID, CHECK_ID, AMOUNT));
+
+    assertThat(thrown.getMessage()).contains("error");
+    assertThat(sleeps).isEmpty();
+  }
+
+  @Test
+  void timeoutFault_hangsForTimeoutDuration_thenFails() {
+    SimulatedPaymentGateway gateway =
+        new SimulatedPaymentGateway(
+            settings(
+                5L,
+                fixed(Duration.ofMillis(10)),
+                new SimulatedPaymentGateway.Faults(1.0, Duration.ofSeconds(30), 0)),
+            sleeps::add);
+
+    PaymentGatewayException thrown =
+        assertThrows(
+            PaymentGatewayException.class,
+            () -> gateway.getPaymentStatus(PaymentRequestId.of("req-1")));
+
+    assertThat(thrown.getMessage()).contains("timeout");
+    assertThat(sleeps).containsExactly(Duration.ofSeconds(30));
+  }
+
+  @Test
+  void settings_rejectInvalidValues() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new SimulatedPaymentGateway.Outcomes(0, 0, 0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SimulatedPaymentGateway.Faults(0.6, Duration.ZERO, 0.5));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new SimulatedPaymentGateway.Latency(
+                SimulatedPaymentGateway.Distribution.UNIFORM,
+                Duration.ofSeconds(2),
+                Duration.ofSeconds(1),
+                1.0));
+  }
+
+  private static List<PaymentAttemptStatus> run(SimulatedPaymentGateway gateway, int calls) {
+    List<PaymentAttemptStatus> statuses = new ArrayList<>();
+    for (int i = 0; i < calls; i++) {
+      statuses.add(
+          gateway
+              .initiatePayment(PaymentRequestId.of("req-" + i), SESSION_ID, CHECK_ID, AMOUNT)
+              .status());
+    }
+    return statuses;
+  }
+
+  private static SimulatedPaymentGateway.Settings settings(
+      long seed, SimulatedPaymentGateway.Latency latency, SimulatedPaymentGateway.Faults faults) {
+    return new SimulatedPaymentGateway.Settings(
+        seed, latency, new SimulatedPaymentGateway.Outcomes(0.7, 0.2, 0.1), faults);
+  }
+
+  private static SimulatedPaymentGateway.Latency fixed(Duration latency) {
+    return new SimulatedPaymentGateway.Latency(
+        SimulatedPaymentGateway.Distribution.FIXED, latency, latency, 1.0);
+  }
+}
@@ -0,0 +1,61 @@
+package com.nenkov.bar.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.Check;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
+import com.nenkov.bar.domain.model.payment.PaidItem;
+import com.nenkov.bar.domain.model.payment.PaymentReference;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+final class InMemoryCheckRepositoryTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+  private static final Money AMOUNT = Money.of("EUR", new BigDecimal("4.50"));
+
+  private final InMemoryCheckRepository repository = new InMemoryCheckRepository();
+
+  @Test
+  void findQueries_returnStoredChecks() {
+    Check first = check("S-1");
+    Check second = check("S-1");
+    Check other = check("S-2");
+    repository.saveAll(List.of(first, second, other));
+    other.markPaid(PaymentReference.of("ref-1"), NOW);
+    repository.save(other);
+
+    assertThat(repository.findById(first.id())).containsSame(first);
+    assertThat(repository.findAllById(List.of(first.id(), CheckId.random(), other.id())))
+        .containsExactlyInAnyOrder(first, other);
+    assertThat(repository.findBySessionId(TableSessionId.of("S-1")))
+        .containsExactlyInAnyOrder(first, second);
+    assertThat(repository.findByStatus(CheckStatus.PAID)).containsExactly(other);
+  }
+
+  @Test
+  void saveAll_withNull_storesNothing() {
+    Check check = check("S-1");
+    List<Check> batch = Arrays.asList(check, null);
+
+    assertThrows(NullPointerException.class, () -> repository.saveAll(batch));
+
+    assertThat(repository.findById(check.id())).isEmpty();
+  }
+
+  private static Check check(String sessionId) {
+    return Check.createNew(
+        TableSessionId.of(sessionId),
+        AMOUNT,
+        List.of(PaidItem.of(OrderItemId.random(), 1, AMOUNT, AMOUNT)),
+        NOW);
+  }
+}
@@ -0,0 +1,75 @@
+package com.nenkov.bar.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.PaymentRequestId;
+import com.nenkov.bar.application.payment.model.RecordedPaymentAttempt;
+import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import org.junit.jupiter.api.Test;
+
+final class InMemoryPaymentAttemptRepositoryTest {
+
+  private static final PaymentRequestId REQUEST_ID = PaymentRequestId.of("req-1");
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-1");
+  private static final CheckId CHECK_ID = CheckId.random();
+
+  private final InMemoryPaymentAttemptRepository repository =
+      new InMemoryPaymentAttemptRepository();
+
+  @Test
+  void save_isInsertIfAbsent() {
+    RecordedPaymentAttempt first = attempt(PaymentAttemptResult.pending("ref-1"));
+    repository.save(first);
+    repository.save(attempt(PaymentAttemptResult.approved("ref-2")));
+
+    assertThat(repository.findByRequestId(REQUEST_ID)).containsSame(first);
+    assertThat(repository.findByProviderReference("ref-2")).isEmpty();
+  }
+
+  @Test
+  void update_replacesOutcome_andIsFoundByProviderReference() {
+    repository.save(attempt(PaymentAttemptResult.pending("ref-1")));
+    RecordedPaymentAttempt resolved = attempt(PaymentAttemptResult.approved("ref-1"));
+    repository.update(resolved);
+
+    assertThat(repository.findByRequestId(REQUEST_ID)).containsSame(resolved);
+    assertThat(repository.findByProviderReference("ref-1")).containsSame(resolved);
+  }
+
+  @Test
+  void findPendingByCheckId_tracksPendingAttemptUntilResolved() {
+    RecordedPaymentAttempt pending = attempt(PaymentAttemptResult.pending(null));
+    repository.save(pending);
+
+    assertThat(repository.findPendingByCheckId(CHECK_ID)).containsSame(pending);
+    assertThat(repository.findPendingByCheckId(CheckId.random())).isEmpty();
+
+    repository.update(attempt(PaymentAttemptResult.declined("ref-1", "no funds")));
+
+    assertThat(repository.findPendingByCheckId(CHECK_ID)).isEmpty();
+  }
+
+  @Test
+  void findAllPending_listsOnlyAttemptsStillPending() {
+    RecordedPaymentAttempt pending = attempt(PaymentAttemptResult.pending(null));
+    repository.save(pending);
+    repository.save(
+        new RecordedPaymentAttempt(
+            PaymentRequestId.of("req-2"),
+            SESSION_ID,
+            CheckId.random(),
+            PaymentAttemptResult.approved("ref-2")));
+
+    assertThat(repository.findAllPending()).containsExactly(pending);
+
+    repository.update(attempt(PaymentAttemptResult.unresolved(null)));
+
+    assertThat(repository.findAllPending()).isEmpty();
+  }
+
+  private static RecordedPaymentAttempt attempt(PaymentAttemptResult result) {
+    return new RecordedPaymentAttempt(REQUEST_ID, SESSION_ID, CHECK_ID, result);
+  }
+}
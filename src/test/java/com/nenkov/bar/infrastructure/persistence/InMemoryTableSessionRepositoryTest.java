@@ -0,0 +1,73 @@
+package com.nenkov.bar.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionContents;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.domain.model.session.TableSessionStatus;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+final class InMemoryTableSessionRepositoryTest {
+
+  private static final TableSessionId SESSION_ID = TableSessionId.of("S-1");
+
+  private final InMemoryTableSessionRepository repository = new InMemoryTableSessionRepository();
+
+  @Test
+  void save_thenFindById_returnsLatestVersion() {
+    TableSession open =
+        new TableSession(
+            SESSION_ID, "EUR", TableSessionContents.empty(), TableSessionStatus.OPEN, null);
+    repository.save(open);
+    TableSession closed = open.closeByManager(Instant.parse("2026-01-01T00:00:00Z"));
+    repository.save(closed);
+
+    TableSession stored = repository.findById(SESSION_ID).orElseThrow();
+    assertThat(stored.status()).isEqualTo(TableSessionStatus.CLOSED);
+    assertThat(stored.version()).isEqualTo(1);
+  }
+
+  @Test
+  void saveIfUnchanged_storesOnlyOnTopOfTheLoadedVersion() {
+    repository.save(
+        new TableSession(
+            SESSION_ID, "EUR", TableSessionContents.empty(), TableSessionStatus.OPEN, null));
+    TableSession loadedByFirst = repository.findById(SESSION_ID).orElseThrow();
+    TableSession loadedBySecond = repository.findById(SESSION_ID).orElseThrow();
+    Instant closedAt = Instant.parse("2026-01-01T00:00:00Z");
+
+    assertThat(repository.saveIfUnchanged(loadedByFirst.closeByManager(closedAt))).isTrue();
+    assertThat(repository.saveIfUnchanged(loadedBySecond.closeByManager(closedAt))).isFalse();
+    assertThat(repository.findById(SESSION_ID).orElseThrow().version()).isEqualTo(1);
+  }
+
+  @Test
+  void saveIfUnchanged_unknownSession_isFalse() {
+    assertThat(
+            repository.saveIfUnchanged(
+                new TableSession(
+                    SESSION_ID,
+                    "EUR",
+                    TableSessionContents.empty(),
+                    TableSessionStatus.OPEN,
+                    null)))
+        .isFalse();
+    assertThat(repository.findById(SESSION_ID)).isEmpty();
+  }
+
+  @Test
+  void findById_unknown_isEmpty() {
+    assertThat(repository.findById(SESSION_ID)).isEmpty();
+  }
+
+  @Test
+  void existsOpenByTableId_isAlwaysFalse_becauseSessionsCarryNoTable() {
+    repository.save(
+        new TableSession(
+            SESSION_ID, "EUR", TableSessionContents.empty(), TableSessionStatus.OPEN, null));
+
+    assertThat(repository.existsOpenByTableId("T-1")).isFalse();
+  }
+}
@@ -0,0 +1,133 @@
+package com.nenkov.bar.infrastructure.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+final class EventLoopBlockingDetectorTest {
+
+  private static final String LOOP_THREAD = "test-event-loop";
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private Thread loop;
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    release.countDown();
+    if (loop != null) {
+      loop.join();
+    }
+  }
+
+  @Test
+  void sample_reportsThreadBlockedOnTwoConsecutiveSamples_onceWithEndpoint() throws Exception {
+    EventLoopBlockingDetector detector = detector(EventLoopBlockingDetector.Mode.STRICT);
+    startLoopThread(() -> blockingEndpoint(release));
+    awaitWaiting(loop);
+
+    detector.sample();
+    assertThat(detector.violations()).isEmpty();
+
+    detector.sample();
+    detector.sample();
+
+    assertThat(detector.violations()).hasSize(1);
+    EventLoopBlockingDetector.Violation violation = detector.violations().getFirst();
+    assertThat(violation.threadName()).isEqualTo(LOOP_THREAD);
+    assertThat(violation.endpoint()).isEqualTo("EventLoopBlockingDetectorTest.blockingEndpoint");
+    assertThat(violation.state()).isEqualTo(Thread.State.WAITING);
+    assertThat(violation.describe()).contains("CountDownLatch.await");
+    assertThat(
+            registry
+                .get(EventLoopBlockingDetector.METRIC)
+                .tag("endpoint", "EventLoopBlockingDetectorTest.blockingEndpoint")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void sample_ignoresThreadsThatAreNotEventLoops() throws Exception {
+    EventLoopBlockingDetector detector =
+        new EventLoopBlockingDetector(
+            EventLoopBlockingDetector.Mode.STRICT,
+            Duration.ofMillis(5),
+            Executors.newSingleThreadScheduledExecutor(),
+            registry,
+            _ -> false,
+            EventLoopBlockingDetectorTest.class.getName());
+    startLoopThread(() -> blockingEndpoint(release));
+    awaitWaiting(loop);
+
+    detector.sample();
+    detector.sample();
+
+    assertThat(detector.violations()).isEmpty();
+  }
+
+  @Test
+  void sampledMode_countsButKeepsNoViolations() throws Exception {
+    EventLoopBlockingDetector detector = detector(EventLoopBlockingDetector.Mode.SAMPLED);
+    startLoopThread(() -> blockingEndpoint(release));
+    awaitWaiting(loop);
+
+    detector.sample();
+    detector.sample();
+
+    assertThat(detector.violations()).isEmpty();
+    assertThat(registry.get(EventLoopBlockingDetector.METRIC).counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void constructor_rejectsSubMillisecondInterval() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new EventLoopBlockingDetector(
+                EventLoopBlockingDetector.Mode.SAMPLED,
+                Duration.ofNanos(10),
+                Executors.newSingleThreadScheduledExecutor(),
+                registry,
+                _ -> true,
+                "x"));
+  }
+
+  private EventLoopBlockingDetector detector(EventLoopBlockingDetector.Mode mode) {
+    return new EventLoopBlockingDetector(
+        mode,
+        Duration.ofMillis(5),
+        Executors.newSingleThreadScheduledExecutor(),
+        registry,
+        thread -> LOOP_THREAD.equals(thread.getName()),
+        EventLoopBlockingDetectorTest.class.getName());
+  }
+
+  private void startLoopThread(Runnable body) {
+    loop = Thread.ofPlatform().name(LOOP_THREAD).start(body);
+  }
+
+  private static void blockingEndpoint(CountDownLatch release) {
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void awaitWaiting(Thread thread) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (thread.getState() != Thread.State.WAITING) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("thread did not block: " + thread.getState());
+      }
+      Thread.sleep(1);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.nenkov.bar.infrastructure.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+final class CircuitBreakerTest {
+
+  private static final long FAST = Duration.ofMillis(10).toNanos();
+  private static final long SLOW = Duration.ofSeconds(3).toNanos();
+
+  private final AtomicLong clock = new AtomicLong();
+  private final List<CircuitBreaker.State> transitions = new ArrayList<>();
+
+  @Test
+  void opens_whenFailureRateReachesThreshold() {
+    CircuitBreaker breaker = breaker();
+
+    for (int i = 0; i < 3; i++) {
+      call(breaker, FAST, false);
+    }
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+    call(breaker, FAST, true); // 1/4 = 25%: below threshold
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+    call(breaker, FAST, true); // 2/5 = 40%: threshold reached
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+    assertThat(transitions).containsExactly(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void opens_whenSlowCallRateReachesThreshold_evenWithoutFailures() {
+    CircuitBreaker breaker = breaker();
+
+    for (int i = 0; i < 4; i++) {
+      call(breaker, SLOW, false);
+    }
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void slidingWindow_forgetsOldFailures() {
+    CircuitBreaker breaker = breaker();
+    call(breaker, FAST, true);
+
+    for (int i = 0; i < 20; i++) {
+      call(breaker, FAST, false);
+    }
+    call(breaker, FAST, true);
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void halfOpen_afterOpenDuration_closesWhenTrialsSucceed() {
+    CircuitBreaker breaker = openBreaker();
+
+    clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.tryAcquirePermission()).isFalse(); // only 2 trial calls
+
+    breaker.onResult(FAST, false);
+    breaker.onResult(FAST, false);
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(transitions)
+        .containsExactly(
+            CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void halfOpen_reopensOnSlowTrial() {
+    CircuitBreaker breaker = openBreaker();
+    clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+    call(breaker, SLOW, false);
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+  }
+
+  @Test
+  void settings_rejectInvalidValues() {
+    Duration one = Duration.ofSeconds(1);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new CircuitBreaker.Settings(5, 6, 50, 50, one, one, 1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new CircuitBreaker.Settings(5, 5, 0, 50, one, one, 1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new CircuitBreaker.Settings(5, 5, 50, 101, one, one, 1));
+  }
+
+  private CircuitBreaker openBreaker() {
+    CircuitBreaker breaker = breaker();
+    for (int i = 0; i < 4; i++) {
+      call(breaker, FAST, true);
+    }
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    return breaker;
+  }
+
+  private CircuitBreaker breaker() {
+    return new CircuitBreaker(
+        new CircuitBreaker.Settings(
+            10, 4, 40.0, 75.0, Duration.ofSeconds(2), Duration.ofSeconds(30), 2),
+        clock::get,
+        transitions::add);
+  }
+
+  private static void call(CircuitBreaker breaker, long durationNanos, boolean failed) {
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    breaker.onResult(durationNanos, failed);
+  }
+}
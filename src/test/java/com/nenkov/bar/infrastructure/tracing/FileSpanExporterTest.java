@@ -0,0 +1,59 @@
+package com.nenkov.bar.infrastructure.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSpanExporterTest {
+
+  @TempDir Path dir;
+
+  @Test
+  void export_appendsOneJsonLinePerSpan() throws IOException {
+    Path file = dir.resolve("nested/spans.jsonl");
+    FileSpanExporter exporter = new FileSpanExporter(file);
+    try (SdkTracerProvider provider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build()) {
+      Span span =
+          provider
+              .get("test")
+              .spanBuilder("Repo.find")
+              .setAttribute("note", "say \"hi\"\n")
+              .startSpan();
+      span.setStatus(StatusCode.ERROR);
+      span.end();
+      provider.get("test").spanBuilder("second").startSpan().end();
+    }
+
+    List<String> lines = Files.readAllLines(file);
+    assertThat(lines).hasSize(2);
+    assertThat(lines.getFirst())
+        .startsWith("{\"traceId\":\"")
+        .contains("\"parentSpanId\":null")
+        .contains("\"name\":\"Repo.find\"")
+        .contains("\"kind\":\"INTERNAL\"")
+        .contains("\"status\":\"ERROR\"")
+        .contains("\"note\":\"say \\\"hi\\\"\\n\"")
+        .endsWith("}}");
+    assertThat(lines.get(1)).contains("\"name\":\"second\"").contains("\"status\":\"UNSET\"");
+  }
+
+  @Test
+  void export_afterShutdown_fails() {
+    FileSpanExporter exporter = new FileSpanExporter(dir.resolve("spans.jsonl"));
+    exporter.shutdown();
+
+    assertThat(exporter.export(List.of()).isSuccess()).isFalse();
+  }
+}
@@ -0,0 +1,37 @@
+package com.nenkov.bar.infrastructure.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+
+class InMemorySpanExporterTest {
+
+  @Test
+  void export_keepsMostRecentSpansUpToCapacity() {
+    InMemorySpanExporter exporter = new InMemorySpanExporter(2);
+    try (SdkTracerProvider provider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build()) {
+      Tracer tracer = provider.get("test");
+      tracer.spanBuilder("first").startSpan().end();
+      tracer.spanBuilder("second").startSpan().end();
+      tracer.spanBuilder("third").startSpan().end();
+
+      assertThat(exporter.spans()).extracting(SpanData::getName).containsExactly("second", "third");
+
+      exporter.reset();
+      assertThat(exporter.spans()).isEmpty();
+    }
+  }
+
+  @Test
+  void constructor_rejectsNonPositiveCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new InMemorySpanExporter(0));
+  }
+}
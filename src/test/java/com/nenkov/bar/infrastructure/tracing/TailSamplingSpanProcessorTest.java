@@ -0,0 +1,245 @@
+package com.nenkov.bar.infrastructure.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TailSamplingSpanProcessorTest {
+
+  private final InMemorySpanExporter headExported = new InMemorySpanExporter(100);
+  private final InMemorySpanExporter tailExported = new InMemorySpanExporter(100);
+  private SdkTracerProvider provider;
+  private String lastTraceId;
+
+  @AfterEach
+  void tearDown() {
+    if (provider != null) {
+      provider.close();
+    }
+  }
+
+  @Test
+  void fastSuccessfulUnsampledTrace_isDiscarded() {
+    TailSamplingSpanProcessor processor = processor(0.0, 10);
+    Tracer tracer = provider.get("test");
+
+    runTrace(tracer, false, 0);
+
+    assertThat(headExported.spans()).isEmpty();
+    assertThat(tailExported.spans()).isEmpty();
+    assertThat(processor.pendingTraces()).isZero();
+  }
+
+  @Test
+  void unsampledTraceWithErrorChild_isExportedWhole() {
+    processor(0.0, 10);
+    Tracer tracer = provider.get("test");
+
+    runTrace(tracer, true, 0);
+
+    assertThat(headExported.spans()).isEmpty();
+    assertThat(tailExported.spans())
+        .extracting(SpanData::getName)
+        .containsExactlyInAnyOrder("root", "child");
+    assertThat(tailExported.spans()).extracting(SpanData::getTraceId).containsOnly(lastTraceId);
+  }
+
+  @Test
+  void slowUnsampledTrace_isExported() {
+    processor(0.0, 10);
+    Tracer tracer = provider.get("test");
+
+    runTrace(tracer, false, TimeUnit.MILLISECONDS.toNanos(20));
+
+    assertThat(tailExported.spans()).extracting(SpanData::getName).contains("root", "child");
+  }
+
+  @Test
+  void headSampledTrace_isLeftToRegularPipeline() {
+    TailSamplingSpanProcessor processor = processor(1.0, 10);
+    Tracer tracer = provider.get("test");
+
+    runTrace(tracer, true, 0);
+
+    assertThat(headExported.spans()).hasSize(2);
+    assertThat(tailExported.spans()).isEmpty();
+    assertThat(processor.pendingTraces()).isZero();
+  }
+
+  @Test
+  void spansPerTrace_areBounded() {
+    processor(0.0, 2);
+    Tracer tracer = provider.get("test");
+
+    Span root = tracer.spanBuilder("root").startSpan();
+    try (Scope _ = root.makeCurrent()) {
+      for (int i = 0; i < 5; i++) {
+        tracer.spanBuilder("child-" + i).startSpan().end();
+      }
+      root.setStatus(StatusCode.ERROR);
+    } finally {
+      root.end();
+    }
+
+    assertThat(tailExported.spans()).hasSize(3);
+  }
+
+  @Test
+  void bufferedTraces_areBounded() {
+    TailSamplingSpanProcessor processor =
+        new TailSamplingSpanProcessor(tailExported, Duration.ofSeconds(10), 2, 10, Runnable::run);
+    provider =
+        SdkTracerProvider.builder()
+            .setSampler(TraceSampling.sampler(0.0, true))
+            .addSpanProcessor(processor)
+            .build();
+    Tracer tracer = provider.get("test");
+
+    for (int i = 0; i < 5; i++) {
+      Span root = tracer.spanBuilder("root-" + i).startSpan();
+      try (Scope _ = root.makeCurrent()) {
+        tracer.spanBuilder("child").startSpan().end();
+      }
+      // Roots left open: their traces stay buffered.
+    }
+
+    assertThat(processor.pendingTraces()).isEqualTo(2);
+  }
+
+  @Test
+  void bufferedTraces_dropOldestFirst() {
+    TailSamplingSpanProcessor processor =
+        new TailSamplingSpanProcessor(tailExported, Duration.ofSeconds(10), 2, 10, Runnable::run);
+    provider =
+        SdkTracerProvider.builder()
+            .setSampler(TraceSampling.sampler(0.0, true))
+            .addSpanProcessor(processor)
+            .build();
+    Tracer tracer = provider.get("test");
+
+    Span oldest = openTraceWithChild(tracer, "oldest");
+    Span newer = openTraceWithChild(tracer, "newer");
+    Span newest = openTraceWithChild(tracer, "newest");
+    for (Span root : new Span[] {oldest, newer, newest}) {
+      root.setStatus(StatusCode.ERROR);
+      root.end();
+    }
+
+    assertThat(tailExported.spans())
+        .extracting(SpanData::getName)
+        .containsExactlyInAnyOrder("oldest", "newer", "child", "newest", "child");
+    assertThat(processor.pendingTraces()).isZero();
+  }
+
+  @Test
+  void concurrentTraces_areEachDecidedOnTheirOwnSpans() throws InterruptedException {
+    processor(0.0, 10);
+    Tracer tracer = provider.get("test");
+    int traces = 40;
+
+    try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+      for (int i = 0; i < traces; i++) {
+        boolean fails = i % 2 == 0;
+        threads.execute(() -> runTrace(tracer, fails, 0));
+      }
+    }
+
+    assertThat(tailExported.spans()).hasSize(traces);
+    assertThat(headExported.spans()).isEmpty();
+  }
+
+  @Test
+  void rejectedExport_isDropped() {
+    TailSamplingSpanProcessor processor =
+        new TailSamplingSpanProcessor(
+            tailExported,
+            Duration.ofSeconds(10),
+            10,
+            10,
+            _ -> {
+              throw new RejectedExecutionException("full");
+            });
+    provider =
+        SdkTracerProvider.builder()
+            .setSampler(TraceSampling.sampler(0.0, true))
+            .addSpanProcessor(processor)
+            .build();
+
+    runTrace(provider.get("test"), true, 0);
+
+    assertThat(tailExported.spans()).isEmpty();
+  }
+
+  @Test
+  void shutdown_stopsOwnedExportExecutor() {
+    ExecutorService exportExecutor = Executors.newSingleThreadExecutor();
+    TailSamplingSpanProcessor processor =
+        new TailSamplingSpanProcessor(tailExported, Duration.ofSeconds(1), 1, 1, exportExecutor);
+
+    processor.shutdown();
+
+    assertThat(exportExecutor.isShutdown()).isTrue();
+  }
+
+  @Test
+  void constructor_rejectsNonPositiveBounds() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new TailSamplingSpanProcessor(
+                tailExported, Duration.ofSeconds(1), 0, 1, Runnable::run));
+  }
+
+  private TailSamplingSpanProcessor processor(double headRatio, int maxSpansPerTrace) {
+    TailSamplingSpanProcessor processor =
+        new TailSamplingSpanProcessor(
+            tailExported, Duration.ofMillis(10), 100, maxSpansPerTrace, Runnable::run);
+    provider =
+        SdkTracerProvider.builder()
+            .setSampler(TraceSampling.sampler(headRatio, true))
+            .addSpanProcessor(SimpleSpanProcessor.create(headExported))
+            .addSpanProcessor(processor)
+            .build();
+    return processor;
+  }
+
+  private static Span openTraceWithChild(Tracer tracer, String rootName) {
+    Span root = tracer.spanBuilder(rootName).startSpan();
+    try (Scope _ = root.makeCurrent()) {
+      tracer.spanBuilder("child").startSpan().end();
+    }
+    return root;
+  }
+
+  private void runTrace(Tracer tracer, boolean childFails, long rootDurationNanos) {
+    Span root = tracer.spanBuilder("root").startSpan();
+    lastTraceId = root.getSpanContext().getTraceId();
+    long start = System.nanoTime();
+    try (Scope _ = root.makeCurrent()) {
+      Span child = tracer.spanBuilder("child").startSpan();
+      if (childFails) {
+        child.setStatus(StatusCode.ERROR, "boom");
+      }
+      child.end();
+      while (System.nanoTime() - start < rootDurationNanos) {
+        Thread.onSpinWait();
+      }
+    } finally {
+      root.end();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.nenkov.bar.infrastructure.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TraceSamplingTest {
+
+  private static final IdGenerator IDS = IdGenerator.random();
+
+  @Test
+  void root_isSampledAtHeadRatio() {
+    Sampler sampler = TraceSampling.sampler(0.25, true);
+
+    int sampled = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (rootDecision(sampler) == SamplingDecision.RECORD_AND_SAMPLE) {
+        sampled++;
+      }
+    }
+
+    assertThat(sampled).isBetween(2_200, 2_800);
+  }
+
+  @Test
+  void unsampledRoot_isRecordedOnlyWhenTailSamplingEnabled() {
+    assertThat(rootDecision(TraceSampling.sampler(0.0, true)))
+        .isEqualTo(SamplingDecision.RECORD_ONLY);
+    assertThat(rootDecision(TraceSampling.sampler(0.0, false))).isEqualTo(SamplingDecision.DROP);
+  }
+
+  @Test
+  void localUnsampledParent_keepsChildrenRecorded() {
+    Sampler sampler = TraceSampling.sampler(1.0, true);
+
+    assertThat(childDecision(sampler, false, false)).isEqualTo(SamplingDecision.RECORD_ONLY);
+    assertThat(childDecision(sampler, true, false)).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+  }
+
+  @Test
+  void remoteParentDecision_isHonoured() {
+    Sampler sampler = TraceSampling.sampler(0.0, true);
+
+    assertThat(childDecision(sampler, true, true)).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+    assertThat(childDecision(sampler, false, true)).isEqualTo(SamplingDecision.DROP);
+  }
+
+  @Test
+  void sampler_rejectsRatioOutOfRange() {
+    assertThrows(IllegalArgumentException.class, () -> TraceSampling.sampler(1.5, true));
+    assertThrows(IllegalArgumentException.class, () -> TraceSampling.sampler(-0.1, true));
+  }
+
+  private static SamplingDecision rootDecision(Sampler sampler) {
+    return sampler
+        .shouldSample(
+            Context.root(),
+            IDS.generateTraceId(),
+            "root",
+            SpanKind.SERVER,
+            Attributes.empty(),
+            List.of())
+        .getDecision();
+  }
+
+  private static SamplingDecision childDecision(
+      Sampler sampler, boolean parentSampled, boolean remote) {
+    String traceId = IDS.generateTraceId();
+    TraceFlags flags = parentSampled ? TraceFlags.getSampled() : TraceFlags.getDefault();
+    SpanContext parent =
+        remote
+            ? SpanContext.createFromRemoteParent(
+                traceId, IDS.generateSpanId(), flags, TraceState.getDefault())
+            : SpanContext.create(traceId, IDS.generateSpanId(), flags, TraceState.getDefault());
+    Context context = Context.root().with(io.opentelemetry.api.trace.Span.wrap(parent));
+    return sampler
+        .shouldSample(context, traceId, "child", SpanKind.INTERNAL, Attributes.empty(), List.of())
+        .getDecision();
+  }
+}
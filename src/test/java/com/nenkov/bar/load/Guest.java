@@ -0,0 +1,243 @@
+package com.nenkov.bar.load;
+
+import com.nenkov.bar.load.scenario.Scenario;
+import com.nenkov.bar.load.scenario.Workload;
+import com.nenkov.bar.web.api.ordering.AddOrderItemsRequest;
+import com.nenkov.bar.web.api.ordering.AddOrderItemsResponse;
+import com.nenkov.bar.web.api.payment.CreateCheckRequest;
+import com.nenkov.bar.web.api.payment.CreateCheckResponse;
+import com.nenkov.bar.web.api.payment.RecordPaymentAttemptRequest;
+import com.nenkov.bar.web.api.payment.RecordPaymentAttemptResponse;
+import com.nenkov.bar.web.api.payment.SplitChecksRequest;
+import com.nenkov.bar.web.api.payment.SplitChecksResponse;
+import com.nenkov.bar.web.api.session.CloseSessionResponse;
+import com.nenkov.bar.web.api.session.GetSessionResponse;
+import com.nenkov.bar.web.api.session.OpenSessionRequest;
+import com.nenkov.bar.web.api.session.OpenSessionResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+
+/**
+ * Plays table visits against the API: opens a tab, orders the planned rounds, settles the bill the
+ * way the visit's {@link Scenario.SplitHabit} says and closes the tab.
+ *
+ * <p>A declined payment is retried with a fresh check, up to {@value #PAYMENT_TRIES} tries per
+ * share. A pending payment is polled through the session until it settles. A visit that hits an
+ * HTTP error, runs out of tries or never sees its payment settle is abandoned and counted as
+ * failed.
+ */
+final class Guest {
+
+  static final String OPEN = "POST /sessions";
+  static final String ORDER = "POST /sessions/{id}/orders/items";
+  static final String VIEW = "GET /sessions/{id}";
+  static final String CHECK = "POST /sessions/{id}/checks";
+  static final String SPLIT = "POST /sessions/{id}/checks/split";
+  static final String PAY = "POST /sessions/{id}/checks/{checkId}/attempts";
+  static final String CLOSE = "POST /sessions/{id}/close";
+
+  static final List<String> ROUTES = List.of(OPEN, ORDER, VIEW, CHECK, SPLIT, PAY, CLOSE);
+
+  private static final int PAYMENT_TRIES = 3;
+  private static final long POLL_INTERVAL_MILLIS = 100;
+
+  private final WebClient client;
+  private final Supplier<LoadRecorder> recorder;
+  private final LoadOptions options;
+
+  Guest(WebClient client, Supplier<LoadRecorder> recorder, LoadOptions options) {
+    this.client = client;
+    this.recorder = recorder;
+    this.options = options;
+  }
+
+  /** Plays {@code visit} at {@code tableId} and records whether it ended with a closed tab. */
+  void visit(String tableId, Workload.Visit visit) {
+    boolean completed;
+    try {
+      completed = play(tableId, visit, new SplittableRandom(visit.seed()));
+    } catch (WebClientException _) {
+      completed = false;
+    }
+    recorder.get().visit(completed);
+  }
+
+  private boolean play(String tableId, Workload.Visit visit, SplittableRandom random) {
+    String sessionId =
+        call(
+                OPEN,
+                OpenSessionResponse.class,
+                c -> c.post().uri("/sessions").bodyValue(new OpenSessionRequest(tableId)))
+            .sessionId();
+
+    for (List<Workload.OrderLine> round : visit.rounds()) {
+      AddOrderItemsRequest order =
+          new AddOrderItemsRequest(
+              round.stream()
+                  .map(
+                      line ->
+                          new AddOrderItemsRequest.AddOrderItemLine(
+                              line.productId(), line.quantity()))
+                  .toList());
+      call(
+          ORDER,
+          AddOrderItemsResponse.class,
+          c -> c.post().uri("/sessions/{id}/orders/items", sessionId).bodyValue(order));
+    }
+
+    GetSessionResponse tab = view(sessionId);
+    int payers = visit.split() == Scenario.SplitHabit.SINGLE ? 1 : visit.payers();
+    List<List<CreateCheckRequest.SelectionLine>> shares = splitBill(tab, payers, random);
+    if (!settle(sessionId, visit.split(), shares, random)) {
+      return false;
+    }
+
+    call(CLOSE, CloseSessionResponse.class, c -> c.post().uri("/sessions/{id}/close", sessionId));
+    return true;
+  }
+
+  /** Deals the unpaid items out to at most {@code payers} guests. */
+  private static List<List<CreateCheckRequest.SelectionLine>> splitBill(
+      GetSessionResponse tab, int payers, SplittableRandom random) {
+    List<GetSessionResponse.PayableItem> unpaid =
+        new ArrayList<>(
+            tab.payableItems().stream().filter(item -> item.remainingQuantity() > 0).toList());
+    for (int i = unpaid.size() - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      unpaid.set(i, unpaid.set(j, unpaid.get(i)));
+    }
+    int shareCount = Math.min(payers, unpaid.size());
+    List<List<CreateCheckRequest.SelectionLine>> shares = new ArrayList<>(shareCount);
+    for (int share = 0; share < shareCount; share++) {
+      shares.add(new ArrayList<>());
+    }
+    for (int i = 0; i < unpaid.size(); i++) {
+      GetSessionResponse.PayableItem item = unpaid.get(i);
+      shares
+          .get(i % shareCount)
+          .add(new CreateCheckRequest.SelectionLine(item.itemId(), item.remainingQuantity()));
+    }
+    return shares;
+  }
+
+  private boolean settle(
+      String sessionId,
+      Scenario.SplitHabit habit,
+      List<List<CreateCheckRequest.SelectionLine>> shares,
+      SplittableRandom random) {
+    List<String> firstChecks = new ArrayList<>(shares.size());
+    if (habit == Scenario.SplitHabit.UPFRONT && !shares.isEmpty()) {
+      SplitChecksRequest split =
+          new SplitChecksRequest(shares.stream().map(SplitChecksRequest.CheckLine::new).toList());
+      call(
+              SPLIT,
+              SplitChecksResponse.class,
+              c -> c.post().uri("/sessions/{id}/checks/split", sessionId).bodyValue(split))
+          .checks()
+          .forEach(check -> firstChecks.add(check.checkId()));
+    }
+    for (int i = 0; i < shares.size(); i++) {
+      String firstCheck = i < firstChecks.size() ? firstChecks.get(i) : null;
+      if (!pay(sessionId, shares.get(i), firstCheck, random)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Pays one share, starting with {@code checkId} when the bill was split up front. */
+  private boolean pay(
+      String sessionId,
+      List<CreateCheckRequest.SelectionLine> share,
+      String checkId,
+      SplittableRandom random) {
+    String check = checkId;
+    for (int attempt = 0; attempt < PAYMENT_TRIES; attempt++) {
+      if (check == null) {
+        CreateCheckRequest selection = new CreateCheckRequest(share);
+        check =
+            call(
+                    CHECK,
+                    CreateCheckResponse.class,
+                    c -> c.post().uri("/sessions/{id}/checks", sessionId).bodyValue(selection))
+                .checkId();
+      }
+      String paidCheck = check;
+      RecordPaymentAttemptRequest payment =
+          new RecordPaymentAttemptRequest(
+              new UUID(random.nextLong(), random.nextLong()).toString());
+      String status =
+          call(
+                  PAY,
+                  RecordPaymentAttemptResponse.class,
+                  c ->
+                      c.post()
+                          .uri("/sessions/{id}/checks/{checkId}/attempts", sessionId, paidCheck)
+                          .bodyValue(payment))
+              .attempt()
+              .status();
+      switch (status) {
+        case "APPROVED" -> {
+          return true;
+        }
+        case "PENDING" -> {
+          return awaitSettled(sessionId, share);
+        }
+        default -> check = null; // Declined: the guest tries again with a new check.
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Polls the tab until every item of {@code share} is paid. A pending payment that is declined
+   * later looks the same as one still in flight, so the guest gives up after {@code pendingTimeout}
+   * rather than risk paying twice.
+   */
+  private boolean awaitSettled(String sessionId, List<CreateCheckRequest.SelectionLine> share) {
+    Set<String> itemIds =
+        share.stream().map(CreateCheckRequest.SelectionLine::itemId).collect(Collectors.toSet());
+    long deadline = System.nanoTime() + options.pendingTimeout().toNanos();
+    while (System.nanoTime() < deadline) {
+      boolean settled =
+          view(sessionId).payableItems().stream()
+              .filter(item -> itemIds.contains(item.itemId()))
+              .allMatch(item -> item.remainingQuantity() == 0);
+      if (settled) {
+        return true;
+      }
+      try {
+        Thread.sleep(POLL_INTERVAL_MILLIS);
+      } catch (InterruptedException _) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private GetSessionResponse view(String sessionId) {
+    return call(VIEW, GetSessionResponse.class, c -> c.get().uri("/sessions/{id}", sessionId));
+  }
+
+  private <T> T call(
+      String route, Class<T> type, Function<WebClient, WebClient.RequestHeadersSpec<?>> request) {
+    long start = System.nanoTime();
+    try {
+      T body = request.apply(client).retrieve().bodyToMono(type).block();
+      recorder.get().request(route, System.nanoTime() - start, false);
+      return body;
+    } catch (WebClientException e) {
+      recorder.get().request(route, System.nanoTime() - start, true);
+      throw e;
+    }
+  }
+}
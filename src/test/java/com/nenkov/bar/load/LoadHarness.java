@@ -0,0 +1,201 @@
+package com.nenkov.bar.load;
+
+import com.nenkov.bar.Application;
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.auth.jwt.JwtService;
+import com.nenkov.bar.config.InMemoryRepositoryConfig;
+import com.nenkov.bar.config.SimulatedPaymentConfig;
+import com.nenkov.bar.load.scenario.Scenario;
+import com.nenkov.bar.load.scenario.Workload;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * End-to-end load harness: starts the application in-process with in-memory repositories and the
+ * simulated payment provider, then plays a {@link Scenario}'s table visits against it over HTTP and
+ * reports per-route latency percentiles, throughput and garbage collection.
+ *
+ * <p>Each visit runs on its own virtual thread and waits for every response before sending the next
+ * request. A scenario without an arrival curve runs closed-loop with {@code concurrency} guests;
+ * one with a curve runs open-loop, its arrivals bounded by the scenario's tables. Visits come from
+ * a seeded {@link Workload}, so equal seeds replay the same orders, splits and discounts; timings
+ * still vary from run to run.
+ *
+ * <p>Run with {@code mvn -Pload test-compile exec:exec -Dload.args="--duration=60s"}; see {@link
+ * LoadOptions#parse} for the options.
+ */
+public final class LoadHarness {
+
+  private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(30);
+
+  private LoadHarness() {}
+
+  public static void main(String[] args) throws InterruptedException {
+    System.out.print(run(LoadOptions.parse(args)).format());
+  }
+
+  /** Runs warm-up and measured phase and returns the results of the measured phase. */
+  static LoadReport run(LoadOptions options) throws InterruptedException {
+    Scenario scenario = Scenario.load(options.scenario());
+    Workload workload = new Workload(scenario, options.seed());
+    int maxOpenTabs =
+        scenario.arrivals().isClosedLoop() ? options.concurrency() : scenario.tables();
+    ConnectionProvider connections =
+        ConnectionProvider.builder("load-harness")
+            .maxConnections(maxOpenTabs)
+            .pendingAcquireMaxCount(-1)
+            .build();
+    try (ConfigurableApplicationContext application = start(options, workload)) {
+      AtomicReference<LoadRecorder> recorder =
+          new AtomicReference<>(new LoadRecorder(Guest.ROUTES));
+      Guest guest = new Guest(client(application, connections), recorder::get, options);
+
+      long startedAt = System.nanoTime();
+      long measureFrom = startedAt + options.warmup().toNanos();
+      long stopAt = measureFrom + options.duration().toNanos();
+      List<LoadReport.GcStats> gcBefore;
+      long measureStart;
+      try (ExecutorService visits = Executors.newVirtualThreadPerTaskExecutor()) {
+        Thread arrivals =
+            scenario.arrivals().isClosedLoop()
+                ? Thread.ofVirtual()
+                    .start(() -> returningGuests(scenario, options, guest, visits, stopAt))
+                : Thread.ofVirtual()
+                    .start(
+                        () -> arrivingGuests(workload, options, guest, visits, startedAt, stopAt));
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+        gcBefore = LoadReport.GcStats.current();
+        recorder.set(new LoadRecorder(Guest.ROUTES));
+        measureStart = System.nanoTime();
+        arrivals.join();
+        visits.shutdown();
+        // Closing the executor waits for the visits still running at the end of the measured phase.
+      }
+      Duration elapsed = Duration.ofNanos(System.nanoTime() - measureStart);
+
+      LoadRecorder measured = recorder.get();
+      return new LoadReport(
+          options,
+          scenario,
+          elapsed,
+          measured.completedVisits(),
+          measured.failedVisits(),
+          measured.routes(),
+          LoadReport.GcStats.between(gcBefore, LoadReport.GcStats.current()),
+          ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    } finally {
+      connections.dispose();
+    }
+  }
+
+  /**
+   * Closed loop: {@code concurrency} guests, each starting its next visit as soon as the last one
+   * ends. Every guest plays its own seeded sequence of visits at its own table.
+   */
+  private static void returningGuests(
+      Scenario scenario, LoadOptions options, Guest guest, ExecutorService visits, long stopAt) {
+    for (int i = 0; i < options.concurrency(); i++) {
+      String tableId = "T-" + i;
+      Iterator<Workload.Visit> plan = new Workload(scenario, options.seed() + i).visits();
+      visits.execute(
+          () -> {
+            while (System.nanoTime() < stopAt) {
+              guest.visit(tableId, plan.next());
+            }
+          });
+    }
+  }
+
+  /**
+   * Open loop: guests arrive on the scenario's curve, played {@code speed} times faster than real
+   * time, and take a free table. When every table is taken, arrivals wait at the door.
+   */
+  private static void arrivingGuests(
+      Workload workload,
+      LoadOptions options,
+      Guest guest,
+      ExecutorService visits,
+      long startedAt,
+      long stopAt) {
+    BlockingQueue<String> freeTables = new LinkedBlockingQueue<>();
+    for (int i = 0; i < workload.scenario().tables(); i++) {
+      freeTables.add("T-" + i);
+    }
+    Iterator<Workload.Visit> plan = workload.visits();
+    try {
+      while (plan.hasNext()) {
+        Workload.Visit visit = plan.next();
+        long arrivesAt = startedAt + (long) (visit.arrival().toNanos() / options.speed());
+        if (arrivesAt >= stopAt) {
+          return;
+        }
+        TimeUnit.NANOSECONDS.sleep(arrivesAt - System.nanoTime());
+        String tableId = freeTables.take();
+        visits.execute(
+            () -> {
+              try {
+                guest.visit(tableId, visit);
+              } finally {
+                freeTables.add(tableId);
+              }
+            });
+      }
+    } catch (InterruptedException _) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static ConfigurableApplicationContext start(LoadOptions options, Workload workload) {
+    return new SpringApplicationBuilder(Application.class)
+        .profiles(InMemoryRepositoryConfig.PROFILE, SimulatedPaymentConfig.PROFILE)
+        .initializers(
+            context ->
+                context
+                    .getBeanFactory()
+                    .addBeanPostProcessor(
+                        new BeanPostProcessor() {
+                          @Override
+                          public Object postProcessAfterInitialization(
+                              Object bean, String beanName) {
+                            return bean instanceof TableSessionRepository repository
+                                ? new ServingTableSessionRepository(repository, workload)
+                                : bean;
+                          }
+                        }))
+        .run(options.applicationArgsFor(workload.scenario()));
+  }
+
+  /**
+   * Client holding one connection per open tab, authenticated as a manager so it may close tabs.
+   */
+  private static WebClient client(
+      ConfigurableApplicationContext application, ConnectionProvider connections) {
+    int port = application.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    String token =
+        application.getBean(JwtService.class).generateAccessToken("load-harness", "MANAGER");
+    return WebClient.builder()
+        .baseUrl("http://localhost:" + port)
+        .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+        .clientConnector(
+            new ReactorClientHttpConnector(
+                HttpClient.create(connections).responseTimeout(RESPONSE_TIMEOUT)))
+        .build();
+  }
+}
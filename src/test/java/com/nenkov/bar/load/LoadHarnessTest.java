@@ -0,0 +1,111 @@
+package com.nenkov.bar.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nenkov.bar.load.scenario.Scenario;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LoadHarnessTest {
+
+  private static final String[] FAST_APPROVING_PROVIDER = {
+    "--app.payment.simulated.latency.distribution=FIXED",
+    "--app.payment.simulated.latency.min=5ms",
+    "--app.payment.simulated.outcomes.approve=1.0",
+    "--app.payment.simulated.outcomes.decline=0.0",
+    "--app.payment.simulated.outcomes.pending=0.0"
+  };
+
+  @Test
+  @Tag("load")
+  void closedLoopRun_completesVisitsOnEveryRouteWithoutErrors() throws InterruptedException {
+    LoadOptions options =
+        LoadOptions.parse(
+            concat(FAST_APPROVING_PROVIDER, "--concurrency=4", "--warmup=500ms", "--duration=2s"));
+
+    LoadReport report = LoadHarness.run(options);
+
+    assertThat(report.completedVisits()).isPositive();
+    assertThat(report.failedVisits()).isZero();
+    assertThat(report.errors()).isZero();
+    assertThat(report.routes())
+        .extracting(LoadReport.RouteStats::route)
+        .containsExactlyElementsOf(Guest.ROUTES);
+    assertThat(report.routes())
+        .allSatisfy(route -> assertThat(route.p99Millis()).isGreaterThan(0.0));
+    assertThat(report.format()).contains("steady", "closed loop", "req/s", "p99 ms", Guest.PAY);
+  }
+
+  @Test
+  @Tag("load")
+  void openLoopRun_playsTheArrivalCurveOfAScenarioFile(@TempDir Path dir)
+      throws IOException, InterruptedException {
+    Path scenario = dir.resolve("rush.scenario");
+    Files.writeString(
+        scenario,
+        """
+        scenario rush
+        tables 3
+        arrivals 0s=300/min
+        rounds 1..2
+        item beer 4.50
+        item cocktail 9.50
+        split single=1 upfront=1
+        discount rate=50% off=10% PROMOTION=1
+        """);
+    LoadOptions options =
+        LoadOptions.parse(
+            concat(
+                FAST_APPROVING_PROVIDER, "--scenario=" + scenario, "--warmup=0s", "--duration=2s"));
+
+    LoadReport report = LoadHarness.run(options);
+
+    assertThat(report.completedVisits()).isPositive();
+    assertThat(report.failedVisits()).isZero();
+    assertThat(report.errors()).isZero();
+    assertThat(report.format()).contains("rush", "3 tables, open loop");
+  }
+
+  @Test
+  void parse_keepsHarnessOptionsAndPassesTheRestToTheApplication() {
+    LoadOptions options =
+        LoadOptions.parse(
+            "--scenario=friday-night",
+            "--speed=60",
+            "--duration=PT5S",
+            "--server.port=8081",
+            "--debug");
+
+    assertThat(options.scenario()).isEqualTo("friday-night");
+    assertThat(options.speed()).isEqualTo(60.0);
+    assertThat(options.duration()).hasSeconds(5);
+    assertThat(options.applicationArgs()).containsExactly("--server.port=8081", "--debug");
+  }
+
+  @Test
+  void applicationArgs_takeProviderOutcomesFromTheScenarioUnlessGivenExplicitly() {
+    LoadOptions options =
+        LoadOptions.parse("--server.port=8081", "--app.payment.simulated.outcomes.pending=0.0");
+
+    String[] args = options.applicationArgsFor(Scenario.load(options.scenario()));
+
+    assertThat(args)
+        .contains(
+            "--server.port=8081",
+            "--app.reactive.blocking-detection.mode=SAMPLED",
+            "--app.payment.simulated.outcomes.decline=0.1",
+            "--app.payment.simulated.outcomes.pending=0.0")
+        .doesNotContain("--server.port=0", "--app.payment.simulated.outcomes.pending=0.05");
+  }
+
+  private static String[] concat(String[] first, String... rest) {
+    String[] all = new String[first.length + rest.length];
+    System.arraycopy(first, 0, all, 0, first.length);
+    System.arraycopy(rest, 0, all, first.length, rest.length);
+    return all;
+  }
+}
@@ -0,0 +1,123 @@
+package com.nenkov.bar.load;
+
+import com.nenkov.bar.load.scenario.Scenario;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Load harness settings.
+ *
+ * @param scenario built-in scenario name or scenario file, see {@link Scenario#load}
+ * @param concurrency guests visiting in parallel when the scenario has no arrival curve
+ * @param speed how many times faster than real time the scenario's arrival curve is played
+ * @param warmup time to run before measuring; results from this phase are discarded
+ * @param duration measured run time
+ * @param seed workload seed; equal seeds replay equal visits, splits and discounts
+ * @param pendingTimeout how long a guest waits for a pending payment to settle
+ * @param applicationArgs arguments passed on to the application, as {@code --key=value}
+ */
+record LoadOptions(
+    String scenario,
+    int concurrency,
+    double speed,
+    Duration warmup,
+    Duration duration,
+    long seed,
+    Duration pendingTimeout,
+    List<String> applicationArgs) {
+
+  /**
+   * Application settings the harness starts with: a random port, sampled instead of strict blocking
+   * detection, and quiet logs. Each can be overridden through {@link #applicationArgs}.
+   */
+  private static final Map<String, String> APPLICATION_DEFAULTS =
+      Map.of(
+          "server.port", "0",
+          "app.reactive.blocking-detection.mode", "SAMPLED",
+          "app.reactive.blocking-detection.interval", "100ms",
+          "spring.main.banner-mode", "off",
+          "logging.level.root", "WARN");
+
+  LoadOptions {
+    Objects.requireNonNull(scenario, "scenario must not be null");
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be >= 1");
+    }
+    if (speed <= 0) {
+      throw new IllegalArgumentException("speed must be > 0");
+    }
+    if (warmup.isNegative()) {
+      throw new IllegalArgumentException("warmup must not be negative");
+    }
+    if (duration.isNegative() || duration.isZero()) {
+      throw new IllegalArgumentException("duration must be positive");
+    }
+    if (pendingTimeout.isNegative()) {
+      throw new IllegalArgumentException("pendingTimeout must not be negative");
+    }
+    applicationArgs = List.copyOf(applicationArgs);
+  }
+
+  /**
+   * Parses {@code --name=value} arguments. Harness options are {@code scenario}, {@code
+   * concurrency}, {@code speed}, {@code warmup}, {@code duration}, {@code seed} and {@code
+   * pending-timeout}; durations accept {@code 30s} or ISO-8601. Any other argument is passed to the
+   * application.
+   */
+  static LoadOptions parse(String... args) {
+    String scenario = "steady";
+    int concurrency = 32;
+    double speed = 1.0;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+    long seed = 42;
+    Duration pendingTimeout = Duration.ofSeconds(20);
+    List<String> applicationArgs = new ArrayList<>();
+
+    for (String arg : args) {
+      int equals = arg.indexOf('=');
+      String name = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : "";
+      String value = equals < 0 ? "" : arg.substring(equals + 1);
+      switch (name) {
+        case "scenario" -> scenario = value;
+        case "concurrency" -> concurrency = Integer.parseInt(value);
+        case "speed" -> speed = Double.parseDouble(value);
+        case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+        case "duration" -> duration = DurationStyle.detectAndParse(value);
+        case "seed" -> seed = Long.parseLong(value);
+        case "pending-timeout" -> pendingTimeout = DurationStyle.detectAndParse(value);
+        default -> applicationArgs.add(arg);
+      }
+    }
+    return new LoadOptions(
+        scenario, concurrency, speed, warmup, duration, seed, pendingTimeout, applicationArgs);
+  }
+
+  /**
+   * Harness defaults and the scenario's payment provider settings merged with {@link
+   * #applicationArgs}; explicit arguments win.
+   */
+  String[] applicationArgsFor(Scenario workload) {
+    Scenario.Payments payments = workload.payments();
+    Map<String, String> defaults = new LinkedHashMap<>(APPLICATION_DEFAULTS);
+    defaults.put("app.payment.simulated.seed", Long.toString(seed));
+    defaults.put("app.payment.simulated.outcomes.approve", Double.toString(payments.approve()));
+    defaults.put("app.payment.simulated.outcomes.decline", Double.toString(payments.decline()));
+    defaults.put("app.payment.simulated.outcomes.pending", Double.toString(payments.pending()));
+    for (String arg : applicationArgs) {
+      int equals = arg.indexOf('=');
+      if (arg.startsWith("--") && equals > 2) {
+        defaults.remove(arg.substring(2, equals));
+      }
+    }
+    List<String> merged = new ArrayList<>();
+    defaults.forEach((key, value) -> merged.add("--" + key + "=" + value));
+    merged.addAll(applicationArgs);
+    return merged.toArray(String[]::new);
+  }
+}
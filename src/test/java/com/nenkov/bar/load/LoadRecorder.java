@@ -0,0 +1,102 @@
+package com.nenkov.bar.load;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-route latency and error counts of one harness phase.
+ *
+ * <p>Latencies go into Micrometer timers publishing p50, p90 and p99. The statistics window is
+ * longer than any run, so percentiles cover the whole phase rather than the last few minutes.
+ */
+final class LoadRecorder {
+
+  private static final Duration WHOLE_RUN = Duration.ofDays(1);
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final Map<String, Route> routes;
+  private final LongAdder completedVisits = new LongAdder();
+  private final LongAdder failedVisits = new LongAdder();
+
+  /** Creates a recorder for {@code routes}, which are reported in the given order. */
+  LoadRecorder(List<String> routes) {
+    Map<String, Route> byName = new LinkedHashMap<>();
+    for (String route : routes) {
+      byName.put(route, newRoute(route));
+    }
+    this.routes = Collections.unmodifiableMap(byName);
+  }
+
+  /** Records one request to {@code route}; failed requests count towards its errors. */
+  void request(String route, long nanos, boolean failed) {
+    Route stats = routes.get(route);
+    if (stats == null) {
+      throw new IllegalArgumentException("Unknown route: " + route);
+    }
+    stats.timer().record(nanos, TimeUnit.NANOSECONDS);
+    if (failed) {
+      stats.errors().increment();
+    }
+  }
+
+  /** Records the end of one table visit. */
+  void visit(boolean completed) {
+    (completed ? completedVisits : failedVisits).increment();
+  }
+
+  long completedVisits() {
+    return completedVisits.sum();
+  }
+
+  long failedVisits() {
+    return failedVisits.sum();
+  }
+
+  /** Statistics per route. */
+  List<LoadReport.RouteStats> routes() {
+    return routes.values().stream().map(Route::stats).toList();
+  }
+
+  private Route newRoute(String route) {
+    Timer timer =
+        Timer.builder("load.request")
+            .tag("route", route)
+            .publishPercentiles(0.5, 0.9, 0.99)
+            .percentilePrecision(2)
+            .distributionStatisticExpiry(WHOLE_RUN)
+            .distributionStatisticBufferLength(1)
+            .register(registry);
+    return new Route(route, timer, new LongAdder());
+  }
+
+  private record Route(String name, Timer timer, LongAdder errors) {
+
+    LoadReport.RouteStats stats() {
+      HistogramSnapshot snapshot = timer.takeSnapshot();
+      double max = snapshot.max(TimeUnit.MILLISECONDS);
+      double[] percentiles = new double[3];
+      for (ValueAtPercentile value : snapshot.percentileValues()) {
+        int index = value.percentile() < 0.7 ? 0 : value.percentile() < 0.95 ? 1 : 2;
+        // Histogram buckets round up; never report a percentile above the largest sample.
+        percentiles[index] = Math.min(value.value(TimeUnit.MILLISECONDS), max);
+      }
+      return new LoadReport.RouteStats(
+          name,
+          snapshot.count(),
+          errors.sum(),
+          percentiles[0],
+          percentiles[1],
+          percentiles[2],
+          max);
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package com.nenkov.bar.load;
+
+import com.nenkov.bar.load.scenario.Scenario;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Results of the measured phase of a harness run.
+ *
+ * <p>Client and server share one JVM, so garbage collection figures include the load generator's
+ * own allocation.
+ *
+ * @param options settings the run used
+ * @param scenario workload the run played
+ * @param elapsed measured wall-clock time, until the last visit finished
+ * @param completedVisits table visits that ended with a closed session
+ * @param failedVisits table visits abandoned after an error or an unsettled payment
+ * @param routes latency and error statistics per route
+ * @param collections garbage collector activity during the measured phase
+ * @param heapUsedBytes heap in use at the end of the run
+ */
+record LoadReport(
+    LoadOptions options,
+    Scenario scenario,
+    Duration elapsed,
+    long completedVisits,
+    long failedVisits,
+    List<RouteStats> routes,
+    List<GcStats> collections,
+    long heapUsedBytes) {
+
+  LoadReport {
+    routes = List.copyOf(routes);
+    collections = List.copyOf(collections);
+  }
+
+  /** Latency in milliseconds and request counts of one route. */
+  record RouteStats(
+      String route,
+      long count,
+      long errors,
+      double p50Millis,
+      double p90Millis,
+      double p99Millis,
+      double maxMillis) {}
+
+  /** Collections and accumulated collection time of one collector. */
+  record GcStats(String collector, long collections, long millis) {
+
+    /** Current totals of every collector in this JVM. */
+    static List<GcStats> current() {
+      List<GcStats> stats = new ArrayList<>();
+      for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+        stats.add(
+            new GcStats(
+                collector.getName(),
+                collector.getCollectionCount(),
+                collector.getCollectionTime()));
+      }
+      return stats;
+    }
+
+    /** Activity between {@code before} and {@code after}. */
+    static List<GcStats> between(List<GcStats> before, List<GcStats> after) {
+      Map<String, GcStats> start =
+          before.stream().collect(Collectors.toMap(GcStats::collector, Function.identity()));
+      List<GcStats> delta = new ArrayList<>(after.size());
+      for (GcStats end : after) {
+        GcStats begin = start.getOrDefault(end.collector(), new GcStats(end.collector(), 0, 0));
+        delta.add(
+            new GcStats(
+                end.collector(),
+                end.collections() - begin.collections(),
+                end.millis() - begin.millis()));
+      }
+      return delta;
+    }
+  }
+
+  long requests() {
+    return routes.stream().mapToLong(RouteStats::count).sum();
+  }
+
+  long errors() {
+    return routes.stream().mapToLong(RouteStats::errors).sum();
+  }
+
+  double requestsPerSecond() {
+    return requests() / seconds();
+  }
+
+  double visitsPerSecond() {
+    return completedVisits / seconds();
+  }
+
+  /** Requests per finished visit; compare with {@link Scenario#expectedRequestsPerVisit}. */
+  double requestsPerVisit() {
+    long visits = completedVisits + failedVisits;
+    return visits == 0 ? 0.0 : (double) requests() / visits;
+  }
+
+  /** Human-readable summary printed at the end of a run. */
+  String format() {
+    StringBuilder out = new StringBuilder();
+    out.append(
+        String.format(
+            Locale.ROOT,
+            "Load run: scenario %s (%s), %.1fs measured after %ds warm-up, seed %d%n",
+            scenario.name(),
+            scenario.arrivals().isClosedLoop()
+                ? options.concurrency() + " guests, closed loop"
+                : scenario.tables() + " tables, open loop at " + options.speed() + "x",
+            seconds(),
+            options.warmup().toSeconds(),
+            options.seed()));
+    out.append(
+        String.format(
+            Locale.ROOT,
+            "Throughput: %.1f req/s, %.2f visits/s (%d completed, %d failed), %d errors%n",
+            requestsPerSecond(),
+            visitsPerSecond(),
+            completedVisits,
+            failedVisits,
+            errors()));
+    out.append(
+        String.format(
+            Locale.ROOT,
+            "Requests per visit: %.1f measured, %.1f planned (excluding pending-payment polls)%n%n",
+            requestsPerVisit(),
+            scenario.expectedRequestsPerVisit()));
+    out.append(
+        String.format(
+            Locale.ROOT,
+            "%-46s %8s %7s %9s %9s %9s %9s%n",
+            "route",
+            "count",
+            "errors",
+            "p50 ms",
+            "p90 ms",
+            "p99 ms",
+            "max ms"));
+    for (RouteStats route : routes) {
+      out.append(
+          String.format(
+              Locale.ROOT,
+              "%-46s %8d %7d %9.1f %9.1f %9.1f %9.1f%n",
+              route.route(),
+              route.count(),
+              route.errors(),
+              route.p50Millis(),
+              route.p90Millis(),
+              route.p99Millis(),
+              route.maxMillis()));
+    }
+    out.append(System.lineSeparator()).append("GC (client and server share this JVM):");
+    out.append(System.lineSeparator());
+    for (GcStats collector : collections) {
+      out.append(
+          String.format(
+              Locale.ROOT,
+              "  %-30s %6d collections %8d ms%n",
+              collector.collector(),
+              collector.collections(),
+              collector.millis()));
+    }
+    out.append(
+        String.format(Locale.ROOT, "  heap used at end: %d MiB%n", heapUsedBytes / (1024 * 1024)));
+    return out.toString();
+  }
+
+  private double seconds() {
+    return Math.max(elapsed.toNanos(), 1) / 1e9;
+  }
+}
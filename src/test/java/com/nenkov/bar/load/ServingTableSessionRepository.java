@@ -0,0 +1,86 @@
+package com.nenkov.bar.load;
+
+import com.nenkov.bar.application.session.repository.TableSessionRepository;
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.session.OrderItem;
+import com.nenkov.bar.domain.model.session.OrderItemStatus;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionContents;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
+import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
+import com.nenkov.bar.load.scenario.Workload;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves ordered drinks the moment they are saved.
+ *
+ * <p>The API accepts orders but has no kitchen or bar step that delivers items and prices them, so
+ * nothing would ever become payable. This decorator marks accepted items as delivered, adds a
+ * payable snapshot priced from the scenario's menu and applies the scenario's discounts.
+ */
+final class ServingTableSessionRepository implements TableSessionRepository {
+
+  private final TableSessionRepository delegate;
+  private final Workload workload;
+
+  ServingTableSessionRepository(TableSessionRepository delegate, Workload workload) {
+    this.delegate = delegate;
+    this.workload = workload;
+  }
+
+  @Override
+  public Optional<TableSession> findById(TableSessionId sessionId) {
+    return delegate.findById(sessionId);
+  }
+
+  @Override
+  public boolean existsOpenByTableId(String tableId) {
+    return delegate.existsOpenByTableId(tableId);
+  }
+
+  @Override
+  public void save(TableSession session) {
+    delegate.save(serve(session));
+  }
+
+  @Override
+  public boolean saveIfUnchanged(TableSession session) {
+    return delegate.saveIfUnchanged(serve(session));
+  }
+
+  private TableSession serve(TableSession session) {
+    if (session.orderItems().stream()
+        .noneMatch(item -> item.status() == OrderItemStatus.ACCEPTED)) {
+      return session;
+    }
+    List<OrderItem> orderItems = new ArrayList<>(session.orderItems().size());
+    List<SessionItemSnapshot> payableItems = new ArrayList<>(session.payableItemsSnapshot());
+    List<ItemWriteOff> itemWriteOffs = new ArrayList<>(session.itemWriteOffs());
+    for (OrderItem item : session.orderItems()) {
+      if (item.status() != OrderItemStatus.ACCEPTED) {
+        orderItems.add(item);
+        continue;
+      }
+      Money unitPrice = workload.price(item.productId());
+      orderItems.add(
+          new OrderItem(item.id(), item.productId(), item.quantity(), OrderItemStatus.DELIVERED));
+      payableItems.add(new SessionItemSnapshot(item.id(), unitPrice, item.quantity()));
+      workload.discount(item.id(), unitPrice, item.quantity()).ifPresent(itemWriteOffs::add);
+    }
+    return new TableSession(
+        session.id(),
+        session.currency(),
+        new TableSessionContents(
+            payableItems,
+            orderItems,
+            itemWriteOffs,
+            session.sessionWriteOffs(),
+            session.paymentTotals()),
+        session.status(),
+        session.closedAt(),
+        session.version());
+  }
+}
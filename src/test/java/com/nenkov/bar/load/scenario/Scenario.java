@@ -0,0 +1,290 @@
+package com.nenkov.bar.load.scenario;
+
+import com.nenkov.bar.domain.model.writeoff.WriteOffReason;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Description of a bar-night workload: how many tables there are, when guests arrive, what and how
+ * much they order, how they split the bill, how often they get a discount and how often their card
+ * is declined.
+ *
+ * <p>Scenarios are written in a small line-based language, one setting per line and {@code #} for
+ * comments:
+ *
+ * <pre>
+ * scenario friday-night
+ * currency EUR
+ * tables 40
+ * arrivals 0m=2/min 45m=8/min 90m=8/min 120m=0/min
+ * rounds 1..4
+ * lines 1..3
+ * quantity 1..2
+ * item beer 4.50 x6
+ * item cocktail 9.50 x2
+ * payers 1..4
+ * split single=40 by-item=40 upfront=20
+ * discount rate=5% off=20% DISCOUNT=3 PROMOTION=2 COMPENSATION=1
+ * payments decline=10% pending=5%
+ * </pre>
+ *
+ * <p>Every setting except {@code scenario} and at least one {@code item} has a default. Without an
+ * {@code arrivals} line guests come back as soon as they leave, which suits closed-loop runs with a
+ * fixed number of guests. {@link Workload} turns a scenario and a seed into visits and tab
+ * fixtures.
+ *
+ * @param name scenario name
+ * @param currency ISO-4217 currency of all prices
+ * @param tables number of tables; bounds the number of open tabs
+ * @param arrivals guest arrival rate over time; empty for closed-loop runs
+ * @param rounds order rounds per visit
+ * @param lines order lines per round
+ * @param quantity units per order line
+ * @param menu products guests pick from, weighted by popularity
+ * @param payers guests sharing one bill
+ * @param split weights of the ways a group settles its bill
+ * @param discounts how often delivered items are written off, and why
+ * @param payments share of payments the provider declines or leaves pending
+ */
+public record Scenario(
+    String name,
+    String currency,
+    int tables,
+    ArrivalCurve arrivals,
+    Range rounds,
+    Range lines,
+    Range quantity,
+    List<MenuItem> menu,
+    Range payers,
+    Map<SplitHabit, Integer> split,
+    Discounts discounts,
+    Payments payments) {
+
+  private static final String BUILT_IN = "/scenarios/%s.scenario";
+
+  public Scenario {
+    Objects.requireNonNull(name, "name must not be null");
+    Objects.requireNonNull(currency, "currency must not be null");
+    Objects.requireNonNull(arrivals, "arrivals must not be null");
+    Objects.requireNonNull(rounds, "rounds must not be null");
+    Objects.requireNonNull(lines, "lines must not be null");
+    Objects.requireNonNull(quantity, "quantity must not be null");
+    Objects.requireNonNull(payers, "payers must not be null");
+    Objects.requireNonNull(discounts, "discounts must not be null");
+    Objects.requireNonNull(payments, "payments must not be null");
+    if (tables < 1) {
+      throw new IllegalArgumentException("tables must be >= 1");
+    }
+    menu = List.copyOf(Objects.requireNonNull(menu, "menu must not be null"));
+    if (menu.isEmpty()) {
+      throw new IllegalArgumentException("menu must not be empty");
+    }
+    split = Map.copyOf(Objects.requireNonNull(split, "split must not be null"));
+    if (split.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+      throw new IllegalArgumentException("split must have a positive weight");
+    }
+  }
+
+  /** Parses a scenario written in the language described above. */
+  public static Scenario parse(String text) {
+    return ScenarioParser.parse(text);
+  }
+
+  /**
+   * Loads a scenario: {@code source} is either the name of a built-in scenario under {@code
+   * src/test/resources/scenarios} (e.g. {@code friday-night}) or a path to a scenario file.
+   */
+  public static Scenario load(String source) {
+    try (InputStream builtIn = Scenario.class.getResourceAsStream(BUILT_IN.formatted(source))) {
+      if (builtIn != null) {
+        return parse(new String(builtIn.readAllBytes(), StandardCharsets.UTF_8));
+      }
+      return parse(Files.readString(Path.of(source)));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read scenario " + source, e);
+    }
+  }
+
+  /**
+   * Expected HTTP requests per visit, for capacity planning: opening, one order per round, one
+   * view, the checks and payments of the chosen split habit with declined payments retried, and
+   * closing. Polling for pending payments is not included.
+   */
+  public double expectedRequestsPerVisit() {
+    double totalWeight = split.values().stream().mapToInt(Integer::intValue).sum();
+    double retries = 1.0 / (1.0 - payments.decline());
+    double settle = 0;
+    for (Map.Entry<SplitHabit, Integer> habit : split.entrySet()) {
+      double checksAndPayments =
+          switch (habit.getKey()) {
+            case SINGLE -> 2 * retries;
+            case BY_ITEM -> 2 * payers.mean() * retries;
+            case UPFRONT -> 1 + payers.mean() * (1 + 2 * (retries - 1));
+          };
+      settle += checksAndPayments * habit.getValue() / totalWeight;
+    }
+    return 1 + rounds.mean() + 1 + settle + 1;
+  }
+
+  /** Inclusive range of whole numbers, written {@code min..max} or as a single number. */
+  public record Range(int min, int max) {
+
+    public Range {
+      if (min < 0 || max < min) {
+        throw new IllegalArgumentException("range must satisfy 0 <= min <= max");
+      }
+    }
+
+    double mean() {
+      return (min + max) / 2.0;
+    }
+  }
+
+  /** A product, its unit price and its relative popularity. */
+  public record MenuItem(String productId, BigDecimal price, int weight) {
+
+    public MenuItem {
+      Objects.requireNonNull(productId, "productId must not be null");
+      Objects.requireNonNull(price, "price must not be null");
+      if (price.signum() <= 0) {
+        throw new IllegalArgumentException("price must be > 0");
+      }
+      if (weight < 1) {
+        throw new IllegalArgumentException("weight must be >= 1");
+      }
+    }
+  }
+
+  /** How a group settles its bill. */
+  public enum SplitHabit {
+    /** One guest pays everything with a single check. */
+    SINGLE,
+    /** Each guest creates a check for their own items, one after the other. */
+    BY_ITEM,
+    /** The bill is split into one check per guest up front, then each check is paid. */
+    UPFRONT
+  }
+
+  /**
+   * Item write-offs applied when items are delivered.
+   *
+   * @param rate probability that a delivered order line is written off
+   * @param off share of the line total written off; below 1 so every line keeps a price to pay
+   * @param reasons weights of the recorded reasons
+   */
+  public record Discounts(double rate, double off, Map<WriteOffReason, Integer> reasons) {
+
+    public static final Discounts NONE = new Discounts(0.0, 0.0, Map.of());
+
+    public Discounts {
+      if (rate < 0 || rate > 1 || off < 0 || off >= 1) {
+        throw new IllegalArgumentException("rate must be within [0, 1] and off within [0, 1)");
+      }
+      reasons = Map.copyOf(Objects.requireNonNull(reasons, "reasons must not be null"));
+      if (rate > 0 && reasons.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+        throw new IllegalArgumentException("discounts need at least one weighted reason");
+      }
+    }
+  }
+
+  /** Share of payments the provider declines or leaves pending; the rest are approved. */
+  public record Payments(double decline, double pending) {
+
+    public static final Payments ALWAYS_APPROVED = new Payments(0.0, 0.0);
+
+    public Payments {
+      if (decline < 0 || pending < 0 || decline >= 1 || decline + pending > 1) {
+        throw new IllegalArgumentException(
+            "decline must be in [0, 1), pending >= 0, and together at most 1");
+      }
+    }
+
+    public double approve() {
+      return 1.0 - decline - pending;
+    }
+  }
+
+  /**
+   * Guest arrival rate over time, linear between points and constant after the last one.
+   *
+   * @param points arrival rates per minute at increasing offsets from the start of the night
+   */
+  public record ArrivalCurve(List<Point> points) {
+
+    /** No arrival schedule: guests return as soon as they leave. */
+    public static final ArrivalCurve CLOSED_LOOP = new ArrivalCurve(List.of());
+
+    public ArrivalCurve {
+      points = List.copyOf(Objects.requireNonNull(points, "points must not be null"));
+      for (int i = 1; i < points.size(); i++) {
+        if (points.get(i).at().compareTo(points.get(i - 1).at()) <= 0) {
+          throw new IllegalArgumentException("arrival points must have increasing offsets");
+        }
+      }
+    }
+
+    public boolean isClosedLoop() {
+      return points.isEmpty();
+    }
+
+    /** Arrivals per minute at {@code offset}. */
+    public double ratePerMinute(Duration offset) {
+      if (points.isEmpty()) {
+        throw new IllegalStateException("a closed-loop scenario has no arrival rate");
+      }
+      Point previous = points.getFirst();
+      if (offset.compareTo(previous.at()) <= 0) {
+        return previous.perMinute();
+      }
+      for (Point next : points.subList(1, points.size())) {
+        if (offset.compareTo(next.at()) <= 0) {
+          double span = next.at().minus(previous.at()).toNanos();
+          double progress = offset.minus(previous.at()).toNanos() / span;
+          return previous.perMinute() + (next.perMinute() - previous.perMinute()) * progress;
+        }
+        previous = next;
+      }
+      return previous.perMinute();
+    }
+
+    /** Highest rate anywhere on the curve. */
+    double peakPerMinute() {
+      return points.stream().mapToDouble(Point::perMinute).max().orElse(0.0);
+    }
+
+    /** Offset after which the rate never changes again. */
+    Duration end() {
+      return points.isEmpty() ? Duration.ZERO : points.getLast().at();
+    }
+
+    /** Expected number of arrivals between the start and {@code horizon}. */
+    public double expectedArrivals(Duration horizon) {
+      double total = 0;
+      Duration step = Duration.ofSeconds(1);
+      for (Duration at = Duration.ZERO; at.compareTo(horizon) < 0; at = at.plus(step)) {
+        total += ratePerMinute(at.plus(step.dividedBy(2))) / 60.0;
+      }
+      return total;
+    }
+
+    /** Arrival rate {@code perMinute} from {@code at} on. */
+    public record Point(Duration at, double perMinute) {
+
+      public Point {
+        Objects.requireNonNull(at, "at must not be null");
+        if (at.isNegative() || perMinute < 0) {
+          throw new IllegalArgumentException("arrival points must not be negative");
+        }
+      }
+    }
+  }
+}
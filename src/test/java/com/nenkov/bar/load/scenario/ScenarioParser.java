@@ -0,0 +1,206 @@
+package com.nenkov.bar.load.scenario;
+
+import com.nenkov.bar.domain.model.writeoff.WriteOffReason;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Reads the scenario language documented on {@link Scenario}. Errors name the offending line so a
+ * typo in a long scenario is quick to find.
+ */
+final class ScenarioParser {
+
+  private String name;
+  private String currency = "EUR";
+  private int tables = 20;
+  private Scenario.ArrivalCurve arrivals = Scenario.ArrivalCurve.CLOSED_LOOP;
+  private Scenario.Range rounds = new Scenario.Range(1, 4);
+  private Scenario.Range lines = new Scenario.Range(1, 4);
+  private Scenario.Range quantity = new Scenario.Range(1, 3);
+  private final List<Scenario.MenuItem> menu = new ArrayList<>();
+  private Scenario.Range payers = new Scenario.Range(1, 3);
+  private Map<Scenario.SplitHabit, Integer> split = Map.of(Scenario.SplitHabit.BY_ITEM, 1);
+  private Scenario.Discounts discounts = Scenario.Discounts.NONE;
+  private Scenario.Payments payments = new Scenario.Payments(0.10, 0.05);
+
+  private ScenarioParser() {}
+
+  static Scenario parse(String text) {
+    ScenarioParser parser = new ScenarioParser();
+    Set<String> seen = new HashSet<>();
+    String[] lines = text.split("\\R");
+    for (int i = 0; i < lines.length; i++) {
+      String line = lines[i].strip();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] words = line.split("\\s+");
+      String keyword = words[0];
+      String[] args = Arrays.copyOfRange(words, 1, words.length);
+      try {
+        if (!keyword.equals("item") && !seen.add(keyword)) {
+          throw new IllegalArgumentException("'" + keyword + "' is set more than once");
+        }
+        parser.apply(keyword, args);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(
+            "Scenario line " + (i + 1) + " (" + line + "): " + e.getMessage(), e);
+      }
+    }
+    if (parser.name == null) {
+      throw new IllegalArgumentException("Scenario needs a 'scenario <name>' line");
+    }
+    if (parser.menu.isEmpty()) {
+      throw new IllegalArgumentException("Scenario needs at least one 'item' line");
+    }
+    return new Scenario(
+        parser.name,
+        parser.currency,
+        parser.tables,
+        parser.arrivals,
+        parser.rounds,
+        parser.lines,
+        parser.quantity,
+        parser.menu,
+        parser.payers,
+        parser.split,
+        parser.discounts,
+        parser.payments);
+  }
+
+  private void apply(String keyword, String[] args) {
+    switch (keyword) {
+      case "scenario" -> name = single(args);
+      case "currency" -> currency = single(args);
+      case "tables" -> tables = Integer.parseInt(single(args));
+      case "arrivals" -> arrivals = arrivals(args);
+      case "rounds" -> rounds = range(single(args));
+      case "lines" -> lines = range(single(args));
+      case "quantity" -> quantity = range(single(args));
+      case "item" -> menu.add(item(args));
+      case "payers" -> payers = range(single(args));
+      case "split" -> split = split(args);
+      case "discount" -> discounts = discounts(args);
+      case "payments" -> payments = payments(args);
+      default -> throw new IllegalArgumentException("unknown setting '" + keyword + "'");
+    }
+  }
+
+  private static String single(String[] args) {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("expected exactly one value");
+    }
+    return args[0];
+  }
+
+  /** {@code 2..5} or {@code 3}. */
+  private static Scenario.Range range(String value) {
+    int dots = value.indexOf("..");
+    if (dots < 0) {
+      int exact = Integer.parseInt(value);
+      return new Scenario.Range(exact, exact);
+    }
+    return new Scenario.Range(
+        Integer.parseInt(value.substring(0, dots)), Integer.parseInt(value.substring(dots + 2)));
+  }
+
+  /** {@code 5%} or {@code 0.05}. */
+  private static double fraction(String value) {
+    return value.endsWith("%")
+        ? Double.parseDouble(value.substring(0, value.length() - 1)) / 100.0
+        : Double.parseDouble(value);
+  }
+
+  /** {@code 0m=2/min 45m=8/min}. */
+  private static Scenario.ArrivalCurve arrivals(String[] args) {
+    if (args.length == 0) {
+      throw new IllegalArgumentException("expected at least one <offset>=<rate>/min point");
+    }
+    List<Scenario.ArrivalCurve.Point> points = new ArrayList<>(args.length);
+    for (String arg : args) {
+      String[] pair = pair(arg);
+      if (!pair[1].endsWith("/min")) {
+        throw new IllegalArgumentException("arrival rates are written <n>/min: " + arg);
+      }
+      points.add(
+          new Scenario.ArrivalCurve.Point(
+              DurationStyle.detectAndParse(pair[0]),
+              Double.parseDouble(pair[1].substring(0, pair[1].length() - "/min".length()))));
+    }
+    return new Scenario.ArrivalCurve(points);
+  }
+
+  /** {@code beer 4.50 x6}; the weight defaults to 1. */
+  private static Scenario.MenuItem item(String[] args) {
+    if (args.length < 2 || args.length > 3) {
+      throw new IllegalArgumentException("expected <product> <price> [x<weight>]");
+    }
+    int weight = 1;
+    if (args.length == 3) {
+      if (!args[2].startsWith("x")) {
+        throw new IllegalArgumentException("weights are written x<n>: " + args[2]);
+      }
+      weight = Integer.parseInt(args[2].substring(1));
+    }
+    return new Scenario.MenuItem(args[0], new BigDecimal(args[1]), weight);
+  }
+
+  /** {@code single=40 by-item=40 upfront=20}. */
+  private static Map<Scenario.SplitHabit, Integer> split(String[] args) {
+    Map<Scenario.SplitHabit, Integer> weights = new EnumMap<>(Scenario.SplitHabit.class);
+    for (String arg : args) {
+      String[] pair = pair(arg);
+      weights.put(
+          Scenario.SplitHabit.valueOf(pair[0].replace('-', '_').toUpperCase(Locale.ROOT)),
+          Integer.parseInt(pair[1]));
+    }
+    return weights;
+  }
+
+  /** {@code rate=5% off=20% DISCOUNT=3 PROMOTION=1}. */
+  private static Scenario.Discounts discounts(String[] args) {
+    double rate = 0;
+    double off = 0;
+    Map<WriteOffReason, Integer> reasons = new EnumMap<>(WriteOffReason.class);
+    for (String arg : args) {
+      String[] pair = pair(arg);
+      switch (pair[0]) {
+        case "rate" -> rate = fraction(pair[1]);
+        case "off" -> off = fraction(pair[1]);
+        default -> reasons.put(WriteOffReason.valueOf(pair[0]), Integer.parseInt(pair[1]));
+      }
+    }
+    return new Scenario.Discounts(rate, off, reasons);
+  }
+
+  /** {@code decline=10% pending=5%}. */
+  private static Scenario.Payments payments(String[] args) {
+    double decline = 0;
+    double pending = 0;
+    for (String arg : args) {
+      String[] pair = pair(arg);
+      switch (pair[0]) {
+        case "decline" -> decline = fraction(pair[1]);
+        case "pending" -> pending = fraction(pair[1]);
+        default -> throw new IllegalArgumentException("unknown payment setting " + pair[0]);
+      }
+    }
+    return new Scenario.Payments(decline, pending);
+  }
+
+  private static String[] pair(String arg) {
+    int equals = arg.indexOf('=');
+    if (equals <= 0 || equals == arg.length() - 1) {
+      throw new IllegalArgumentException("expected <key>=<value>: " + arg);
+    }
+    return new String[] {arg.substring(0, equals), arg.substring(equals + 1)};
+  }
+}
@@ -0,0 +1,135 @@
+package com.nenkov.bar.load.scenario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.nenkov.bar.domain.model.writeoff.WriteOffReason;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ScenarioTest {
+
+  @Test
+  void parse_readsEverySetting() {
+    Scenario scenario =
+        Scenario.parse(
+            """
+            # comment lines and blank lines are ignored
+
+            scenario happy-hour
+            currency BGN
+            tables 12
+            arrivals 0m=2/min 30m=6/min
+            rounds 2..3
+            lines 1
+            quantity 1..2
+            item beer 3.50 x5
+            item wine 5.00
+            payers 2..4
+            split single=1 upfront=3
+            discount rate=10% off=0.5 PROMOTION=2 DISCOUNT=1
+            payments decline=20% pending=0%
+            """);
+
+    assertThat(scenario.name()).isEqualTo("happy-hour");
+    assertThat(scenario.currency()).isEqualTo("BGN");
+    assertThat(scenario.tables()).isEqualTo(12);
+    assertThat(scenario.arrivals().points())
+        .containsExactly(
+            new Scenario.ArrivalCurve.Point(Duration.ZERO, 2.0),
+            new Scenario.ArrivalCurve.Point(Duration.ofMinutes(30), 6.0));
+    assertThat(scenario.rounds()).isEqualTo(new Scenario.Range(2, 3));
+    assertThat(scenario.lines()).isEqualTo(new Scenario.Range(1, 1));
+    assertThat(scenario.quantity()).isEqualTo(new Scenario.Range(1, 2));
+    assertThat(scenario.menu())
+        .containsExactly(
+            new Scenario.MenuItem("beer", new BigDecimal("3.50"), 5),
+            new Scenario.MenuItem("wine", new BigDecimal("5.00"), 1));
+    assertThat(scenario.payers()).isEqualTo(new Scenario.Range(2, 4));
+    assertThat(scenario.split())
+        .containsExactlyInAnyOrderEntriesOf(
+            Map.of(Scenario.SplitHabit.SINGLE, 1, Scenario.SplitHabit.UPFRONT, 3));
+    assertThat(scenario.discounts())
+        .isEqualTo(
+            new Scenario.Discounts(
+                0.10, 0.5, Map.of(WriteOffReason.PROMOTION, 2, WriteOffReason.DISCOUNT, 1)));
+    assertThat(scenario.payments().decline()).isCloseTo(0.20, within(1e-9));
+    assertThat(scenario.payments().approve()).isCloseTo(0.80, within(1e-9));
+  }
+
+  @Test
+  void parse_fillsInDefaults() {
+    Scenario scenario = Scenario.parse("scenario minimal\nitem water 2.00");
+
+    assertThat(scenario.currency()).isEqualTo("EUR");
+    assertThat(scenario.arrivals().isClosedLoop()).isTrue();
+    assertThat(scenario.split()).containsOnlyKeys(Scenario.SplitHabit.BY_ITEM);
+    assertThat(scenario.discounts()).isEqualTo(Scenario.Discounts.NONE);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"steady", "friday-night"})
+  void load_findsBuiltInScenarios(String name) {
+    assertThat(Scenario.load(name).name()).isEqualTo(name);
+  }
+
+  @Test
+  void parse_namesTheLineOfAMistake() {
+    assertThatThrownBy(() -> Scenario.parse("scenario typo\nitem beer 4.50\nrounds 3..1"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("line 3")
+        .hasMessageContaining("rounds 3..1");
+  }
+
+  @Test
+  void parse_rejectsUnknownAndRepeatedSettings() {
+    assertThatThrownBy(() -> Scenario.parse("scenario x\nitem beer 4.50\nwaiters 3"))
+        .hasMessageContaining("unknown setting 'waiters'");
+    assertThatThrownBy(() -> Scenario.parse("scenario x\nitem beer 4.50\ntables 3\ntables 4"))
+        .hasMessageContaining("'tables' is set more than once");
+  }
+
+  @Test
+  void parse_requiresANameAndAMenu() {
+    assertThatThrownBy(() -> Scenario.parse("item beer 4.50"))
+        .hasMessageContaining("'scenario <name>'");
+    assertThatThrownBy(() -> Scenario.parse("scenario empty-bar"))
+        .hasMessageContaining("at least one 'item'");
+  }
+
+  @Test
+  void arrivalCurve_interpolatesBetweenPointsAndHoldsTheLastRate() {
+    Scenario.ArrivalCurve curve =
+        new Scenario.ArrivalCurve(
+            List.of(
+                new Scenario.ArrivalCurve.Point(Duration.ofMinutes(10), 2),
+                new Scenario.ArrivalCurve.Point(Duration.ofMinutes(20), 6)));
+
+    assertThat(curve.ratePerMinute(Duration.ZERO)).isEqualTo(2.0);
+    assertThat(curve.ratePerMinute(Duration.ofMinutes(15))).isCloseTo(4.0, within(1e-9));
+    assertThat(curve.ratePerMinute(Duration.ofHours(2))).isEqualTo(6.0);
+    assertThat(curve.expectedArrivals(Duration.ofMinutes(10))).isCloseTo(20.0, within(1e-6));
+  }
+
+  @Test
+  void expectedRequestsPerVisit_countsOrdersChecksAndPayments() {
+    Scenario scenario =
+        Scenario.parse(
+            """
+            scenario single-payer
+            item beer 4.50
+            rounds 3
+            split single=1
+            payments decline=0% pending=0%
+            """);
+
+    // open + 3 orders + view + check + payment + close
+    assertThat(scenario.expectedRequestsPerVisit()).isCloseTo(8.0, within(1e-9));
+  }
+}
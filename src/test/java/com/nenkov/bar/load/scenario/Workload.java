@@ -0,0 +1,249 @@
+package com.nenkov.bar.load.scenario;
+
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.session.OrderItem;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.OrderItemStatus;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.session.TableSessionContents;
+import com.nenkov.bar.domain.model.session.TableSessionId;
+import com.nenkov.bar.domain.model.session.TableSessionStatus;
+import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
+import com.nenkov.bar.domain.model.writeoff.WriteOffReason;
+import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Seeded generator for a {@link Scenario}: the same scenario and seed always yield the same visits,
+ * the same tab fixtures and the same discount decisions.
+ *
+ * <p>Visits feed the load harness; {@link #tabs} gives benchmarks and tests realistic sessions
+ * without going through the API.
+ */
+public final class Workload {
+
+  private static final long MIX = 0x9E3779B97F4A7C15L;
+
+  private final Scenario scenario;
+  private final long seed;
+  private final int[] menuWeights;
+
+  public Workload(Scenario scenario, long seed) {
+    this.scenario = Objects.requireNonNull(scenario, "scenario must not be null");
+    this.seed = seed;
+    this.menuWeights = scenario.menu().stream().mapToInt(Scenario.MenuItem::weight).toArray();
+  }
+
+  public Scenario scenario() {
+    return scenario;
+  }
+
+  /**
+   * Visits in arrival order. Arrivals follow the scenario's curve as a Poisson process; the
+   * sequence ends once the curve has dropped to zero for good. Closed-loop scenarios yield an
+   * endless sequence of visits that all arrive at offset zero.
+   */
+  public Iterator<Visit> visits() {
+    SplittableRandom contents = new SplittableRandom(seed);
+    SplittableRandom arrivals = contents.split();
+    Scenario.ArrivalCurve curve = scenario.arrivals();
+    return new Iterator<>() {
+      private int number;
+      private double minutes;
+      private Duration next = curve.isClosedLoop() ? Duration.ZERO : nextArrival();
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public Visit next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        Visit visit = plan(contents, number++, next);
+        if (!curve.isClosedLoop()) {
+          next = nextArrival();
+        }
+        return visit;
+      }
+
+      /** Thinning: draw at the peak rate and keep each arrival with probability rate / peak. */
+      private Duration nextArrival() {
+        double peak = curve.peakPerMinute();
+        while (peak > 0) {
+          minutes += -Math.log(1.0 - arrivals.nextDouble()) / peak;
+          Duration at = Duration.ofNanos((long) (minutes * 60e9));
+          double rate = curve.ratePerMinute(at);
+          if (rate == 0 && at.compareTo(curve.end()) >= 0) {
+            return null;
+          }
+          if (arrivals.nextDouble() * peak < rate) {
+            return at;
+          }
+        }
+        return null;
+      }
+    };
+  }
+
+  /**
+   * Open tabs with every ordered item delivered and still unpaid, shaped like the scenario's
+   * visits. Item ids, discounts and session ids follow from the seed.
+   */
+  public List<TableSession> tabs(int count) {
+    SplittableRandom random = new SplittableRandom(seed);
+    List<TableSession> tabs = new ArrayList<>(count);
+    long itemNumber = 0;
+    for (int i = 0; i < count; i++) {
+      Visit visit = plan(random, i, Duration.ZERO);
+      List<OrderItem> orderItems = new ArrayList<>();
+      List<SessionItemSnapshot> payableItems = new ArrayList<>();
+      List<ItemWriteOff> writeOffs = new ArrayList<>();
+      for (List<OrderLine> round : visit.rounds()) {
+        for (OrderLine line : round) {
+          OrderItemId id = OrderItemId.of(new UUID(seed, itemNumber++));
+          Money unitPrice = price(line.productId());
+          orderItems.add(
+              new OrderItem(id, line.productId(), line.quantity(), OrderItemStatus.DELIVERED));
+          payableItems.add(new SessionItemSnapshot(id, unitPrice, line.quantity()));
+          discount(id, unitPrice, line.quantity()).ifPresent(writeOffs::add);
+        }
+      }
+      tabs.add(
+          new TableSession(
+              TableSessionId.of("S-" + seed + "-" + i),
+              scenario.currency(),
+              new TableSessionContents(payableItems, orderItems, writeOffs, List.of()),
+              TableSessionStatus.OPEN,
+              null));
+    }
+    return tabs;
+  }
+
+  /** Unit price of {@code productId} on the scenario's menu. */
+  public Money price(String productId) {
+    for (Scenario.MenuItem item : scenario.menu()) {
+      if (item.productId().equals(productId)) {
+        return Money.of(scenario.currency(), item.price());
+      }
+    }
+    throw new IllegalArgumentException("Not on the menu: " + productId);
+  }
+
+  /**
+   * Write-off for a delivered line, if the scenario's discount rate picks it. The decision depends
+   * only on the seed and the item id, so it is the same wherever and whenever the item is served.
+   */
+  public Optional<ItemWriteOff> discount(OrderItemId itemId, Money unitPrice, int quantity) {
+    Scenario.Discounts discounts = scenario.discounts();
+    if (discounts.rate() == 0) {
+      return Optional.empty();
+    }
+    UUID id = itemId.value();
+    SplittableRandom random =
+        new SplittableRandom(
+            seed ^ (id.getMostSignificantBits() * MIX) ^ id.getLeastSignificantBits());
+    if (random.nextDouble() >= discounts.rate()) {
+      return Optional.empty();
+    }
+    BigDecimal amount =
+        unitPrice
+            .times(quantity)
+            .amount()
+            .multiply(BigDecimal.valueOf(discounts.off()))
+            .setScale(2, RoundingMode.HALF_UP);
+    if (amount.signum() <= 0) {
+      return Optional.empty();
+    }
+    WriteOffReason reason = pick(random, WriteOffReason.values(), discounts.reasons());
+    return Optional.of(
+        ItemWriteOff.of(itemId, quantity, Money.of(unitPrice.currency(), amount), reason));
+  }
+
+  private Visit plan(SplittableRandom random, int number, Duration arrival) {
+    int roundCount = between(random, scenario.rounds());
+    List<List<OrderLine>> rounds = new ArrayList<>(roundCount);
+    for (int r = 0; r < roundCount; r++) {
+      int lineCount = Math.max(1, between(random, scenario.lines()));
+      List<OrderLine> round = new ArrayList<>(lineCount);
+      for (int l = 0; l < lineCount; l++) {
+        Scenario.MenuItem item = scenario.menu().get(pick(random, menuWeights));
+        round.add(
+            new OrderLine(item.productId(), Math.max(1, between(random, scenario.quantity()))));
+      }
+      rounds.add(List.copyOf(round));
+    }
+    Scenario.SplitHabit split = pick(random, Scenario.SplitHabit.values(), scenario.split());
+    int payers = Math.max(1, between(random, scenario.payers()));
+    return new Visit(number, arrival, rounds, split, payers, random.nextLong());
+  }
+
+  private static int between(SplittableRandom random, Scenario.Range range) {
+    return range.min() + random.nextInt(range.max() - range.min() + 1);
+  }
+
+  private static int pick(SplittableRandom random, int[] weights) {
+    int total = 0;
+    for (int weight : weights) {
+      total += weight;
+    }
+    int ticket = random.nextInt(total);
+    for (int i = 0; i < weights.length; i++) {
+      ticket -= weights[i];
+      if (ticket < 0) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("weights changed while picking");
+  }
+
+  /** Picks one of {@code values}, in declaration order so equal seeds pick equally. */
+  private static <E extends Enum<E>> E pick(
+      SplittableRandom random, E[] values, Map<E, Integer> weights) {
+    int[] ordered = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      ordered[i] = weights.getOrDefault(values[i], 0);
+    }
+    return values[pick(random, ordered)];
+  }
+
+  /**
+   * One table visit: what the group orders, how it settles the bill, and a seed for the remaining
+   * choices made once the tab exists, such as which guest pays for which item.
+   *
+   * @param number position in the workload, from zero
+   * @param arrival offset from the start of the night; zero in closed-loop scenarios
+   * @param rounds order rounds, each a non-empty list of order lines
+   * @param split how the bill is settled
+   * @param payers guests sharing the bill
+   * @param seed seed for choices made during the visit
+   */
+  public record Visit(
+      int number,
+      Duration arrival,
+      List<List<OrderLine>> rounds,
+      Scenario.SplitHabit split,
+      int payers,
+      long seed) {
+
+    public Visit {
+      rounds = List.copyOf(rounds);
+    }
+  }
+
+  /** One line of an order round. */
+  public record OrderLine(String productId, int quantity) {}
+}
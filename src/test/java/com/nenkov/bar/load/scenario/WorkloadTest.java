@@ -0,0 +1,155 @@
+package com.nenkov.bar.load.scenario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nenkov.bar.domain.model.money.Money;
+import com.nenkov.bar.domain.model.payment.PaymentSelection;
+import com.nenkov.bar.domain.model.session.OrderItem;
+import com.nenkov.bar.domain.model.session.OrderItemId;
+import com.nenkov.bar.domain.model.session.TableSession;
+import com.nenkov.bar.domain.model.writeoff.ItemWriteOff;
+import com.nenkov.bar.domain.service.payment.DefaultCheckAmountCalculator;
+import com.nenkov.bar.domain.service.payment.SessionItemSnapshot;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class WorkloadTest {
+
+  private static final Scenario FRIDAY = Scenario.load("friday-night");
+
+  @Test
+  void visits_areReproducibleFromTheSeed() {
+    assertThat(take(new Workload(FRIDAY, 7).visits(), 200))
+        .isEqualTo(take(new Workload(FRIDAY, 7).visits(), 200))
+        .isNotEqualTo(take(new Workload(FRIDAY, 8).visits(), 200));
+  }
+
+  @Test
+  void visits_followTheArrivalCurveAndEndWhenItDropsToZero() {
+    List<Workload.Visit> night = new ArrayList<>();
+    new Workload(FRIDAY, 42).visits().forEachRemaining(night::add);
+
+    double expected = FRIDAY.arrivals().expectedArrivals(Duration.ofMinutes(300));
+    assertThat((double) night.size()).isBetween(expected * 0.85, expected * 1.15);
+    assertThat(night)
+        .extracting(Workload.Visit::arrival)
+        .isSorted()
+        .allSatisfy(arrival -> assertThat(arrival).isLessThanOrEqualTo(Duration.ofMinutes(300)));
+    // The peak (8/min) sees far more arrivals per minute than the start (1/min).
+    long firstHour = night.stream().filter(v -> v.arrival().toMinutes() < 60).count();
+    long peakHour =
+        night.stream()
+            .filter(v -> v.arrival().toMinutes() >= 130 && v.arrival().toMinutes() < 190)
+            .count();
+    assertThat(peakHour).isGreaterThan(3 * firstHour);
+  }
+
+  @Test
+  void visits_stayWithinTheScenarioRanges() {
+    for (Workload.Visit visit : take(new Workload(FRIDAY, 3).visits(), 500)) {
+      assertThat(visit.rounds()).hasSizeBetween(FRIDAY.rounds().min(), FRIDAY.rounds().max());
+      assertThat(visit.payers()).isBetween(FRIDAY.payers().min(), FRIDAY.payers().max());
+      assertThat(visit.split()).isIn(FRIDAY.split().keySet());
+      for (List<Workload.OrderLine> round : visit.rounds()) {
+        assertThat(round).hasSizeBetween(FRIDAY.lines().min(), FRIDAY.lines().max());
+        assertThat(round)
+            .allSatisfy(
+                line ->
+                    assertThat(line.quantity())
+                        .isBetween(FRIDAY.quantity().min(), FRIDAY.quantity().max()));
+      }
+    }
+  }
+
+  @Test
+  void closedLoopVisits_neverRunOutAndAllArriveAtOnce() {
+    Iterator<Workload.Visit> visits = new Workload(Scenario.load("steady"), 1).visits();
+
+    assertThat(take(visits, 1_000))
+        .hasSize(1_000)
+        .extracting(Workload.Visit::arrival)
+        .containsOnly(Duration.ZERO);
+    assertThat(visits.hasNext()).isTrue();
+  }
+
+  @Test
+  void tabs_areReproducibleDeliveredAndPricedFromTheMenu() {
+    Workload workload = new Workload(FRIDAY, 11);
+
+    List<TableSession> tabs = workload.tabs(50);
+
+    assertThat(tabs).hasSize(50);
+    assertThat(ids(tabs)).isEqualTo(ids(new Workload(FRIDAY, 11).tabs(50)));
+    for (TableSession tab : tabs) {
+      assertThat(tab.currency()).isEqualTo(FRIDAY.currency());
+      assertThat(tab.orderItems()).isNotEmpty();
+      for (SessionItemSnapshot item : tab.payableItemsSnapshot()) {
+        OrderItem ordered =
+            tab.orderItems().stream().filter(o -> o.id().equals(item.itemId())).findFirst().get();
+        assertThat(item.unitPrice()).isEqualTo(workload.price(ordered.productId()));
+        assertThat(item.remainingQuantity()).isEqualTo(ordered.quantity());
+      }
+    }
+  }
+
+  @Test
+  void tabs_canBeQuotedInFull() {
+    DefaultCheckAmountCalculator calculator = new DefaultCheckAmountCalculator();
+
+    for (TableSession tab : new Workload(FRIDAY, 5).tabs(200)) {
+      List<PaymentSelection> everything =
+          tab.payableItemsSnapshot().stream()
+              .map(item -> PaymentSelection.of(item.itemId(), item.remainingQuantity()))
+              .toList();
+      assertThat(
+              calculator
+                  .quote(
+                      tab.currency(),
+                      tab.payableItemsSnapshot(),
+                      everything,
+                      tab.itemWriteOffs(),
+                      tab.sessionWriteOffs())
+                  .checkAmount()
+                  .isZero())
+          .isFalse();
+    }
+  }
+
+  @Test
+  void discount_hitsTheScenarioRateAndIsStablePerItem() {
+    Workload workload = new Workload(FRIDAY, 99);
+    Money unitPrice = Money.of("EUR", new BigDecimal("10.00"));
+
+    int discounted = 0;
+    for (int i = 0; i < 20_000; i++) {
+      OrderItemId id = OrderItemId.of(new UUID(17L, i));
+      Optional<ItemWriteOff> first = workload.discount(id, unitPrice, 2);
+      assertThat(workload.discount(id, unitPrice, 2)).isEqualTo(first);
+      if (first.isPresent()) {
+        discounted++;
+        ItemWriteOff writeOff = first.get();
+        assertThat(writeOff.amount()).isEqualTo(Money.of("EUR", new BigDecimal("5.00")));
+        assertThat(writeOff.reason()).isIn(FRIDAY.discounts().reasons().keySet());
+      }
+    }
+    assertThat(discounted / 20_000.0).isBetween(0.03, 0.05);
+  }
+
+  private static List<Workload.Visit> take(Iterator<Workload.Visit> visits, int count) {
+    List<Workload.Visit> taken = new ArrayList<>(count);
+    for (int i = 0; i < count && visits.hasNext(); i++) {
+      taken.add(visits.next());
+    }
+    return taken;
+  }
+
+  private static List<OrderItemId> ids(List<TableSession> tabs) {
+    return tabs.stream().flatMap(tab -> tab.orderItems().stream()).map(OrderItem::id).toList();
+  }
+}
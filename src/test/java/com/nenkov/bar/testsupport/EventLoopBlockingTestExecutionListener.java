@@ -0,0 +1,64 @@
+package com.nenkov.bar.testsupport;
+
+import com.nenkov.bar.infrastructure.reactive.EventLoopBlockingDetector;
+import java.util.stream.Collectors;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * Fails any Spring test that starts a real server and during which an event-loop thread was caught
+ * blocking.
+ *
+ * <p>Registered for every Spring test through {@code META-INF/spring.factories}. Acts only when the
+ * context runs a web server ({@code webEnvironment = RANDOM_PORT} or {@code DEFINED_PORT}) and has
+ * an {@link EventLoopBlockingDetector} in {@code STRICT} mode, which the test {@code
+ * application.yml} configures. Without a server, requests never reach a Netty event loop, so there
+ * is nothing to detect.
+ */
+public final class EventLoopBlockingTestExecutionListener extends AbstractTestExecutionListener {
+
+  @Override
+  public int getOrder() {
+    return LOWEST_PRECEDENCE;
+  }
+
+  @Override
+  public void beforeTestMethod(TestContext testContext) {
+    EventLoopBlockingDetector detector = strictDetector(testContext);
+    if (detector != null) {
+      detector.clearViolations();
+    }
+  }
+
+  @Override
+  public void afterTestMethod(TestContext testContext) {
+    EventLoopBlockingDetector detector = strictDetector(testContext);
+    if (detector == null) {
+      return;
+    }
+    detector.sample();
+    if (!detector.violations().isEmpty()) {
+      String report =
+          detector.violations().stream()
+              .map(EventLoopBlockingDetector.Violation::describe)
+              .collect(Collectors.joining(System.lineSeparator() + System.lineSeparator()));
+      detector.clearViolations();
+      throw new AssertionError(
+          "Event-loop thread blocked during test:" + System.lineSeparator() + report);
+    }
+  }
+
+  private static EventLoopBlockingDetector strictDetector(TestContext testContext) {
+    if (!testContext.hasApplicationContext()
+        || !(testContext.getApplicationContext() instanceof WebServerApplicationContext context)
+        || context.getWebServer() == null) {
+      return null;
+    }
+    EventLoopBlockingDetector detector =
+        context.getBeanProvider(EventLoopBlockingDetector.class).getIfAvailable();
+    return detector != null && detector.mode() == EventLoopBlockingDetector.Mode.STRICT
+        ? detector
+        : null;
+  }
+}
@@ -0,0 +1,74 @@
+package com.nenkov.bar.testsupport;
+
+import java.util.Comparator;
+import java.util.function.IntFunction;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+import org.openjdk.jol.vm.VirtualMachine;
+
+/**
+ * Measures retained heap size with JOL's object layout introspection.
+ *
+ * <p>{@link #retained} walks everything reachable from a root, so objects shared between many
+ * roots, such as interned strings and enum constants, count in full for each one. {@link #perItem}
+ * instead measures how much a structure grows per element: it builds the structure at two sizes and
+ * divides the difference, which cancels out the fixed part and anything shared by all elements.
+ */
+public final class Footprint {
+
+  private static final int TOP_CLASSES = 8;
+
+  static {
+    // Unsafe refuses field offsets of records; JOL then has to probe for them itself.
+    System.setProperty("jol.magicFieldOffset", "true");
+  }
+
+  private Footprint() {}
+
+  /**
+   * Whether this JVM uses 4-byte (compressed) references and 8-byte object alignment, the layout of
+   * a default 64-bit JVM with a heap under 32 GB. Wider references or alignment grow every object,
+   * so byte budgets measured on that layout do not apply elsewhere.
+   */
+  public static boolean hasCompressedLayout() {
+    VirtualMachine vm = VM.current();
+    return vm.sizeOfField("oop") == 4 && vm.objectAlignment() == 8;
+  }
+
+  /** Bytes reachable from {@code root}, including {@code root} itself. */
+  public static long retained(Object root) {
+    return GraphLayout.parseInstance(root).totalSize();
+  }
+
+  /** Average bytes each additional element adds to the structure {@code build} returns. */
+  public static double perItem(int smallSize, int largeSize, IntFunction<?> build) {
+    if (smallSize < 0 || largeSize <= smallSize) {
+      throw new IllegalArgumentException("sizes must satisfy 0 <= smallSize < largeSize");
+    }
+    return (double) (retained(build.apply(largeSize)) - retained(build.apply(smallSize)))
+        / (largeSize - smallSize);
+  }
+
+  /**
+   * The classes taking the most bytes under {@code root}, largest first, one per line as {@code
+   * bytes count class}.
+   */
+  public static String breakdown(Object root) {
+    GraphLayout layout = GraphLayout.parseInstance(root);
+    StringBuilder table = new StringBuilder();
+    layout.getClasses().stream()
+        .sorted(
+            Comparator.comparingLong((Class<?> type) -> layout.getClassSizes().count(type))
+                .reversed())
+        .limit(TOP_CLASSES)
+        .forEach(
+            type ->
+                table.append(
+                    "%10d %8d %s%n"
+                        .formatted(
+                            layout.getClassSizes().count(type),
+                            layout.getClassCounts().count(type),
+                            type.getName())));
+    return table.toString();
+  }
+}
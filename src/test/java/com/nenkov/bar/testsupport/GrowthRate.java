@@ -0,0 +1,39 @@
+package com.nenkov.bar.testsupport;
+
+/**
+ * Estimates how an operation's running time grows with input size.
+ *
+ * <p>Times the operation at two sizes and returns {@code k} in {@code time ~ size^k}: about 1 for
+ * linear work, about 2 for quadratic. Each size is warmed up first and the fastest of several runs
+ * is kept, which keeps JIT compilation and GC pauses out of the estimate. Use size ratios of 16 or
+ * more so that constant overheads and noise move {@code k} only a little.
+ *
+ * <p>Timings still depend on machine load, so tests built on this class carry the {@code scaling}
+ * tag and are excluded from the default build.
+ */
+public final class GrowthRate {
+
+  private static final int RUNS = 7;
+
+  private GrowthRate() {}
+
+  public static double exponent(int smallSize, Runnable small, int largeSize, Runnable large) {
+    if (smallSize <= 0 || largeSize <= smallSize) {
+      throw new IllegalArgumentException("sizes must satisfy 0 < smallSize < largeSize");
+    }
+    fastestNanos(small);
+    fastestNanos(large);
+    return Math.log((double) fastestNanos(large) / fastestNanos(small))
+        / Math.log((double) largeSize / smallSize);
+  }
+
+  private static long fastestNanos(Runnable operation) {
+    long fastest = Long.MAX_VALUE;
+    for (int run = 0; run < RUNS; run++) {
+      long start = System.nanoTime();
+      operation.run();
+      fastest = Math.min(fastest, System.nanoTime() - start);
+    }
+    return fastest;
+  }
+}
@@ -0,0 +1,79 @@
+package com.nenkov.bar.web.api.auth;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.auth.AuthService;
+import com.nenkov.bar.auth.InvalidCredentialsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "app.auth.login-throttling.client.failures=3",
+      "app.auth.login-throttling.client.window=1m"
+    })
+class LoginThrottlingWebFilterTest {
+
+  @LocalServerPort int port;
+
+  WebTestClient webTestClient;
+
+  @MockitoBean AuthService authService;
+
+  @BeforeEach
+  void setUp() {
+    this.webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+  }
+
+  @Test
+  void clientWithTooManyFailedLogins_isRefusedBeforeAuthentication() {
+    // Successful logins take back their reservation and never count against the client.
+    when(authService.login(anyString(), anyString()))
+        .thenReturn(Mono.just(new LoginResponse("token", 3600)));
+    for (int i = 0; i < 5; i++) {
+      login("user-" + i).expectStatus().isOk();
+    }
+
+    when(authService.login(anyString(), anyString()))
+        .thenReturn(Mono.error(new InvalidCredentialsException()));
+
+    for (int i = 0; i < 3; i++) {
+      login("user-" + i).expectStatus().isUnauthorized();
+    }
+
+    login("someone-else")
+        .expectStatus()
+        .isEqualTo(429)
+        .expectHeader()
+        .valueEquals(HttpHeaders.RETRY_AFTER, "60")
+        .expectHeader()
+        .contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON)
+        .expectBody()
+        .jsonPath("$.status")
+        .isEqualTo(429)
+        .jsonPath("$.code")
+        .isEqualTo("AUTH_THROTTLED");
+
+    verify(authService, times(8)).login(anyString(), anyString());
+  }
+
+  private WebTestClient.ResponseSpec login(String username) {
+    return webTestClient
+        .post()
+        .uri("/auth/login")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"username\":\"" + username + "\",\"password\":\"pass\"}")
+        .exchange();
+  }
+}
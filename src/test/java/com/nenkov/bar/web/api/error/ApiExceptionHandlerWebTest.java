@@ -4,6 +4,7 @@ import static org.mockito.Mockito.when;
 
 import com.nenkov.bar.auth.AuthService;
 import com.nenkov.bar.auth.InvalidCredentialsException;
+import com.nenkov.bar.auth.LoginBusyException;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -125,6 +126,25 @@ class ApiExceptionHandlerWebTest {
         .isEqualTo("AUTH_INVALID_CREDENTIALS");
   }
 
+  @Test
+  void loginBusy_returnsProblemDetails503() {
+    when(authService.login("user", "pass")).thenReturn(Mono.error(new LoginBusyException()));
+
+    webTestClient
+        .post()
+        .uri("/auth/login")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"username\":\"user\",\"password\":\"pass\"}")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(503)
+        .expectBody()
+        .jsonPath("$.status")
+        .isEqualTo(503)
+        .jsonPath("$.code")
+        .isEqualTo("AUTH_BUSY");
+  }
+
   @Test
   void unexpectedException_returnsProblemDetails500() {
     when(authService.login("user", "pass")).thenReturn(Mono.error(new RuntimeException("boom")));
@@ -4,21 +4,32 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.nenkov.bar.application.payment.exception.CheckCreationNotAllowedException;
 import com.nenkov.bar.application.payment.exception.CheckNotFoundException;
+import com.nenkov.bar.application.payment.exception.CheckNotPayableException;
 import com.nenkov.bar.application.payment.exception.InvalidPaymentSelectionException;
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
+import com.nenkov.bar.application.payment.exception.PaymentInProgressException;
 import com.nenkov.bar.application.payment.exception.PaymentRequestIdConflictException;
 import com.nenkov.bar.application.payment.model.PaymentRequestId;
 import com.nenkov.bar.application.session.exception.TableAlreadyHasOpenSessionException;
 import com.nenkov.bar.application.session.exception.TableSessionNotFoundException;
 import com.nenkov.bar.auth.InvalidCredentialsException;
+import com.nenkov.bar.auth.LoginBusyException;
+import com.nenkov.bar.auth.LoginThrottledException;
 import com.nenkov.bar.domain.exceptions.OrderingNotAllowedException;
 import com.nenkov.bar.domain.model.payment.CheckId;
+import com.nenkov.bar.domain.model.payment.CheckStatus;
 import com.nenkov.bar.domain.model.session.TableSessionId;
 import com.nenkov.bar.web.api.error.mapping.ApiExceptionMapperRegistry;
 import com.nenkov.bar.web.api.error.mapping.CheckCreationNotAllowedExceptionMapper;
 import com.nenkov.bar.web.api.error.mapping.CheckNotFoundExceptionMapper;
+import com.nenkov.bar.web.api.error.mapping.CheckNotPayableExceptionMapper;
 import com.nenkov.bar.web.api.error.mapping.InvalidCredentialsExceptionMapper;
 import com.nenkov.bar.web.api.error.mapping.InvalidPaymentSelectionExceptionMapper;
+import com.nenkov.bar.web.api.error.mapping.LoginBusyExceptionMapper;
+import com.nenkov.bar.web.api.error.mapping.LoginThrottledExceptionMapper;
 import com.nenkov.bar.web.api.error.mapping.OrderingNotAllowedExceptionMapper;
+import com.nenkov.bar.web.api.error.mapping.PaymentGatewayExceptionMapper;
+import com.nenkov.bar.web.api.error.mapping.PaymentInProgressExceptionMapper;
 import com.nenkov.bar.web.api.error.mapping.PaymentRequestIdConflictExceptionMapper;
 import com.nenkov.bar.web.api.error.mapping.TableAlreadyHasOpenSessionExceptionMapper;
 import com.nenkov.bar.web.api.error.mapping.TableSessionNotFoundExceptionMapper;
@@ -35,17 +46,28 @@ class ApiExceptionMapperRegistryTest {
         new ApiExceptionMapperRegistry(
             List.of(
                 new InvalidCredentialsExceptionMapper(),
+                new LoginBusyExceptionMapper(),
+                new LoginThrottledExceptionMapper(),
                 new TableSessionNotFoundExceptionMapper(),
                 new TableAlreadyHasOpenSessionExceptionMapper(),
                 new OrderingNotAllowedExceptionMapper(),
                 new CheckCreationNotAllowedExceptionMapper(),
                 new InvalidPaymentSelectionExceptionMapper(),
                 new CheckNotFoundExceptionMapper(),
-                new PaymentRequestIdConflictExceptionMapper()));
+                new PaymentRequestIdConflictExceptionMapper(),
+                new PaymentGatewayExceptionMapper(),
+                new PaymentInProgressExceptionMapper(),
+                new CheckNotPayableExceptionMapper()));
 
     assertThat(registry.findExact(new InvalidCredentialsException()).orElseThrow().code())
         .isEqualTo(ApiProblemCode.AUTH_INVALID_CREDENTIALS);
 
+    assertThat(registry.findExact(new LoginBusyException()).orElseThrow().code())
+        .isEqualTo(ApiProblemCode.AUTH_BUSY);
+
+    assertThat(registry.findExact(new LoginThrottledException()).orElseThrow().code())
+        .isEqualTo(ApiProblemCode.AUTH_THROTTLED);
+
     assertThat(
             registry
                 .findExact(new TableSessionNotFoundException(TableSessionId.of("x")))
@@ -95,5 +117,28 @@ class ApiExceptionMapperRegistryTest {
                 .orElseThrow()
                 .code())
         .isEqualTo(ApiProblemCode.PAYMENT_REQUEST_CONFLICT);
+
+    assertThat(registry.findExact(new PaymentGatewayException("down")).orElseThrow().code())
+        .isEqualTo(ApiProblemCode.PAYMENT_PROVIDER_UNAVAILABLE);
+
+    PaymentInProgressException inProgress =
+        new PaymentInProgressException(CheckId.of(UUID.randomUUID()), PaymentRequestId.of("r"));
+    assertThat(registry.findExact(inProgress).orElseThrow().code())
+        .isEqualTo(ApiProblemCode.PAYMENT_IN_PROGRESS);
+
+    CheckNotPayableException notPayable =
+        new CheckNotPayableException(CheckId.of(UUID.randomUUID()), CheckStatus.PAID);
+    assertThat(registry.findExact(notPayable).orElseThrow().code())
+        .isEqualTo(ApiProblemCode.PAYMENT_CONFLICT);
+  }
+
+  @Test
+  void mappedTypes_listsTheTypeOfEveryMapper() {
+    ApiExceptionMapperRegistry registry =
+        new ApiExceptionMapperRegistry(
+            List.of(new LoginBusyExceptionMapper(), new PaymentGatewayExceptionMapper()));
+
+    assertThat(registry.mappedTypes())
+        .containsExactlyInAnyOrder(LoginBusyException.class, PaymentGatewayException.class);
   }
 }
@@ -0,0 +1,157 @@
+package com.nenkov.bar.web.api.payment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksInput;
+import com.nenkov.bar.application.payment.model.IngestPaymentCallbacksResult;
+import com.nenkov.bar.application.payment.model.PaymentAttemptStatus;
+import com.nenkov.bar.application.payment.model.PaymentCallback;
+import com.nenkov.bar.application.payment.service.PaymentService;
+import com.nenkov.bar.web.api.error.model.ApiProblemCode;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PaymentCallbackControllerWebTest {
+
+  /** Matches {@code app.payment.callbacks.signing-secret} in the test configuration. */
+  private static final PaymentCallbackSignature SIGNATURE =
+      new PaymentCallbackSignature("test-only-callback-secret");
+
+  private static final String APPROVED_BATCH =
+      """
+      {"callbacks":[{"requestId":"req-1","status":"APPROVED"}]}""";
+
+  @LocalServerPort int port;
+
+  private WebTestClient webTestClient;
+
+  @MockitoBean PaymentService paymentService;
+
+  @BeforeEach
+  void setUp() {
+    this.webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+  }
+
+  @Test
+  void ingestCallbacks_signedWithoutJwt_returns200AndCounters() {
+    String body =
+        """
+        {"callbacks":[\
+        {"requestId":"req-1","status":"approved"},\
+        {"providerReference":"prov-2","status":"DECLINED","failureReason":"no funds"}]}""";
+
+    when(paymentService.ingestCallbacks(any(IngestPaymentCallbacksInput.class)))
+        .thenReturn(new IngestPaymentCallbacksResult(2, 1, 1, 0));
+
+    post(body, sign(body))
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.received")
+        .isEqualTo(2)
+        .jsonPath("$.applied")
+        .isEqualTo(1)
+        .jsonPath("$.duplicates")
+        .isEqualTo(1)
+        .jsonPath("$.ignored")
+        .isEqualTo(0);
+
+    ArgumentCaptor<IngestPaymentCallbacksInput> captor =
+        ArgumentCaptor.forClass(IngestPaymentCallbacksInput.class);
+    verify(paymentService).ingestCallbacks(captor.capture());
+    List<PaymentCallback> callbacks = captor.getValue().callbacks();
+    assertThat(callbacks.get(0).status()).isEqualTo(PaymentAttemptStatus.APPROVED);
+    assertThat(callbacks.get(0).requestId().value()).isEqualTo("req-1");
+    assertThat(callbacks.get(1).requestId()).isNull();
+    assertThat(callbacks.get(1).providerReference()).isEqualTo("prov-2");
+  }
+
+  @Test
+  void ingestCallbacks_unknownStatus_returns400() {
+    String body =
+        """
+        {"callbacks":[{"requestId":"req-1","status":"MAYBE"}]}""";
+
+    post(body, sign(body)).expectStatus().isBadRequest();
+  }
+
+  @Test
+  void ingestCallbacks_emptyBatch_returns400ProblemDetail() {
+    String body =
+        """
+        {"callbacks":[]}""";
+
+    post(body, sign(body))
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.code")
+        .isEqualTo(ApiProblemCode.VALIDATION_FAILED.name());
+  }
+
+  @Test
+  void ingestCallbacks_unsigned_returns401_andIsNotIngested() {
+    post(APPROVED_BATCH, null)
+        .expectStatus()
+        .isUnauthorized()
+        .expectBody()
+        .jsonPath("$.code")
+        .isEqualTo(ApiProblemCode.CALLBACK_SIGNATURE_INVALID.name());
+
+    verify(paymentService, never()).ingestCallbacks(any());
+  }
+
+  @Test
+  void ingestCallbacks_tamperedAfterSigning_returns401_andIsNotIngested() {
+    String signature = sign(APPROVED_BATCH);
+    String tampered = APPROVED_BATCH.replace("req-1", "req-2");
+
+    post(tampered, signature)
+        .expectStatus()
+        .isUnauthorized()
+        .expectBody()
+        .jsonPath("$.code")
+        .isEqualTo(ApiProblemCode.CALLBACK_SIGNATURE_INVALID.name());
+
+    verify(paymentService, never()).ingestCallbacks(any());
+  }
+
+  @Test
+  void ingestCallbacks_signedWithOtherSecret_returns401() {
+    String forged = new PaymentCallbackSignature("guessed-secret").sign(bytes(APPROVED_BATCH));
+
+    post(APPROVED_BATCH, forged).expectStatus().isUnauthorized();
+
+    verify(paymentService, never()).ingestCallbacks(any());
+  }
+
+  private WebTestClient.ResponseSpec post(String body, String signature) {
+    WebTestClient.RequestBodySpec request =
+        webTestClient.post().uri("/payments/callbacks").contentType(MediaType.APPLICATION_JSON);
+    if (signature != null) {
+      request = request.header(PaymentCallbackSignature.HEADER, signature);
+    }
+    return request.bodyValue(bytes(body)).exchange();
+  }
+
+  private static String sign(String body) {
+    return SIGNATURE.sign(bytes(body));
+  }
+
+  private static byte[] bytes(String body) {
+    return body.getBytes(StandardCharsets.UTF_8);
+  }
+}
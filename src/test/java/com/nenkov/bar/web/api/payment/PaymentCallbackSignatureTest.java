@@ -0,0 +1,39 @@
+package com.nenkov.bar.web.api.payment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+final class PaymentCallbackSignatureTest {
+
+  private static final byte[] BODY = "{\"callbacks\":[]}".getBytes(StandardCharsets.UTF_8);
+
+  private final PaymentCallbackSignature signature = new PaymentCallbackSignature("secret");
+
+  @Test
+  void sign_isHexHmacSha256WithPrefix() {
+    // echo -n '{"callbacks":[]}' | openssl dgst -sha256 -hmac secret
+    assertThat(signature.sign(BODY))
+        .isEqualTo("sha256=c686587b6deff622dcf4759cf4005df3a46f86b3968ad78c8f53493f3e666c15");
+  }
+
+  @Test
+  void verify_acceptsOwnSignature() {
+    assertThat(signature.verify(BODY, signature.sign(BODY))).isTrue();
+  }
+
+  @Test
+  void verify_rejectsMissingMalformedAndForeignSignatures() {
+    assertThat(signature.verify(BODY, null)).isFalse();
+    assertThat(signature.verify(BODY, "c686587b")).isFalse();
+    assertThat(signature.verify(BODY, "sha256=not-hex")).isFalse();
+    assertThat(signature.verify(BODY, new PaymentCallbackSignature("other").sign(BODY))).isFalse();
+  }
+
+  @Test
+  void constructor_rejectsBlankSecret() {
+    assertThrows(IllegalArgumentException.class, () -> new PaymentCallbackSignature(" "));
+  }
+}
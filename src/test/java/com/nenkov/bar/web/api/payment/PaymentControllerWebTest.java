@@ -6,6 +6,7 @@ import static org.mockito.Mockito.when;
 import com.nenkov.bar.application.payment.exception.CheckCreationNotAllowedException;
 import com.nenkov.bar.application.payment.exception.CheckNotFoundException;
 import com.nenkov.bar.application.payment.exception.InvalidPaymentSelectionException;
+import com.nenkov.bar.application.payment.exception.PaymentGatewayException;
 import com.nenkov.bar.application.payment.exception.PaymentRequestIdConflictException;
 import com.nenkov.bar.application.payment.model.CreateCheckInput;
 import com.nenkov.bar.application.payment.model.CreateCheckResult;
@@ -13,6 +14,8 @@ import com.nenkov.bar.application.payment.model.PaymentAttemptResult;
 import com.nenkov.bar.application.payment.model.PaymentRequestId;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptInput;
 import com.nenkov.bar.application.payment.model.RecordPaymentAttemptResult;
+import com.nenkov.bar.application.payment.model.SplitChecksInput;
+import com.nenkov.bar.application.payment.model.SplitChecksResult;
 import com.nenkov.bar.application.payment.service.PaymentService;
 import com.nenkov.bar.application.session.exception.TableSessionNotFoundException;
 import com.nenkov.bar.auth.jwt.JwtService;
@@ -23,6 +26,7 @@ import com.nenkov.bar.web.api.error.model.ApiProblemCode;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,7 +37,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "app.payment.response-timeout=500ms")
 class PaymentControllerWebTest {
 
   @LocalServerPort int port;
@@ -90,6 +96,71 @@ class PaymentControllerWebTest {
         .isEqualTo("EUR");
   }
 
+  @Test
+  void splitChecks_returns201AndAllChecks() {
+    String sessionId = "S-1";
+    String itemId = UUID.randomUUID().toString();
+
+    SplitChecksRequest request =
+        new SplitChecksRequest(
+            List.of(
+                new SplitChecksRequest.CheckLine(
+                    List.of(new CreateCheckRequest.SelectionLine(itemId, 1))),
+                new SplitChecksRequest.CheckLine(
+                    List.of(new CreateCheckRequest.SelectionLine(itemId, 1)))));
+
+    TableSessionId tableSessionId = TableSessionId.of(sessionId);
+    SplitChecksResult result =
+        new SplitChecksResult(
+            tableSessionId,
+            List.of(
+                new CreateCheckResult(
+                    tableSessionId,
+                    CheckId.of(UUID.fromString("11111111-1111-1111-1111-111111111111")),
+                    Money.of("EUR", new BigDecimal("6.17"))),
+                new CreateCheckResult(
+                    tableSessionId,
+                    CheckId.of(UUID.fromString("22222222-2222-2222-2222-222222222222")),
+                    Money.of("EUR", new BigDecimal("6.17")))));
+
+    when(paymentService.splitIntoChecks(any(SplitChecksInput.class))).thenReturn(result);
+
+    webTestClient
+        .post()
+        .uri("/sessions/{sessionId}/checks/split", sessionId)
+        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(request)
+        .exchange()
+        .expectStatus()
+        .isCreated()
+        .expectBody()
+        .jsonPath("$.sessionId")
+        .isEqualTo(sessionId)
+        .jsonPath("$.checks.length()")
+        .isEqualTo(2)
+        .jsonPath("$.checks[1].checkId")
+        .isEqualTo("22222222-2222-2222-2222-222222222222")
+        .jsonPath("$.checks[0].amount.amount")
+        .isEqualTo("6.17");
+  }
+
+  @Test
+  void splitChecks_emptyChecks_returns400ProblemDetail() {
+    webTestClient
+        .post()
+        .uri("/sessions/{sessionId}/checks/split", "S-1")
+        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new SplitChecksRequest(List.of()))
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.code")
+        .isEqualTo(ApiProblemCode.VALIDATION_FAILED.name());
+  }
+
   @Test
   void createCheck_withoutJwt_returns401() {
     webTestClient
@@ -247,7 +318,7 @@ class PaymentControllerWebTest {
             PaymentAttemptResult.approved("provider-ref-1"));
 
     when(paymentService.recordPaymentAttempt(any(RecordPaymentAttemptInput.class)))
-        .thenReturn(result);
+        .thenReturn(CompletableFuture.completedFuture(result));
 
     webTestClient
         .post()
@@ -417,4 +488,50 @@ class PaymentControllerWebTest {
         .jsonPath("$.code")
         .isEqualTo(ApiProblemCode.PAYMENT_REQUEST_CONFLICT.name());
   }
+
+  @Test
+  void recordPaymentAttempt_providerUnavailable_returns503ProblemDetail() {
+    when(paymentService.recordPaymentAttempt(any(RecordPaymentAttemptInput.class)))
+        .thenReturn(
+            CompletableFuture.failedFuture(
+                new PaymentGatewayException("Payment provider circuit is open")));
+
+    webTestClient
+        .post()
+        .uri(
+            "/sessions/{sessionId}/checks/{checkId}/attempts",
+            "S-1",
+            "11111111-1111-1111-1111-111111111111")
+        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new RecordPaymentAttemptRequest("req-1"))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(503)
+        .expectBody()
+        .jsonPath("$.code")
+        .isEqualTo(ApiProblemCode.PAYMENT_PROVIDER_UNAVAILABLE.name());
+  }
+
+  @Test
+  void recordPaymentAttempt_notRecordedInTime_returns503ProblemDetail() {
+    when(paymentService.recordPaymentAttempt(any(RecordPaymentAttemptInput.class)))
+        .thenReturn(new CompletableFuture<>());
+
+    webTestClient
+        .post()
+        .uri(
+            "/sessions/{sessionId}/checks/{checkId}/attempts",
+            "S-1",
+            "11111111-1111-1111-1111-111111111111")
+        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new RecordPaymentAttemptRequest("req-1"))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(503)
+        .expectBody()
+        .jsonPath("$.code")
+        .isEqualTo(ApiProblemCode.PAYMENT_PROVIDER_UNAVAILABLE.name());
+  }
 }
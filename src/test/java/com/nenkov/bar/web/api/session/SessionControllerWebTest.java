@@ -350,7 +350,11 @@ class SessionControllerWebTest {
     when(tableSessionService.close(any(CloseTableSessionInput.class)))
         .thenReturn(
             new CloseTableSessionResult(
-                TableSessionId.of("s-1"), TableSessionStatus.CLOSED, closedAt));
+                TableSessionId.of("s-1"),
+                TableSessionStatus.CLOSED,
+                closedAt,
+                List.of(),
+                List.of()));
 
     webTestClient
         .post()